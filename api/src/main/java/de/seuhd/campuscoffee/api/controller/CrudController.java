@@ -1,15 +1,42 @@
 package de.seuhd.campuscoffee.api.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.seuhd.campuscoffee.api.dtos.BatchItemResultDto;
 import de.seuhd.campuscoffee.api.dtos.Dto;
+import de.seuhd.campuscoffee.api.exceptions.ErrorResponse;
+import de.seuhd.campuscoffee.api.exceptions.GlobalExceptionHandler;
+import de.seuhd.campuscoffee.domain.exceptions.ValidationException;
 import de.seuhd.campuscoffee.domain.model.objects.DomainModel;
+import de.seuhd.campuscoffee.domain.model.objects.Page;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
 import de.seuhd.campuscoffee.domain.ports.api.CrudService;
 import de.seuhd.campuscoffee.api.mapper.DtoMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Abstract base controller providing common CRUD operations.
@@ -24,6 +51,36 @@ public abstract class CrudController<
         DTO extends Dto<ID>,
         ID> {
 
+    /**
+     * Response header that carries the opaque cursor of the next page (absent on the last page).
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Response header that is set to true if an update has been skipped, because it would not have changed the resource.
+     */
+    public static final String UNCHANGED_HEADER = "X-Unchanged";
+
+    /**
+     * Page size used if the client does not provide a limit (string constant to be usable in annotations).
+     */
+    public static final String DEFAULT_PAGE_SIZE = "100";
+
+    /**
+     * Maximum page size a client may request.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Media type of the export endpoints: newline-delimited JSON, one resource per line.
+     */
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    /**
+     * Maximum number of resources a client may send in one batch request.
+     */
+    public static final int MAX_BATCH_SIZE = 10_000;
+
     /**
      * Returns the service instance for CRUD operations, which is used in the methods that
      * the CRUD controller provides. This resembles the template method pattern.
@@ -41,18 +98,75 @@ public abstract class CrudController<
     protected abstract @NonNull DtoMapper<DOMAIN, DTO> mapper();
 
     /**
-     * Retrieves all resources.
+     * Returns the shared JSON object mapper (configured by Spring Boot), which is used to write the export stream.
      *
-     * @return ResponseEntity containing a list of all resources as DTOs
+     * @return the object mapper
      */
-    protected @NonNull ResponseEntity<List<DTO>> getAll() {
-        return ResponseEntity.ok(
-                service().getAll().stream()
+    protected abstract @NonNull ObjectMapper objectMapper();
+
+    /**
+     * Returns the bean validator, which is used to validate the items of a batch request one by one.
+     *
+     * @return the validator
+     */
+    protected abstract @NonNull Validator validator();
+
+    /**
+     * Retrieves one page of resources in ascending ID order.
+     * If there are more resources, the cursor for the next page is returned in the {@value #NEXT_CURSOR_HEADER} header.
+     *
+     * @param limit the maximum number of resources to return (1 to {@value #MAX_PAGE_SIZE})
+     * @param after the opaque cursor returned with the previous page; null for the first page
+     * @return ResponseEntity containing the resources of the requested page as DTOs
+     * @throws IllegalArgumentException if the limit is out of range or the cursor is invalid
+     */
+    protected @NonNull ResponseEntity<List<DTO>> getAll(int limit, @Nullable String after) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+
+        Page<DOMAIN, ID> page = service().getPage(after == null ? null : decodeCursor(after), limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, encodeCursor(Objects.requireNonNull(page.nextCursor())));
+        }
+        return response.body(
+                page.content().stream()
                         .map(mapper()::fromDomain)
                         .toList()
         );
     }
 
+    /**
+     * Exports all resources as newline-delimited JSON in ascending ID order.
+     * The response body is written asynchronously while the resources are read from the database,
+     * so neither the resources nor the response are held in memory as a whole.
+     *
+     * @return ResponseEntity with a streaming body that writes one JSON object per line
+     */
+    protected @NonNull ResponseEntity<StreamingResponseBody> export() {
+        // flushing after each value would result in one network write per resource
+        ObjectWriter writer = objectMapper().writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper().getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null); // lines are separated explicitly below
+                service().forEach(domain -> {
+                    try {
+                        writer.writeValue(generator, mapper().fromDomain(domain));
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
     /**
      * Retrieves a single resource by ID.
      *
@@ -60,9 +174,8 @@ public abstract class CrudController<
      * @return ResponseEntity containing the resource as a DTO
      */
     protected @NonNull ResponseEntity<DTO> getById(ID id) {
-        return ResponseEntity.ok(
-                mapper().fromDomain(service().getById(id))
-        );
+        DTO dto = mapper().fromDomain(service().getById(id));
+        return withETag(ResponseEntity.ok(), dto).body(dto);
     }
 
     /**
@@ -73,26 +186,85 @@ public abstract class CrudController<
      */
     protected @NonNull ResponseEntity<DTO> create(DTO dto) {
         DTO created = upsert(dto);
-        return ResponseEntity
-                .created(getLocation(created.getId()))
+        return withETag(ResponseEntity.created(getLocation(created.getId())), created)
                 .body(created);
     }
 
     /**
      * Updates an existing resource by ID.
+     * If the DTO contains a version, the update is only applied if the resource still has this version.
+     * The version can also be sent in the If-Match header (the ETag of the resource), which must then match
+     * the version in the DTO, just like the ID in the path must match the ID in the DTO.
+     * If the DTO does not differ from the stored resource, nothing is written: the resource keeps its update
+     * timestamp and version, and the response has the {@value #UNCHANGED_HEADER} header.
      *
-     * @param id the ID of the resource to update
-     * @param dto the DTO containing the updated resource data
+     * @param id      the ID of the resource to update
+     * @param dto     the DTO containing the updated resource data
+     * @param ifMatch the value of the If-Match header; null if the request has none
      * @return ResponseEntity containing the updated resource as a DTO
-     * @throws IllegalArgumentException if the ID in the path doesn't match the ID in the DTO
+     * @throws IllegalArgumentException if the ID or the version in the request doesn't match the DTO
      */
-    protected @NonNull ResponseEntity<DTO> update(ID id, DTO dto) {
+    protected @NonNull ResponseEntity<DTO> update(ID id, DTO dto, @Nullable String ifMatch) {
         if (!id.equals(dto.getId())) {
             throw new IllegalArgumentException("ID in path and body do not match.");
         }
-        return ResponseEntity.ok(
-                upsert(dto)
-        );
+        if (ifMatch != null && !"*".equals(ifMatch.trim()) && !Objects.equals(parseETag(ifMatch), dto.getVersion())) {
+            throw new IllegalArgumentException("Version in If-Match header and body do not match.");
+        }
+        UpsertResult<DOMAIN, ID> result = service().update(mapper().toDomain(dto));
+        DTO updated = mapper().fromDomain(Objects.requireNonNull(result.value()));
+        ResponseEntity.BodyBuilder response = withETag(ResponseEntity.ok(), updated);
+        if (result.unchanged()) {
+            response.header(UNCHANGED_HEADER, "true");
+        }
+        return response.body(updated);
+    }
+
+    /**
+     * Creates or updates a batch of resources (create if the ID is null, update otherwise).
+     * Each item is validated and converted separately, and the valid items are upserted together.
+     * Invalid items, duplicates, and other per-item errors do not abort the batch; they are reported
+     * in the result of the item with the status code that a single request would have returned.
+     *
+     * @param dtos the DTOs to upsert (at most {@value #MAX_BATCH_SIZE})
+     * @return ResponseEntity containing one result per DTO, in the order of the request
+     * @throws IllegalArgumentException if the batch is too large
+     */
+    protected @NonNull ResponseEntity<List<BatchItemResultDto<DTO>>> upsertAll(List<DTO> dtos) {
+        if (dtos.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch must not contain more than " + MAX_BATCH_SIZE + " items.");
+        }
+        String path = ServletUriComponentsBuilder.fromCurrentRequest().build().getPath();
+
+        List<BatchItemResultDto<DTO>> results = new ArrayList<>(Collections.nCopies(dtos.size(), null));
+        List<Integer> validIndexes = new ArrayList<>();
+        List<DOMAIN> validObjects = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            try {
+                Set<ConstraintViolation<DTO>> violations = validator().validate(dtos.get(i));
+                if (!violations.isEmpty()) {
+                    throw new ValidationException(violations);
+                }
+                validObjects.add(mapper().toDomain(dtos.get(i)));
+                validIndexes.add(i);
+            } catch (RuntimeException e) {
+                results.set(i, failedItem(e, path));
+            }
+        }
+
+        List<UpsertResult<DOMAIN, ID>> upserted = service().upsertAll(validObjects);
+        for (int i = 0; i < validIndexes.size(); i++) {
+            int index = validIndexes.get(i);
+            UpsertResult<DOMAIN, ID> result = upserted.get(i);
+            results.set(index, result.isSuccess()
+                    ? BatchItemResultDto.<DTO>builder()
+                            .statusCode(dtos.get(index).getId() == null ? HttpStatus.CREATED.value() : HttpStatus.OK.value())
+                            .resource(mapper().fromDomain(Objects.requireNonNull(result.value())))
+                            .unchanged(result.unchanged() ? true : null)
+                            .build()
+                    : failedItem(Objects.requireNonNull(result.error()), path));
+        }
+        return ResponseEntity.ok(results);
     }
 
     /**
@@ -121,6 +293,85 @@ public abstract class CrudController<
         );
     }
 
+    /**
+     * Builds the result of a failed batch item.
+     *
+     * @param exception the reason why the item failed
+     * @param path      the request path
+     * @return the batch item result with the error response
+     */
+    protected @NonNull BatchItemResultDto<DTO> failedItem(@NonNull Exception exception, String path) {
+        ErrorResponse error = GlobalExceptionHandler.errorResponseFor(exception, path);
+        return BatchItemResultDto.<DTO>builder()
+                .statusCode(error.statusCode())
+                .error(error)
+                .build();
+    }
+
+    /**
+     * Sets the version of a resource as the strong ETag of the response, e.g., {@code "3"}.
+     *
+     * @param response the response to add the header to
+     * @param dto      the resource in the response body
+     * @return the response builder
+     */
+    protected ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder response, DTO dto) {
+        Long version = dto.getVersion();
+        return version == null ? response : response.eTag("\"" + version + "\"");
+    }
+
+    /**
+     * Parses a strong ETag created by {@link #withETag(ResponseEntity.BodyBuilder, Dto)} into a version.
+     *
+     * @param eTag the ETag provided by the client, e.g., in the If-Match header
+     * @return the version
+     * @throws IllegalArgumentException if the ETag is no strong ETag of a version
+     */
+    protected @NonNull Long parseETag(@NonNull String eTag) {
+        String trimmed = eTag.trim();
+        if (trimmed.length() < 3 || !trimmed.startsWith("\"") || !trimmed.endsWith("\"")) {
+            throw new IllegalArgumentException("Invalid ETag: " + eTag);
+        }
+        try {
+            return Long.parseLong(trimmed.substring(1, trimmed.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid ETag: " + eTag, e);
+        }
+    }
+
+    /**
+     * Encodes an ID as an opaque pagination cursor.
+     * Clients must not rely on the format; it only has to be decodable by {@link #decodeCursor(String)}.
+     *
+     * @param id the ID of the last resource on the current page
+     * @return the URL-safe cursor string
+     */
+    protected @NonNull String encodeCursor(@NonNull ID id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor created by {@link #encodeCursor(Object)} back into an ID.
+     * The ID type is resolved from the generic type arguments of the concrete controller.
+     *
+     * @param cursor the cursor string provided by the client
+     * @return the decoded ID
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    protected @NonNull ID decodeCursor(@NonNull String cursor) {
+        @SuppressWarnings("unchecked")
+        Class<ID> idClass = (Class<ID>) ResolvableType.forClass(getClass())
+                .as(CrudController.class)
+                .resolveGeneric(2);
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return Objects.requireNonNull(DefaultConversionService.getSharedInstance().convert(decoded, Objects.requireNonNull(idClass)));
+        } catch (IllegalArgumentException | ConversionException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
     /**
      * Builds the location URI for a newly created resource.
      * This is required to build the body of a 201 Created response.
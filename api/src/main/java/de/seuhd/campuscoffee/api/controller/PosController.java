@@ -1,10 +1,17 @@
 package de.seuhd.campuscoffee.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.seuhd.campuscoffee.api.openapi.CrudOperation;
+import de.seuhd.campuscoffee.api.dtos.BatchItemResultDto;
+import de.seuhd.campuscoffee.api.dtos.OsmImportJobDto;
+import de.seuhd.campuscoffee.api.dtos.OsmImportReportDto;
 import de.seuhd.campuscoffee.api.dtos.PosDto;
 import de.seuhd.campuscoffee.api.mapper.DtoMapper;
+import de.seuhd.campuscoffee.api.mapper.OsmImportJobDtoMapper;
+import de.seuhd.campuscoffee.api.mapper.OsmImportReportDtoMapper;
 import de.seuhd.campuscoffee.api.mapper.PosDtoMapper;
 import de.seuhd.campuscoffee.domain.model.enums.CampusType;
+import de.seuhd.campuscoffee.domain.model.enums.OsmExtractFormat;
 import de.seuhd.campuscoffee.domain.model.objects.Pos;
 import de.seuhd.campuscoffee.domain.ports.api.CrudService;
 import de.seuhd.campuscoffee.domain.ports.api.PosService;
@@ -12,16 +19,27 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
 
 import static de.seuhd.campuscoffee.api.openapi.Operation.*;
+import static de.seuhd.campuscoffee.api.openapi.Resource.OSM_IMPORT_JOB;
 import static de.seuhd.campuscoffee.api.openapi.Resource.OSM_NODE;
 import static de.seuhd.campuscoffee.api.openapi.Resource.POS;
 
@@ -36,6 +54,10 @@ import static de.seuhd.campuscoffee.api.openapi.Resource.POS;
 public class PosController extends CrudController<Pos, PosDto, Long> {
     private final PosService posService;
     private final PosDtoMapper posDtoMapper;
+    private final OsmImportReportDtoMapper osmImportReportDtoMapper;
+    private final OsmImportJobDtoMapper osmImportJobDtoMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @Override
     protected @NonNull CrudService<Pos, Long> service() {
@@ -47,11 +69,32 @@ public class PosController extends CrudController<Pos, PosDto, Long> {
         return posDtoMapper;
     }
 
+    @Override
+    protected @NonNull ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    @Override
+    protected @NonNull Validator validator() {
+        return validator;
+    }
+
     @Operation
     @CrudOperation(operation=GET_ALL, resource=POS)
     @GetMapping("")
-    public @NonNull ResponseEntity<List<PosDto>> getAll() {
-        return super.getAll();
+    public @NonNull ResponseEntity<List<PosDto>> getAll(
+            @Parameter(description="Maximum number of POS to return (1 to " + MAX_PAGE_SIZE + ").")
+            @RequestParam(value="limit", defaultValue=DEFAULT_PAGE_SIZE) int limit,
+            @Parameter(description="Cursor from the " + NEXT_CURSOR_HEADER + " header of the previous page.")
+            @RequestParam(value="after", required=false) String after) {
+        return super.getAll(limit, after);
+    }
+
+    @Operation
+    @CrudOperation(operation=EXPORT, resource=POS)
+    @GetMapping(value="/export", produces=APPLICATION_NDJSON_VALUE)
+    public @NonNull ResponseEntity<StreamingResponseBody> export() {
+        return super.export();
     }
 
     @Operation
@@ -72,6 +115,15 @@ public class PosController extends CrudController<Pos, PosDto, Long> {
         return super.create(posDto);
     }
 
+    @Operation
+    @CrudOperation(operation=BATCH_UPSERT, resource=POS)
+    @PostMapping("/batch")
+    public @NonNull ResponseEntity<List<BatchItemResultDto<PosDto>>> upsertAll(
+            @Parameter(description="Data of the POS to create (without ID) or update (with ID).", required=true)
+            @RequestBody List<PosDto> posDtos) {
+        return super.upsertAll(posDtos);
+    }
+
     @Operation
     @CrudOperation(operation=UPDATE, resource=POS)
     @PutMapping("/{id}")
@@ -79,8 +131,11 @@ public class PosController extends CrudController<Pos, PosDto, Long> {
             @Parameter(description="Unique identifier of the POS to update.", required=true)
             @PathVariable Long id,
             @Parameter(description="Data of the POS to update.", required=true)
-            @RequestBody @Valid PosDto posDto) {
-        return super.update(id, posDto);
+            @RequestBody @Valid PosDto posDto,
+            @Parameter(description="Version of the POS the update is based on, as returned in the ETag header; "
+                    + "must match the version in the body.")
+            @RequestHeader(value=HttpHeaders.IF_MATCH, required=false) @Nullable String ifMatch) {
+        return super.update(id, posDto, ifMatch);
     }
 
     @Operation
@@ -88,8 +143,12 @@ public class PosController extends CrudController<Pos, PosDto, Long> {
     @DeleteMapping("/{id}")
     public @NonNull ResponseEntity<Void> delete(
             @Parameter(description="Unique identifier of the POS to delete.", required=true)
-            @PathVariable Long id) {
-        return super.delete(id);
+            @PathVariable Long id,
+            @Parameter(description="Whether to delete the reviews of the POS as well. "
+                    + "Otherwise, a POS with reviews is not deleted.")
+            @RequestParam(value="cascade", defaultValue="false") boolean cascade) {
+        posService.delete(id, cascade);
+        return ResponseEntity.noContent().build();
     }
 
     @Operation
@@ -118,4 +177,80 @@ public class PosController extends CrudController<Pos, PosDto, Long> {
                 .created(getLocation(createdPos.getId()))
                 .body(createdPos);
     }
+
+    @Operation
+    @CrudOperation(operation=IMPORT_BATCH, resource=POS, externalResource=OSM_NODE)
+    @PostMapping("/import/osm")
+    public ResponseEntity<List<BatchItemResultDto<PosDto>>> importFromOsmNodes(
+            @Parameter(description="Campus type to assign to the imported POS.", required=true)
+            @RequestParam("campus_type") CampusType campusType,
+            @Parameter(description="Unique identifiers of the OpenStreetMap nodes to import (at most "
+                    + MAX_BATCH_SIZE + ").", required=true)
+            @RequestBody List<Long> nodeIds) {
+        if (nodeIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch must not contain more than " + MAX_BATCH_SIZE + " items.");
+        }
+        String path = ServletUriComponentsBuilder.fromCurrentRequest().build().getPath();
+        List<BatchItemResultDto<PosDto>> results = posService.importFromOsmNodes(nodeIds, campusType).stream()
+                .map(result -> result.isSuccess()
+                        ? BatchItemResultDto.<PosDto>builder()
+                                .statusCode(HttpStatus.CREATED.value())
+                                .resource(posDtoMapper.fromDomain(Objects.requireNonNull(result.value())))
+                                .build()
+                        : failedItem(Objects.requireNonNull(result.error()), path))
+                .toList();
+        return ResponseEntity.ok(results);
+    }
+
+    @Operation
+    @CrudOperation(operation=IMPORT_JOB, resource=POS, externalResource=OSM_NODE)
+    @PostMapping("/import/jobs")
+    public ResponseEntity<OsmImportJobDto> startImportFromOsmNodes(
+            @Parameter(description="Campus type to assign to the imported POS.", required=true)
+            @RequestParam("campus_type") CampusType campusType,
+            @Parameter(description="Unique identifiers of the OpenStreetMap nodes to import (at most "
+                    + MAX_BATCH_SIZE + ").", required=true)
+            @RequestBody List<Long> nodeIds) {
+        if (nodeIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch must not contain more than " + MAX_BATCH_SIZE + " items.");
+        }
+        OsmImportJobDto job = osmImportJobDtoMapper.fromDomain(
+                posService.startImportFromOsmNodes(nodeIds, campusType)
+        );
+        return ResponseEntity
+                .accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .replaceQuery(null)
+                        .path("/{id}")
+                        .buildAndExpand(job.id())
+                        .toUri())
+                .body(job);
+    }
+
+    @Operation
+    @CrudOperation(operation=GET_BY_ID, resource=OSM_IMPORT_JOB)
+    @GetMapping("/import/jobs/{jobId}")
+    public ResponseEntity<OsmImportJobDto> getImportJob(
+            @Parameter(description="Unique identifier of the import job to retrieve.", required=true)
+            @PathVariable UUID jobId) {
+        return ResponseEntity.ok(
+                osmImportJobDtoMapper.fromDomain(posService.getImportJob(jobId))
+        );
+    }
+
+    @Operation
+    @CrudOperation(operation=IMPORT_EXTRACT, resource=POS, externalResource=OSM_NODE)
+    @PostMapping(value="/import/osm/extract",
+            consumes={MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<OsmImportReportDto> importFromOsmExtract(
+            @Parameter(description="Campus type to assign to the imported POS.", required=true)
+            @RequestParam("campus_type") CampusType campusType,
+            @Parameter(description="File format of the extract: XML (.osm) or PBF (.osm.pbf).")
+            @RequestParam(value="format", defaultValue="XML") OsmExtractFormat format,
+            @Parameter(description="OpenStreetMap extract, streamed without being buffered.", required=true)
+            InputStream extract) {
+        return ResponseEntity.ok(
+                osmImportReportDtoMapper.fromDomain(posService.importFromOsmExtract(extract, format, campusType))
+        );
+    }
 }
@@ -1,5 +1,7 @@
 package de.seuhd.campuscoffee.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.seuhd.campuscoffee.api.dtos.BatchItemResultDto;
 import de.seuhd.campuscoffee.api.dtos.ReviewDto;
 import de.seuhd.campuscoffee.api.mapper.DtoMapper;
 import de.seuhd.campuscoffee.api.mapper.ReviewDtoMapper;
@@ -11,12 +13,16 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -34,6 +40,8 @@ import static de.seuhd.campuscoffee.api.openapi.Resource.REVIEW;
 public class ReviewController extends CrudController<Review, ReviewDto, Long> {
     private final ReviewService reviewService;
     private final ReviewDtoMapper reviewDtoMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @Override
     protected @NonNull CrudService<Review, Long> service() {
@@ -45,11 +53,32 @@ public class ReviewController extends CrudController<Review, ReviewDto, Long> {
         return reviewDtoMapper;
     }
 
+    @Override
+    protected @NonNull ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    @Override
+    protected @NonNull Validator validator() {
+        return validator;
+    }
+
     @Operation
     @CrudOperation(operation=GET_ALL, resource=REVIEW)
     @GetMapping("")
-    public @NonNull ResponseEntity<List<ReviewDto>> getAll() {
-        return super.getAll();
+    public @NonNull ResponseEntity<List<ReviewDto>> getAll(
+            @Parameter(description="Maximum number of reviews to return (1 to " + MAX_PAGE_SIZE + ").")
+            @RequestParam(value="limit", defaultValue=DEFAULT_PAGE_SIZE) int limit,
+            @Parameter(description="Cursor from the " + NEXT_CURSOR_HEADER + " header of the previous page.")
+            @RequestParam(value="after", required=false) String after) {
+        return super.getAll(limit, after);
+    }
+
+    @Operation
+    @CrudOperation(operation=EXPORT, resource=REVIEW)
+    @GetMapping(value="/export", produces=APPLICATION_NDJSON_VALUE)
+    public @NonNull ResponseEntity<StreamingResponseBody> export() {
+        return super.export();
     }
 
     @Operation
@@ -70,6 +99,15 @@ public class ReviewController extends CrudController<Review, ReviewDto, Long> {
         return super.create(reviewDto);
     }
 
+    @Operation
+    @CrudOperation(operation=BATCH_UPSERT, resource=REVIEW)
+    @PostMapping("/batch")
+    public @NonNull ResponseEntity<List<BatchItemResultDto<ReviewDto>>> upsertAll(
+            @Parameter(description="Data of the reviews to create (without ID) or update (with ID).", required=true)
+            @RequestBody List<ReviewDto> reviewDtos) {
+        return super.upsertAll(reviewDtos);
+    }
+
     @Operation
     @CrudOperation(operation=UPDATE, resource=REVIEW)
     @PutMapping("/{id}")
@@ -77,8 +115,11 @@ public class ReviewController extends CrudController<Review, ReviewDto, Long> {
             @Parameter(description="Unique identifier of the review to update.", required=true)
             @PathVariable Long id,
             @Parameter(description="Data of the review to update.", required=true)
-            @RequestBody @Valid ReviewDto reviewDto) {
-        return super.update(id, reviewDto);
+            @RequestBody @Valid ReviewDto reviewDto,
+            @Parameter(description="Version of the review the update is based on, as returned in the ETag header; "
+                    + "must match the version in the body.")
+            @RequestHeader(value=HttpHeaders.IF_MATCH, required=false) @Nullable String ifMatch) {
+        return super.update(id, reviewDto, ifMatch);
     }
 
     @Operation
@@ -115,10 +156,7 @@ public class ReviewController extends CrudController<Review, ReviewDto, Long> {
             @RequestParam("user_id") Long userId) { // with is a workaround since we do not cover authentication and authorization in this lecture.
         return ResponseEntity.ok(
                 reviewDtoMapper.fromDomain(
-                        reviewService.approve(
-                                reviewService.getById(id),
-                                userId
-                        )
+                        reviewService.approve(id, userId)
                 )
         );
     }
@@ -1,6 +1,8 @@
 package de.seuhd.campuscoffee.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.seuhd.campuscoffee.api.openapi.CrudOperation;
+import de.seuhd.campuscoffee.api.dtos.BatchItemResultDto;
 import de.seuhd.campuscoffee.api.dtos.UserDto;
 import de.seuhd.campuscoffee.api.mapper.DtoMapper;
 import de.seuhd.campuscoffee.api.mapper.UserDtoMapper;
@@ -11,12 +13,16 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -31,6 +37,8 @@ import static de.seuhd.campuscoffee.api.openapi.Resource.USER;
 public class UserController extends CrudController<User, UserDto, Long> {
     private final UserService userService;
     private final UserDtoMapper userDtoMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @Override
     protected @NonNull CrudService<User, Long> service() {
@@ -42,11 +50,32 @@ public class UserController extends CrudController<User, UserDto, Long> {
         return userDtoMapper;
     }
 
+    @Override
+    protected @NonNull ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    @Override
+    protected @NonNull Validator validator() {
+        return validator;
+    }
+
     @Operation
     @CrudOperation(operation=GET_ALL, resource=USER)
     @GetMapping("")
-    public @NonNull ResponseEntity<List<UserDto>> getAll() {
-        return super.getAll();
+    public @NonNull ResponseEntity<List<UserDto>> getAll(
+            @Parameter(description="Maximum number of users to return (1 to " + MAX_PAGE_SIZE + ").")
+            @RequestParam(value="limit", defaultValue=DEFAULT_PAGE_SIZE) int limit,
+            @Parameter(description="Cursor from the " + NEXT_CURSOR_HEADER + " header of the previous page.")
+            @RequestParam(value="after", required=false) String after) {
+        return super.getAll(limit, after);
+    }
+
+    @Operation
+    @CrudOperation(operation=EXPORT, resource=USER)
+    @GetMapping(value="/export", produces=APPLICATION_NDJSON_VALUE)
+    public @NonNull ResponseEntity<StreamingResponseBody> export() {
+        return super.export();
     }
 
     @Operation
@@ -67,6 +96,15 @@ public class UserController extends CrudController<User, UserDto, Long> {
         return super.create(userDto);
     }
 
+    @Operation
+    @CrudOperation(operation=BATCH_UPSERT, resource=USER)
+    @PostMapping("/batch")
+    public @NonNull ResponseEntity<List<BatchItemResultDto<UserDto>>> upsertAll(
+            @Parameter(description="Data of the users to create (without ID) or update (with ID).", required=true)
+            @RequestBody List<UserDto> userDtos) {
+        return super.upsertAll(userDtos);
+    }
+
     @Operation
     @CrudOperation(operation=UPDATE, resource=USER)
     @PutMapping("/{id}")
@@ -74,8 +112,11 @@ public class UserController extends CrudController<User, UserDto, Long> {
             @Parameter(description="Unique identifier of the user to update.", required=true)
             @PathVariable Long id,
             @Parameter(description="Data of the user to update.", required=true)
-            @RequestBody @Valid UserDto userDto) {
-        return super.update(id, userDto);
+            @RequestBody @Valid UserDto userDto,
+            @Parameter(description="Version of the user the update is based on, as returned in the ETag header; "
+                    + "must match the version in the body.")
+            @RequestHeader(value=HttpHeaders.IF_MATCH, required=false) @Nullable String ifMatch) {
+        return super.update(id, userDto, ifMatch);
     }
 
     @Operation
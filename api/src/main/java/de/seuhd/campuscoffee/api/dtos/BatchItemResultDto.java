@@ -0,0 +1,27 @@
+package de.seuhd.campuscoffee.api.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import de.seuhd.campuscoffee.api.exceptions.ErrorResponse;
+import lombok.Builder;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * DTO record for the result of one item of a batch request.
+ * The results of a batch are returned in the order of the items in the request.
+ *
+ * @param statusCode the HTTP status code of the item (201 if created, 200 if updated, an error status otherwise)
+ * @param resource   the created or updated resource, null if the item failed
+ * @param error      the reason why the item failed, null if it succeeded
+ * @param unchanged  true if the item has not been written, because it did not differ from the stored resource;
+ *                   null otherwise
+ * @param <DTO>      the type of the resource DTO
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL) // excludes null fields from JSON
+public record BatchItemResultDto<DTO extends Dto<?>>(
+        @NonNull Integer statusCode,
+        @Nullable DTO resource,
+        @Nullable ErrorResponse error,
+        @Nullable Boolean unchanged
+) { }
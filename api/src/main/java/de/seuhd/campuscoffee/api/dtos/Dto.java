@@ -1,10 +1,20 @@
 package de.seuhd.campuscoffee.api.dtos;
 
 import de.seuhd.campuscoffee.domain.model.objects.Identifiable;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Marker interface for Data Transfer Objects (DTOs) that have an identifier.
  * This interface extends Identifiable to ensure that all DTOs implementing it
  * provide a method to access their unique identifier.
  */
-public interface Dto<ID> extends Identifiable<ID> { }
+public interface Dto<ID> extends Identifiable<ID> {
+    /**
+     * Returns the version of the resource, which is also sent as its ETag.
+     * In an update, it is the version the update is based on; the update is rejected if the resource
+     * has been modified since.
+     *
+     * @return the version, or null if the resource has not been created yet or the update is unconditional
+     */
+    @Nullable Long getVersion();
+}
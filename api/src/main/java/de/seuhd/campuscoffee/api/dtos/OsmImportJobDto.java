@@ -0,0 +1,39 @@
+package de.seuhd.campuscoffee.api.dtos;
+
+import de.seuhd.campuscoffee.domain.model.enums.CampusType;
+import de.seuhd.campuscoffee.domain.model.objects.OsmImportJob;
+import lombok.Builder;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO record for the progress of an import of POS from OpenStreetMap nodes that runs in the background.
+ *
+ * @param id         the unique identifier of the job
+ * @param status     the status of the job (QUEUED, RUNNING, COMPLETED, or FAILED)
+ * @param campusType the campus type assigned to the imported POS
+ * @param nodeCount  the number of node IDs to import
+ * @param processed  the number of node IDs processed so far
+ * @param imported   the number of POS created or updated so far
+ * @param skipped    the nodes that could not be imported so far, with the reason
+ * @param createdAt  when the job was submitted
+ * @param finishedAt when the job completed or failed, null while it is queued or running
+ * @param error      why the job failed as a whole, null unless the status is FAILED
+ */
+@Builder
+public record OsmImportJobDto(
+        @NonNull UUID id,
+        @NonNull OsmImportJob.Status status,
+        @NonNull CampusType campusType,
+        @NonNull Integer nodeCount,
+        @NonNull Integer processed,
+        @NonNull Integer imported,
+        @NonNull List<OsmImportReportDto.SkippedNodeDto> skipped,
+        @NonNull LocalDateTime createdAt,
+        @Nullable LocalDateTime finishedAt,
+        @Nullable String error
+) { }
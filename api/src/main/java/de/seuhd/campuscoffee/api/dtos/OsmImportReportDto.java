@@ -0,0 +1,32 @@
+package de.seuhd.campuscoffee.api.dtos;
+
+import lombok.Builder;
+import org.jspecify.annotations.NonNull;
+
+import java.util.List;
+
+/**
+ * DTO record for the summary of a bulk import of POS from an OpenStreetMap extract.
+ *
+ * @param nodesRead      the number of nodes read from the extract, including nodes that are no supported amenity
+ * @param imported       the number of POS created or updated
+ * @param durationMillis the duration of the import in milliseconds
+ * @param nodesPerSecond the throughput of the import
+ * @param skipped        the amenity nodes that could not be imported, with the reason
+ */
+@Builder
+public record OsmImportReportDto(
+        @NonNull Long nodesRead,
+        @NonNull Integer imported,
+        @NonNull Long durationMillis,
+        @NonNull Double nodesPerSecond,
+        @NonNull List<SkippedNodeDto> skipped
+) {
+    /**
+     * DTO record for an amenity node that could not be imported.
+     *
+     * @param nodeId the OpenStreetMap node ID
+     * @param reason why the node was skipped
+     */
+    public record SkippedNodeDto(@NonNull Long nodeId, @NonNull String reason) { }
+}
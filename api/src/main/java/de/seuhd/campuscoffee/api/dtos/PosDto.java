@@ -19,6 +19,7 @@ public record PosDto (
         @Nullable Long id, // id is null when creating a new task
         @Nullable LocalDateTime createdAt, // is null when using DTO to create a new POS
         @Nullable LocalDateTime updatedAt, // is set when creating or updating a POS
+        @Nullable Long version, // is null when creating a new POS, the expected version when updating
 
         @Size(min = 1, max = 255, message = "Name must be between 1 and 255 characters long.")
         @NonNull String name,
@@ -44,10 +45,17 @@ public record PosDto (
 
         @NotNull
         @Size(min = 1, max = 255, message = "City must be between 1 and 255 characters long.")
-        @NonNull String city
+        @NonNull String city,
+
+        @Nullable Long osmNodeId // set if the POS has been imported from OpenStreetMap
 ) implements Dto<Long> {
     @Override
     public Long getId() {
         return id;
     }
+
+    @Override
+    public @Nullable Long getVersion() {
+        return version;
+    }
 }
@@ -17,6 +17,7 @@ public record ReviewDto (
     @Nullable Long id,
     @Nullable LocalDateTime createdAt,
     @Nullable LocalDateTime updatedAt,
+    @Nullable Long version,
 
     @NotNull(message = "POS ID cannot be null.")
     @NonNull Long posId,
@@ -35,4 +36,9 @@ public record ReviewDto (
     public @Nullable Long getId() {
         return id;
     }
+
+    @Override
+    public @Nullable Long getVersion() {
+        return version;
+    }
 }
@@ -16,6 +16,7 @@ public record UserDto (
         @Nullable Long id,
         @Nullable LocalDateTime createdAt,
         @Nullable LocalDateTime updatedAt,
+        @Nullable Long version,
 
         @NotNull
         @Size(min = 1, max = 255, message = "Login name must be between 1 and 255 characters long.")
@@ -39,4 +40,9 @@ public record UserDto (
     public Long getId() {
         return id;
     }
+
+    @Override
+    public @Nullable Long getVersion() {
+        return version;
+    }
 }
@@ -3,7 +3,9 @@ package de.seuhd.campuscoffee.api.exceptions;
 import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
 import de.seuhd.campuscoffee.domain.exceptions.MissingFieldException;
+import de.seuhd.campuscoffee.domain.exceptions.ServiceUnavailableException;
 import de.seuhd.campuscoffee.domain.exceptions.ValidationException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -31,10 +33,12 @@ public class GlobalExceptionHandler {
     private static final Map<Class<? extends Exception>, ExceptionConfig> EXCEPTION_MAPPINGS = Map.of(
             NotFoundException.class, new ExceptionConfig(HttpStatus.NOT_FOUND, "Resource not found: {}"),
             DuplicationException.class, new ExceptionConfig(HttpStatus.CONFLICT, "Duplicate resource: {}"),
+            VersionConflictException.class, new ExceptionConfig(HttpStatus.PRECONDITION_FAILED, "Outdated version: {}"),
             IllegalArgumentException.class, new ExceptionConfig(HttpStatus.BAD_REQUEST, "Bad request: {}"),
             MissingFieldException.class, new ExceptionConfig(HttpStatus.BAD_REQUEST, "Bad request: {}"),
             ValidationException.class, new ExceptionConfig(HttpStatus.BAD_REQUEST, "Domain validation failed: {}"),
-            MethodArgumentNotValidException.class, new ExceptionConfig(HttpStatus.BAD_REQUEST, "Domain validation failed: {}")
+            MethodArgumentNotValidException.class, new ExceptionConfig(HttpStatus.BAD_REQUEST, "Domain validation failed: {}"),
+            ServiceUnavailableException.class, new ExceptionConfig(HttpStatus.SERVICE_UNAVAILABLE, "Service unavailable: {}")
     );
 
     /**
@@ -48,10 +52,12 @@ public class GlobalExceptionHandler {
     @ExceptionHandler({
             NotFoundException.class,
             DuplicationException.class,
+            VersionConflictException.class,
             IllegalArgumentException.class,
             MissingFieldException.class,
             ValidationException.class,
-            MethodArgumentNotValidException.class
+            MethodArgumentNotValidException.class,
+            ServiceUnavailableException.class
     })
     public ResponseEntity<ErrorResponse> handleMappedException(
             Exception exception,
@@ -116,16 +122,44 @@ public class GlobalExceptionHandler {
             WebRequest request,
             String message
     ) {
-        ErrorResponse error = ErrorResponse.builder()
+        return ResponseEntity.status(status).body(errorResponse(exception, status, extractPath(request), message));
+    }
+
+    /**
+     * Builds the error response for an exception that is reported as part of a successful response,
+     * e.g., for a single item of a batch request. The status code is determined in the same way
+     * as for exceptions that are handled by this class.
+     *
+     * @param exception the exception to report
+     * @param path      the request path
+     * @return the error response
+     */
+    public static ErrorResponse errorResponseFor(Exception exception, String path) {
+        ExceptionConfig config = EXCEPTION_MAPPINGS.get(exception.getClass());
+        if (config == null) {
+            return errorResponse(exception, HttpStatus.INTERNAL_SERVER_ERROR, path, "An unexpected error occurred.");
+        }
+        return errorResponse(exception, config.httpStatus(), path, exception.getMessage());
+    }
+
+    /**
+     * Builds a standardized error response.
+     *
+     * @param exception the exception that was thrown
+     * @param status the HTTP status of the error
+     * @param path the request path
+     * @param message the error message
+     * @return the error response
+     */
+    private static ErrorResponse errorResponse(Exception exception, HttpStatus status, String path, String message) {
+        return ErrorResponse.builder()
                 .errorCode(exception.getClass().getSimpleName())
                 .message(message)
                 .statusCode(status.value())
                 .statusMessage(status.getReasonPhrase())
                 .timestamp(LocalDateTime.now())
-                .path(extractPath(request))
+                .path(path)
                 .build();
-
-        return ResponseEntity.status(status).body(error);
     }
 
     /**
@@ -0,0 +1,22 @@
+package de.seuhd.campuscoffee.api.mapper;
+
+import de.seuhd.campuscoffee.api.dtos.OsmImportJobDto;
+import de.seuhd.campuscoffee.domain.model.objects.OsmImportJob;
+import org.mapstruct.Mapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+
+/**
+ * MapStruct mapper for converting {@link OsmImportJob} domain records into {@link OsmImportJobDto}s.
+ * Import jobs are only returned by the API, so there is no mapping in the other direction.
+ */
+@Mapper(componentModel = "spring")
+@ConditionalOnMissingBean // prevent IntelliJ warning about duplicate beans
+public interface OsmImportJobDtoMapper {
+    /**
+     * Converts the progress of an import job to its DTO representation.
+     *
+     * @param source the import job
+     * @return the corresponding DTO
+     */
+    OsmImportJobDto fromDomain(OsmImportJob source);
+}
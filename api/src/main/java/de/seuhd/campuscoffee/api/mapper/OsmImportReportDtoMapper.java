@@ -0,0 +1,25 @@
+package de.seuhd.campuscoffee.api.mapper;
+
+import de.seuhd.campuscoffee.api.dtos.OsmImportReportDto;
+import de.seuhd.campuscoffee.domain.model.objects.OsmImportReport;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+
+/**
+ * MapStruct mapper for converting {@link OsmImportReport} domain records into {@link OsmImportReportDto}s.
+ * Import reports are only returned by the API, so there is no mapping in the other direction.
+ */
+@Mapper(componentModel = "spring")
+@ConditionalOnMissingBean // prevent IntelliJ warning about duplicate beans
+public interface OsmImportReportDtoMapper {
+    /**
+     * Converts the summary of an import to its DTO representation.
+     *
+     * @param source the summary of the import
+     * @return the corresponding DTO
+     */
+    @Mapping(target = "durationMillis", expression = "java(source.duration().toMillis())")
+    @Mapping(target = "nodesPerSecond", expression = "java(source.nodesPerSecond())")
+    OsmImportReportDto fromDomain(OsmImportReport source);
+}
@@ -13,7 +13,7 @@ import java.lang.annotation.Target;
  * <pre>
  * {@code @CrudOperation(type = OperationType.GET_ALL, resource = ResourceName.USER)}
  * {@code @GetMapping("")}
- * public ResponseEntity&lt;List&lt;UserDto&gt;&gt; getAll() { ... }
+ * public ResponseEntity&lt;List&lt;UserDto&gt;&gt; getAll(...) { ... }
  *
  * {@code @CrudOperation(type = OperationType.IMPORT, resource = ResourceName.POS, externalResource = ResourceName.OSM_NODE)}
  * {@code @PostMapping("/import/osm/{nodeId}")}
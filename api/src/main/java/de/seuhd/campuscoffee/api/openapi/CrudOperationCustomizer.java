@@ -1,5 +1,6 @@
 package de.seuhd.campuscoffee.api.openapi;
 
+import de.seuhd.campuscoffee.api.controller.CrudController;
 import de.seuhd.campuscoffee.api.exceptions.ErrorResponse;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.media.Content;
@@ -13,6 +14,7 @@ import org.springframework.core.ResolvableType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Objects;
 import java.util.Optional;
@@ -110,7 +112,8 @@ public class CrudOperationCustomizer implements OperationCustomizer {
      * Creates the content for successful responses by extracting the DTO type from the method return type.
      *
      * @param handlerMethod the controller method to extract the response type from
-     * @return content with application/json media type and DTO schema reference, or null if the return type is Void
+     * @return content with application/json media type and DTO schema reference, or null if the return type is Void;
+     *         streaming exports are documented as application/x-ndjson with the DTO schema of a single line
      */
     private Content createSuccessResponseContent(HandlerMethod handlerMethod) {
         // get the return type from the method
@@ -130,17 +133,35 @@ public class CrudOperationCustomizer implements OperationCustomizer {
             return null;
         }
 
+        if (responseClass == StreamingResponseBody.class) {
+            // the streamed DTO type is the second type argument of the CRUD controller
+            Class<?> itemClass = ResolvableType.forClass(handlerMethod.getBeanType())
+                    .as(CrudController.class)
+                    .resolveGeneric(1);
+            Objects.requireNonNull(itemClass);
+            Schema<?> itemSchema = new Schema<>().$ref("#/components/schemas/" + itemClass.getSimpleName());
+            return new Content()
+                    .addMediaType(CrudController.APPLICATION_NDJSON_VALUE, new MediaType().schema(itemSchema));
+        }
+
         Schema<?> schema;
         if (responseClass == java.util.List.class) {
             // extract the generic list type (e.g., UserDto from List<UserDto>)
-            Class<?> itemClass = returnType.getGeneric(0).getRawClass();
+            ResolvableType itemType = returnType.getGeneric(0);
+            Class<?> itemClass = itemType.getRawClass();
             Objects.requireNonNull(itemClass);
 
+            // generic item types are named after their type arguments (e.g., BatchItemResultDtoUserDto)
+            StringBuilder itemSchemaName = new StringBuilder(itemClass.getSimpleName());
+            for (ResolvableType typeArgument : itemType.getGenerics()) {
+                itemSchemaName.append(Objects.requireNonNull(typeArgument.getRawClass()).getSimpleName());
+            }
+
             // create an array schema with reference to the item type
             schema = new Schema<>();
             schema.type("array");
             Schema<Object> itemSchema = new Schema<>();
-            itemSchema.$ref("#/components/schemas/" + itemClass.getSimpleName());
+            itemSchema.$ref("#/components/schemas/" + itemSchemaName);
             schema.items(itemSchema);
         } else {
             // single object -> create a direct reference
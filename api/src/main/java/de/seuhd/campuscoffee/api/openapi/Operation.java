@@ -18,7 +18,22 @@ public enum Operation {
             List.of(
                     CrudResponseSpecification.builder()
                             .httpStatus(HttpStatus.OK)
-                            .descriptionTemplate("All %s as a JSON array.")
+                            .descriptionTemplate("One page of %s as a JSON array, ordered by ID. "
+                                    + "The X-Next-Cursor header contains the cursor for the next page, if any.")
+                            .build(),
+                    CrudResponseSpecification.builder()
+                            .httpStatus(HttpStatus.BAD_REQUEST)
+                            .descriptionTemplate("The limit is out of range or the cursor is invalid.")
+                            .isErrorResponse(true)
+                            .build()
+            )
+    ),
+    EXPORT(
+            (params) -> "Export all " + params.getResourceName() + " as newline-delimited JSON.",
+            List.of(
+                    CrudResponseSpecification.builder()
+                            .httpStatus(HttpStatus.OK)
+                            .descriptionTemplate("All %s in ascending ID order, one JSON object per line.")
                             .build()
             )
     ),
@@ -27,7 +42,8 @@ public enum Operation {
             List.of(
                     CrudResponseSpecification.builder()
                             .httpStatus(HttpStatus.OK)
-                            .descriptionTemplate("The %s with the provided ID as a JSON object.")
+                            .descriptionTemplate("The %s with the provided ID as a JSON object. "
+                                    + "The ETag header contains its version.")
                             .build(),
                     CrudResponseSpecification.builder()
                             .httpStatus(HttpStatus.NOT_FOUND)
@@ -55,16 +71,33 @@ public enum Operation {
                             .build()
             )
     ),
+    BATCH_UPSERT(
+            (params) -> "Create or update a batch of " + params.getResourceName() + ".",
+            List.of(
+                    CrudResponseSpecification.builder()
+                            .httpStatus(HttpStatus.OK)
+                            .descriptionTemplate("One result per item in the order of the request, with the created "
+                                    + "or updated %s or the error (e.g., validation error, duplicate) of the item.")
+                            .build(),
+                    CrudResponseSpecification.builder()
+                            .httpStatus(HttpStatus.BAD_REQUEST)
+                            .descriptionTemplate("The batch contains too many items.")
+                            .isErrorResponse(true)
+                            .build()
+            )
+    ),
     UPDATE(
             (params) -> "Update " + params.getResourceName() + " by ID.",
             List.of(
                     CrudResponseSpecification.builder()
                             .httpStatus(HttpStatus.OK)
-                            .descriptionTemplate("The updated %s as a JSON object.")
+                            .descriptionTemplate("The updated %s as a JSON object. The ETag header contains its new version. "
+                                    + "If nothing has changed, it is not written and the X-Unchanged header is true.")
                             .build(),
                     CrudResponseSpecification.builder()
                             .httpStatus(HttpStatus.BAD_REQUEST)
-                            .descriptionTemplate("Validation failed (e.g., IDs in path and body do not match, bean validation error).")
+                            .descriptionTemplate("Validation failed (e.g., IDs or versions in header, path, and body do not match, "
+                                    + "bean validation error).")
                             .isErrorResponse(true)
                             .build(),
                     CrudResponseSpecification.builder()
@@ -76,6 +109,11 @@ public enum Operation {
                             .httpStatus(HttpStatus.CONFLICT)
                             .descriptionTemplate("A %s with the same unique identifier already exists.")
                             .isErrorResponse(true)
+                            .build(),
+                    CrudResponseSpecification.builder()
+                            .httpStatus(HttpStatus.PRECONDITION_FAILED)
+                            .descriptionTemplate("The %s has been modified since the version the update is based on.")
+                            .isErrorResponse(true)
                             .build()
             )
     ),
@@ -86,6 +124,11 @@ public enum Operation {
                             .httpStatus(HttpStatus.NO_CONTENT)
                             .descriptionTemplate("The %s was successfully deleted.")
                             .build(),
+                    CrudResponseSpecification.builder()
+                            .httpStatus(HttpStatus.BAD_REQUEST)
+                            .descriptionTemplate("The %s cannot be deleted, because other resources refer to it.")
+                            .isErrorResponse(true)
+                            .build(),
                     CrudResponseSpecification.builder()
                             .httpStatus(HttpStatus.NOT_FOUND)
                             .descriptionTemplate("No %s with the provided ID could be found.")
@@ -126,6 +169,64 @@ public enum Operation {
                             .descriptionTemplate("The external %s could not be found.")
                             .isErrorResponse(true)
                             .isExternalResource(true)
+                            .build(),
+                    CrudResponseSpecification.builder()
+                            .httpStatus(HttpStatus.SERVICE_UNAVAILABLE)
+                            .descriptionTemplate("The source of the external %s is unavailable.")
+                            .isErrorResponse(true)
+                            .isExternalResource(true)
+                            .build()
+            )
+    ),
+    IMPORT_BATCH(
+            (params) -> "Import a batch of " + params.getResourceName() + " from " + params.getExternalResourceName()
+                    .orElseThrow(() -> new IllegalArgumentException("External resource name not set.")) + ".",
+            List.of(
+                    CrudResponseSpecification.builder()
+                            .httpStatus(HttpStatus.OK)
+                            .descriptionTemplate("One result per node ID in the order of the request, with the imported "
+                                    + "%s or the error (e.g., node not found, missing field, duplicate) of the node.")
+                            .build(),
+                    CrudResponseSpecification.builder()
+                            .httpStatus(HttpStatus.BAD_REQUEST)
+                            .descriptionTemplate("The batch contains too many %s.")
+                            .isErrorResponse(true)
+                            .isExternalResource(true)
+                            .build()
+            )
+    ),
+    IMPORT_JOB(
+            (params) -> "Start an import of " + params.getResourceName() + " from " + params.getExternalResourceName()
+                    .orElseThrow(() -> new IllegalArgumentException("External resource name not set.")) + " in the background.",
+            List.of(
+                    CrudResponseSpecification.builder()
+                            .httpStatus(HttpStatus.ACCEPTED)
+                            .descriptionTemplate("The queued import job of %s as a JSON object. "
+                                    + "The Location header contains the URL to retrieve its progress from.")
+                            .build(),
+                    CrudResponseSpecification.builder()
+                            .httpStatus(HttpStatus.BAD_REQUEST)
+                            .descriptionTemplate("The batch contains too many %s.")
+                            .isErrorResponse(true)
+                            .isExternalResource(true)
+                            .build()
+            )
+    ),
+    IMPORT_EXTRACT(
+            (params) -> "Import all " + params.getResourceName() + " of an extract of "
+                    + params.getExternalResourceName()
+                    .orElseThrow(() -> new IllegalArgumentException("External resource name not set.")) + ".",
+            List.of(
+                    CrudResponseSpecification.builder()
+                            .httpStatus(HttpStatus.OK)
+                            .descriptionTemplate("The number of imported %s, the skipped nodes with the reason, "
+                                    + "and the throughput of the import.")
+                            .build(),
+                    CrudResponseSpecification.builder()
+                            .httpStatus(HttpStatus.BAD_REQUEST)
+                            .descriptionTemplate("The extract of %s is no valid OSM XML or PBF file.")
+                            .isErrorResponse(true)
+                            .isExternalResource(true)
                             .build()
             )
     );
@@ -34,19 +34,28 @@ public enum Resource {
     /**
      * OpenStreetMap external resource name.
      */
-    OSM_NODE("OpenStreetMap node", "OpenStreetMap nodes");
+    OSM_NODE("OpenStreetMap node", "OpenStreetMap nodes"),
+
+    /**
+     * Import job resource name, for imports from OpenStreetMap that run in the background.
+     */
+    OSM_IMPORT_JOB("OpenStreetMap import job", "OpenStreetMap import jobs");
 
     private final String singular;
     private final String plural;
 
     /**
      * Returns the appropriate form (singular or plural) for the provided operation type.
-     * GET_ALL operations use plural form, all others use singular.
+     * GET_ALL, EXPORT, BATCH_UPSERT, IMPORT_BATCH, IMPORT_JOB, and IMPORT_EXTRACT operations use plural form, all others use singular.
      *
      * @param operation The type of CRUD operation
      * @return the appropriate resource name form
      */
     public String displayNameForOperation(Operation operation) {
-        return operation == Operation.GET_ALL ? plural : singular;
+        return operation == Operation.GET_ALL || operation == Operation.EXPORT || operation == Operation.BATCH_UPSERT
+                || operation == Operation.IMPORT_BATCH || operation == Operation.IMPORT_JOB
+                || operation == Operation.IMPORT_EXTRACT
+                ? plural
+                : singular;
     }
 }
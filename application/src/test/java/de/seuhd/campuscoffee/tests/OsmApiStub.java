@@ -0,0 +1,230 @@
+package de.seuhd.campuscoffee.tests;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the OpenStreetMap API, used by system tests instead of {@code osm.api.base-url}.
+ * Serves the nodes that the tests put into it, both one by one and in batches like the {@code /nodes} endpoint,
+ * and counts the requests. Faults such as error responses and slow responses can be injected into the next requests.
+ */
+public class OsmApiStub {
+    private final HttpServer server;
+    private final Map<Long, String> nodes = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final AtomicInteger batchRequests = new AtomicInteger();
+    private final Queue<Fault> faults = new ConcurrentLinkedQueue<>();
+
+    private OsmApiStub(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Starts a stand-in on a free local port.
+     *
+     * @return the started stand-in
+     */
+    public static OsmApiStub start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            OsmApiStub stub = new OsmApiStub(server);
+            server.createContext("/node/", stub::handleNode);
+            server.createContext("/nodes", stub::handleNodes);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor()); // slow responses must not block others
+            server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the URL to configure as {@code osm.api.base-url}
+     */
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Serves a cafe node with all tags required for an import.
+     *
+     * @param nodeId  the node ID
+     * @param version the version of the node
+     * @param name    the name of the cafe
+     */
+    public void putNode(long nodeId, long version, String name) {
+        nodes.put(nodeId, """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <osm version="0.6" generator="OsmApiStub">
+                 <node id="%d" visible="true" version="%d" lat="49.4122" lon="8.7066">
+                  <tag k="addr:city" v="Heidelberg"/>
+                  <tag k="addr:housenumber" v="1"/>
+                  <tag k="addr:postcode" v="69117"/>
+                  <tag k="addr:street" v="Hauptstraße"/>
+                  <tag k="amenity" v="cafe"/>
+                  <tag k="name" v="%s"/>
+                 </node>
+                </osm>
+                """.formatted(nodeId, version, name));
+    }
+
+    /**
+     * Stops serving a node, so that requests for it fail with 404.
+     *
+     * @param nodeId the node ID
+     */
+    public void removeNode(long nodeId) {
+        nodes.remove(nodeId);
+    }
+
+    /**
+     * Lets the next requests fail with the given status.
+     *
+     * @param count             the number of requests to fail
+     * @param status            the HTTP status of the error responses (e.g., 429 or 503)
+     * @param retryAfterSeconds the value of the Retry-After header, null to omit the header
+     */
+    public void failNextRequests(int count, int status, Integer retryAfterSeconds) {
+        for (int i = 0; i < count; i++) {
+            faults.add(new Fault(status, retryAfterSeconds, Duration.ZERO));
+        }
+    }
+
+    /**
+     * Delays the responses to the next requests, e.g., to exceed the read timeout of the client.
+     *
+     * @param count the number of requests to delay
+     * @param delay the delay before the response is sent
+     */
+    public void delayNextRequests(int count, Duration delay) {
+        for (int i = 0; i < count; i++) {
+            faults.add(new Fault(0, null, delay));
+        }
+    }
+
+    /**
+     * @param nodeId the node ID
+     * @return the number of requests for the single node
+     */
+    public int requestCount(long nodeId) {
+        AtomicInteger count = requests.get(nodeId);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * @return the number of requests for multiple nodes
+     */
+    public int batchRequestCount() {
+        return batchRequests.get();
+    }
+
+    /**
+     * Removes all nodes and resets the request counts.
+     */
+    public void reset() {
+        nodes.clear();
+        requests.clear();
+        batchRequests.set(0);
+        faults.clear();
+    }
+
+    private void handleNode(HttpExchange exchange) throws IOException {
+        long nodeId = Long.parseLong(exchange.getRequestURI().getPath().substring("/node/".length()));
+        requests.computeIfAbsent(nodeId, id -> new AtomicInteger()).incrementAndGet();
+        if (injectFault(exchange)) {
+            return;
+        }
+        String xml = nodes.get(nodeId);
+        if (xml == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        respond(exchange, xml);
+    }
+
+    /**
+     * Serves multiple nodes like the OpenStreetMap API, which rejects the whole request with 404
+     * if one of the nodes has never existed.
+     */
+    private void handleNodes(HttpExchange exchange) throws IOException {
+        batchRequests.incrementAndGet();
+        if (injectFault(exchange)) {
+            return;
+        }
+        String query = exchange.getRequestURI().getQuery();
+        List<String> nodeIds = query == null || !query.startsWith("nodes=")
+                ? List.of()
+                : List.of(query.substring("nodes=".length()).split(","));
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<osm version=\"0.6\" generator=\"OsmApiStub\">\n");
+        for (String nodeId : nodeIds) {
+            String node = nodes.get(Long.parseLong(nodeId));
+            if (node == null) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            xml.append(node, node.indexOf(" <node"), node.indexOf("</osm>"));
+        }
+        respond(exchange, xml.append("</osm>\n").toString());
+    }
+
+    /**
+     * Applies the next injected fault, if any.
+     *
+     * @return true if an error response has been sent
+     */
+    private boolean injectFault(HttpExchange exchange) throws IOException {
+        Fault fault = faults.poll();
+        if (fault == null) {
+            return false;
+        }
+        try {
+            Thread.sleep(fault.delay());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (fault.status() == 0) {
+            return false;
+        }
+        if (fault.retryAfterSeconds() != null) {
+            exchange.getResponseHeaders().add("Retry-After", String.valueOf(fault.retryAfterSeconds()));
+        }
+        exchange.sendResponseHeaders(fault.status(), -1);
+        exchange.close();
+        return true;
+    }
+
+    private static void respond(HttpExchange exchange, String xml) throws IOException {
+        byte[] body = xml.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/xml; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    /**
+     * A fault injected into a request: an error response, a delayed response, or both.
+     *
+     * @param status            the status of the error response, 0 to respond normally after the delay
+     * @param retryAfterSeconds the value of the Retry-After header, null to omit the header
+     * @param delay             the delay before the response is sent
+     */
+    private record Fault(int status, Integer retryAfterSeconds, Duration delay) { }
+}
@@ -0,0 +1,243 @@
+package de.seuhd.campuscoffee.tests;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes OpenStreetMap extracts for tests, both as OSM XML and as PBF, so that the same region can be imported
+ * in both formats. Nodes are written without coordinates and metadata, which the import does not read.
+ */
+public final class OsmExtractWriter {
+    /**
+     * Number of nodes per PBF block, as written by common tools such as Osmium.
+     */
+    private static final int NODES_PER_BLOCK = 8000;
+
+    private OsmExtractWriter() { }
+
+    /**
+     * A node of an extract.
+     *
+     * @param id   the node ID
+     * @param tags the tags of the node, empty for untagged nodes
+     */
+    public record Node(long id, Map<String, String> tags) { }
+
+    /**
+     * Creates a cafe node with all tags required for an import.
+     *
+     * @param id   the node ID
+     * @param name the name of the cafe
+     * @return the node
+     */
+    public static Node cafe(long id, String name) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("addr:city", "Heidelberg");
+        tags.put("addr:housenumber", "1");
+        tags.put("addr:postcode", "69117");
+        tags.put("addr:street", "Hauptstraße");
+        tags.put("amenity", "cafe");
+        tags.put("name", name);
+        return new Node(id, tags);
+    }
+
+    /**
+     * Writes the nodes as OSM XML.
+     *
+     * @param nodes  the nodes to write
+     * @param output the stream to write to; not closed by this method
+     */
+    public static void writeXml(List<Node> nodes, OutputStream output) {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<osm version=\"0.6\" generator=\"OsmExtractWriter\">\n");
+            for (Node node : nodes) {
+                if (node.tags().isEmpty()) {
+                    writer.write(" <node id=\"" + node.id() + "\" version=\"1\" lat=\"49.4122\" lon=\"8.7066\"/>\n");
+                    continue;
+                }
+                writer.write(" <node id=\"" + node.id() + "\" version=\"1\" lat=\"49.4122\" lon=\"8.7066\">\n");
+                for (Map.Entry<String, String> tag : node.tags().entrySet()) {
+                    writer.write("  <tag k=\"" + escape(tag.getKey()) + "\" v=\"" + escape(tag.getValue()) + "\"/>\n");
+                }
+                writer.write(" </node>\n");
+            }
+            writer.write("</osm>\n");
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the nodes as PBF with dense nodes in zlib-compressed blocks.
+     *
+     * @param nodes  the nodes to write
+     * @param output the stream to write to; not closed by this method
+     */
+    public static void writePbf(List<Node> nodes, OutputStream output) {
+        try {
+            ProtoWriter headerBlock = new ProtoWriter();
+            headerBlock.writeString(4, "OsmSchema-V0.6");
+            headerBlock.writeString(4, "DenseNodes");
+            headerBlock.writeString(16, "OsmExtractWriter");
+            writeBlob(output, "OSMHeader", headerBlock.toByteArray());
+
+            for (int start = 0; start < nodes.size(); start += NODES_PER_BLOCK) {
+                writeBlob(output, "OSMData",
+                        primitiveBlock(nodes.subList(start, Math.min(start + NODES_PER_BLOCK, nodes.size()))));
+            }
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the nodes as XML into a byte array.
+     *
+     * @param nodes the nodes to write
+     * @return the XML extract
+     */
+    public static byte[] toXml(List<Node> nodes) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writeXml(nodes, output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Writes the nodes as PBF into a byte array.
+     *
+     * @param nodes the nodes to write
+     * @return the PBF extract
+     */
+    public static byte[] toPbf(List<Node> nodes) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writePbf(nodes, output);
+        return output.toByteArray();
+    }
+
+    private static byte[] primitiveBlock(List<Node> nodes) {
+        // string table with the empty string at index 0, which is reserved as delimiter
+        Map<String, Integer> stringIndexes = new LinkedHashMap<>();
+        stringIndexes.put("", 0);
+        List<Long> keysValues = new ArrayList<>();
+        for (Node node : nodes) {
+            for (Map.Entry<String, String> tag : node.tags().entrySet()) {
+                keysValues.add((long) stringIndexes.computeIfAbsent(tag.getKey(), key -> stringIndexes.size()));
+                keysValues.add((long) stringIndexes.computeIfAbsent(tag.getValue(), value -> stringIndexes.size()));
+            }
+            keysValues.add(0L);
+        }
+
+        ProtoWriter denseNodes = new ProtoWriter();
+        long previousId = 0;
+        List<Long> idDeltas = new ArrayList<>(nodes.size());
+        List<Long> zeros = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            idDeltas.add(node.id() - previousId);
+            previousId = node.id();
+            zeros.add(0L);
+        }
+        denseNodes.writePacked(1, idDeltas, true);
+        denseNodes.writePacked(8, zeros, true);
+        denseNodes.writePacked(9, zeros, true);
+        denseNodes.writePacked(10, keysValues, false);
+
+        ProtoWriter stringTable = new ProtoWriter();
+        stringIndexes.keySet().forEach(string -> stringTable.writeString(1, string));
+        ProtoWriter group = new ProtoWriter();
+        group.writeMessage(2, denseNodes);
+        ProtoWriter block = new ProtoWriter();
+        block.writeMessage(1, stringTable);
+        block.writeMessage(2, group);
+        return block.toByteArray();
+    }
+
+    private static void writeBlob(OutputStream output, String type, byte[] data) throws IOException {
+        Deflater deflater = new Deflater();
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        byte[] buffer = new byte[64 * 1024];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        ProtoWriter blob = new ProtoWriter();
+        blob.writeVarint(2, data.length);
+        blob.writeBytes(3, compressed.toByteArray());
+        byte[] blobBytes = blob.toByteArray();
+
+        ProtoWriter header = new ProtoWriter();
+        header.writeString(1, type);
+        header.writeVarint(3, blobBytes.length);
+        byte[] headerBytes = header.toByteArray();
+
+        output.write(new byte[] {
+                (byte) (headerBytes.length >>> 24), (byte) (headerBytes.length >>> 16),
+                (byte) (headerBytes.length >>> 8), (byte) headerBytes.length});
+        output.write(headerBytes);
+        output.write(blobBytes);
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    /**
+     * Minimal writer of the protocol buffer wire format.
+     */
+    private static final class ProtoWriter {
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        void writeVarint(int field, long value) {
+            writeRawVarint((long) field << 3);
+            writeRawVarint(value);
+        }
+
+        void writeBytes(int field, byte[] bytes) {
+            writeRawVarint((long) field << 3 | 2);
+            writeRawVarint(bytes.length);
+            output.writeBytes(bytes);
+        }
+
+        void writeString(int field, String value) {
+            writeBytes(field, value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeMessage(int field, ProtoWriter message) {
+            writeBytes(field, message.toByteArray());
+        }
+
+        void writePacked(int field, List<Long> values, boolean signed) {
+            ProtoWriter packed = new ProtoWriter();
+            values.forEach(value -> packed.writeRawVarint(signed ? (value << 1) ^ (value >> 63) : value));
+            writeBytes(field, packed.toByteArray());
+        }
+
+        byte[] toByteArray() {
+            return output.toByteArray();
+        }
+
+        private void writeRawVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                output.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            output.write((int) value);
+        }
+    }
+}
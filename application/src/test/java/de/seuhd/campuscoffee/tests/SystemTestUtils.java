@@ -1,13 +1,19 @@
 package de.seuhd.campuscoffee.tests;
 
 import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.api.dtos.ReviewDto;
 import de.seuhd.campuscoffee.api.dtos.UserDto;
 import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import org.jspecify.annotations.Nullable;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.utility.DockerImageName;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 
@@ -61,25 +67,26 @@ public class SystemTestUtils {
     }
 
     /**
-     * Asserts that two objects are equal, ignoring timestamp fields (createdAt, updatedAt).
+     * Asserts that two objects are equal, ignoring timestamp fields (createdAt, updatedAt) and the version,
+     * which are managed by the data layer.
      *
      * @param actual   the actual object
      * @param expected the expected object
      * @param <T>      the type of the objects being compared
      */
     public static <T> void assertEqualsIgnoringTimestamps(T actual, T expected) {
-        assertEqualsIgnoringFields(actual, expected, "createdAt", "updatedAt");
+        assertEqualsIgnoringFields(actual, expected, "createdAt", "updatedAt", "version");
     }
 
     /**
-     * Asserts that two objects are equal, ignoring ID and timestamp fields.
+     * Asserts that two objects are equal, ignoring ID, timestamp, and version fields.
      *
      * @param actual   the actual object
      * @param expected the expected object
      * @param <T>      the type of the objects being compared
      */
     public static <T> void assertEqualsIgnoringIdAndTimestamps(T actual, T expected) {
-        assertEqualsIgnoringFields(actual, expected, "id", "createdAt", "updatedAt");
+        assertEqualsIgnoringFields(actual, expected, "id", "createdAt", "updatedAt", "version");
     }
 
     /**
@@ -97,15 +104,15 @@ public class SystemTestUtils {
     }
 
     /**
-     * Asserts that two collections contain the same elements (in any order), ignoring timestamp fields for
-     * each element comparison.
+     * Asserts that two collections contain the same elements (in any order), ignoring timestamp and version fields
+     * for each element comparison.
      *
      * @param actual   the actual collection
      * @param expected the expected collection
      * @param <T>      the type of elements in the collections
      */
     public static <T> void assertEqualsIgnoringTimestamps(List<T> actual, List<T> expected) {
-        assertEqualsIgnoringFields(actual, expected, "createdAt", "updatedAt");
+        assertEqualsIgnoringFields(actual, expected, "createdAt", "updatedAt", "version");
     }
 
     /**
@@ -137,6 +144,47 @@ public class SystemTestUtils {
                     .toList();
         }
 
+        /**
+         * Retrieves one page of entities via the API.
+         *
+         * @param limit the maximum number of entities on the page
+         * @param after the cursor of the previous page, or null for the first page
+         * @return the extracted response (body and X-Next-Cursor header)
+         */
+        public ExtractableResponse<Response> retrievePage(int limit, @Nullable String after) {
+            var request = given()
+                    .contentType(ContentType.JSON)
+                    .queryParam("limit", limit);
+            if (after != null) {
+                request = request.queryParam("after", after);
+            }
+            return request
+                    .when()
+                    .get(basePath)
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .extract();
+        }
+
+        /**
+         * Exports all entities via the API as newline-delimited JSON.
+         *
+         * @return List of DTOs representing all entities, in the order of the lines in the response
+         */
+        public List<T> export() {
+            String body = given()
+                    .when()
+                    .get(basePath + "/export")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .contentType("application/x-ndjson")
+                    .extract().asString();
+            return Arrays.stream(body.split("\n"))
+                    .filter(line -> !line.isBlank())
+                    .map(line -> JsonPath.from(line).getObject("$", dtoClass))
+                    .toList();
+        }
+
         /**
          * Retrieves an entity by its ID via the API.
          *
@@ -231,6 +279,23 @@ public class SystemTestUtils {
                     .toList();
         }
 
+        /**
+         * Creates or updates multiple entities with one batch request via the API.
+         *
+         * @param entityList List of DTOs to create (without ID) or update (with ID)
+         * @return the extracted response with one result per DTO
+         */
+        public ExtractableResponse<Response> batch(List<T> entityList) {
+            return given()
+                    .contentType(ContentType.JSON)
+                    .body(entityList)
+                    .when()
+                    .post(basePath + "/batch")
+                    .then()
+                    .statusCode(HttpStatus.OK.value())
+                    .extract();
+        }
+
         /**
          * Deletes multiple entities by their IDs via the API and returns the corresponding status codes.
          *
@@ -261,5 +326,11 @@ public class SystemTestUtils {
                 UserDto.class,
                 UserDto::getId
         );
+
+        public static SystemTestUtils.Requests<ReviewDto> reviewRequests = new SystemTestUtils.Requests<>(
+                "/api/reviews",
+                ReviewDto.class,
+                ReviewDto::getId
+        );
     }
 }
@@ -0,0 +1,45 @@
+package de.seuhd.campuscoffee.tests.benchmark;
+
+import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
+import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import de.seuhd.campuscoffee.tests.system.AbstractSysTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Benchmark of the duplicate-insert path, i.e., the latency of an insert that violates a unique constraint
+ * and is translated into a {@link DuplicationException}.
+ * Run with {@code mvn test -P benchmark}; the results are logged.
+ */
+@Slf4j
+@Tag("benchmark")
+public class DuplicateInsertBenchmarkTests extends AbstractSysTest {
+    private static final int WARM_UP_ITERATIONS = 200;
+    private static final int ITERATIONS = 2_000;
+
+    @Test
+    void duplicateInsertLatency() {
+        Pos existingPos = posService.upsert(TestFixtures.getPosFixturesForInsertion().getFirst());
+        Pos duplicatePos = existingPos.toBuilder().id(null).build();
+
+        // warm up, then measure
+        insertDuplicates(duplicatePos, WARM_UP_ITERATIONS);
+        long start = System.nanoTime();
+        insertDuplicates(duplicatePos, ITERATIONS);
+        long elapsedNanos = System.nanoTime() - start;
+
+        log.info("Rejected {} duplicate inserts in {} ms ({} microseconds per insert).",
+                ITERATIONS, elapsedNanos / 1_000_000, elapsedNanos / 1_000 / ITERATIONS);
+    }
+
+    private void insertDuplicates(Pos duplicatePos, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            assertThatThrownBy(() -> posService.upsert(duplicatePos))
+                    .isInstanceOf(DuplicationException.class);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package de.seuhd.campuscoffee.tests.benchmark;
+
+import de.seuhd.campuscoffee.Application;
+import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
+import de.seuhd.campuscoffee.domain.ports.api.PosService;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import de.seuhd.campuscoffee.tests.system.AbstractSysTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of the insert throughput of POS for different ID allocation sizes.
+ * For each allocation size, the INCREMENT BY of the POS sequence is changed and a separate application
+ * instance is started that adopts the increment of the sequence as its allocation size.
+ * Run with {@code mvn test -P benchmark}; the results are logged.
+ */
+@Slf4j
+@Tag("benchmark")
+public class IdAllocationBenchmarkTests extends AbstractSysTest {
+    private static final int DEFAULT_ALLOCATION_SIZE = 50; // see V5__allocate_ids_in_blocks.sql
+    private static final int POS_COUNT = 5_000;
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void restoreSequence() {
+        jdbcTemplate.execute("ALTER SEQUENCE pos_seq INCREMENT BY " + DEFAULT_ALLOCATION_SIZE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 50, 500})
+    void insertThroughput(int allocationSize) {
+        jdbcTemplate.execute("ALTER SEQUENCE pos_seq INCREMENT BY " + allocationSize);
+
+        try (ConfigurableApplicationContext instance = new SpringApplicationBuilder(Application.class)
+                .properties(Map.of(
+                        "server.port", "0",
+                        "spring.datasource.url", postgresContainer.getJdbcUrl(),
+                        "spring.datasource.username", postgresContainer.getUsername(),
+                        "spring.datasource.password", postgresContainer.getPassword(),
+                        // use the increment of the sequence as allocation size
+                        "spring.jpa.properties.hibernate.id.sequence.increment_size_mismatch_strategy", "fix"
+                ))
+                .run()) {
+            PosService instancePosService = instance.getBean(PosService.class);
+
+            // warm up, then measure
+            insert(instancePosService, "Warm-up");
+            instancePosService.clear();
+            long start = System.nanoTime();
+            insert(instancePosService, "Benchmark");
+            long elapsedNanos = System.nanoTime() - start;
+
+            log.info("Allocation size {}: inserted {} POS in {} ms ({} POS/s).",
+                    allocationSize, POS_COUNT, elapsedNanos / 1_000_000, POS_COUNT * 1_000_000_000L / elapsedNanos);
+            instancePosService.clear();
+        }
+    }
+
+    private static void insert(PosService posService, String namePrefix) {
+        Pos template = TestFixtures.getPosFixturesForInsertion().getFirst();
+        for (int offset = 0; offset < POS_COUNT; offset += BATCH_SIZE) {
+            int batchOffset = offset;
+            List<Pos> batch = IntStream.range(0, BATCH_SIZE)
+                    .mapToObj(i -> template.toBuilder().name(namePrefix + " " + (batchOffset + i)).build())
+                    .toList();
+            assertThat(posService.upsertAll(batch)).allMatch(UpsertResult::isSuccess);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package de.seuhd.campuscoffee.tests.benchmark;
+
+import de.seuhd.campuscoffee.domain.model.enums.CampusType;
+import de.seuhd.campuscoffee.domain.model.enums.OsmExtractFormat;
+import de.seuhd.campuscoffee.domain.model.objects.OsmImportReport;
+import de.seuhd.campuscoffee.tests.OsmExtractWriter;
+import de.seuhd.campuscoffee.tests.system.AbstractSysTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark of importing the same region from an XML extract and from a PBF extract.
+ * The region is generated with a realistic share of untagged nodes (points of ways), tagged nodes that are no
+ * supported amenity, and cafés, and written to a temporary file in both formats.
+ * Run with {@code mvn test -P benchmark}; the results are logged.
+ */
+@Slf4j
+@Tag("benchmark")
+public class OsmExtractBenchmarkTests extends AbstractSysTest {
+    private static final int NODE_COUNT = 2_000_000;
+    private static final int CAFE_EVERY = 200; // 10,000 cafés
+    private static final int TAGGED_EVERY = 10;
+
+    @TempDir
+    static Path tempDir;
+
+    private static Path xmlExtract;
+    private static Path pbfExtract;
+
+    @BeforeAll
+    static void writeRegion() throws IOException {
+        Random random = new Random(42);
+        List<OsmExtractWriter.Node> nodes = new ArrayList<>(NODE_COUNT);
+        long id = 1;
+        for (int i = 0; i < NODE_COUNT; i++) {
+            id += 1 + random.nextInt(100);
+            if (i % CAFE_EVERY == 0) {
+                nodes.add(OsmExtractWriter.cafe(id, "Benchmark Café " + i));
+            } else if (i % TAGGED_EVERY == 0) {
+                nodes.add(new OsmExtractWriter.Node(id, Map.of("highway", "crossing", "crossing", "zebra")));
+            } else {
+                nodes.add(new OsmExtractWriter.Node(id, Map.of()));
+            }
+        }
+
+        xmlExtract = tempDir.resolve("region.osm");
+        pbfExtract = tempDir.resolve("region.osm.pbf");
+        try (OutputStream output = Files.newOutputStream(xmlExtract)) {
+            OsmExtractWriter.writeXml(nodes, output);
+        }
+        try (OutputStream output = Files.newOutputStream(pbfExtract)) {
+            OsmExtractWriter.writePbf(nodes, output);
+        }
+        log.info("Region with {} nodes: XML extract {} MB, PBF extract {} MB.", NODE_COUNT,
+                Files.size(xmlExtract) / 1_000_000, Files.size(pbfExtract) / 1_000_000);
+    }
+
+    @Test
+    void importTimeOfXmlAndPbf() throws IOException {
+        // warm up, then measure; each import starts from an empty table, so that both formats insert all POS
+        importRegion(OsmExtractFormat.XML);
+        importRegion(OsmExtractFormat.PBF);
+        OsmImportReport xmlReport = importRegion(OsmExtractFormat.XML);
+        OsmImportReport pbfReport = importRegion(OsmExtractFormat.PBF);
+
+        assertThat(pbfReport.imported()).isEqualTo(xmlReport.imported()).isEqualTo(NODE_COUNT / CAFE_EVERY);
+        assertThat(pbfReport.nodesRead()).isEqualTo(xmlReport.nodesRead()).isEqualTo(NODE_COUNT);
+        log.info("PBF import took {}% of the time of the XML import.",
+                pbfReport.duration().toMillis() * 100 / Math.max(xmlReport.duration().toMillis(), 1));
+    }
+
+    private OsmImportReport importRegion(OsmExtractFormat format) throws IOException {
+        posService.clear();
+        try (InputStream extract = Files.newInputStream(format == OsmExtractFormat.PBF ? pbfExtract : xmlExtract)) {
+            OsmImportReport report = posService.importFromOsmExtract(extract, format, CampusType.ALTSTADT);
+            log.info("{}: imported {} POS from {} nodes in {} ms ({} nodes/s).", format, report.imported(),
+                    report.nodesRead(), report.duration().toMillis(), Math.round(report.nodesPerSecond()));
+            return report;
+        }
+    }
+}
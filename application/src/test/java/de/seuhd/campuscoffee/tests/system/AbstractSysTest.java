@@ -1,8 +1,10 @@
 package de.seuhd.campuscoffee.tests.system;
 
 import de.seuhd.campuscoffee.api.mapper.PosDtoMapper;
+import de.seuhd.campuscoffee.api.mapper.ReviewDtoMapper;
 import de.seuhd.campuscoffee.api.mapper.UserDtoMapper;
 import de.seuhd.campuscoffee.domain.ports.api.PosService;
+import de.seuhd.campuscoffee.domain.ports.api.ReviewService;
 import de.seuhd.campuscoffee.domain.ports.api.UserService;
 import io.restassured.RestAssured;
 import org.junit.jupiter.api.AfterEach;
@@ -45,17 +47,24 @@ public abstract class AbstractSysTest {
     @Autowired
     protected UserService userService;
 
+    @Autowired
+    protected ReviewService reviewService;
+
     @Autowired
     protected PosDtoMapper posDtoMapper;
 
     @Autowired
     protected UserDtoMapper userDtoMapper;
 
+    @Autowired
+    protected ReviewDtoMapper reviewDtoMapper;
+
     @LocalServerPort
     private Integer port;
 
     @BeforeEach
     void beforeEach() {
+        reviewService.clear(); // reviews reference POS and users
         posService.clear();
         userService.clear();
         RestAssured.baseURI = "http://localhost:" + port;
@@ -63,6 +72,7 @@ public abstract class AbstractSysTest {
 
     @AfterEach
     void afterEach() {
+        reviewService.clear();
         posService.clear();
     }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package de.seuhd.campuscoffee.tests.system;
+
+import de.seuhd.campuscoffee.Application;
+import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.User;
+import de.seuhd.campuscoffee.domain.ports.api.PosService;
+import de.seuhd.campuscoffee.domain.ports.api.UserService;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * System tests for the invalidation of cached objects across application instances.
+ * A second application instance is started against the same database; its writes must
+ * invalidate the objects cached by the instance under test.
+ */
+public class CacheInvalidationSystemTests extends AbstractSysTest {
+    private static final Duration MAX_STALENESS = Duration.ofSeconds(5);
+
+    private static ConfigurableApplicationContext otherInstance;
+
+    @BeforeAll
+    static void startOtherInstance() {
+        otherInstance = new SpringApplicationBuilder(Application.class)
+                .properties(Map.of(
+                        "server.port", "0",
+                        "spring.datasource.url", postgresContainer.getJdbcUrl(),
+                        "spring.datasource.username", postgresContainer.getUsername(),
+                        "spring.datasource.password", postgresContainer.getPassword()
+                ))
+                .run();
+    }
+
+    @AfterAll
+    static void stopOtherInstance() {
+        if (otherInstance != null) {
+            otherInstance.close();
+        }
+    }
+
+    @Test
+    void updatesOfOtherInstanceInvalidateCachedPos() {
+        Pos pos = posService.upsert(TestFixtures.getPosFixturesForInsertion().getFirst());
+        Long posId = Objects.requireNonNull(pos.id());
+        assertThat(posService.getById(posId).name()).isEqualTo(pos.name());
+        assertThat(posService.getByName(pos.name()).id()).isEqualTo(posId);
+
+        PosService otherPosService = otherInstance.getBean(PosService.class);
+        otherPosService.upsert(otherPosService.getById(posId).toBuilder().name("Renamed elsewhere").build());
+
+        await().atMost(MAX_STALENESS).untilAsserted(() ->
+                assertThat(posService.getById(posId).name()).isEqualTo("Renamed elsewhere"));
+        assertThat(posService.getByName("Renamed elsewhere").id()).isEqualTo(posId);
+        assertThatThrownBy(() -> posService.getByName(pos.name())).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void deletionsOfOtherInstanceInvalidateCachedUsers() {
+        User user = userService.upsert(TestFixtures.getUserFixturesForInsertion().getFirst());
+        Long userId = Objects.requireNonNull(user.id());
+        assertThat(userService.getById(userId).loginName()).isEqualTo(user.loginName());
+
+        otherInstance.getBean(UserService.class).delete(userId);
+
+        await().atMost(MAX_STALENESS).untilAsserted(() ->
+                assertThatThrownBy(() -> userService.getById(userId)).isInstanceOf(NotFoundException.class));
+    }
+}
@@ -0,0 +1,80 @@
+package de.seuhd.campuscoffee.tests.system;
+
+import de.seuhd.campuscoffee.domain.implementation.PendingApprovals;
+import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.Review;
+import de.seuhd.campuscoffee.domain.model.objects.User;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * System tests for approving reviews in coalesced mode.
+ * The flush interval is long enough that the tests control when pending approvals are written.
+ */
+@TestPropertySource(properties = {
+        "campus-coffee.approval.mode=coalesced",
+        "campus-coffee.approval.flush-interval=1h"
+})
+public class CoalescedApprovalsSystemTests extends AbstractSysTest {
+
+    @Autowired
+    private PendingApprovals pendingApprovals;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void concurrentApprovalsAreWrittenInOneFlush() throws Exception {
+        int approverCount = 40;
+        Pos pos = posService.upsert(TestFixtures.getPosFixturesForInsertion().getFirst());
+        List<User> users = IntStream.rangeClosed(0, approverCount)
+                .mapToObj(i -> userService.upsert(TestFixtures.getUserFixturesForInsertion().getFirst().toBuilder()
+                        .loginName("approver_" + i)
+                        .emailAddress("approver." + i + "@uni-heidelberg.de")
+                        .build()))
+                .toList();
+        Review review = reviewService.upsert(Review.builder()
+                .pos(pos)
+                .author(users.getFirst())
+                .review("Hot review")
+                .approvalCount(0)
+                .approved(false)
+                .build());
+        Long reviewId = Objects.requireNonNull(review.id());
+
+        // all other users approve the same review at the same time
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            List<Future<Review>> approvals = users.stream()
+                    .skip(1)
+                    .map(user -> executor.submit(() -> reviewService.approve(reviewId, Objects.requireNonNull(user.id()))))
+                    .toList();
+            for (Future<Review> approval : approvals) {
+                approval.get();
+            }
+        }
+
+        // the votes are recorded, but the approval count is only updated by the flush
+        assertThat(reviewService.getById(reviewId).approvalCount()).isZero();
+        assertThat(pendingApprovals.count(reviewId)).isEqualTo(approverCount);
+        assertThat(meterRegistry.get("campuscoffee.approvals.pending").gauge().value()).isEqualTo(approverCount);
+
+        pendingApprovals.flush();
+
+        Review approvedReview = reviewService.getById(reviewId);
+        assertThat(approvedReview.approvalCount()).isEqualTo(approverCount);
+        assertThat(approvedReview.approved()).isTrue();
+        assertThat(pendingApprovals.count()).isZero();
+    }
+}
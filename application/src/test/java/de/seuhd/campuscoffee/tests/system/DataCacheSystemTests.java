@@ -0,0 +1,145 @@
+package de.seuhd.campuscoffee.tests.system;
+
+import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.User;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * System tests for the read-through caches of the POS and user data services.
+ * Hibernate statistics are enabled to verify that cached objects are not loaded from the database again
+ * and that concurrent lookups of the same object share one query.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class DataCacheSystemTests extends AbstractSysTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUpStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromCache() {
+        Pos pos = posService.upsert(TestFixtures.getPosFixturesForInsertion().getFirst());
+        User user = userService.upsert(TestFixtures.getUserFixturesForInsertion().getFirst());
+        Long posId = Objects.requireNonNull(pos.id());
+        Long userId = Objects.requireNonNull(user.id());
+        double posHits = cacheHits("pos.id");
+
+        posService.getById(posId);
+        userService.getByLoginName(user.loginName());
+        statistics.clear();
+        for (int i = 0; i < 5; i++) {
+            assertThat(posService.getById(posId).name()).isEqualTo(pos.name());
+            assertThat(userService.getByLoginName(user.loginName()).id()).isEqualTo(userId);
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(cacheHits("pos.id")).isEqualTo(posHits + 5);
+    }
+
+    @Test
+    void writesInvalidateCachedObjects() {
+        Pos pos = posService.upsert(TestFixtures.getPosFixturesForInsertion().getFirst());
+        Long posId = Objects.requireNonNull(pos.id());
+        String oldName = pos.name();
+        posService.getById(posId);
+        posService.getByName(oldName);
+
+        posService.upsert(pos.toBuilder().name("Renamed POS").build());
+
+        assertThat(posService.getById(posId).name()).isEqualTo("Renamed POS");
+        assertThat(posService.getByName("Renamed POS").id()).isEqualTo(posId);
+        assertThrows(NotFoundException.class, () -> posService.getByName(oldName));
+
+        posService.delete(posId);
+
+        assertThrows(NotFoundException.class, () -> posService.getById(posId));
+    }
+
+    @Test
+    void concurrentLookupsOfTheSameMissingPosAreCoalesced() throws Exception {
+        int callers = 2000;
+        long missingId = 999_999L;
+        double leaders = singleFlightCalls("pos.id", "leader");
+        double coalesced = singleFlightCalls("pos.id", "coalesced");
+        statistics.clear();
+
+        List<Future<?>> lookups = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // the lock blocks the query of the first caller until all other callers wait for its outcome
+            try (Connection lock = dataSource.getConnection()) {
+                lock.setAutoCommit(false);
+                try (Statement statement = lock.createStatement()) {
+                    statement.execute("LOCK TABLE pos IN ACCESS EXCLUSIVE MODE");
+                }
+                for (int i = 0; i < callers; i++) {
+                    lookups.add(executor.submit(() -> posService.getById(missingId)));
+                }
+                await().atMost(Duration.ofSeconds(30)).until(() ->
+                        singleFlightCalls("pos.id", "coalesced") - coalesced == callers - 1);
+                lock.rollback();
+            }
+            for (Future<?> lookup : lookups) {
+                ExecutionException e = assertThrows(ExecutionException.class, lookup::get);
+                assertThat(e.getCause()).isInstanceOf(NotFoundException.class);
+            }
+        }
+
+        // failed lookups are not cached, but the query is shared by all callers that arrived while it was running
+        assertThat(singleFlightCalls("pos.id", "leader") - leaders).isEqualTo(1);
+        assertThat(singleFlightCalls("pos.id", "coalesced") - coalesced).isEqualTo(callers - 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private double singleFlightCalls(String name, String result) {
+        return meterRegistry.get("campuscoffee.singleflight.calls")
+                .tag("name", name)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    private double cacheHits(String cacheName) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", cacheName)
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+}
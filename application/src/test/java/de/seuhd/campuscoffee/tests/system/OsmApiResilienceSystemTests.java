@@ -0,0 +1,174 @@
+package de.seuhd.campuscoffee.tests.system;
+
+import de.seuhd.campuscoffee.domain.model.enums.CampusType;
+import de.seuhd.campuscoffee.tests.OsmApiStub;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * System tests for the timeouts, retries, and circuit breaker of the OpenStreetMap API client,
+ * with faults injected by a local stand-in of the OSM API.
+ */
+public class OsmApiResilienceSystemTests extends AbstractSysTest {
+    private static final long NODE_ID = 5589879349L;
+    private static final Duration READ_TIMEOUT = Duration.ofMillis(500);
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(1);
+    private static final OsmApiStub osmApi = OsmApiStub.start();
+
+    @DynamicPropertySource
+    static void configureOsmApi(DynamicPropertyRegistry registry) {
+        registry.add("osm.api.base-url", osmApi::baseUrl);
+        registry.add("osm.api.read-timeout", READ_TIMEOUT::toString);
+        registry.add("osm.api.retry.max-attempts", () -> 3);
+        registry.add("osm.api.retry.initial-backoff", () -> "10ms");
+        registry.add("osm.api.retry.max-backoff", () -> "2s");
+        registry.add("osm.api.circuit-breaker.failure-threshold", () -> 3);
+        registry.add("osm.api.circuit-breaker.open-duration", OPEN_DURATION::toString);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void resetOsmApi() {
+        osmApi.reset();
+        osmApi.putNode(NODE_ID, 1, "Café Resilient");
+        jdbcTemplate.update("DELETE FROM osm_nodes");
+    }
+
+    @Test
+    void transientErrorsAreRetried() {
+        double retries = retries("node");
+        osmApi.failNextRequests(1, HttpStatus.SERVICE_UNAVAILABLE.value(), null);
+        osmApi.failNextRequests(1, HttpStatus.BAD_GATEWAY.value(), null);
+
+        importNode(NODE_ID).statusCode(HttpStatus.CREATED.value());
+
+        assertThat(osmApi.requestCount(NODE_ID)).isEqualTo(3);
+        assertThat(retries("node")).isEqualTo(retries + 2);
+
+        // raw responses of the /nodes endpoint are retried as well
+        jdbcTemplate.update("DELETE FROM osm_nodes");
+        osmApi.failNextRequests(1, HttpStatus.INTERNAL_SERVER_ERROR.value(), null);
+        List<Integer> statusCodes = given()
+                .contentType(ContentType.JSON)
+                .queryParam("campus_type", CampusType.ALTSTADT)
+                .body(List.of(NODE_ID))
+                .when()
+                .post("/api/pos/import/osm")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().jsonPath().getList("statusCode", Integer.class);
+        assertThat(statusCodes).containsExactly(HttpStatus.CREATED.value());
+        assertThat(osmApi.batchRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectedBatchRequestsAreNotReportedAsMissingNodes() {
+        // a client error of the /nodes endpoint is not retried, but the node may still exist
+        osmApi.failNextRequests(1, HttpStatus.URI_TOO_LONG.value(), null);
+        List<Integer> statusCodes = given()
+                .contentType(ContentType.JSON)
+                .queryParam("campus_type", CampusType.ALTSTADT)
+                .body(List.of(NODE_ID))
+                .when()
+                .post("/api/pos/import/osm")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().jsonPath().getList("statusCode", Integer.class);
+        assertThat(statusCodes).containsExactly(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(osmApi.batchRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void retryAfterIsRespected() {
+        osmApi.failNextRequests(1, HttpStatus.TOO_MANY_REQUESTS.value(), 1);
+
+        long start = System.nanoTime();
+        importNode(NODE_ID).statusCode(HttpStatus.CREATED.value());
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofSeconds(1));
+        assertThat(osmApi.requestCount(NODE_ID)).isEqualTo(2);
+
+        // a longer delay than the maximum backoff is not waited for
+        jdbcTemplate.update("DELETE FROM osm_nodes");
+        osmApi.failNextRequests(1, HttpStatus.TOO_MANY_REQUESTS.value(), 60);
+        importNode(NODE_ID).statusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(osmApi.requestCount(NODE_ID)).isEqualTo(3);
+    }
+
+    @Test
+    void timeoutsAreRetried() {
+        osmApi.delayNextRequests(1, READ_TIMEOUT.multipliedBy(2));
+
+        importNode(NODE_ID).statusCode(HttpStatus.CREATED.value());
+
+        assertThat(osmApi.requestCount(NODE_ID)).isEqualTo(2);
+        assertThat(meterRegistry.get("campuscoffee.osm.api.requests")
+                .tag("outcome", "io_error")
+                .timer()
+                .count()).isPositive();
+    }
+
+    @Test
+    void circuitBreakerFailsFastAndRecovers() {
+        double rejected = meterRegistry.get("campuscoffee.osm.api.circuit.rejected").counter().count();
+        osmApi.failNextRequests(3, HttpStatus.INTERNAL_SERVER_ERROR.value(), null);
+
+        // three failed attempts open the circuit
+        importNode(NODE_ID).statusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(osmApi.requestCount(NODE_ID)).isEqualTo(3);
+        assertThat(circuitState()).isEqualTo(1);
+
+        // while the circuit is open, imports fail without contacting the API
+        importNode(NODE_ID).statusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(osmApi.requestCount(NODE_ID)).isEqualTo(3);
+        assertThat(meterRegistry.get("campuscoffee.osm.api.circuit.rejected").counter().count())
+                .isEqualTo(rejected + 1);
+
+        // after the open duration, a successful trial request closes the circuit
+        await().atMost(OPEN_DURATION.multipliedBy(5)).untilAsserted(() ->
+                importNode(NODE_ID).statusCode(HttpStatus.CREATED.value()));
+        assertThat(circuitState()).isZero();
+    }
+
+    private ValidatableResponse importNode(long nodeId) {
+        return given()
+                .queryParam("campus_type", CampusType.ALTSTADT)
+                .when()
+                .post("/api/pos/import/osm/{nodeId}", nodeId)
+                .then();
+    }
+
+    private double retries(String operation) {
+        return meterRegistry.find("campuscoffee.osm.api.retries")
+                .tag("operation", operation)
+                .counters()
+                .stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private double circuitState() {
+        return meterRegistry.get("campuscoffee.osm.api.circuit.state").gauge().value();
+    }
+}
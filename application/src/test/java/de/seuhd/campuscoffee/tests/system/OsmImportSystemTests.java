@@ -0,0 +1,341 @@
+package de.seuhd.campuscoffee.tests.system;
+
+import de.seuhd.campuscoffee.api.dtos.OsmImportJobDto;
+import de.seuhd.campuscoffee.api.dtos.OsmImportReportDto;
+import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.model.enums.CampusType;
+import de.seuhd.campuscoffee.domain.model.enums.OsmExtractFormat;
+import de.seuhd.campuscoffee.domain.model.objects.OsmImportJob;
+import de.seuhd.campuscoffee.domain.model.objects.OsmNode;
+import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.ports.data.OsmDataService;
+import de.seuhd.campuscoffee.tests.OsmApiStub;
+import de.seuhd.campuscoffee.tests.OsmExtractWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * System tests for importing POS from OpenStreetMap nodes, served by a local stand-in of the OSM API,
+ * and from OpenStreetMap extracts.
+ */
+public class OsmImportSystemTests extends AbstractSysTest {
+    private static final long NODE_ID = 5589879349L;
+    private static final OsmApiStub osmApi = OsmApiStub.start();
+
+    @DynamicPropertySource
+    static void configureOsmApi(DynamicPropertyRegistry registry) {
+        registry.add("osm.api.base-url", osmApi::baseUrl);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OsmDataService osmDataService;
+
+    @BeforeEach
+    void resetOsmApi() {
+        osmApi.reset();
+        jdbcTemplate.update("DELETE FROM osm_nodes");
+    }
+
+    @Test
+    void importsWithinTtlAreServedFromCache() {
+        osmApi.putNode(NODE_ID, 1, "Café Stub");
+        double hits = cacheLookups("hit");
+
+        Pos importedPos = posService.importFromOsmNode(NODE_ID, CampusType.ALTSTADT);
+        Pos reimportedPos = posService.importFromOsmNode(NODE_ID, CampusType.ALTSTADT);
+
+        assertThat(importedPos.name()).isEqualTo("Café Stub");
+        assertThat(reimportedPos.id()).isEqualTo(importedPos.id());
+        assertThat(osmApi.requestCount(NODE_ID)).isEqualTo(1);
+        assertThat(cacheLookups("hit")).isEqualTo(hits + 1);
+        assertThat(meterRegistry.get("campuscoffee.osm.cache.hit.ratio").gauge().value()).isPositive();
+    }
+
+    @Test
+    void expiredNodesAreRefreshedByVersion() {
+        osmApi.putNode(NODE_ID, 1, "Café Stub");
+        posService.importFromOsmNode(NODE_ID, CampusType.ALTSTADT);
+        String cachedXml = jdbcTemplate.queryForObject("SELECT xml FROM osm_nodes WHERE node_id = ?", String.class, NODE_ID);
+
+        // unchanged version: the cached response is kept and only its fetch time is renewed
+        expireCachedNodes();
+        double revalidations = cacheLookups("revalidated");
+        assertThat(posService.importFromOsmNode(NODE_ID, CampusType.ALTSTADT).name()).isEqualTo("Café Stub");
+        assertThat(osmApi.requestCount(NODE_ID)).isEqualTo(2);
+        assertThat(cacheLookups("revalidated")).isEqualTo(revalidations + 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT xml FROM osm_nodes WHERE node_id = ?", String.class, NODE_ID))
+                .isEqualTo(cachedXml);
+        posService.importFromOsmNode(NODE_ID, CampusType.ALTSTADT);
+        assertThat(osmApi.requestCount(NODE_ID)).isEqualTo(2);
+
+        // new version: the cached response is replaced
+        expireCachedNodes();
+        osmApi.putNode(NODE_ID, 2, "Café Stub Renamed");
+        assertThat(posService.importFromOsmNode(NODE_ID, CampusType.ALTSTADT).name()).isEqualTo("Café Stub Renamed");
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM osm_nodes WHERE node_id = ?", Long.class, NODE_ID))
+                .isEqualTo(2L);
+    }
+
+    @Test
+    void deletedNodesAreRemovedFromCache() {
+        osmApi.putNode(NODE_ID, 1, "Café Stub");
+        posService.importFromOsmNode(NODE_ID, CampusType.ALTSTADT);
+
+        expireCachedNodes();
+        osmApi.removeNode(NODE_ID);
+
+        assertThatThrownBy(() -> posService.importFromOsmNode(NODE_ID, CampusType.ALTSTADT))
+                .isInstanceOf(NotFoundException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM osm_nodes", Long.class)).isZero();
+    }
+
+    @Test
+    void concurrentFetchesOfTheSameNodeAreCoalesced() throws Exception {
+        int callers = 2000;
+        osmApi.putNode(NODE_ID, 1, "Café Crowded");
+        osmApi.delayNextRequests(1, Duration.ofSeconds(1)); // keep the first fetch in flight while the others arrive
+        double coalesced = singleFlightCalls("osm.node", "coalesced");
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<OsmNode>> fetches = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                fetches.add(executor.submit(() -> {
+                    start.await();
+                    return osmDataService.fetchNode(NODE_ID);
+                }));
+            }
+            start.countDown();
+            for (Future<OsmNode> fetch : fetches) {
+                assertThat(fetch.get().name()).isEqualTo("Café Crowded");
+            }
+        }
+
+        // callers that arrive after the fetch has completed are served from the database cache
+        assertThat(osmApi.requestCount(NODE_ID)).isEqualTo(1);
+        assertThat(singleFlightCalls("osm.node", "coalesced")).isGreaterThan(coalesced);
+    }
+
+    @Test
+    void batchImportFetchesNodesInOneRequest() {
+        osmApi.putNode(NODE_ID, 1, "Café Batch One");
+        osmApi.putNode(NODE_ID + 1, 1, "Café Batch Two");
+
+        assertThat(importNodes(List.of(NODE_ID, NODE_ID + 1, NODE_ID)))
+                .containsExactly(HttpStatus.CREATED.value(), HttpStatus.CREATED.value(), HttpStatus.CREATED.value());
+        assertThat(osmApi.batchRequestCount()).isEqualTo(1);
+        assertThat(osmApi.requestCount(NODE_ID)).isZero();
+        assertThat(posService.getByName("Café Batch Two").osmNodeId()).isEqualTo(NODE_ID + 1);
+        assertThat(posService.getAll()).hasSize(2);
+
+        // cached nodes are not fetched again, and a missing node fails only its own item
+        assertThat(importNodes(List.of(NODE_ID + 2, NODE_ID, NODE_ID + 1)))
+                .containsExactly(HttpStatus.NOT_FOUND.value(), HttpStatus.CREATED.value(), HttpStatus.CREATED.value());
+        assertThat(osmApi.batchRequestCount()).isEqualTo(2);
+        assertThat(osmApi.requestCount(NODE_ID + 2)).isEqualTo(1);
+        assertThat(osmApi.requestCount(NODE_ID)).isZero();
+        assertThat(posService.getAll()).hasSize(2);
+    }
+
+    @Test
+    void importJobRunsInBackgroundAndReportsProgress() {
+        osmApi.putNode(NODE_ID, 1, "Café Job");
+
+        var response = given()
+                .contentType(ContentType.JSON)
+                .queryParam("campus_type", CampusType.ALTSTADT)
+                .body(List.of(NODE_ID, NODE_ID + 1))
+                .when()
+                .post("/api/pos/import/jobs")
+                .then()
+                .statusCode(HttpStatus.ACCEPTED.value())
+                .extract();
+        OsmImportJobDto queuedJob = response.as(OsmImportJobDto.class);
+        assertThat(queuedJob.nodeCount()).isEqualTo(2);
+        assertThat(response.header("Location")).endsWith("/api/pos/import/jobs/" + queuedJob.id());
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(getImportJob(queuedJob.id()).status()).isEqualTo(OsmImportJob.Status.COMPLETED));
+        OsmImportJobDto finishedJob = getImportJob(queuedJob.id());
+        assertThat(finishedJob.processed()).isEqualTo(2);
+        assertThat(finishedJob.imported()).isEqualTo(1);
+        assertThat(finishedJob.skipped()).extracting(OsmImportReportDto.SkippedNodeDto::nodeId).containsExactly(NODE_ID + 1);
+        assertThat(finishedJob.finishedAt()).isNotNull();
+        assertThat(posService.getByName("Café Job").osmNodeId()).isEqualTo(NODE_ID);
+
+        given()
+                .when()
+                .get("/api/pos/import/jobs/{id}", UUID.randomUUID())
+                .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    void extractImportSkipsInvalidNodesAndIsIdempotent() {
+        String extract = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <osm version="0.6" generator="OsmImportSystemTests">
+                 <node id="1" version="1" lat="49.4122" lon="8.7066"/>
+                 <node id="2" version="1" lat="49.4122" lon="8.7066">
+                  <tag k="addr:city" v="Heidelberg"/>
+                  <tag k="addr:housenumber" v="1"/>
+                  <tag k="addr:postcode" v="69117"/>
+                  <tag k="addr:street" v="Hauptstraße"/>
+                  <tag k="amenity" v="cafe"/>
+                  <tag k="name" v="Café Extract"/>
+                 </node>
+                 <node id="3" version="1" lat="49.4122" lon="8.7066">
+                  <tag k="addr:city" v="Heidelberg"/>
+                  <tag k="amenity" v="vending_machine"/>
+                  <tag k="name" v="Vending Machine Without Address"/>
+                 </node>
+                 <node id="4" version="1" lat="49.4122" lon="8.7066">
+                  <tag k="amenity" v="bench"/>
+                 </node>
+                 <way id="5" version="1">
+                  <nd ref="1"/>
+                  <tag k="amenity" v="cafe"/>
+                 </way>
+                </osm>
+                """;
+
+        OsmImportReportDto report = importExtract(extract.getBytes(StandardCharsets.UTF_8), OsmExtractFormat.XML);
+        assertThat(report.nodesRead()).isEqualTo(4L);
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.skipped()).extracting(OsmImportReportDto.SkippedNodeDto::nodeId).containsExactly(3L);
+        Pos importedPos = posService.getByName("Café Extract");
+        assertThat(importedPos.osmNodeId()).isEqualTo(2L);
+
+        // re-importing the extract updates the linked POS instead of creating duplicates
+        assertThat(importExtract(extract.getBytes(StandardCharsets.UTF_8), OsmExtractFormat.XML).imported()).isEqualTo(1);
+        assertThat(posService.getAll()).hasSize(1);
+        assertThat(posService.getByName("Café Extract").id()).isEqualTo(importedPos.id());
+    }
+
+    @Test
+    void pbfExtractImportMatchesXmlExtractImport() {
+        List<OsmExtractWriter.Node> nodes = List.of(
+                new OsmExtractWriter.Node(1, Map.of()),
+                OsmExtractWriter.cafe(2, "Café PBF"),
+                new OsmExtractWriter.Node(3, Map.of("amenity", "cafe", "name", "Café Without Address")),
+                new OsmExtractWriter.Node(4, Map.of("amenity", "bench"))
+        );
+
+        OsmImportReportDto pbfReport = importExtract(OsmExtractWriter.toPbf(nodes), OsmExtractFormat.PBF);
+        Pos importedPos = posService.getByName("Café PBF");
+        OsmImportReportDto xmlReport = importExtract(OsmExtractWriter.toXml(nodes), OsmExtractFormat.XML);
+
+        assertThat(pbfReport.nodesRead()).isEqualTo(4L);
+        assertThat(pbfReport.imported()).isEqualTo(1);
+        assertThat(pbfReport.skipped()).extracting(OsmImportReportDto.SkippedNodeDto::nodeId).containsExactly(3L);
+        assertThat(importedPos.osmNodeId()).isEqualTo(2L);
+        assertThat(xmlReport)
+                .usingRecursiveComparison()
+                .ignoringFields("durationMillis", "nodesPerSecond")
+                .isEqualTo(pbfReport);
+        assertThat(posService.getAll()).hasSize(1);
+    }
+
+    @Test
+    void malformedExtractIsRejected() {
+        given()
+                .contentType(ContentType.XML)
+                .queryParam("campus_type", CampusType.ALTSTADT)
+                .body("<osm><node id=\"1\">")
+                .when()
+                .post("/api/pos/import/osm/extract")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+        given()
+                .contentType(ContentType.BINARY)
+                .queryParam("campus_type", CampusType.ALTSTADT)
+                .queryParam("format", OsmExtractFormat.PBF)
+                .body(new byte[] {0, 0, 0, 1, 0})
+                .when()
+                .post("/api/pos/import/osm/extract")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    private OsmImportJobDto getImportJob(UUID jobId) {
+        return given()
+                .when()
+                .get("/api/pos/import/jobs/{id}", jobId)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().as(OsmImportJobDto.class);
+    }
+
+    private List<Integer> importNodes(List<Long> nodeIds) {
+        return given()
+                .contentType(ContentType.JSON)
+                .queryParam("campus_type", CampusType.ALTSTADT)
+                .body(nodeIds)
+                .when()
+                .post("/api/pos/import/osm")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().jsonPath().getList("statusCode", Integer.class);
+    }
+
+    private OsmImportReportDto importExtract(byte[] extract, OsmExtractFormat format) {
+        return given()
+                .contentType(format == OsmExtractFormat.PBF ? ContentType.BINARY : ContentType.XML)
+                .queryParam("campus_type", CampusType.ALTSTADT)
+                .queryParam("format", format)
+                .body(extract)
+                .when()
+                .post("/api/pos/import/osm/extract")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().as(OsmImportReportDto.class);
+    }
+
+    private void expireCachedNodes() {
+        jdbcTemplate.update("UPDATE osm_nodes SET fetched_at = fetched_at - interval '2 days'");
+    }
+
+    private double singleFlightCalls(String name, String result) {
+        return meterRegistry.get("campuscoffee.singleflight.calls")
+                .tag("name", name)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    private double cacheLookups(String result) {
+        return meterRegistry.get("campuscoffee.osm.cache.lookups")
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+}
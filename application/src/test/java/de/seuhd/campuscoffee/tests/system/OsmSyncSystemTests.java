@@ -0,0 +1,130 @@
+package de.seuhd.campuscoffee.tests.system;
+
+import de.seuhd.campuscoffee.domain.exceptions.ServiceUnavailableException;
+import de.seuhd.campuscoffee.domain.implementation.OsmSync;
+import de.seuhd.campuscoffee.domain.model.enums.CampusType;
+import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
+import de.seuhd.campuscoffee.tests.OsmApiStub;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * System tests for the synchronization of imported POS with OpenStreetMap, served by a local stand-in of the OSM API.
+ * The periodic runs are disabled, so that the tests start the runs themselves.
+ */
+public class OsmSyncSystemTests extends AbstractSysTest {
+    private static final long NODE_ID = 5589879349L;
+    private static final List<Long> NODE_IDS = List.of(NODE_ID, NODE_ID + 1, NODE_ID + 2);
+    private static final Duration BATCH_INTERVAL = Duration.ofMillis(300);
+    private static final OsmApiStub osmApi = OsmApiStub.start();
+
+    @DynamicPropertySource
+    static void configureOsmSync(DynamicPropertyRegistry registry) {
+        registry.add("osm.api.base-url", osmApi::baseUrl);
+        registry.add("osm.api.retry.max-attempts", () -> 1);
+        registry.add("campus-coffee.osm-sync.enabled", () -> false);
+        registry.add("campus-coffee.osm-sync.batch-size", () -> 2);
+        registry.add("campus-coffee.osm-sync.batch-interval", BATCH_INTERVAL::toString);
+    }
+
+    @Autowired
+    private OsmSync osmSync;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void resetOsmSync() {
+        osmApi.reset();
+        jdbcTemplate.update("DELETE FROM osm_nodes");
+        jdbcTemplate.update("UPDATE osm_sync_progress SET last_osm_node_id = NULL, started_at = NULL, finished_at = now()");
+        for (int i = 0; i < NODE_IDS.size(); i++) {
+            osmApi.putNode(NODE_IDS.get(i), 1, "Café Sync " + i);
+        }
+        List<UpsertResult<Pos, Long>> results = posService.importFromOsmNodes(NODE_IDS, CampusType.ALTSTADT);
+        assertThat(results).allMatch(UpsertResult::isSuccess);
+    }
+
+    @Test
+    void onlyChangedNodesAreUpdated() throws InterruptedException {
+        // the first run stores the hashes of the nodes
+        assertThat(osmSync.run()).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM pos WHERE osm_tags_hash IS NOT NULL",
+                Integer.class)).isEqualTo(NODE_IDS.size());
+
+        // one node changes in OpenStreetMap, another POS is changed in CampusCoffee
+        osmApi.putNode(NODE_ID + 1, 2, "Café Renamed");
+        posService.upsert(posByNodeId(NODE_ID).toBuilder()
+                .campus(CampusType.BERGHEIM)
+                .build());
+        Pos editedPos = posByNodeId(NODE_ID);
+        Pos unchangedPos = posByNodeId(NODE_ID + 2);
+        double checked = meterRegistry.get("campuscoffee.osm.sync.nodes.checked").counter().count();
+        double changed = meterRegistry.get("campuscoffee.osm.sync.nodes.changed").counter().count();
+        long batches = meterRegistry.get("campuscoffee.osm.sync.batches").timer().count();
+        int batchRequests = osmApi.batchRequestCount();
+
+        long start = System.nanoTime();
+        assertThat(osmSync.run()).isTrue();
+
+        // the changed node is applied to its POS, which keeps its campus; the other POS are not written
+        Pos renamedPos = posByNodeId(NODE_ID + 1);
+        assertThat(renamedPos.name()).isEqualTo("Café Renamed");
+        assertThat(renamedPos.campus()).isEqualTo(CampusType.ALTSTADT);
+        assertThat(posByNodeId(NODE_ID)).isEqualTo(editedPos);
+        assertThat(posByNodeId(NODE_ID + 2)).isEqualTo(unchangedPos);
+
+        // two batches with one request each, rate-limited by the batch interval
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(BATCH_INTERVAL);
+        assertThat(osmApi.batchRequestCount()).isEqualTo(batchRequests + 2);
+        assertThat(meterRegistry.get("campuscoffee.osm.sync.nodes.checked").counter().count())
+                .isEqualTo(checked + NODE_IDS.size());
+        assertThat(meterRegistry.get("campuscoffee.osm.sync.nodes.changed").counter().count())
+                .isEqualTo(changed + 1);
+        assertThat(meterRegistry.get("campuscoffee.osm.sync.batches").timer().count()).isEqualTo(batches + 2);
+    }
+
+    @Test
+    void interruptedRunIsResumed() throws InterruptedException {
+        // the OSM API is unavailable: the run stops without progress
+        osmApi.failNextRequests(1, HttpStatus.SERVICE_UNAVAILABLE.value(), null);
+        assertThatThrownBy(osmSync::run).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(jdbcTemplate.queryForObject("SELECT finished_at IS NULL FROM osm_sync_progress", Boolean.class))
+                .isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT last_osm_node_id FROM osm_sync_progress", Long.class))
+                .isNull();
+
+        // the application stops after the first batch: the next run continues with the second batch
+        jdbcTemplate.update("UPDATE osm_sync_progress SET last_osm_node_id = ?", NODE_ID + 1);
+        int batchRequests = osmApi.batchRequestCount();
+        assertThat(osmSync.run()).isTrue();
+
+        assertThat(osmApi.batchRequestCount()).isEqualTo(batchRequests + 1);
+        assertThat(jdbcTemplate.queryForList("SELECT osm_node_id FROM pos WHERE osm_tags_hash IS NOT NULL", Long.class))
+                .containsExactly(NODE_ID + 2);
+        assertThat(jdbcTemplate.queryForObject("SELECT finished_at IS NOT NULL FROM osm_sync_progress", Boolean.class))
+                .isTrue();
+    }
+
+    private Pos posByNodeId(long nodeId) {
+        Long posId = jdbcTemplate.queryForObject("SELECT id FROM pos WHERE osm_node_id = ?", Long.class, nodeId);
+        return posService.getById(Objects.requireNonNull(posId));
+    }
+}
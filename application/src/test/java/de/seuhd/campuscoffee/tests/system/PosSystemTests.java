@@ -1,24 +1,55 @@
 package de.seuhd.campuscoffee.tests.system;
 
+import de.seuhd.campuscoffee.api.controller.CrudController;
 import de.seuhd.campuscoffee.api.dtos.PosDto;
+import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.Review;
+import de.seuhd.campuscoffee.domain.ports.data.PosDataService;
 import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.http.ContentType;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 
 import static de.seuhd.campuscoffee.tests.SystemTestUtils.Requests.posRequests;
 import static de.seuhd.campuscoffee.tests.SystemTestUtils.assertEqualsIgnoringIdAndTimestamps;
 import static de.seuhd.campuscoffee.tests.SystemTestUtils.assertEqualsIgnoringTimestamps;
+import static io.restassured.RestAssured.given;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * System tests for the operations related to POS (Point of Sale).
  */
 public class PosSystemTests extends AbstractSysTest {
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PosDataService posDataService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void createPos() {
         Pos posToCreate = TestFixtures.getPosFixturesForInsertion().getFirst();
@@ -39,6 +70,42 @@ public class PosSystemTests extends AbstractSysTest {
         assertEqualsIgnoringTimestamps(retrievedPos, createdPosList);
     }
 
+    @Test
+    void getAllPosPageByPage() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+
+        // follow the cursors with a page size of two until the last page (without a cursor) is reached
+        List<Pos> retrievedPos = new ArrayList<>();
+        String cursor = null;
+        int pageCount = 0;
+        do {
+            ExtractableResponse<Response> page = posRequests.retrievePage(2, cursor);
+            page.jsonPath().getList("$", PosDto.class).stream()
+                    .map(posDtoMapper::toDomain)
+                    .forEach(retrievedPos::add);
+            cursor = page.header(CrudController.NEXT_CURSOR_HEADER);
+            pageCount++;
+        } while (cursor != null);
+
+        assertThat(pageCount).isEqualTo((createdPosList.size() + 1) / 2);
+        assertEqualsIgnoringTimestamps(retrievedPos, createdPosList);
+    }
+
+    @Test
+    void exportAllCreatedPos() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+
+        List<Pos> exportedPos = posRequests.export()
+                .stream()
+                .map(posDtoMapper::toDomain)
+                .toList();
+
+        assertEqualsIgnoringTimestamps(exportedPos, createdPosList);
+        assertThat(exportedPos)
+                .extracting(Pos::id)
+                .isSorted();
+    }
+
     @Test
     void getPosById() {
         List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
@@ -82,6 +149,64 @@ public class PosSystemTests extends AbstractSysTest {
         assertEqualsIgnoringTimestamps(retrievedPos, posToUpdate);
     }
 
+    @Test
+    void updatePosWithOutdatedVersion() {
+        Long posId = Objects.requireNonNull(TestFixtures.createPosFixtures(posService).getFirst().id());
+        ExtractableResponse<Response> retrieved = given()
+                .when()
+                .get("/api/pos/{id}", posId)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract();
+        PosDto pos = retrieved.as(PosDto.class);
+        String eTag = retrieved.header(HttpHeaders.ETAG);
+        assertThat(eTag).isEqualTo("\"" + pos.version() + "\"");
+
+        // an update based on the current version is applied and increments the version
+        ExtractableResponse<Response> updated = updatePos(
+                pos.toBuilder().description("First update").build(), eTag, HttpStatus.OK);
+        PosDto updatedPos = updated.as(PosDto.class);
+        assertThat(updatedPos.version()).isEqualTo(Objects.requireNonNull(pos.version()) + 1);
+        assertThat(updated.header(HttpHeaders.ETAG)).isEqualTo("\"" + updatedPos.version() + "\"");
+
+        // another update based on the same version would overwrite the first one, with or without If-Match
+        PosDto lostUpdate = pos.toBuilder().description("Lost update").build();
+        updatePos(lostUpdate, eTag, HttpStatus.PRECONDITION_FAILED);
+        updatePos(lostUpdate, null, HttpStatus.PRECONDITION_FAILED);
+        // the If-Match header must match the version in the body
+        updatePos(lostUpdate.toBuilder().version(updatedPos.version()).build(), eTag, HttpStatus.BAD_REQUEST);
+        assertThat(posRequests.retrieveById(posId).description()).isEqualTo("First update");
+
+        // an update without a version is applied regardless of the current version
+        PosDto unconditionalUpdate = pos.toBuilder().version(null).description("Unconditional update").build();
+        assertThat(updatePos(unconditionalUpdate, null, HttpStatus.OK).as(PosDto.class).version())
+                .isEqualTo(Objects.requireNonNull(updatedPos.version()) + 1);
+    }
+
+    @Test
+    void updatePosWithoutChanges() {
+        Long posId = Objects.requireNonNull(TestFixtures.createPosFixtures(posService).getFirst().id());
+        PosDto pos = posRequests.retrieveById(posId);
+        double unchangedUpdates = unchangedPosUpdates();
+
+        // re-sending the stored POS is not written, so its update timestamp and version are kept
+        ExtractableResponse<Response> unchanged = updatePos(pos, null, HttpStatus.OK);
+        assertThat(unchanged.header(CrudController.UNCHANGED_HEADER)).isEqualTo("true");
+        assertThat(unchanged.header(HttpHeaders.ETAG)).isEqualTo("\"" + pos.version() + "\"");
+        assertThat(unchanged.as(PosDto.class)).isEqualTo(pos);
+        assertThat(posRequests.retrieveById(posId)).isEqualTo(pos);
+        assertThat(unchangedPosUpdates()).isEqualTo(unchangedUpdates + 1);
+
+        // an actual change is written as before
+        ExtractableResponse<Response> changed = updatePos(
+                pos.toBuilder().description("Changed description").build(), null, HttpStatus.OK);
+        assertThat(changed.header(CrudController.UNCHANGED_HEADER)).isNull();
+        PosDto changedPos = changed.as(PosDto.class);
+        assertThat(changedPos.version()).isEqualTo(Objects.requireNonNull(pos.version()) + 1);
+        assertThat(changedPos.updatedAt()).isAfter(pos.updatedAt());
+        assertThat(unchangedPosUpdates()).isEqualTo(unchangedUpdates + 1);
+    }
+
     @Test
     void deletePos() {
         List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
@@ -101,4 +226,187 @@ public class PosSystemTests extends AbstractSysTest {
         assertThat(remainingPosIds)
                 .doesNotContain(posToDelete.id());
     }
+
+    @Test
+    void deletePosWithReviews() {
+        TestFixtures.createUserFixtures(userService);
+        TestFixtures.createPosFixtures(posService);
+        List<Review> reviews = TestFixtures.createReviewFixtures(reviewService);
+        Long posId = Objects.requireNonNull(reviews.getFirst().pos().id());
+        List<Review> otherReviews = reviews.stream()
+                .filter(review -> !posId.equals(review.pos().id()))
+                .toList();
+
+        // without cascading, a POS with reviews is not deleted
+        deletePos(posId, false, HttpStatus.BAD_REQUEST);
+        assertThat(posService.getById(posId).id()).isEqualTo(posId);
+        assertThat(reviewService.getAll()).hasSameSizeAs(reviews);
+
+        // with cascading, the POS and its reviews are deleted in one transaction
+        deletePos(posId, true, HttpStatus.NO_CONTENT);
+        assertThat(reviewService.getAll())
+                .extracting(Review::id)
+                .containsExactlyInAnyOrderElementsOf(otherReviews.stream().map(Review::id).toList());
+        deletePos(posId, true, HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void batchCreateAndUpdatePos() {
+        PosDto template = posDtoMapper.fromDomain(TestFixtures.getPosFixturesForInsertion().getFirst());
+        List<PosDto> posToCreate = IntStream.range(0, 250)
+                .mapToObj(i -> template.toBuilder().name("Batch POS " + i).build())
+                .toList();
+
+        ExtractableResponse<Response> created = posRequests.batch(posToCreate);
+
+        assertThat(created.jsonPath().getList("statusCode", Integer.class))
+                .hasSize(posToCreate.size())
+                .containsOnly(HttpStatus.CREATED.value());
+        List<PosDto> createdPos = created.jsonPath().getList("resource", PosDto.class);
+        assertThat(createdPos)
+                .extracting(PosDto::name)
+                .containsExactlyElementsOf(posToCreate.stream().map(PosDto::name).toList());
+        assertThat(posRequests.export()).hasSize(posToCreate.size());
+
+        List<PosDto> posToUpdate = createdPos.stream()
+                .map(pos -> pos.toBuilder().description("Updated in batch").build())
+                .toList();
+
+        ExtractableResponse<Response> updated = posRequests.batch(posToUpdate);
+
+        assertThat(updated.jsonPath().getList("statusCode", Integer.class))
+                .containsOnly(HttpStatus.OK.value());
+        assertThat(posRequests.retrieveById(createdPos.getFirst().id()).description())
+                .isEqualTo("Updated in batch");
+    }
+
+    @Test
+    void batchReportsErrorsPerItem() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+        PosDto template = posDtoMapper.fromDomain(TestFixtures.getPosFixturesForInsertion().getFirst());
+        List<PosDto> batch = List.of(
+                template.toBuilder().name("New POS").build(),
+                template.toBuilder().name(createdPosList.getFirst().name()).build(), // duplicate name
+                template.toBuilder().name("Invalid POS").description("").build(), // violates the DTO constraints
+                template.toBuilder().id(Long.MAX_VALUE).name("Unknown POS").build(), // unknown ID
+                template.toBuilder().name("Another new POS").build()
+        );
+
+        ExtractableResponse<Response> response = posRequests.batch(batch);
+
+        assertThat(response.jsonPath().getList("statusCode", Integer.class))
+                .containsExactly(
+                        HttpStatus.CREATED.value(),
+                        HttpStatus.CONFLICT.value(),
+                        HttpStatus.BAD_REQUEST.value(),
+                        HttpStatus.NOT_FOUND.value(),
+                        HttpStatus.CREATED.value()
+                );
+        assertThat(response.jsonPath().getString("[1].error.errorCode")).isEqualTo("DuplicationException");
+        assertThat(posRequests.retrieveAll())
+                .extracting(PosDto::name)
+                .contains("New POS", "Another new POS")
+                .doesNotContain("Invalid POS", "Unknown POS");
+    }
+
+    @Test
+    void idsAreAllocatedInBlocksAndRestartAfterClear() {
+        List<Pos> createdPosList = TestFixtures.createPosFixtures(posService);
+
+        // all IDs come from the first block, which was allocated with one call to the sequence
+        assertThat(createdPosList)
+                .extracting(Pos::id)
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, createdPosList.size()).boxed().toList());
+        assertThat(jdbcTemplate.queryForObject("SELECT last_value FROM pos_seq", Long.class)).isEqualTo(1L);
+
+        posService.clear();
+
+        assertThat(TestFixtures.createPosFixtures(posService).getFirst().id()).isEqualTo(1L);
+    }
+
+    @Test
+    void concurrentImportsOfTheSameNewOsmNodeSucceed() throws Exception {
+        Pos posToImport = TestFixtures.getPosFixturesForInsertion().getFirst().toBuilder()
+                .osmNodeId(5589879349L)
+                .build();
+
+        // the imports that wait for the first insert must still return the POS it has inserted
+        List<Pos> importedPosList = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            List<Future<Pos>> imports = IntStream.range(0, 16)
+                    .mapToObj(i -> executor.submit(() -> posDataService.upsertByOsmNodeId(posToImport)))
+                    .toList();
+            for (Future<Pos> future : imports) {
+                importedPosList.add(future.get());
+            }
+        }
+
+        assertThat(importedPosList)
+                .extracting(Pos::id)
+                .containsOnly(importedPosList.getFirst().id());
+        assertThat(posRequests.retrieveAll()).hasSize(1);
+    }
+
+    @Test
+    void reimportFromOsmNodeUpdatesOnlyChangedPos() {
+        Pos posToImport = TestFixtures.getPosFixturesForInsertion().getFirst().toBuilder()
+                .osmNodeId(5589879349L)
+                .build();
+
+        Pos importedPos = posDataService.upsertByOsmNodeId(posToImport);
+        assertEqualsIgnoringIdAndTimestamps(importedPos, posToImport);
+
+        // an unchanged node does not write the POS
+        Pos reimportedPos = posDataService.upsertByOsmNodeId(posToImport);
+        assertThat(reimportedPos.id()).isEqualTo(importedPos.id());
+        assertThat(reimportedPos.updatedAt()).isEqualTo(importedPos.updatedAt());
+
+        // a changed node updates the linked POS
+        Pos changedPos = posDataService.upsertByOsmNodeId(posToImport.toBuilder().description("New description").build());
+        assertThat(changedPos.id()).isEqualTo(importedPos.id());
+        assertThat(changedPos.description()).isEqualTo("New description");
+        assertThat(changedPos.createdAt()).isEqualTo(importedPos.createdAt());
+        assertThat(changedPos.updatedAt()).isAfter(importedPos.updatedAt());
+        assertThat(posService.getById(importedPos.id()).description()).isEqualTo("New description");
+
+        // another node with the same name is rejected
+        assertThatThrownBy(() -> posDataService.upsertByOsmNodeId(posToImport.toBuilder().osmNodeId(42L).build()))
+                .isInstanceOf(DuplicationException.class);
+
+        // updates through the API keep the link to the node
+        posRequests.update(List.of(posDtoMapper.fromDomain(changedPos.toBuilder().osmNodeId(null).build())));
+        assertThat(posService.getById(importedPos.id()).osmNodeId()).isEqualTo(5589879349L);
+        assertThat(posService.getAll()).hasSize(1);
+    }
+
+    private ExtractableResponse<Response> updatePos(PosDto pos, @Nullable String ifMatch, HttpStatus expectedStatus) {
+        RequestSpecification request = given()
+                .contentType(ContentType.JSON)
+                .body(pos);
+        if (ifMatch != null) {
+            request.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+        return request
+                .when()
+                .put("/api/pos/{id}", pos.id())
+                .then()
+                .statusCode(expectedStatus.value())
+                .extract();
+    }
+
+    private double unchangedPosUpdates() {
+        Counter counter = meterRegistry.find("campuscoffee.updates.unchanged")
+                .tag("type", "Pos")
+                .counter();
+        return counter == null ? 0 : counter.count(); // registered with the first unchanged update
+    }
+
+    private void deletePos(Long posId, boolean cascade, HttpStatus expectedStatus) {
+        given()
+                .queryParam("cascade", cascade)
+                .when()
+                .delete("/api/pos/{id}", posId)
+                .then()
+                .statusCode(expectedStatus.value());
+    }
 }
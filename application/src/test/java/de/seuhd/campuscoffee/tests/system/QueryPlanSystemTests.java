@@ -0,0 +1,234 @@
+package de.seuhd.campuscoffee.tests.system;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.seuhd.campuscoffee.data.persistence.entities.PosEntity;
+import de.seuhd.campuscoffee.data.persistence.repositories.EntityRepository;
+import de.seuhd.campuscoffee.data.persistence.repositories.PosRepository;
+import de.seuhd.campuscoffee.data.persistence.repositories.ReviewRepository;
+import de.seuhd.campuscoffee.data.persistence.repositories.UserRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query plan regression tests for the repositories.
+ * A large dataset is seeded and analyzed, so that the planner prefers indexes where they exist. Each derived
+ * repository query is run once to record the SQL that Hibernate generates for it, and the statements are explained
+ * with {@code EXPLAIN (GENERIC_PLAN, FORMAT JSON)}, i.e., with the plan that prepared statements end up using
+ * regardless of the parameter values. A query fails if its plan contains a sequential scan that filters rows,
+ * which means that the rows are searched in the whole table instead of being looked up in an index.
+ * Unfiltered sequential scans are allowed, e.g., as the build side of a hash join.
+ */
+public class QueryPlanSystemTests extends AbstractSysTest {
+    private static final int POS_COUNT = 1_000;
+    private static final int USER_COUNT = 20_000;
+    private static final int REVIEWS_PER_AUTHOR = 5; // 100 reviews per POS, each by a different author
+    private static final int REVIEW_COUNT = USER_COUNT * REVIEWS_PER_AUTHOR;
+    private static final StatementRecorder statementRecorder = new StatementRecorder();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Registers the statement recorder with Hibernate.
+     */
+    @TestConfiguration
+    static class StatementRecording {
+        @Bean
+        HibernatePropertiesCustomizer statementRecorderCustomizer() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementRecorder);
+        }
+    }
+
+    @Autowired
+    private PosRepository posRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seedDataset() {
+        jdbcTemplate.update("""
+                INSERT INTO pos (id, created_at, updated_at, name, type, campus, street, house_number, postal_code, city)
+                SELECT i, now(), now(), 'POS ' || i, 'CAFE', 'ALTSTADT', 'Hauptstraße', i, 69117, 'Heidelberg'
+                FROM generate_series(1, ?) AS i""", POS_COUNT);
+        jdbcTemplate.update("""
+                INSERT INTO users (id, created_at, updated_at, login_name, email_address, first_name, last_name)
+                SELECT i, now(), now(), 'user' || i, 'user' || i || '@example.com', 'First', 'Last'
+                FROM generate_series(1, ?) AS i""", USER_COUNT);
+        // every tenth review is pending, the others have one approval
+        jdbcTemplate.update("""
+                INSERT INTO reviews (id, created_at, updated_at, pos_id, author_id, review, approval_count, approved)
+                SELECT i, now(), now(), (i - 1) % ? + 1, (i - 1) / ? + 1, 'Review ' || i,
+                       CASE WHEN i % 10 = 0 THEN 0 ELSE 1 END, i % 10 <> 0
+                FROM generate_series(1, ?) AS i""", POS_COUNT, REVIEWS_PER_AUTHOR, REVIEW_COUNT);
+        jdbcTemplate.update("""
+                INSERT INTO review_approvals (review_id, user_id, created_at)
+                SELECT id, author_id % ? + 1, now() FROM reviews WHERE approved""", USER_COUNT);
+        jdbcTemplate.execute("ANALYZE pos, users, reviews, review_approvals");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> derivedQueriesUseIndexes() {
+        long posId = POS_COUNT / 2;
+        List<DynamicTest> tests = new ArrayList<>(List.of(
+                query("PosRepository.findByName", () -> posRepository.findByName("POS " + posId)),
+                query("UserRepository.findByLoginName", () -> userRepository.findByLoginName("user" + USER_COUNT / 2)),
+                query("ReviewRepository.findAllByPosAndApproved", () ->
+                        reviewRepository.findAllByPosAndApproved(pos(posId), true)),
+                query("ReviewRepository.findAllByPosAndApproved (pending)", () ->
+                        reviewRepository.findAllByPosAndApproved(pos(posId), false)),
+                query("ReviewRepository.findById", () -> reviewRepository.findById(posId))
+        ));
+        tests.addAll(paginationQueries("PosRepository", posRepository));
+        tests.addAll(paginationQueries("UserRepository", userRepository));
+        tests.addAll(paginationQueries("ReviewRepository", reviewRepository));
+        return tests.stream();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> foreignKeyChecksUseIndexes() {
+        // the statements that PostgreSQL runs for the foreign keys when a POS or user is deleted
+        return Stream.of(
+                statement("reviews.pos_id", "SELECT 1 FROM ONLY reviews x WHERE ? = pos_id FOR KEY SHARE OF x"),
+                statement("reviews.author_id", "SELECT 1 FROM ONLY reviews x WHERE ? = author_id FOR KEY SHARE OF x"),
+                statement("review_approvals.user_id", "DELETE FROM ONLY review_approvals WHERE ? = user_id"),
+                statement("review_approvals.review_id", "DELETE FROM ONLY review_approvals WHERE ? = review_id")
+        );
+    }
+
+    private <ENTITY> List<DynamicTest> paginationQueries(String name, EntityRepository<ENTITY, Long> repository) {
+        return List.of(
+                query(name + ".findAllByOrderByIdAsc", () -> repository.findAllByOrderByIdAsc(Limit.of(20))),
+                query(name + ".findAllByIdGreaterThanOrderByIdAsc", () ->
+                        repository.findAllByIdGreaterThanOrderByIdAsc(100L, Limit.of(20))),
+                query(name + ".streamAllByOrderByIdAsc", () -> {
+                    try (Stream<ENTITY> entities = repository.streamAllByOrderByIdAsc()) {
+                        entities.findFirst();
+                    }
+                })
+        );
+    }
+
+    private DynamicTest query(String name, Runnable query) {
+        return DynamicTest.dynamicTest(name, () -> {
+            List<String> statements = recordStatements(query);
+            assertThat(statements).as("SQL statements of %s", name).isNotEmpty();
+            statements.forEach(this::assertNoFilteringSequentialScan);
+        });
+    }
+
+    private DynamicTest statement(String name, String sql) {
+        return DynamicTest.dynamicTest(name, () -> assertNoFilteringSequentialScan(sql));
+    }
+
+    private PosEntity pos(long id) {
+        return posRepository.getReferenceById(id);
+    }
+
+    private List<String> recordStatements(Runnable query) {
+        statementRecorder.start();
+        try {
+            transactionTemplate.executeWithoutResult(status -> query.run());
+        } finally {
+            statementRecorder.stop();
+        }
+        return statementRecorder.statements();
+    }
+
+    private void assertNoFilteringSequentialScan(String sql) {
+        String plan = explain(sql);
+        List<String> sequentialScans = new ArrayList<>();
+        try {
+            collectFilteringSequentialScans(objectMapper.readTree(plan).get(0).get("Plan"), sequentialScans::add);
+        } catch (Exception e) {
+            throw new AssertionError("Could not parse the plan of " + sql, e);
+        }
+        assertThat(sequentialScans)
+                .as("Sequential scans in the plan of%n%s%n%s", sql, plan)
+                .isEmpty();
+    }
+
+    /**
+     * Explains a statement with its JDBC parameter placeholders turned into numbered parameters,
+     * which EXPLAIN (GENERIC_PLAN) leaves unbound.
+     */
+    private String explain(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return jdbcTemplate.queryForObject("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numbered, String.class);
+    }
+
+    private static void collectFilteringSequentialScans(@Nullable JsonNode node, Consumer<String> sequentialScans) {
+        if (node == null) {
+            return;
+        }
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && node.has("Filter")) {
+            sequentialScans.accept(node.path("Relation Name").asText() + " (" + node.path("Filter").asText() + ")");
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectFilteringSequentialScans(child, sequentialScans);
+        }
+    }
+
+    /**
+     * Records the SQL statements that Hibernate prepares on the thread that started the recording.
+     */
+    private static final class StatementRecorder implements StatementInspector {
+        private final List<String> statements = new ArrayList<>();
+        private volatile @Nullable Thread recordingThread;
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == recordingThread) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+
+        void start() {
+            statements.clear();
+            recordingThread = Thread.currentThread();
+        }
+
+        void stop() {
+            recordingThread = null;
+        }
+
+        List<String> statements() {
+            return List.copyOf(statements);
+        }
+    }
+}
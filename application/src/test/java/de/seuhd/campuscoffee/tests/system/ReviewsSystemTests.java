@@ -0,0 +1,283 @@
+package de.seuhd.campuscoffee.tests.system;
+
+import de.seuhd.campuscoffee.api.dtos.ReviewDto;
+import de.seuhd.campuscoffee.domain.exceptions.ValidationException;
+import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.Review;
+import de.seuhd.campuscoffee.domain.model.objects.User;
+import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static de.seuhd.campuscoffee.tests.SystemTestUtils.Requests.reviewRequests;
+import static de.seuhd.campuscoffee.tests.SystemTestUtils.assertEqualsIgnoringFields;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * System tests for the operations related to reviews.
+ * Hibernate statistics are enabled to verify the number of SQL statements per operation.
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ReviewsSystemTests extends AbstractSysTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private int nameSuffix = 0;
+
+    @BeforeEach
+    void setUpStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void getAllCreatedReviews() {
+        List<Review> createdReviews = createReviews(2, 2);
+
+        List<Review> retrievedReviews = reviewRequests.retrieveAll()
+                .stream()
+                .map(reviewDtoMapper::toDomain)
+                .toList();
+
+        assertThat(retrievedReviews)
+                .extracting(Review::id)
+                .containsExactlyInAnyOrderElementsOf(createdReviews.stream().map(Review::id).toList());
+    }
+
+    @Test
+    void getReviewById() {
+        Review createdReview = createReviews(1, 2).getFirst();
+
+        Review retrievedReview = reviewService.getById(Objects.requireNonNull(createdReview.id()));
+
+        assertEqualsIgnoringFields(retrievedReview, createdReview,
+                "createdAt", "updatedAt", "pos.createdAt", "pos.updatedAt", "author.createdAt", "author.updatedAt");
+    }
+
+    @Test
+    void listingReviewsUsesConstantNumberOfStatements() {
+        createReviews(2, 2);
+        long statementsForFewReviews = countStatements(() -> reviewService.getAll());
+        long statementsForFirstPageOfFewReviews = countStatements(() -> reviewService.getPage(null, 100));
+
+        reviewService.clear();
+        createReviews(6, 5);
+        long statementsForManyReviews = countStatements(() -> reviewService.getAll());
+        long statementsForFirstPageOfManyReviews = countStatements(() -> reviewService.getPage(null, 100));
+
+        // POS and authors are fetched in the same statement as the reviews
+        assertThat(statementsForFewReviews).isEqualTo(1);
+        assertThat(statementsForManyReviews).isEqualTo(statementsForFewReviews);
+        assertThat(statementsForFirstPageOfFewReviews).isEqualTo(1);
+        assertThat(statementsForFirstPageOfManyReviews).isEqualTo(statementsForFirstPageOfFewReviews);
+    }
+
+    @Test
+    void filteringReviewsUsesConstantNumberOfStatements() {
+        List<Review> fewReviews = createReviews(1, 2);
+        Long firstPosId = Objects.requireNonNull(fewReviews.getFirst().pos().id());
+        long statementsForFewReviews = countStatements(() -> reviewService.filter(firstPosId, false));
+
+        reviewService.clear();
+        List<Review> manyReviews = createReviews(2, 8);
+        Long otherPosId = Objects.requireNonNull(manyReviews.getFirst().pos().id());
+        long statementsForManyReviews = countStatements(() -> reviewService.filter(otherPosId, false));
+
+        // one statement for the reviews including their POS and authors (the POS itself is cached)
+        assertThat(statementsForFewReviews).isEqualTo(1);
+        assertThat(statementsForManyReviews).isEqualTo(statementsForFewReviews);
+    }
+
+    @Test
+    void approveReviewUntilQuorumIsReached() {
+        List<Review> createdReviews = createReviews(1, 4);
+        Review review = createdReviews.getFirst();
+        Long reviewId = Objects.requireNonNull(review.id());
+
+        // the author cannot approve their own review
+        approve(reviewId, Objects.requireNonNull(review.author().id()), HttpStatus.BAD_REQUEST);
+
+        // the other three users approve the review (the quorum is three approvals)
+        List<ReviewDto> approvedReviews = createdReviews.stream()
+                .skip(1)
+                .map(otherReview -> approve(reviewId, Objects.requireNonNull(otherReview.author().id()), HttpStatus.OK)
+                        .as(ReviewDto.class))
+                .toList();
+
+        assertThat(approvedReviews)
+                .extracting(ReviewDto::approved)
+                .containsExactly(false, false, true);
+        assertThat(reviewService.getById(reviewId).approvalCount()).isEqualTo(3);
+    }
+
+    @Test
+    void approveReviewOnlyOncePerUser() {
+        List<Review> createdReviews = createReviews(1, 2);
+        Long reviewId = Objects.requireNonNull(createdReviews.getFirst().id());
+        Long userId = Objects.requireNonNull(createdReviews.getLast().author().id());
+
+        approve(reviewId, userId, HttpStatus.OK);
+        approve(reviewId, userId, HttpStatus.BAD_REQUEST);
+
+        assertThat(reviewService.getById(reviewId).approvalCount()).isEqualTo(1);
+    }
+
+    @Test
+    void approveReviewReturnsNotFoundForUnknownReviewOrUser() {
+        Review review = createReviews(1, 2).getLast();
+        Long reviewId = Objects.requireNonNull(review.id());
+
+        approve(reviewId + 1000, Objects.requireNonNull(review.author().id()), HttpStatus.NOT_FOUND);
+        approve(reviewId, 1000L, HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void concurrentApprovalsAreNotLost() throws Exception {
+        int approverCount = 40;
+        List<Review> createdReviews = createReviews(1, approverCount + 1);
+        Long reviewId = Objects.requireNonNull(createdReviews.getFirst().id());
+        List<Long> approverIds = createdReviews.stream()
+                .skip(1)
+                .map(review -> Objects.requireNonNull(review.author().id()))
+                .toList();
+
+        // all approvers approve the same review at the same time
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            List<Future<Review>> approvals = approverIds.stream()
+                    .map(userId -> executor.submit(() -> reviewService.approve(reviewId, userId)))
+                    .toList();
+            for (Future<Review> approval : approvals) {
+                approval.get();
+            }
+        }
+
+        Review approvedReview = reviewService.getById(reviewId);
+        assertThat(approvedReview.approvalCount()).isEqualTo(approverCount);
+        assertThat(approvedReview.approved()).isTrue();
+    }
+
+    @Test
+    void concurrentReviewsOfTheSameAuthorAndPosAreRejected() throws Exception {
+        Review existingReview = createReviews(1, 1).getFirst();
+        Review review = existingReview.toBuilder()
+                .id(null)
+                .createdAt(null)
+                .updatedAt(null)
+                .review("Another review of the same POS")
+                .build();
+
+        // the duplicate is rejected by the unique constraint with a validation error
+        assertThat(reviewRequests.createAndReturnStatusCodes(List.of(reviewDtoMapper.fromDomain(review))))
+                .containsExactly(HttpStatus.BAD_REQUEST.value());
+
+        // of concurrent submissions of the same new review, exactly one is created
+        User author = userService.upsert(TestFixtures.getUserFixturesForInsertion().getFirst().toBuilder()
+                .loginName("user_" + (++nameSuffix))
+                .emailAddress("user." + nameSuffix + "@uni-heidelberg.de")
+                .build());
+        Review newReview = review.toBuilder().author(author).build();
+        int created = 0;
+        int rejected = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            List<Future<Review>> submissions = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                submissions.add(executor.submit(() -> reviewService.upsert(newReview)));
+            }
+            for (Future<Review> submission : submissions) {
+                try {
+                    submission.get();
+                    created++;
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(ValidationException.class);
+                    rejected++;
+                }
+            }
+        }
+        assertThat(created).isEqualTo(1);
+        assertThat(rejected).isEqualTo(15);
+        assertThat(reviewService.getAll()).hasSize(2);
+    }
+
+    /**
+     * Sends an approval request for a review and checks the status code.
+     *
+     * @param reviewId       the ID of the review to approve
+     * @param userId         the ID of the approving user
+     * @param expectedStatus the expected HTTP status
+     * @return the extracted response
+     */
+    private ExtractableResponse<Response> approve(
+            Long reviewId, Long userId, HttpStatus expectedStatus) {
+        return given()
+                .queryParam("user_id", userId)
+                .when()
+                .put("/api/reviews/{id}/approve", reviewId)
+                .then()
+                .statusCode(expectedStatus.value())
+                .extract();
+    }
+
+    /**
+     * Creates the given number of POS and users and one review per combination of POS and user.
+     *
+     * @param posCount  the number of POS to create
+     * @param userCount the number of users to create (each user reviews each POS)
+     * @return the created reviews
+     */
+    private List<Review> createReviews(int posCount, int userCount) {
+        Pos posTemplate = TestFixtures.getPosFixturesForInsertion().getFirst();
+        User userTemplate = TestFixtures.getUserFixturesForInsertion().getFirst();
+        List<Review> createdReviews = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < userCount; i++) {
+            users.add(userService.upsert(userTemplate.toBuilder()
+                    .loginName("user_" + (++nameSuffix))
+                    .emailAddress("user." + nameSuffix + "@uni-heidelberg.de")
+                    .build()));
+        }
+        for (int i = 0; i < posCount; i++) {
+            Pos pos = posService.upsert(posTemplate.toBuilder().name("POS " + (++nameSuffix)).build());
+            for (User user : users) {
+                createdReviews.add(reviewService.upsert(Review.builder()
+                        .pos(pos)
+                        .author(user)
+                        .review("Review of " + pos.name() + " by " + user.loginName())
+                        .approvalCount(0)
+                        .approved(false)
+                        .build()));
+            }
+        }
+        return createdReviews;
+    }
+
+    /**
+     * Counts the JDBC statements prepared while running the given operation.
+     *
+     * @param operation the operation to run
+     * @return the number of prepared statements
+     */
+    private long countStatements(Runnable operation) {
+        statistics.clear();
+        operation.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
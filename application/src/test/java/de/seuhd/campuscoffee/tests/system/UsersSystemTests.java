@@ -1,6 +1,7 @@
 package de.seuhd.campuscoffee.tests.system;
 
 import de.seuhd.campuscoffee.api.dtos.UserDto;
+import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.model.objects.User;
 import de.seuhd.campuscoffee.domain.tests.TestFixtures;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,7 @@ import static de.seuhd.campuscoffee.tests.SystemTestUtils.Requests.userRequests;
 import static de.seuhd.campuscoffee.tests.SystemTestUtils.assertEqualsIgnoringIdAndTimestamps;
 import static de.seuhd.campuscoffee.tests.SystemTestUtils.assertEqualsIgnoringTimestamps;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * System tests for the operations related to Users.
@@ -35,6 +37,28 @@ public class UsersSystemTests extends AbstractSysTest {
                 .isEqualTo(HttpStatus.BAD_REQUEST.value());
     }
 
+    @Test
+    void createUser_duplicateLoginNameOrEmailAddress() {
+        User createdUser = TestFixtures.createUserFixtures(userService).getFirst();
+        User otherUser = TestFixtures.getUserFixturesForInsertion().getFirst().toBuilder()
+                .loginName("other_login")
+                .emailAddress("other.address@uni-heidelberg.de")
+                .build();
+
+        // each violated unique constraint is reported with its column and the duplicate value
+        assertThatThrownBy(() -> userService.upsert(otherUser.toBuilder().loginName(createdUser.loginName()).build()))
+                .isInstanceOf(DuplicationException.class)
+                .hasMessageContaining("login_name '" + createdUser.loginName() + "'");
+        assertThatThrownBy(() -> userService.upsert(otherUser.toBuilder().emailAddress(createdUser.emailAddress()).build()))
+                .isInstanceOf(DuplicationException.class)
+                .hasMessageContaining("email_address '" + createdUser.emailAddress() + "'");
+
+        int statusCode = userRequests.createAndReturnStatusCodes(List.of(userDtoMapper.fromDomain(
+                otherUser.toBuilder().loginName(createdUser.loginName()).build()))).getFirst();
+        assertThat(statusCode)
+                .isEqualTo(HttpStatus.CONFLICT.value());
+    }
+
     @Test
     void getAllCreatedUsers() {
         List<User> createdUserList = TestFixtures.createUserFixtures(userService);
@@ -47,6 +71,18 @@ public class UsersSystemTests extends AbstractSysTest {
         assertEqualsIgnoringTimestamps(retrievedUsers, createdUserList);
     }
 
+    @Test
+    void exportAllCreatedUsers() {
+        List<User> createdUserList = TestFixtures.createUserFixtures(userService);
+
+        List<User> exportedUsers = userRequests.export()
+                .stream()
+                .map(userDtoMapper::toDomain)
+                .toList();
+
+        assertEqualsIgnoringTimestamps(exportedUsers, createdUserList);
+    }
+
     @Test
     void getUserById() {
         List<User> createdUserList = TestFixtures.createUserFixtures(userService);
@@ -1,8 +1,10 @@
 package de.seuhd.campuscoffee.data.client;
 
+import feign.Response;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 /**
  * Feign client for OpenStreetMap API integration.
@@ -21,4 +23,15 @@ public interface OsmFeignClient {
      */
     @GetMapping("/node/{id}")
     String fetchNode(@PathVariable("id") Long nodeId);
+
+    /**
+     * Fetches multiple nodes by their IDs from the OpenStreetMap API with one request.
+     * The raw response is returned, so that its body can be parsed as a stream. The API responds with 404
+     * if one of the nodes has never existed; deleted nodes are returned without tags and with visible="false".
+     *
+     * @param nodeIds the comma-separated OSM node IDs
+     * @return the response with an XML body; must be closed by the caller
+     */
+    @GetMapping("/nodes")
+    Response fetchNodes(@RequestParam("nodes") String nodeIds);
 }
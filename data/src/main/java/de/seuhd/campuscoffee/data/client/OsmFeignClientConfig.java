@@ -1,11 +1,19 @@
 package de.seuhd.campuscoffee.data.client;
 
+import de.seuhd.campuscoffee.data.configuration.OsmApiConfiguration;
+import feign.FeignException;
+import feign.Request;
 import feign.RequestInterceptor;
+import feign.codec.ErrorDecoder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Configuration for OSM Feign client.
+ * Connections are pooled by the Apache HttpClient 5 that Spring Cloud OpenFeign configures
+ * ({@code spring.cloud.openfeign.httpclient}); retries are handled by {@link ResilientOsmClient}.
  */
 @Configuration
 public class OsmFeignClientConfig {
@@ -19,4 +27,29 @@ public class OsmFeignClientConfig {
         return requestTemplate ->
             requestTemplate.header("User-Agent", "CampusCoffee/0.0.2");
     }
+
+    /**
+     * Applies the configured connect and read timeouts to all OSM API requests.
+     *
+     * @param osmApiConfiguration the configuration with the timeouts
+     * @return the request options
+     */
+    @Bean
+    public Request.Options osmRequestOptions(OsmApiConfiguration osmApiConfiguration) {
+        return new Request.Options(
+                osmApiConfiguration.connectTimeout().toMillis(), TimeUnit.MILLISECONDS,
+                osmApiConfiguration.readTimeout().toMillis(), TimeUnit.MILLISECONDS,
+                true);
+    }
+
+    /**
+     * Turns all error responses into the {@link FeignException} of their status, including responses with a
+     * Retry-After header, which Feign would otherwise turn into exceptions without status-specific type.
+     *
+     * @return the error decoder
+     */
+    @Bean
+    public ErrorDecoder osmErrorDecoder() {
+        return FeignException::errorStatus;
+    }
 }
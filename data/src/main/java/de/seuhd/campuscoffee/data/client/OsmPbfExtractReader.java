@@ -0,0 +1,474 @@
+package de.seuhd.campuscoffee.data.client;
+
+import org.jspecify.annotations.NonNull;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the nodes of OpenStreetMap PBF extracts (.osm.pbf files).
+ * <p>
+ * A PBF file is a sequence of independently compressed blobs, each holding a block of several thousand entities.
+ * The blobs are read from the stream one after the other, but decompressed and decoded in parallel on virtual
+ * threads. At most {@link #MAX_BLOCKS_IN_FLIGHT} blocks are decoded at the same time, which bounds the memory usage
+ * regardless of the size of the file. The nodes are passed to the consumer on the calling thread in file order.
+ * <p>
+ * Only the parts of the format that are needed for importing POS are decoded: the IDs and tags of nodes and dense
+ * nodes. Coordinates, metadata, ways, and relations are skipped. Blobs must be uncompressed or zlib-compressed.
+ *
+ * @see <a href="https://wiki.openstreetmap.org/wiki/PBF_Format">PBF Format</a>
+ */
+public final class OsmPbfExtractReader {
+    /**
+     * Maximum number of blocks decoded concurrently.
+     */
+    static final int MAX_BLOCKS_IN_FLIGHT = 2 * Runtime.getRuntime().availableProcessors();
+
+    // size limits of the PBF format
+    private static final int MAX_BLOB_HEADER_SIZE = 64 * 1024;
+    private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+
+    private static final Set<String> SUPPORTED_FEATURES = Set.of("OsmSchema-V0.6", "DenseNodes", "HistoricalInformation");
+
+    private OsmPbfExtractReader() { }
+
+    /**
+     * Reads all nodes of an extract and passes the ID and tags of each tagged node to the consumer.
+     * Untagged nodes (e.g., the points of ways) are counted, but not passed on.
+     *
+     * @param extract      the PBF extract; not closed by this method
+     * @param nodeConsumer the consumer of the ID and tags of each tagged node, called in file order on the calling thread
+     * @return the number of nodes in the extract
+     * @throws IOException if the extract cannot be read or is no valid PBF file
+     */
+    public static long read(@NonNull InputStream extract,
+                            @NonNull BiConsumer<Long, Map<String, String>> nodeConsumer) throws IOException {
+        DataInputStream input = new DataInputStream(extract);
+        ArrayDeque<Future<Block>> blocks = new ArrayDeque<>(MAX_BLOCKS_IN_FLIGHT);
+        try (ExecutorService decoders = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                long nodeCount = 0;
+                Blob blob;
+                while ((blob = readBlob(input)) != null) {
+                    if (blocks.size() == MAX_BLOCKS_IN_FLIGHT) {
+                        nodeCount += deliver(blocks.removeFirst(), nodeConsumer);
+                    }
+                    Blob currentBlob = blob;
+                    blocks.addLast(decoders.submit(() -> decode(currentBlob)));
+                }
+                while (!blocks.isEmpty()) {
+                    nodeCount += deliver(blocks.removeFirst(), nodeConsumer);
+                }
+                return nodeCount;
+            } finally {
+                blocks.forEach(block -> block.cancel(true));
+            }
+        }
+    }
+
+    /**
+     * Waits for a block to be decoded and passes its tagged nodes to the consumer.
+     *
+     * @return the number of nodes in the block
+     */
+    private static long deliver(Future<Block> pendingBlock,
+                                BiConsumer<Long, Map<String, String>> nodeConsumer) throws IOException {
+        Block block;
+        try {
+            block = pendingBlock.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decoding PBF block.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException(e.getCause());
+        }
+        for (int i = 0; i < block.nodeIds.size(); i++) {
+            nodeConsumer.accept(block.nodeIds.get(i), block.nodeTags.get(i));
+        }
+        return block.nodeCount;
+    }
+
+    /**
+     * Reads the next blob header and blob from the stream.
+     *
+     * @return the blob, or null if the end of the stream has been reached
+     */
+    private static Blob readBlob(DataInputStream input) throws IOException {
+        int firstByte = input.read();
+        if (firstByte < 0) {
+            return null;
+        }
+        int headerSize = (firstByte << 24) | (input.readUnsignedByte() << 16)
+                | (input.readUnsignedByte() << 8) | input.readUnsignedByte();
+        if (headerSize < 0 || headerSize > MAX_BLOB_HEADER_SIZE) {
+            throw new IOException("Invalid PBF blob header size: " + headerSize);
+        }
+        ProtoReader header = new ProtoReader(readFully(input, headerSize));
+        String type = null;
+        int dataSize = -1;
+        while (header.hasNext()) {
+            switch (header.readTag()) {
+                case 1 -> type = header.readString();
+                case 3 -> dataSize = (int) header.readVarint();
+                default -> header.skip();
+            }
+        }
+        if (type == null || dataSize < 0 || dataSize > MAX_BLOB_SIZE) {
+            throw new IOException("Invalid PBF blob header (type " + type + ", size " + dataSize + ").");
+        }
+        return new Blob(type, readFully(input, dataSize));
+    }
+
+    private static byte[] readFully(DataInputStream input, int size) throws IOException {
+        byte[] bytes = new byte[size];
+        try {
+            input.readFully(bytes);
+        } catch (EOFException e) {
+            throw new IOException("Truncated PBF file.", e);
+        }
+        return bytes;
+    }
+
+    /**
+     * Decompresses and decodes a blob. Header blocks are checked for unsupported required features,
+     * and data blocks are decoded to their nodes. Blobs of unknown types are skipped, as the format demands.
+     */
+    private static Block decode(Blob blob) throws IOException {
+        return switch (blob.type()) {
+            case "OSMHeader" -> {
+                checkRequiredFeatures(new ProtoReader(decompress(blob.data())));
+                yield Block.EMPTY;
+            }
+            case "OSMData" -> decodePrimitiveBlock(new ProtoReader(decompress(blob.data())));
+            default -> Block.EMPTY;
+        };
+    }
+
+    /**
+     * Extracts the raw data of a blob, inflating it if it is zlib-compressed.
+     */
+    private static byte[] decompress(byte[] blob) throws IOException {
+        ProtoReader reader = new ProtoReader(blob);
+        byte[] raw = null;
+        byte[] zlibData = null;
+        int rawSize = -1;
+        while (reader.hasNext()) {
+            switch (reader.readTag()) {
+                case 1 -> raw = reader.readBytes();
+                case 2 -> rawSize = (int) reader.readVarint();
+                case 3 -> zlibData = reader.readBytes();
+                case 4, 5, 6, 7 -> throw new IOException("Unsupported PBF compression; only zlib is supported.");
+                default -> reader.skip();
+            }
+        }
+        if (raw != null) {
+            return raw;
+        }
+        if (zlibData == null || rawSize < 0 || rawSize > MAX_BLOB_SIZE) {
+            throw new IOException("Invalid PBF blob.");
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(zlibData);
+            byte[] data = new byte[rawSize];
+            int length = 0;
+            while (length < rawSize && !inflater.finished()) {
+                int inflated = inflater.inflate(data, length, rawSize - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != rawSize) {
+                throw new IOException("Truncated zlib data in PBF blob.");
+            }
+            return data;
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid zlib data in PBF blob.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void checkRequiredFeatures(ProtoReader headerBlock) throws IOException {
+        while (headerBlock.hasNext()) {
+            if (headerBlock.readTag() == 4) {
+                String feature = headerBlock.readString();
+                if (!SUPPORTED_FEATURES.contains(feature)) {
+                    throw new IOException("Unsupported PBF feature: " + feature);
+                }
+            } else {
+                headerBlock.skip();
+            }
+        }
+    }
+
+    /**
+     * Decodes the nodes of a primitive block. The string table is read first,
+     * because the tags of the nodes refer to it by index.
+     */
+    private static Block decodePrimitiveBlock(ProtoReader primitiveBlock) throws IOException {
+        List<String> strings = new ArrayList<>();
+        List<ProtoReader> groups = new ArrayList<>();
+        while (primitiveBlock.hasNext()) {
+            switch (primitiveBlock.readTag()) {
+                case 1 -> {
+                    ProtoReader stringTable = primitiveBlock.readMessage();
+                    while (stringTable.hasNext()) {
+                        if (stringTable.readTag() == 1) {
+                            strings.add(stringTable.readString());
+                        } else {
+                            stringTable.skip();
+                        }
+                    }
+                }
+                case 2 -> groups.add(primitiveBlock.readMessage());
+                default -> primitiveBlock.skip();
+            }
+        }
+
+        Block block = new Block();
+        for (ProtoReader group : groups) {
+            while (group.hasNext()) {
+                switch (group.readTag()) {
+                    case 1 -> decodeNode(group.readMessage(), strings, block);
+                    case 2 -> decodeDenseNodes(group.readMessage(), strings, block);
+                    default -> group.skip();
+                }
+            }
+        }
+        return block;
+    }
+
+    private static void decodeNode(ProtoReader node, List<String> strings, Block block) throws IOException {
+        long id = 0;
+        long[] keys = new long[0];
+        long[] values = new long[0];
+        while (node.hasNext()) {
+            switch (node.readTag()) {
+                case 1 -> id = node.readSignedVarint();
+                case 2 -> keys = node.readPackedVarints(false);
+                case 3 -> values = node.readPackedVarints(false);
+                default -> node.skip();
+            }
+        }
+        if (keys.length != values.length) {
+            throw new IOException("Invalid tags of PBF node " + id + ".");
+        }
+        Map<String, String> tags = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            tags.put(string(strings, keys[i]), string(strings, values[i]));
+        }
+        block.add(id, tags);
+    }
+
+    /**
+     * Decodes dense nodes, whose IDs are delta-encoded and whose tags are stored as one sequence of
+     * alternating key and value indexes, with a 0 after the tags of each node.
+     */
+    private static void decodeDenseNodes(ProtoReader denseNodes, List<String> strings, Block block) throws IOException {
+        long[] idDeltas = new long[0];
+        long[] keysValues = new long[0];
+        while (denseNodes.hasNext()) {
+            switch (denseNodes.readTag()) {
+                case 1 -> idDeltas = denseNodes.readPackedVarints(true);
+                case 10 -> keysValues = denseNodes.readPackedVarints(false);
+                default -> denseNodes.skip();
+            }
+        }
+        long id = 0;
+        int position = 0;
+        for (long idDelta : idDeltas) {
+            id += idDelta;
+            Map<String, String> tags = new HashMap<>();
+            while (position < keysValues.length && keysValues[position] != 0) {
+                if (position + 1 >= keysValues.length) {
+                    throw new IOException("Invalid tags of PBF node " + id + ".");
+                }
+                tags.put(string(strings, keysValues[position]), string(strings, keysValues[position + 1]));
+                position += 2;
+            }
+            position++; // skip the delimiter
+            block.add(id, tags);
+        }
+    }
+
+    private static String string(List<String> strings, long index) throws IOException {
+        if (index < 0 || index >= strings.size()) {
+            throw new IOException("Invalid PBF string table index: " + index);
+        }
+        return strings.get((int) index);
+    }
+
+    /**
+     * Blob as stored in the file.
+     *
+     * @param type the type of the blob (OSMHeader or OSMData)
+     * @param data the encoded blob message
+     */
+    private record Blob(String type, byte[] data) { }
+
+    /**
+     * Decoded block with the IDs and tags of its tagged nodes and the number of all its nodes.
+     */
+    private static final class Block {
+        private static final Block EMPTY = new Block();
+
+        private final List<Long> nodeIds = new ArrayList<>();
+        private final List<Map<String, String>> nodeTags = new ArrayList<>();
+        private long nodeCount;
+
+        private void add(long id, Map<String, String> tags) {
+            nodeCount++;
+            if (!tags.isEmpty()) {
+                nodeIds.add(id);
+                nodeTags.add(Map.copyOf(tags));
+            }
+        }
+    }
+
+    /**
+     * Minimal reader of the protocol buffer wire format, sufficient for the messages of the PBF format.
+     */
+    private static final class ProtoReader {
+        private final byte[] buffer;
+        private final int limit;
+        private int position;
+        private int wireType;
+
+        private ProtoReader(byte[] buffer) {
+            this(buffer, 0, buffer.length);
+        }
+
+        private ProtoReader(byte[] buffer, int offset, int limit) {
+            this.buffer = buffer;
+            this.position = offset;
+            this.limit = limit;
+        }
+
+        private boolean hasNext() {
+            return position < limit;
+        }
+
+        /**
+         * Reads the key of the next field.
+         *
+         * @return the field number
+         */
+        private int readTag() throws IOException {
+            long key = readVarint();
+            wireType = (int) (key & 0x7);
+            return (int) (key >>> 3);
+        }
+
+        private long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= limit) {
+                    throw new IOException("Truncated protocol buffer message.");
+                }
+                byte b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in protocol buffer message.");
+        }
+
+        private long readSignedVarint() throws IOException {
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1); // ZigZag decoding
+        }
+
+        private int readLength() throws IOException {
+            long length = readVarint();
+            if (length < 0 || length > limit - position) {
+                throw new IOException("Truncated protocol buffer message.");
+            }
+            return (int) length;
+        }
+
+        private ProtoReader readMessage() throws IOException {
+            int length = readLength();
+            ProtoReader message = new ProtoReader(buffer, position, position + length);
+            position += length;
+            return message;
+        }
+
+        private byte[] readBytes() throws IOException {
+            int length = readLength();
+            byte[] bytes = new byte[length];
+            System.arraycopy(buffer, position, bytes, 0, length);
+            position += length;
+            return bytes;
+        }
+
+        private String readString() throws IOException {
+            int length = readLength();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        /**
+         * Reads a repeated varint field, which is usually packed, but may also be a single unpacked value.
+         *
+         * @param signed whether the values are ZigZag-encoded (sint32/sint64)
+         */
+        private long[] readPackedVarints(boolean signed) throws IOException {
+            if (wireType == 0) {
+                return new long[] {signed ? readSignedVarint() : readVarint()};
+            }
+            ProtoReader packed = readMessage();
+            long[] values = new long[packed.limit - packed.position]; // upper bound: one byte per value
+            int count = 0;
+            while (packed.hasNext()) {
+                values[count++] = signed ? packed.readSignedVarint() : packed.readVarint();
+            }
+            return count == values.length ? values : Arrays.copyOf(values, count);
+        }
+
+        /**
+         * Skips the value of the field whose key has just been read.
+         */
+        private void skip() throws IOException {
+            switch (wireType) {
+                case 0 -> readVarint();
+                case 1 -> position += 8;
+                case 2 -> {
+                    int length = readLength(); // must be read before position is evaluated
+                    position += length;
+                }
+                case 5 -> position += 4;
+                default -> throw new IOException("Unsupported protocol buffer wire type: " + wireType);
+            }
+            if (position > limit) {
+                throw new IOException("Truncated protocol buffer message.");
+            }
+        }
+    }
+}
@@ -6,7 +6,12 @@ import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
 import lombok.Builder;
 import lombok.Data;
 
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.StringWriter;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * DTO for OSM API XML responses.
@@ -18,6 +23,42 @@ import java.util.Map;
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonDeserialize(using = OsmResponseDeserializer.class)
 public class OsmResponse {
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
     private Long id;
+    private Long version;
     private Map<String, String> tags;
+
+    /**
+     * Writes the node as an XML document in the format of a response of the OSM API for a single node.
+     * Used to cache nodes that have been fetched together with other nodes.
+     *
+     * @return the XML document
+     */
+    public String toXml() {
+        StringWriter document = new StringWriter();
+        try {
+            XMLStreamWriter writer = XML_OUTPUT_FACTORY.createXMLStreamWriter(document);
+            writer.writeStartDocument("UTF-8", "1.0");
+            writer.writeStartElement("osm");
+            writer.writeAttribute("version", "0.6");
+            writer.writeStartElement("node");
+            writer.writeAttribute("id", String.valueOf(id));
+            if (version != null) {
+                writer.writeAttribute("version", String.valueOf(version));
+            }
+            for (Map.Entry<String, String> tag : new TreeMap<>(tags).entrySet()) {
+                writer.writeEmptyElement("tag");
+                writer.writeAttribute("k", tag.getKey());
+                writer.writeAttribute("v", tag.getValue());
+            }
+            writer.writeEndElement();
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not write OSM node " + id + " as XML.", e);
+        }
+        return document.toString();
+    }
 }
@@ -0,0 +1,90 @@
+package de.seuhd.campuscoffee.data.client;
+
+import de.seuhd.campuscoffee.domain.exceptions.MissingFieldException;
+import de.seuhd.campuscoffee.domain.model.enums.OsmAmenity;
+import de.seuhd.campuscoffee.domain.model.objects.OsmNode;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maps the tags of OpenStreetMap nodes to {@link OsmNode} domain objects.
+ * The same rules apply to nodes fetched from the OSM API and nodes read from OSM extracts.
+ */
+@Slf4j
+public final class OsmTagMapper {
+    public static final String AMENITY_TAG = "amenity";
+
+    private OsmTagMapper() { }
+
+    /**
+     * Checks whether a node is an amenity that can be imported as a POS.
+     *
+     * @param tags the map of OSM tags
+     * @return true if the amenity tag is one of the {@link OsmAmenity} values
+     */
+    public static boolean isSupportedAmenity(@NonNull Map<String, String> tags) {
+        String amenity = tags.get(AMENITY_TAG);
+        return amenity != null && OsmAmenity.fromOsmValue(amenity).isPresent();
+    }
+
+    /**
+     * Extracts the node data from the tags of a node.
+     *
+     * @param nodeId the node ID
+     * @param tags   the map of OSM tags
+     * @return parsed OsmNode object
+     * @throws MissingFieldException if required fields are missing
+     */
+    public static @NonNull OsmNode toOsmNode(@NonNull Long nodeId, @NonNull Map<String, String> tags) {
+        // extract required fields
+        String name = getRequiredTag(tags, "name", nodeId);
+        String city = getRequiredTag(tags, "addr:city", nodeId);
+        String street = getRequiredTag(tags, "addr:street", nodeId);
+        String houseNumber = getRequiredTag(tags, "addr:housenumber", nodeId);
+        String postcode = getRequiredTag(tags, "addr:postcode", nodeId);
+        String amenityStr = getRequiredTag(tags, AMENITY_TAG, nodeId);
+        OsmAmenity amenity = OsmAmenity.fromOsmValue(amenityStr)
+                .orElseThrow(() -> {
+                    log.warn("OSM node {} has unsupported amenity type: {}", nodeId, amenityStr);
+                    return new MissingFieldException(OsmNode.class, nodeId, AMENITY_TAG);
+                });
+
+        // extract optional fields
+        Optional<String> nameDe = Optional.ofNullable(tags.get("name:de"));
+        Optional<String> nameEn = Optional.ofNullable(tags.get("name:en"));
+        Optional<String> description = Optional.ofNullable(tags.get("description"));
+
+        // build and return the OsmNode
+        return OsmNode.builder()
+                .nodeId(nodeId)
+                .name(nameEn.or(() -> nameDe).orElse(name)) // prioritize nameEn, then nameDe, then fall back to name
+                .amenity(amenity)
+                .city(city)
+                .street(street)
+                .houseNumber(houseNumber)
+                .postcode(postcode)
+                .description(description.orElse("n/a"))
+                .build();
+    }
+
+    /**
+     * Retrieves a required tag from the tag map.
+     *
+     * @param tags   the map of OSM tags
+     * @param key    the tag key to retrieve
+     * @param nodeId the node ID for error reporting
+     * @return the tag value
+     * @throws MissingFieldException if the tag is missing
+     */
+    private static String getRequiredTag(Map<String, String> tags, String key, Long nodeId) {
+        return Optional.ofNullable(tags.get(key))
+                .orElseThrow(() -> {
+                    log.debug("OSM node {} is missing required field: '{}'. Available tags: {}",
+                            nodeId, key, tags.keySet());
+                    return new MissingFieldException(OsmNode.class, nodeId, key);
+                });
+    }
+}
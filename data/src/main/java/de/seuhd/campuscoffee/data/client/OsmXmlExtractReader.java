@@ -0,0 +1,103 @@
+package de.seuhd.campuscoffee.data.client;
+
+import org.jspecify.annotations.NonNull;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Reads the nodes of OpenStreetMap XML extracts (.osm files) and other OSM XML documents with a StAX pull parser.
+ * The file is streamed, so that only the tags of the current node are held in memory,
+ * regardless of the size of the file. Ways and relations are skipped.
+ */
+public final class OsmXmlExtractReader {
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private OsmXmlExtractReader() { }
+
+    /**
+     * Reads all nodes of an extract and passes the ID and tags of each tagged node to the consumer.
+     * Untagged nodes (e.g., the points of ways) are counted, but not passed on.
+     *
+     * @param extract      the XML extract; not closed by this method
+     * @param nodeConsumer the consumer of the ID and tags of each tagged node, called in document order
+     * @return the number of nodes in the extract
+     * @throws XMLStreamException if the extract is not well-formed XML
+     */
+    public static long read(@NonNull InputStream extract,
+                            @NonNull BiConsumer<Long, Map<String, String>> nodeConsumer) throws XMLStreamException {
+        return readNodes(extract, node -> {
+            if (!node.getTags().isEmpty()) {
+                nodeConsumer.accept(node.getId(), node.getTags());
+            }
+        });
+    }
+
+    /**
+     * Reads all nodes of an OSM XML document, e.g., an extract or a response of the OSM API with multiple nodes,
+     * and passes the ID, version, and tags of each node to the consumer.
+     *
+     * @param document     the XML document; not closed by this method
+     * @param nodeConsumer the consumer of each node, called in document order; the version is null if it is missing
+     * @return the number of nodes in the document
+     * @throws XMLStreamException if the document is not well-formed XML
+     */
+    public static long readNodes(@NonNull InputStream document,
+                                 @NonNull Consumer<OsmResponse> nodeConsumer) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(document);
+        try {
+            long nodeCount = 0;
+            Long nodeId = null;
+            Long version = null;
+            Map<String, String> tags = new HashMap<>();
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (reader.getLocalName()) {
+                        case "node" -> {
+                            nodeCount++;
+                            nodeId = Long.valueOf(reader.getAttributeValue(null, "id"));
+                            String versionAttribute = reader.getAttributeValue(null, "version");
+                            version = versionAttribute == null ? null : Long.valueOf(versionAttribute);
+                            tags.clear();
+                        }
+                        case "tag" -> {
+                            if (nodeId != null) {
+                                tags.put(reader.getAttributeValue(null, "k"), reader.getAttributeValue(null, "v"));
+                            }
+                        }
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "node".equals(reader.getLocalName())) {
+                    nodeConsumer.accept(OsmResponse.builder()
+                            .id(nodeId)
+                            .version(version)
+                            .tags(tags.isEmpty() ? Map.of() : Map.copyOf(tags))
+                            .build());
+                    nodeId = null;
+                }
+            }
+            return nodeCount;
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Creates the StAX factory. DTDs and external entities are disabled, because extracts may be uploaded by clients.
+     */
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
@@ -0,0 +1,275 @@
+package de.seuhd.campuscoffee.data.client;
+
+import de.seuhd.campuscoffee.data.configuration.OsmApiConfiguration;
+import de.seuhd.campuscoffee.domain.exceptions.ServiceUnavailableException;
+import feign.FeignException;
+import feign.Response;
+import feign.RetryableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Calls the OpenStreetMap API through {@link OsmFeignClient} with retries and a circuit breaker.
+ * <p>
+ * Requests that fail with 429 (Too Many Requests), a 5xx status, or an I/O error (e.g., a timeout) are retried
+ * with exponential backoff and full jitter, or after the delay that the API asks for in a Retry-After header.
+ * Other errors, such as 404 for unknown nodes, are passed on as {@link FeignException} without retries.
+ * If a call still fails, a {@link ServiceUnavailableException} is thrown.
+ * <p>
+ * After a number of consecutive failed requests, the circuit opens and calls fail fast without contacting the API.
+ * Once the open duration has passed, one trial request is let through, which closes the circuit if it succeeds
+ * and opens it again otherwise.
+ * <p>
+ * The latency of the requests is exposed as {@value #REQUESTS_METRIC} (by operation and outcome), the retries
+ * as {@value #RETRIES_METRIC}, the state of the circuit (0: closed, 1: open, 2: half-open) as
+ * {@value #CIRCUIT_STATE_METRIC}, and the calls rejected by the open circuit as {@value #REJECTED_METRIC}.
+ */
+@Slf4j
+@Component
+public class ResilientOsmClient {
+    static final String REQUESTS_METRIC = "campuscoffee.osm.api.requests";
+    static final String RETRIES_METRIC = "campuscoffee.osm.api.retries";
+    static final String CIRCUIT_STATE_METRIC = "campuscoffee.osm.api.circuit.state";
+    static final String REJECTED_METRIC = "campuscoffee.osm.api.circuit.rejected";
+    private static final String SERVICE_NAME = "OpenStreetMap API";
+
+    /**
+     * States of the circuit breaker.
+     */
+    enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    private final OsmFeignClient osmFeignClient;
+    private final OsmApiConfiguration.Retry retryConfiguration;
+    private final OsmApiConfiguration.CircuitBreaker circuitBreakerConfiguration;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    // state of the circuit breaker, guarded by this
+    private CircuitState circuitState = CircuitState.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+
+    public ResilientOsmClient(@NonNull OsmFeignClient osmFeignClient,
+                              @NonNull OsmApiConfiguration osmApiConfiguration,
+                              @NonNull MeterRegistry meterRegistry) {
+        this.osmFeignClient = osmFeignClient;
+        this.retryConfiguration = osmApiConfiguration.retry();
+        this.circuitBreakerConfiguration = osmApiConfiguration.circuitBreaker();
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder(REJECTED_METRIC)
+                .description("Calls of the OpenStreetMap API rejected while the circuit breaker is open")
+                .register(meterRegistry);
+        Gauge.builder(CIRCUIT_STATE_METRIC, this, client -> client.circuitState().ordinal())
+                .description("State of the OpenStreetMap API circuit breaker (0: closed, 1: open, 2: half-open)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fetches a node by its ID (see {@link OsmFeignClient#fetchNode(Long)}).
+     *
+     * @param nodeId the OSM node ID
+     * @return XML response as a String
+     * @throws FeignException              if the API responds with an error that is not transient (e.g., 404)
+     * @throws ServiceUnavailableException if the API is unavailable or the circuit is open
+     */
+    public String fetchNode(@NonNull Long nodeId) {
+        return call("node", () -> osmFeignClient.fetchNode(nodeId));
+    }
+
+    /**
+     * Fetches multiple nodes with one request (see {@link OsmFeignClient#fetchNodes(String)}).
+     * Feign returns raw responses for any status, so that transient errors are turned into exceptions here.
+     *
+     * @param nodeIds the comma-separated OSM node IDs
+     * @return the response with an XML body; must be closed by the caller
+     * @throws ServiceUnavailableException if the API is unavailable or the circuit is open
+     */
+    public Response fetchNodes(@NonNull String nodeIds) {
+        return call("nodes", () -> {
+            Response response = osmFeignClient.fetchNodes(nodeIds);
+            if (isTransient(response.status())) {
+                FeignException error = FeignException.errorStatus("OsmFeignClient#fetchNodes(String)", response);
+                response.close();
+                throw error;
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Returns the current state of the circuit breaker.
+     *
+     * @return the state; an open circuit whose open duration has passed is reported as open until the next call
+     */
+    synchronized CircuitState circuitState() {
+        return circuitState;
+    }
+
+    private <T> T call(String operation, Supplier<T> request) {
+        for (int attempt = 1; ; attempt++) {
+            acquirePermission();
+            long start = System.nanoTime();
+            FeignException failure;
+            try {
+                T result = request.get();
+                record(operation, "success", start);
+                onSuccess();
+                return result;
+            } catch (FeignException e) {
+                if (!isTransient(e)) {
+                    // the API works, but rejects the request (e.g., 404 for an unknown node)
+                    record(operation, "client_error", start);
+                    onSuccess();
+                    throw e;
+                }
+                record(operation, e instanceof RetryableException ? "io_error" : "server_error", start);
+                onFailure();
+                failure = e;
+            }
+
+            Duration retryAfter = retryAfter(failure.responseHeaders());
+            if (attempt >= retryConfiguration.maxAttempts()) {
+                throw new ServiceUnavailableException(SERVICE_NAME,
+                        "request failed after " + attempt + " attempts (" + describe(failure) + ")", failure);
+            }
+            if (retryAfter != null && retryAfter.compareTo(retryConfiguration.maxBackoff()) > 0) {
+                throw new ServiceUnavailableException(SERVICE_NAME,
+                        "asked to retry after " + retryAfter.toSeconds() + " s (" + describe(failure) + ")", failure);
+            }
+            Duration delay = retryAfter != null ? retryAfter : backoff(attempt);
+            log.warn("OSM API request '{}' failed ({}), retrying in {} ms (attempt {} of {}).",
+                    operation, describe(failure), delay.toMillis(), attempt + 1, retryConfiguration.maxAttempts());
+            meterRegistry.counter(RETRIES_METRIC, "operation", operation).increment();
+            sleep(delay, failure);
+        }
+    }
+
+    /**
+     * Returns a random delay below the exponentially growing backoff bound ("full jitter"), so that clients that
+     * failed at the same time do not retry at the same time.
+     */
+    private Duration backoff(int attempt) {
+        long boundMillis = Math.min(retryConfiguration.maxBackoff().toMillis(),
+                retryConfiguration.initialBackoff().toMillis() << Math.min(attempt - 1, 30));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(boundMillis + 1));
+    }
+
+    private synchronized void acquirePermission() {
+        if (circuitState == CircuitState.OPEN) {
+            if (System.nanoTime() - openedAtNanos < circuitBreakerConfiguration.openDuration().toNanos()) {
+                rejected.increment();
+                throw new ServiceUnavailableException(SERVICE_NAME, "circuit breaker is open", null);
+            }
+            circuitState = CircuitState.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (circuitState == CircuitState.HALF_OPEN) {
+            if (trialInFlight) {
+                rejected.increment();
+                throw new ServiceUnavailableException(SERVICE_NAME, "circuit breaker is half-open", null);
+            }
+            trialInFlight = true;
+        }
+    }
+
+    private synchronized void onSuccess() {
+        if (circuitState != CircuitState.CLOSED) {
+            log.info("OSM API circuit breaker closed.");
+        }
+        circuitState = CircuitState.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        if (circuitState == CircuitState.HALF_OPEN
+                || consecutiveFailures >= circuitBreakerConfiguration.failureThreshold()) {
+            if (circuitState != CircuitState.OPEN) {
+                log.warn("OSM API circuit breaker opened after {} consecutive failures.", consecutiveFailures);
+            }
+            circuitState = CircuitState.OPEN;
+            openedAtNanos = System.nanoTime();
+            trialInFlight = false;
+        }
+    }
+
+    private void record(String operation, String outcome, long startNanos) {
+        Timer.builder(REQUESTS_METRIC)
+                .description("Latency of the requests to the OpenStreetMap API")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    private static boolean isTransient(FeignException e) {
+        // Feign wraps I/O errors such as timeouts and refused connections in retryable exceptions
+        return e instanceof RetryableException || isTransient(e.status());
+    }
+
+    private static boolean isTransient(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    /**
+     * Parses the Retry-After header, which contains either a number of seconds or an HTTP date.
+     *
+     * @return the requested delay, null if there is no valid header
+     */
+    private static @Nullable Duration retryAfter(@Nullable Map<String, Collection<String>> headers) {
+        if (headers == null) {
+            return null;
+        }
+        String value = headers.entrySet().stream()
+                .filter(header -> HttpHeaders.RETRY_AFTER.equalsIgnoreCase(header.getKey()))
+                .flatMap(header -> header.getValue().stream())
+                .findFirst()
+                .orElse(null);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(Long.parseLong(value.trim()), 0));
+        } catch (NumberFormatException e) {
+            try {
+                Duration delay = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (DateTimeParseException invalidDate) {
+                log.warn("Ignoring invalid Retry-After header '{}' of the OSM API.", value);
+                return null;
+            }
+        }
+    }
+
+    private static String describe(FeignException e) {
+        return e instanceof RetryableException && e.status() < 0 ? e.getMessage() : "HTTP " + e.status();
+    }
+
+    private static void sleep(Duration delay, FeignException failure) {
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(SERVICE_NAME, "interrupted while waiting to retry", failure);
+        }
+    }
+}
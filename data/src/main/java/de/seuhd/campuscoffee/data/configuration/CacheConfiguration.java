@@ -0,0 +1,20 @@
+package de.seuhd.campuscoffee.data.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration for the in-memory caches of the data services.
+ *
+ * @param maximumSize      the maximum number of entries per cache (default: 10,000)
+ * @param expireAfterWrite how long an entry stays in a cache after it was loaded (default: ten minutes)
+ */
+@ConfigurationProperties("campus-coffee.cache")
+public record CacheConfiguration(Long maximumSize, Duration expireAfterWrite) {
+    public CacheConfiguration {
+        maximumSize = Objects.requireNonNullElse(maximumSize, 10_000L);
+        expireAfterWrite = Objects.requireNonNullElse(expireAfterWrite, Duration.ofMinutes(10));
+    }
+}
@@ -0,0 +1,61 @@
+package de.seuhd.campuscoffee.data.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration of the HTTP calls to the OpenStreetMap API.
+ *
+ * @param connectTimeout how long to wait for a connection to the API (default: two seconds)
+ * @param readTimeout    how long to wait for a response once connected (default: ten seconds)
+ * @param retry          the retries of transient failures
+ * @param circuitBreaker the circuit breaker that fails fast while the API is degraded
+ */
+@ConfigurationProperties("osm.api")
+public record OsmApiConfiguration(Duration connectTimeout, Duration readTimeout, Retry retry,
+                                  CircuitBreaker circuitBreaker) {
+    public OsmApiConfiguration {
+        connectTimeout = Objects.requireNonNullElse(connectTimeout, Duration.ofSeconds(2));
+        readTimeout = Objects.requireNonNullElse(readTimeout, Duration.ofSeconds(10));
+        retry = Objects.requireNonNullElse(retry, new Retry(null, null, null));
+        circuitBreaker = Objects.requireNonNullElse(circuitBreaker, new CircuitBreaker(null, null));
+    }
+
+    /**
+     * Retries of requests that failed with 429 (Too Many Requests), a 5xx status, or an I/O error such as a timeout.
+     *
+     * @param maxAttempts    the maximum number of attempts per call, including the first one (default: 3)
+     * @param initialBackoff the upper bound of the delay before the first retry, doubled for each further retry
+     *                       (default: 500 ms); the actual delay is chosen at random below the bound
+     * @param maxBackoff     the maximum delay before a retry (default: five seconds); calls whose Retry-After
+     *                       header asks for a longer delay are not retried
+     */
+    public record Retry(Integer maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        public Retry {
+            maxAttempts = Objects.requireNonNullElse(maxAttempts, 3);
+            initialBackoff = Objects.requireNonNullElse(initialBackoff, Duration.ofMillis(500));
+            maxBackoff = Objects.requireNonNullElse(maxBackoff, Duration.ofSeconds(5));
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("The maximum number of OSM API attempts must be positive.");
+            }
+        }
+    }
+
+    /**
+     * Circuit breaker for the OpenStreetMap API.
+     *
+     * @param failureThreshold the number of consecutive failed requests that opens the circuit (default: 5)
+     * @param openDuration     how long calls fail fast before a trial request is let through (default: 30 seconds)
+     */
+    public record CircuitBreaker(Integer failureThreshold, Duration openDuration) {
+        public CircuitBreaker {
+            failureThreshold = Objects.requireNonNullElse(failureThreshold, 5);
+            openDuration = Objects.requireNonNullElse(openDuration, Duration.ofSeconds(30));
+            if (failureThreshold < 1) {
+                throw new IllegalArgumentException("The failure threshold of the OSM API circuit breaker must be positive.");
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package de.seuhd.campuscoffee.data.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration for the database cache of OpenStreetMap API responses.
+ *
+ * @param ttl how long a cached node is used without asking the OpenStreetMap API for its version (default: one day)
+ */
+@ConfigurationProperties("osm.cache")
+public record OsmCacheConfiguration(Duration ttl) {
+    public OsmCacheConfiguration {
+        ttl = Objects.requireNonNullElse(ttl, Duration.ofDays(1));
+    }
+}
@@ -1,19 +1,31 @@
 package de.seuhd.campuscoffee.data.constraints;
 
 import de.seuhd.campuscoffee.data.util.JpaUtils;
-import jakarta.persistence.EntityManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.metamodel.EntityType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.Session;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
 import org.springframework.stereotype.Component;
 
+import javax.sql.DataSource;
 import java.lang.reflect.Field;
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -26,9 +38,12 @@ import java.util.stream.Stream;
  *   <li>{@code @Column(unique=true)} to identify unique fields</li>
  *   <li>{@code @DomainField} to map entity fields to domain accessors</li>
  *   <li>{@code @Table(name="...")} to determine the table name</li>
+ *   <li>{@code @Table(uniqueConstraints=...)} to identify named unique constraints across several columns</li>
  * </ul>
  * <p>
- * Results are cached per entity class for performance.
+ * The constraints of all entities are resolved once at startup, so that writes do not pay for the
+ * database metadata queries. Violations are identified by the constraint name that PostgreSQL reports
+ * with a unique violation (SQLState 23505), which is looked up in a map per entity class.
  *
  * @param <DOMAIN>    the domain type
  * @param <ENTITY>    the entity type
@@ -37,136 +52,212 @@ import java.util.stream.Stream;
 @Component
 @RequiredArgsConstructor
 public class ConstraintRetriever<DOMAIN, ENTITY> {
-    private final EntityManager entityManager;
-    private final Map<String, String> constraintNameCache = new ConcurrentHashMap<>();
-    private final Map<Class<ENTITY>, Set<ConstraintMapping<DOMAIN>>> entityConstraintCache = new ConcurrentHashMap<>();
+    /**
+     * SQLState of unique violations in PostgreSQL.
+     */
+    static final String UNIQUE_VIOLATION = "23505";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+    private final Map<Class<?>, Map<String, ConstraintMapping<DOMAIN>>> constraintsByEntity = new HashMap<>();
+    private final Map<Class<?>, Set<String>> tableConstraintsByEntity = new HashMap<>();
+
+    /**
+     * Resolves the unique field constraints of all entities with {@link DomainField}s
+     * and the named unique constraints declared in the {@code @Table} annotations of all entities.
+     * The maps are not modified afterward and can therefore be read concurrently without synchronization.
+     */
+    @PostConstruct
+    void init() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (EntityType<?> entityType : entityManagerFactory.getMetamodel().getEntities()) {
+                Class<?> entityClass = entityType.getJavaType();
+                Map<String, ConstraintMapping<DOMAIN>> constraints = resolveConstraints(entityClass, connection, metaData);
+                if (!constraints.isEmpty()) {
+                    constraintsByEntity.put(entityClass, Map.copyOf(constraints));
+                }
+                Set<String> tableConstraints = resolveTableConstraints(entityClass, connection, metaData);
+                if (!tableConstraints.isEmpty()) {
+                    tableConstraintsByEntity.put(entityClass, Set.copyOf(tableConstraints));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to resolve unique constraints from database metadata.", e);
+        }
+    }
 
     /**
-     * Extracts unique field constraints from an entity class.
+     * Returns the unique field constraints of an entity class.
      *
-     * @param entityClass the JPA entity class to scan
+     * @param entityClass the JPA entity class
      * @return a set of field constraints
      */
     public Set<ConstraintMapping<DOMAIN>> extractConstraintsFromEntity(Class<ENTITY> entityClass) {
-        // check cache first
-        if (entityConstraintCache.containsKey(entityClass)) {
-            return entityConstraintCache.get(entityClass);
+        return Set.copyOf(constraintsByEntity.getOrDefault(entityClass, Map.of()).values());
+    }
+
+    /**
+     * Determines the unique field constraint of an entity class that an exception reports as violated.
+     * The cause chain is searched for the PostgreSQL error of a unique violation, whose constraint name
+     * is then looked up.
+     *
+     * @param entityClass the JPA entity class that was written
+     * @param exception   the exception thrown by the write
+     * @return the violated constraint, or empty if the exception is not a violation of a known unique constraint
+     */
+    public Optional<ConstraintMapping<DOMAIN>> findViolatedConstraint(Class<ENTITY> entityClass, Throwable exception) {
+        Map<String, ConstraintMapping<DOMAIN>> constraints = constraintsByEntity.get(entityClass);
+        if (constraints == null) {
+            return Optional.empty();
+        }
+        return findViolatedConstraintName(exception).map(constraints::get);
+    }
+
+    /**
+     * Checks whether an exception reports the violation of a named unique constraint that an entity class declares
+     * in its {@code @Table} annotation (e.g., a constraint across several columns).
+     *
+     * @param entityClass    the JPA entity class that was written
+     * @param constraintName the name of the unique constraint
+     * @param exception      the exception thrown by the write
+     * @return true if the constraint is known and the exception reports its violation
+     */
+    public boolean isViolated(Class<ENTITY> entityClass, String constraintName, Throwable exception) {
+        return tableConstraintsByEntity.getOrDefault(entityClass, Set.of()).contains(constraintName)
+                && findViolatedConstraintName(exception).filter(constraintName::equals).isPresent();
+    }
+
+    /**
+     * Searches the cause chain of an exception for the PostgreSQL error of a unique violation.
+     *
+     * @param exception the exception thrown by a write
+     * @return the name of the violated constraint, or empty if the exception is not a unique violation
+     */
+    private static Optional<String> findViolatedConstraintName(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PSQLException psqlException && UNIQUE_VIOLATION.equals(psqlException.getSQLState())) {
+                ServerErrorMessage serverErrorMessage = psqlException.getServerErrorMessage();
+                return Optional.ofNullable(serverErrorMessage == null ? null : serverErrorMessage.getConstraint());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Resolves the unique field constraints of an entity class, keyed by constraint name.
+     */
+    private Map<String, ConstraintMapping<DOMAIN>> resolveConstraints(
+            Class<?> entityClass,
+            Connection connection,
+            DatabaseMetaData metaData
+    ) throws SQLException {
+        Set<Field> uniqueFields = Stream.of(entityClass.getDeclaredFields())
+                .filter(JpaUtils::isUniqueField)
+                .filter(field -> field.isAnnotationPresent(DomainField.class))
+                .collect(Collectors.toCollection(HashSet::new));
+        if (uniqueFields.isEmpty()) {
+            return Map.of();
         }
 
         // extract table name
         String tableName = JpaUtils.extractTableNameFromEntity(entityClass);
         log.debug("Extracting constraints for entity {} (table: {})", entityClass.getSimpleName(), tableName);
+        Map<String, String> uniqueIndexesByColumn = new HashMap<>();
+        getUniqueIndexColumns(tableName, connection, metaData).forEach((indexName, columns) -> {
+            if (columns.size() == 1) {
+                uniqueIndexesByColumn.putIfAbsent(columns.getFirst(), indexName);
+            }
+        });
 
-        // find all fields with @Column(unique=true) and @DomainField
-        Set<ConstraintMapping<DOMAIN>> constraints = Stream.of(entityClass.getDeclaredFields())
-                .filter(JpaUtils::isUniqueField)
-                .filter(field -> field.isAnnotationPresent(DomainField.class))
-                .map(field -> createFieldConstraint(field, tableName))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toSet());
+        Map<String, ConstraintMapping<DOMAIN>> constraints = new HashMap<>();
+        for (Field field : uniqueFields) {
+            String columnName = JpaUtils.extractColumnName(field);
+            String constraintName = uniqueIndexesByColumn.get(columnName);
+            if (constraintName == null) {
+                log.warn("Could not resolve constraint name for {}.{}, skipping field", tableName, columnName);
+                continue;
+            }
+            String domainFieldName = field.getAnnotation(DomainField.class).value();
+            constraints.put(constraintName, new ConstraintMapping<>(domainFieldName, columnName, constraintName));
+            log.debug("Created constraint: {} -> {} ({})", columnName, constraintName, domainFieldName);
+        }
 
         log.info("Found {} unique field constraint(s) for {}: {}",
                 constraints.size(),
                 entityClass.getSimpleName(),
-                constraints.stream()
+                constraints.values().stream()
                         .map(ConstraintMapping::columnName)
                         .collect(Collectors.joining(", "))
         );
-
-        // cache the result
-        entityConstraintCache.put(entityClass, constraints);
-
         return constraints;
     }
 
     /**
-     * Creates a FieldConstraint for a specific field.
+     * Resolves the named unique constraints that an entity class declares in its {@code @Table} annotation.
+     * A constraint is only used if the database has a unique index of the same name on the declared columns.
      */
-    private Optional<ConstraintMapping<DOMAIN>> createFieldConstraint(
-            Field field,
-            String tableName
-    ) {
-        try {
-            // get column name from @Column annotation
-            String columnName = JpaUtils.extractColumnName(field);
+    private Set<String> resolveTableConstraints(
+            Class<?> entityClass,
+            Connection connection,
+            DatabaseMetaData metaData
+    ) throws SQLException {
+        Table table = entityClass.getAnnotation(Table.class);
+        if (table == null || table.uniqueConstraints().length == 0) {
+            return Set.of();
+        }
 
-            // get domain field name from @DomainField annotation
-            DomainField domainFieldAnnotation = field.getAnnotation(DomainField.class);
-            String domainFieldName = domainFieldAnnotation.value();
+        String tableName = JpaUtils.extractTableNameFromEntity(entityClass);
+        Map<String, List<String>> uniqueIndexColumns = getUniqueIndexColumns(tableName, connection, metaData);
 
-            // resolve constraint name from database
-            Optional<String> constraintName = getConstraintName(tableName, columnName);
-            if (constraintName.isEmpty()) {
-                log.warn("Could not resolve constraint name for {}.{}, skipping field", tableName, columnName);
-                return Optional.empty();
+        Set<String> constraints = new HashSet<>();
+        for (UniqueConstraint uniqueConstraint : table.uniqueConstraints()) {
+            String constraintName = uniqueConstraint.name();
+            List<String> columns = uniqueIndexColumns.get(constraintName);
+            if (constraintName.isEmpty() || columns == null
+                    || !Set.copyOf(columns).equals(Set.of(uniqueConstraint.columnNames()))) {
+                log.warn("Could not resolve unique constraint '{}' on {}{}, skipping constraint",
+                        constraintName, tableName, List.of(uniqueConstraint.columnNames()));
+                continue;
             }
-
-            ConstraintMapping<DOMAIN> constraint = new ConstraintMapping<>(
-                    domainFieldName, columnName,
-                    constraintName.get()
-            );
-
-            log.debug("Created constraint: {} -> {} ({})", columnName, constraintName.get(), domainFieldName);
-
-            return Optional.of(constraint);
-        } catch (Exception e) {
-            log.error("Failed to create field constraint for field {}", field.getName(), e);
-            return Optional.empty();
+            constraints.add(constraintName);
         }
+
+        log.info("Found {} unique table constraint(s) for {}: {}",
+                constraints.size(), entityClass.getSimpleName(), String.join(", ", constraints));
+        return constraints;
     }
 
     /**
-     * Retrieves the constraint name for a uniqueness constraint on a specific table column.
+     * Retrieves the columns of the unique indexes of a table, keyed by index name.
+     * PostgreSQL backs each unique constraint with an index of the same name.
      *
      * @param tableName  the database table name
-     * @param columnName the database column name
-     * @return the constraint name, or empty if not found
+     * @param connection the connection used to query the metadata
+     * @param metaData   the database metadata
+     * @return the columns of each unique index, in index order
      */
-    private Optional<String> getConstraintName(String tableName, String columnName) {
-
-        // check constraint cache first
-        String cacheKey = tableName + "." + columnName;
-        if (constraintNameCache.containsKey(cacheKey)) {
-            return Optional.ofNullable(constraintNameCache.get(cacheKey));
-        }
-
-        // query database metadata
-        Optional<String> constraintName;
-        try {
-            constraintName = entityManager.unwrap(Session.class).doReturningWork(connection -> {
-                DatabaseMetaData metaData = connection.getMetaData();
-
-                // query for unique constraints (indexes)
-                try (ResultSet rs = metaData.getIndexInfo(
-                        connection.getCatalog(),
-                        connection.getSchema(),
-                        tableName,
-                        true, // unique indexes only
-                        false // approximate results not ok
-                )) {
-                    while (rs.next()) {
-                        String indexColumnName = rs.getString("COLUMN_NAME");
-                        String indexName = rs.getString("INDEX_NAME");
-
-                        if (columnName.equals(indexColumnName) && indexName != null) {
-                            log.debug("Found constraint '{}' for {}.{}", indexName, tableName, columnName);
-                            return Optional.of(indexName);
-                        }
-                    }
+    private static Map<String, List<String>> getUniqueIndexColumns(
+            String tableName,
+            Connection connection,
+            DatabaseMetaData metaData
+    ) throws SQLException {
+        Map<String, List<String>> indexColumns = new LinkedHashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(
+                connection.getCatalog(),
+                connection.getSchema(),
+                tableName,
+                true, // unique indexes only
+                false // approximate results not ok
+        )) {
+            while (rs.next()) {
+                String indexColumnName = rs.getString("COLUMN_NAME");
+                String indexName = rs.getString("INDEX_NAME");
+                if (indexColumnName != null && indexName != null) {
+                    indexColumns.computeIfAbsent(indexName, name -> new ArrayList<>()).add(indexColumnName);
                 }
-
-                log.warn("No unique constraint found for {}.{}", tableName, columnName);
-                return Optional.empty();
-            });
-        } catch (Exception e) {
-            log.error("Failed to resolve constraint name for {}.{}", tableName, columnName, e);
-            return Optional.empty();
+            }
         }
-
-        // cache the result (including null results to avoid repeated queries)
-        constraintNameCache.put(cacheKey, constraintName.orElse(null));
-
-        return constraintName;
+        return indexColumns;
     }
 }
@@ -0,0 +1,260 @@
+package de.seuhd.campuscoffee.data.implementations;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.seuhd.campuscoffee.data.configuration.CacheConfiguration;
+import de.seuhd.campuscoffee.data.notifications.ChangeNotification;
+import de.seuhd.campuscoffee.data.notifications.ChangeNotificationHandler;
+import de.seuhd.campuscoffee.domain.model.objects.DomainModel;
+import de.seuhd.campuscoffee.domain.model.objects.Page;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
+import de.seuhd.campuscoffee.domain.ports.data.CrudDataService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Base class for read-through caching decorators of CRUD data services.
+ * Single objects are cached by their ID and by one unique key (e.g., a name).
+ * Both caches are bounded in size and entries expire after the configured time.
+ * Any write through the decorator invalidates the affected entries, both immediately and again after
+ * the surrounding transaction completes, so that no uncommitted or rolled back state remains cached.
+ * Writes of other application instances are received as change notifications and invalidate the affected
+ * entries as well, which bounds the staleness across instances to the notification latency.
+ * Concurrent lookups of the same uncached object are coalesced into one load with {@link SingleFlight}, which also
+ * collapses lookups of missing objects, whose failures are not cached. Lookups within a transaction are not coalesced:
+ * a read-write transaction may have to see its own uncommitted writes, and any transaction already holds a pooled
+ * connection, which a caller waiting for another caller's load would keep idle, so that a burst of lookups of one key
+ * could exhaust the pool.
+ * Hit, miss, and eviction metrics are registered with Micrometer.
+ *
+ * @param <DOMAIN>  the domain model type
+ * @param <ID>      the type of the unique identifier
+ * @param <SERVICE> the type of the decorated data service
+ */
+abstract class CachingCrudDataService<
+        DOMAIN extends DomainModel<ID>,
+        ID,
+        SERVICE extends CrudDataService<DOMAIN, ID>>
+        implements CrudDataService<DOMAIN, ID>, ChangeNotificationHandler {
+
+    /*
+     * The decorated data service that accesses the database.
+     */
+    protected final SERVICE delegate;
+    /*
+     * The domain class, whose simple name is the type of the change notifications.
+     */
+    private final Class<DOMAIN> domainClass;
+    /*
+     * Converts the IDs in change notifications to the ID type.
+     */
+    private final Function<String, ID> idParser;
+    /*
+     * Cache of domain objects by their ID.
+     */
+    private final Cache<ID, DOMAIN> byId;
+    /*
+     * Cache of domain objects by their unique key.
+     */
+    private final Cache<String, DOMAIN> byKey;
+    /*
+     * Coalesces concurrent loads by ID and by unique key.
+     */
+    private final SingleFlight<ID, DOMAIN> byIdLoads;
+    private final SingleFlight<String, DOMAIN> byKeyLoads;
+
+    /**
+     * Creates the caches and registers their metrics.
+     *
+     * @param delegate           the data service to decorate
+     * @param domainClass        the domain class of the cached objects
+     * @param idParser           the function that parses IDs from change notifications
+     * @param cacheConfiguration the size and expiration settings of the caches
+     * @param meterRegistry      the registry for the cache metrics
+     * @param cacheName          the name of the cached resource, used as prefix of the cache names
+     * @param keyName            the name of the unique key, used as suffix of the name of the key cache
+     */
+    protected CachingCrudDataService(@NonNull SERVICE delegate,
+                                     @NonNull Class<DOMAIN> domainClass,
+                                     @NonNull Function<String, ID> idParser,
+                                     @NonNull CacheConfiguration cacheConfiguration,
+                                     @NonNull MeterRegistry meterRegistry,
+                                     @NonNull String cacheName,
+                                     @NonNull String keyName) {
+        this.delegate = delegate;
+        this.domainClass = domainClass;
+        this.idParser = idParser;
+        this.byId = CaffeineCacheMetrics.monitor(meterRegistry, newCache(cacheConfiguration), cacheName + ".id");
+        this.byKey = CaffeineCacheMetrics.monitor(meterRegistry, newCache(cacheConfiguration), cacheName + "." + keyName);
+        this.byIdLoads = new SingleFlight<>(cacheName + ".id", meterRegistry);
+        this.byKeyLoads = new SingleFlight<>(cacheName + "." + keyName, meterRegistry);
+    }
+
+    @Override
+    public void clear() {
+        invalidateAll();
+        delegate.clear();
+        afterCompletion(this::invalidateAll);
+    }
+
+    @Override
+    public @NonNull List<DOMAIN> getAll() {
+        return delegate.getAll();
+    }
+
+    @Override
+    public @NonNull Page<DOMAIN, ID> getPage(@Nullable ID after, int limit) {
+        return delegate.getPage(after, limit);
+    }
+
+    @Override
+    public void forEach(@NonNull Consumer<? super DOMAIN> action) {
+        delegate.forEach(action);
+    }
+
+    @Override
+    public @NonNull DOMAIN getById(@NonNull ID id) {
+        return get(byId, byIdLoads, id, delegate::getById);
+    }
+
+    @Override
+    public @NonNull DOMAIN upsert(@NonNull DOMAIN entity) {
+        ID id = entity.getId();
+        if (id != null) {
+            invalidate(id);
+        }
+        DOMAIN upserted = delegate.upsert(entity);
+        ID upsertedId = Objects.requireNonNull(upserted.getId());
+        afterCompletion(() -> invalidate(upsertedId));
+        return upserted;
+    }
+
+    @Override
+    public @NonNull UpsertResult<DOMAIN, ID> update(@NonNull DOMAIN entity) {
+        UpsertResult<DOMAIN, ID> result = delegate.update(entity);
+        // an unchanged entity has not been written, so its cached entries are still valid
+        if (!result.unchanged()) {
+            ID id = Objects.requireNonNull(entity.getId());
+            invalidate(id);
+            afterCompletion(() -> invalidate(id));
+        }
+        return result;
+    }
+
+    @Override
+    public @NonNull List<UpsertResult<DOMAIN, ID>> upsertAll(@NonNull List<DOMAIN> entities) {
+        List<ID> ids = entities.stream()
+                .map(DomainModel::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        ids.forEach(this::invalidate);
+        List<UpsertResult<DOMAIN, ID>> results = delegate.upsertAll(entities);
+        // each chunk has been committed, so entries loaded concurrently may be stale
+        ids.forEach(this::invalidate);
+        return results;
+    }
+
+    @Override
+    public void delete(@NonNull ID id) {
+        invalidate(id);
+        delegate.delete(id);
+        afterCompletion(() -> invalidate(id));
+    }
+
+    @Override
+    public @NonNull String changeType() {
+        return domainClass.getSimpleName();
+    }
+
+    @Override
+    public void onChange(@NonNull ChangeNotification notification) {
+        String id = notification.id();
+        if (id == null) {
+            invalidateAll();
+        } else {
+            invalidate(idParser.apply(id));
+        }
+    }
+
+    @Override
+    public void onNotificationsLost() {
+        invalidateAll();
+    }
+
+    /**
+     * Retrieves a domain object by its unique key, loading it with the given function on a cache miss.
+     *
+     * @param key    the unique key of the domain object
+     * @param loader the function that loads the domain object from the decorated service
+     * @return the domain object with the given key; never null
+     */
+    protected @NonNull DOMAIN getByKey(@NonNull String key, @NonNull Function<String, DOMAIN> loader) {
+        return get(byKey, byKeyLoads, key, loader);
+    }
+
+    /**
+     * Removes the domain object with the given ID from both caches.
+     * The key cache is scanned by ID, because the key of the object may have changed.
+     *
+     * @param id the ID of the domain object to remove
+     */
+    protected void invalidate(@NonNull ID id) {
+        byId.invalidate(id);
+        byKey.asMap().values().removeIf(cached -> id.equals(cached.getId()));
+    }
+
+    /**
+     * Removes all domain objects from both caches.
+     */
+    protected void invalidateAll() {
+        byId.invalidateAll();
+        byKey.invalidateAll();
+    }
+
+    /**
+     * Returns a cached domain object or loads it, joining a concurrent load of the same key if there is one.
+     */
+    private static <K, V> V get(Cache<K, V> cache, SingleFlight<K, V> loads, K key, Function<K, V> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return cache.get(key, loader);
+        }
+        return loads.execute(key, () -> cache.get(key, loader));
+    }
+
+    private static <K, V> Cache<K, V> newCache(@NonNull CacheConfiguration cacheConfiguration) {
+        return Caffeine.newBuilder()
+                .maximumSize(cacheConfiguration.maximumSize())
+                .expireAfterWrite(cacheConfiguration.expireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Runs an action after the current transaction has completed, or not at all if no transaction is active.
+     *
+     * @param action the action to run
+     */
+    protected static void afterCompletion(@NonNull Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package de.seuhd.campuscoffee.data.implementations;
+
+import de.seuhd.campuscoffee.data.configuration.CacheConfiguration;
+import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
+import de.seuhd.campuscoffee.domain.ports.data.PosDataService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.NonNull;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Caching decorator of the POS data service, which is injected wherever the POS data service port is used.
+ * POS are cached by their ID and by their name.
+ */
+@Primary
+@Service
+class CachingPosDataService
+        extends CachingCrudDataService<Pos, Long, PosDataServiceImpl>
+        implements PosDataService {
+
+    CachingPosDataService(PosDataServiceImpl delegate, CacheConfiguration cacheConfiguration, MeterRegistry meterRegistry) {
+        super(delegate, Pos.class, Long::valueOf, cacheConfiguration, meterRegistry, "pos", "name");
+    }
+
+    @Override
+    public @NonNull Pos getByName(@NonNull String name) {
+        return getByKey(name, delegate::getByName);
+    }
+
+    @Override
+    public @NonNull Pos upsertByOsmNodeId(@NonNull Pos pos) {
+        Pos imported = delegate.upsertByOsmNodeId(pos);
+        Long id = Objects.requireNonNull(imported.id());
+        invalidate(id);
+        afterCompletion(() -> invalidate(id));
+        return imported;
+    }
+
+    @Override
+    public @NonNull List<UpsertResult<Pos, Long>> upsertAllByOsmNodeId(@NonNull List<Pos> posList) {
+        List<UpsertResult<Pos, Long>> results = delegate.upsertAllByOsmNodeId(posList);
+        // each chunk has been committed, so entries loaded concurrently may be stale
+        results.stream()
+                .map(UpsertResult::value)
+                .filter(Objects::nonNull)
+                .forEach(pos -> invalidate(Objects.requireNonNull(pos.id())));
+        return results;
+    }
+}
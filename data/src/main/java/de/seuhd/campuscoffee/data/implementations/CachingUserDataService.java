@@ -0,0 +1,29 @@
+package de.seuhd.campuscoffee.data.implementations;
+
+import de.seuhd.campuscoffee.data.configuration.CacheConfiguration;
+import de.seuhd.campuscoffee.domain.model.objects.User;
+import de.seuhd.campuscoffee.domain.ports.data.UserDataService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.NonNull;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caching decorator of the user data service, which is injected wherever the user data service port is used.
+ * Users are cached by their ID and by their login name.
+ */
+@Primary
+@Service
+class CachingUserDataService
+        extends CachingCrudDataService<User, Long, UserDataServiceImpl>
+        implements UserDataService {
+
+    CachingUserDataService(UserDataServiceImpl delegate, CacheConfiguration cacheConfiguration, MeterRegistry meterRegistry) {
+        super(delegate, User.class, Long::valueOf, cacheConfiguration, meterRegistry, "users", "loginName");
+    }
+
+    @Override
+    public @NonNull User getByLoginName(@NonNull String loginName) {
+        return getByKey(loginName, delegate::getByLoginName);
+    }
+}
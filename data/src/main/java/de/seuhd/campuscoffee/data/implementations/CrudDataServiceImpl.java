@@ -1,23 +1,39 @@
 package de.seuhd.campuscoffee.data.implementations;
 
 import de.seuhd.campuscoffee.data.mapper.EntityMapper;
+import de.seuhd.campuscoffee.data.notifications.ChangeNotification;
 import de.seuhd.campuscoffee.data.persistence.entities.Entity;
-import de.seuhd.campuscoffee.data.constraints.ConstraintMapping;
-import de.seuhd.campuscoffee.data.persistence.repositories.ResettableSequenceRepository;
+import de.seuhd.campuscoffee.data.persistence.repositories.EntityRepository;
 import de.seuhd.campuscoffee.data.constraints.ConstraintRetriever;
 import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.ValidationException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
 import de.seuhd.campuscoffee.domain.model.objects.DomainModel;
+import de.seuhd.campuscoffee.domain.model.objects.Page;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
 import de.seuhd.campuscoffee.domain.ports.data.CrudDataService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Base implementation of CRUD data service operations.
@@ -31,13 +47,12 @@ import java.util.function.Supplier;
  * @param <DOMAIN>     the domain model type (must implement Identifiable)
  * @param <ENTITY>     the JPA entity type
  * @param <ID>         the type of the unique identifier (e.g., Long, UUID, String)
- * @param <REPOSITORY> the repository type (must extend both JpaRepository and ResettableSequenceRepository)
+ * @param <REPOSITORY> the repository type (must extend EntityRepository)
  */
-@RequiredArgsConstructor
 public abstract class CrudDataServiceImpl<
         DOMAIN extends DomainModel<ID>,
         ENTITY extends Entity,
-        REPOSITORY extends JpaRepository<ENTITY, ID> & ResettableSequenceRepository,
+        REPOSITORY extends EntityRepository<ENTITY, ID>,
         ID>
         implements CrudDataService<DOMAIN, ID> {
 
@@ -61,12 +76,59 @@ public abstract class CrudDataServiceImpl<
      * Constraint extractor for automatic unique field constraint discovery.
      */
     protected final ConstraintRetriever<DOMAIN, ENTITY> databaseConstraintExtractor;
+    /*
+     * Transaction manager used to commit each chunk of a batch upsert separately.
+     */
+    private final PlatformTransactionManager transactionManager;
+    /*
+     * Counter of the updates that have been skipped, tagged with the domain type.
+     */
+    private final Counter unchangedUpdates;
+
+    /**
+     * Number of entities written per transaction in {@link #upsertAll(List)}.
+     * The entities of a chunk are sent to the database in JDBC batches (see hibernate.jdbc.batch_size).
+     */
+    protected static final int UPSERT_CHUNK_SIZE = 1000;
+
+    /**
+     * Counter of the updates that have been skipped, because they would not have changed the entity,
+     * tagged with the domain type.
+     */
+    static final String UNCHANGED_UPDATES_METRIC = "campuscoffee.updates.unchanged";
+
+    /**
+     * Constructor that initializes the common dependencies and registers the counter of unchanged updates.
+     *
+     * @param repository                  the repository for entity persistence
+     * @param mapper                      the mapper for converting between domain objects and entities
+     * @param domainClass                 the domain class type (used for exception messages and metric tags)
+     * @param entityClass                 the entity class type (used for constraint extraction)
+     * @param databaseConstraintExtractor the constraint retriever for automatic constraint discovery
+     * @param transactionManager          the transaction manager for the chunks of batch upserts
+     * @param meterRegistry               the registry for the counter of unchanged updates
+     */
+    protected CrudDataServiceImpl(REPOSITORY repository, EntityMapper<DOMAIN, ENTITY> mapper, Class<DOMAIN> domainClass,
+                                  Class<ENTITY> entityClass, ConstraintRetriever<DOMAIN, ENTITY> databaseConstraintExtractor,
+                                  PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.domainClass = domainClass;
+        this.entityClass = entityClass;
+        this.databaseConstraintExtractor = databaseConstraintExtractor;
+        this.transactionManager = transactionManager;
+        this.unchangedUpdates = Counter.builder(UNCHANGED_UPDATES_METRIC)
+                .tag("type", domainClass.getSimpleName())
+                .description("Updates that have been skipped, because they would not have changed the entity")
+                .register(meterRegistry);
+    }
 
     @Override
     public void clear() {
         repository.deleteAllInBatch();
         repository.flush();
         repository.resetSequence(); // ensure consistent IDs after clearing (for local testing)
+        publishChange(null, null);
     }
 
     @Override
@@ -77,6 +139,41 @@ public abstract class CrudDataServiceImpl<
                 .toList();
     }
 
+    /**
+     * Retrieves one page using keyset pagination on the primary key.
+     * One additional row is fetched to determine whether a next page exists without a separate count query.
+     */
+    @Override
+    @NonNull
+    public Page<DOMAIN, ID> getPage(@Nullable ID after, int limit) {
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<ENTITY> entities = after == null
+                ? repository.findAllByOrderByIdAsc(fetchLimit)
+                : repository.findAllByIdGreaterThanOrderByIdAsc(after, fetchLimit);
+
+        List<DOMAIN> content = entities.stream()
+                .limit(limit)
+                .map(mapper::fromEntity)
+                .toList();
+        ID nextCursor = entities.size() > limit ? content.getLast().getId() : null;
+
+        return Page.<DOMAIN, ID>builder()
+                .content(content)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    public void forEach(@NonNull Consumer<? super DOMAIN> action) {
+        try (Stream<ENTITY> entities = repository.streamAllByOrderByIdAsc()) {
+            entities.forEach(entity -> {
+                action.accept(mapper.fromEntity(entity));
+                // processed entities would otherwise accumulate in the persistence context until the transaction ends
+                repository.detach(entity);
+            });
+        }
+    }
+
     @Override
     @NonNull
     public DOMAIN getById(@NonNull ID id) {
@@ -91,56 +188,257 @@ public abstract class CrudDataServiceImpl<
      * <p>
      * The constraint-to-field mapping is provided by subclasses, allowing entity-specific
      * validation while keeping the exception handling logic centralized.
+     * <p>
+     * An update reads the entity once, which also tells whether it exists, and writes it with a single
+     * UPDATE ... WHERE id = ? AND version = ?. If the domain object has a version, it must match the version
+     * of the entity; if the entity is modified between the read and the write, the UPDATE does not match.
+     * An update that would not change the entity is skipped (see {@link #applyChanges(DomainModel, Entity)}).
      *
      * @param domain the domain object to upsert
      * @throws DuplicationException if a uniqueness constraint is violated
+     * @throws VersionConflictException if the entity has been modified since the version of the domain object
      * @throws DataIntegrityViolationException if an unhandled constraint violation occurs
      */
     @Override
     @NonNull
     public DOMAIN upsert(@NonNull DOMAIN domain) {
-        // extract constraints automatically from entity annotations
-        Set<ConstraintMapping<DOMAIN>> fieldConstraints =
-                databaseConstraintExtractor.extractConstraintsFromEntity(entityClass);
+        return Objects.requireNonNull(write(domain).value());
+    }
 
-        try {
-            ID id = domain.getId();
+    @Override
+    @NonNull
+    public UpsertResult<DOMAIN, ID> update(@NonNull DOMAIN domain) {
+        if (domain.getId() == null) {
+            throw new IllegalArgumentException(domainClass.getSimpleName() + " to update has no ID.");
+        }
+        return write(domain);
+    }
 
+    /**
+     * Creates or updates an entity (see {@link #upsert(DomainModel)}).
+     *
+     * @param domain the domain object to upsert
+     * @return the result with the persisted domain object, marked as unchanged if the update has been skipped
+     */
+    private UpsertResult<DOMAIN, ID> write(DOMAIN domain) {
+        ID id = domain.getId();
+        try {
+            ENTITY savedEntity;
             if (id == null) {
                 // create new entity
-                return mapper.fromEntity(
-                        repository.saveAndFlush(mapper.toEntity(domain))
-                );
+                savedEntity = repository.saveAndFlush(newEntity(domain));
+            } else {
+                // update existing entity
+                ENTITY entity = repository.findById(id)
+                        .orElseThrow(() -> new NotFoundException(domainClass, id));
+                checkVersion(domain, entity);
+
+                // use mapper to update entity fields automatically
+                // note: timestamps are managed by JPA lifecycle callbacks (@PreUpdate), the version by Hibernate
+                Optional<DOMAIN> unchanged = applyChanges(domain, entity);
+                if (unchanged.isPresent()) {
+                    return UpsertResult.unchanged(unchanged.get());
+                }
+                savedEntity = repository.saveAndFlush(entity);
             }
 
-            // update existing entity
-            ENTITY entity = repository.findById(id)
-                    .orElseThrow(() -> new NotFoundException(domainClass, id));
+            DOMAIN savedDomain = mapper.fromEntity(savedEntity);
+            publishChange(savedDomain.getId(), savedEntity.getUpdatedAt());
+            return UpsertResult.success(savedDomain);
+        } catch (DataIntegrityViolationException e) {
+            throw translateConstraintViolation(e, domain);
+        } catch (OptimisticLockingFailureException e) {
+            throw new VersionConflictException(domainClass, id, domain.getVersion(), null);
+        }
+    }
 
-            // use mapper to update entity fields automatically
-            // note: timestamps are managed by JPA lifecycle callbacks (@PreUpdate)
-            mapper.updateEntity(domain, entity);
+    /**
+     * Upserts the entities in chunks of {@value #UPSERT_CHUNK_SIZE}, each in a new transaction.
+     * If a chunk fails (e.g., because of a duplicate), it is rolled back and its entities are upserted
+     * one by one, each in its own transaction, to determine the result of each entity.
+     * Instead of one change notification per chunk, a single notification for all entities of this type is sent
+     * after the batch, unless no chunk has created or changed an entity. Entities that are retried one by one
+     * are announced with their ID.
+     *
+     * @param domains the domain objects to upsert
+     * @return one result per domain object, in the given order
+     */
+    @Override
+    @NonNull
+    public List<UpsertResult<DOMAIN, ID>> upsertAll(@NonNull List<DOMAIN> domains) {
+        TransactionTemplate transaction = newTransaction();
 
-            return mapper.fromEntity(repository.saveAndFlush(entity));
-        } catch (DataIntegrityViolationException e) {
-            // Check each registered constraint to see if it was violated
-            for (var fieldConstraint : fieldConstraints) {
-                if (isConstraintViolation(e, fieldConstraint.constraintName())) {
-                    Object fieldValue = fieldConstraint.extractValue(domain);
-                    throw new DuplicationException(domainClass, fieldConstraint.columnName(), String.valueOf(fieldValue));
+        List<UpsertResult<DOMAIN, ID>> results = new ArrayList<>(domains.size());
+        boolean changed = false;
+        try {
+            for (int start = 0; start < domains.size(); start += UPSERT_CHUNK_SIZE) {
+                List<DOMAIN> chunk = domains.subList(start, Math.min(start + UPSERT_CHUNK_SIZE, domains.size()));
+                try {
+                    List<UpsertResult<DOMAIN, ID>> chunkResults =
+                            Objects.requireNonNull(transaction.execute(status -> upsertChunk(chunk)));
+                    changed |= chunkResults.stream().anyMatch(result -> !result.unchanged());
+                    results.addAll(chunkResults);
+                } catch (RuntimeException chunkException) {
+                    // retry the entities individually, so that only the invalid ones fail
+                    for (DOMAIN domain : chunk) {
+                        try {
+                            results.add(Objects.requireNonNull(transaction.execute(status -> {
+                                UpsertResult<DOMAIN, ID> result = write(domain);
+                                repository.detachAll();
+                                return result;
+                            })));
+                        } catch (RuntimeException e) {
+                            results.add(UpsertResult.failure(e));
+                        }
+                    }
                 }
             }
-            // if no constraint matched, re-throw the original exception
-            throw e;
+        } finally {
+            // the chunks written so far have been committed, even if a later one has thrown an error
+            if (changed) {
+                publishChange(null, null);
+            }
         }
+        return results;
     }
 
+    /**
+     * Upserts one chunk of entities within the current transaction.
+     * Existing entities are loaded with one query, and all entities are flushed together,
+     * so that Hibernate can group the INSERT and UPDATE statements in JDBC batches.
+     * The change notification is left to {@link #upsertAll(List)}. After the flush, the persistence context is
+     * cleared, so that the entities of earlier chunks are neither kept in memory nor dirty-checked again.
+     *
+     * @param domains the domain objects to upsert
+     * @return the results of the domain objects, in the given order
+     * @throws NotFoundException if an entity to update does not exist
+     * @throws VersionConflictException if an entity to update has been modified since the version of its domain object
+     */
+    private List<UpsertResult<DOMAIN, ID>> upsertChunk(List<DOMAIN> domains) {
+        List<ID> ids = domains.stream()
+                .map(DomainModel::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        Map<Object, ENTITY> existingEntities = new HashMap<>();
+        repository.findAllById(ids).forEach(entity -> existingEntities.put(entity.getId(), entity));
+
+        // the result of an unchanged entity is known right away, the others are filled in after the flush
+        List<UpsertResult<DOMAIN, ID>> results = new ArrayList<>(domains.size());
+        List<Integer> writtenIndexes = new ArrayList<>();
+        List<ENTITY> entities = new ArrayList<>();
+        for (DOMAIN domain : domains) {
+            ID id = domain.getId();
+            ENTITY entity;
+            if (id == null) {
+                entity = newEntity(domain);
+            } else {
+                entity = existingEntities.get(id);
+                if (entity == null) {
+                    throw new NotFoundException(domainClass, id);
+                }
+                checkVersion(domain, entity);
+                Optional<DOMAIN> unchanged = applyChanges(domain, entity);
+                if (unchanged.isPresent()) {
+                    results.add(UpsertResult.unchanged(unchanged.get()));
+                    continue;
+                }
+            }
+            results.add(null);
+            writtenIndexes.add(results.size() - 1);
+            entities.add(entity);
+        }
+        if (!entities.isEmpty()) {
+            List<ENTITY> savedEntities = repository.saveAll(entities);
+            repository.flush();
+            for (int i = 0; i < savedEntities.size(); i++) {
+                results.set(writtenIndexes.get(i), UpsertResult.success(mapper.fromEntity(savedEntities.get(i))));
+            }
+        }
+        repository.detachAll();
+        return results;
+    }
+
+    /**
+     * Applies a domain object to a loaded entity, unless this would not change any of its fields.
+     * The entity is compared as a domain object before and after the domain object has been applied, which covers
+     * all fields that the mapper writes; the fields the mapper preserves (ID, timestamps, version) are equal anyway.
+     * An unchanged entity is detached, so that it is neither flushed nor written when the transaction commits,
+     * and its update timestamp and version are kept. Skipped updates are counted as {@value #UNCHANGED_UPDATES_METRIC}.
+     *
+     * @param domain the domain object to apply
+     * @param entity the loaded entity, which is modified if the domain object changes it
+     * @return the stored state as a domain object if the update would not change the entity, empty otherwise
+     */
+    private Optional<DOMAIN> applyChanges(DOMAIN domain, ENTITY entity) {
+        DOMAIN stored = mapper.fromEntity(entity);
+        mapper.updateEntity(domain, entity);
+        if (!stored.equals(mapper.fromEntity(entity))) {
+            return Optional.empty();
+        }
+        repository.detach(entity);
+        unchangedUpdates.increment();
+        return Optional.of(stored);
+    }
+
+    /**
+     * Maps a domain object to a new entity, which starts with version 0 regardless of the version of the domain object.
+     *
+     * @param domain the domain object to create
+     * @return the entity to persist
+     */
+    private ENTITY newEntity(DOMAIN domain) {
+        ENTITY entity = mapper.toEntity(domain);
+        entity.setVersion(0);
+        return entity;
+    }
+
+    /**
+     * Checks that an update is based on the current version of the entity.
+     * Domain objects without a version are updated regardless of the version.
+     *
+     * @param domain the domain object with the version the update is based on
+     * @param entity the loaded entity with the current version
+     * @throws VersionConflictException if the versions differ
+     */
+    private void checkVersion(DOMAIN domain, ENTITY entity) {
+        Long expectedVersion = domain.getVersion();
+        if (expectedVersion != null && expectedVersion != entity.getVersion()) {
+            throw new VersionConflictException(domainClass, domain.getId(), expectedVersion, entity.getVersion());
+        }
+    }
+
+    /**
+     * Creates a template that runs its callbacks in a new transaction, independent of any surrounding transaction,
+     * so that a failed write can be retried without the surrounding transaction being aborted.
+     *
+     * @return the transaction template
+     */
+    protected TransactionTemplate newTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction;
+    }
+
+    /**
+     * Deletes the entity with a single statement, whose number of affected rows tells whether the entity existed.
+     *
+     * @param id the ID of the entity to delete
+     * @throws NotFoundException  if no entity with the ID exists
+     * @throws ValidationException if other entities still refer to the entity (foreign key violation)
+     */
     @Override
     public void delete(@NonNull ID id) {
-        if (!repository.existsById(id)) {
+        int deleted;
+        try {
+            deleted = repository.deleteInBulk(id);
+        } catch (DataIntegrityViolationException e) {
+            throw new ValidationException(domainClass.getSimpleName() + " with ID '" + id
+                    + "' cannot be deleted, because other objects refer to it.");
+        }
+        if (deleted == 0) {
             throw new NotFoundException(domainClass, id);
         }
-        repository.deleteById(id);
+        publishChange(id, null);
     }
 
     /**
@@ -165,27 +463,33 @@ public abstract class CrudDataServiceImpl<
     }
 
     /**
-     * Checks if the exception is due to a specific constraint violation.
-     * Checks both the exception message and root cause for the constraint name.
+     * Converts the violation of a unique field constraint into a DuplicationException.
+     * The violated constraint is looked up by the constraint name that the database reports.
      *
-     * @param exception              the DataIntegrityViolationException to check
-     * @param constraintName the database constraint name to look for
-     * @return true if the exception is due to the specified constraint violation
-     */
-    private static boolean isConstraintViolation(DataIntegrityViolationException exception, String constraintName) {
-        // check the exception message for the constraint name
-        String message = exception.getMessage();
-        if (message != null && message.contains(constraintName)) {
-            return true;
-        }
-
-        // also check root-cause for constraint violations
-        Throwable cause = exception.getRootCause();
-        if (cause != null) {
-            String causeMessage = cause.getMessage();
-            return causeMessage != null && causeMessage.contains(constraintName);
-        }
+     * @param exception the exception thrown by the write
+     * @param domain    the domain object that was written (used for the exception message)
+     * @return a DuplicationException if a known unique constraint was violated, otherwise the original exception
+     */
+    protected RuntimeException translateConstraintViolation(DataIntegrityViolationException exception, DOMAIN domain) {
+        return databaseConstraintExtractor.findViolatedConstraint(entityClass, exception)
+                .<RuntimeException>map(fieldConstraint -> new DuplicationException(domainClass,
+                        fieldConstraint.columnName(), String.valueOf(fieldConstraint.extractValue(domain))))
+                .orElse(exception);
+    }
 
-        return false;
+    /**
+     * Notifies all application instances about a change of an entity of this type (see {@link ChangeNotification}).
+     * Within a transaction, the notification is only delivered if the transaction commits.
+     *
+     * @param id        the ID of the changed entity, null if any number of entities may have changed
+     * @param updatedAt the update timestamp of the changed entity, null if it has been deleted
+     */
+    protected void publishChange(@Nullable ID id, @Nullable LocalDateTime updatedAt) {
+        ChangeNotification notification = ChangeNotification.builder()
+                .type(domainClass.getSimpleName())
+                .id(id == null ? null : String.valueOf(id))
+                .updatedAt(updatedAt)
+                .build();
+        repository.notifyChange(ChangeNotification.CHANNEL, notification.toPayload());
     }
 }
@@ -1,57 +1,161 @@
 package de.seuhd.campuscoffee.data.implementations;
 
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
-import de.seuhd.campuscoffee.data.client.OsmFeignClient;
+import de.seuhd.campuscoffee.data.client.OsmPbfExtractReader;
 import de.seuhd.campuscoffee.data.client.OsmResponse;
+import de.seuhd.campuscoffee.data.client.OsmTagMapper;
+import de.seuhd.campuscoffee.data.client.OsmXmlExtractReader;
+import de.seuhd.campuscoffee.data.client.ResilientOsmClient;
+import de.seuhd.campuscoffee.data.configuration.OsmCacheConfiguration;
+import de.seuhd.campuscoffee.data.persistence.entities.OsmNodeEntity;
+import de.seuhd.campuscoffee.data.persistence.repositories.OsmNodeRepository;
 import de.seuhd.campuscoffee.domain.exceptions.MissingFieldException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
-import de.seuhd.campuscoffee.domain.model.enums.OsmAmenity;
+import de.seuhd.campuscoffee.domain.exceptions.ServiceUnavailableException;
+import de.seuhd.campuscoffee.domain.model.enums.OsmExtractFormat;
+import de.seuhd.campuscoffee.domain.model.objects.OsmFetchResult;
 import de.seuhd.campuscoffee.domain.model.objects.OsmNode;
 import de.seuhd.campuscoffee.domain.ports.data.OsmDataService;
 import feign.FeignException;
-import lombok.RequiredArgsConstructor;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import javax.xml.stream.XMLStreamException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * OSM data service that fetches node data from the OpenStreetMap API.
+ * <p>
+ * The responses are cached in the database. Within the configured TTL, a cached node is returned without
+ * contacting the API. Once the TTL has passed, the node is fetched again, and the cached response is only
+ * replaced if the version of the node has changed; otherwise, just its fetch time is renewed.
+ * The share of lookups served from the cache is exposed as {@value #HIT_RATIO_METRIC}.
+ * Multiple nodes are fetched in chunks of {@value #FETCH_CHUNK_SIZE} with one request per chunk.
+ * Refreshed nodes are always fetched from the API, but cached like nodes whose TTL has passed.
+ * Concurrent fetches of the same node are coalesced into one lookup with {@link SingleFlight}.
+ * The API is called through {@link ResilientOsmClient}, so that transient failures are retried and calls fail
+ * with a {@link ServiceUnavailableException} instead of a {@link NotFoundException} while the API is unavailable.
+ * <p>
+ * OSM extracts are read from the given stream with {@link OsmXmlExtractReader} or {@link OsmPbfExtractReader}
+ * and bypass the cache.
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 class OsmDataServiceImpl implements OsmDataService {
-    private final OsmFeignClient osmFeignClient;
+    static final String LOOKUPS_METRIC = "campuscoffee.osm.cache.lookups";
+    static final String HIT_RATIO_METRIC = "campuscoffee.osm.cache.hit.ratio";
+    /**
+     * Maximum number of nodes requested at once, which keeps the request URL well below the limits of the OSM API.
+     */
+    static final int FETCH_CHUNK_SIZE = 100;
+
+    private static final String SERVICE_NAME = "OpenStreetMap API";
+    private static final XmlMapper XML_MAPPER = new XmlMapper();
+
+    private final ResilientOsmClient osmClient;
+    private final OsmNodeRepository osmNodeRepository;
+    private final OsmCacheConfiguration osmCacheConfiguration;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter revalidations;
+    private final Counter updates;
+    private final SingleFlight<Long, OsmNode> nodeFetches;
+
+    OsmDataServiceImpl(@NonNull ResilientOsmClient osmClient,
+                       @NonNull OsmNodeRepository osmNodeRepository,
+                       @NonNull OsmCacheConfiguration osmCacheConfiguration,
+                       @NonNull MeterRegistry meterRegistry) {
+        this.osmClient = osmClient;
+        this.osmNodeRepository = osmNodeRepository;
+        this.osmCacheConfiguration = osmCacheConfiguration;
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.revalidations = lookupCounter(meterRegistry, "revalidated");
+        this.updates = lookupCounter(meterRegistry, "updated");
+        this.nodeFetches = new SingleFlight<>("osm.node", meterRegistry);
+        Gauge.builder(HIT_RATIO_METRIC, this, OsmDataServiceImpl::hitRatio)
+                .description("Share of OSM node lookups served from the cache without contacting the OpenStreetMap API")
+                .register(meterRegistry);
+    }
 
     @Override
     public @NonNull OsmNode fetchNode(@NonNull Long nodeId) {
+        return nodeFetches.execute(nodeId, () -> fetchNode(nodeId, true));
+    }
+
+    @Override
+    public @NonNull List<OsmFetchResult> fetchNodes(@NonNull Collection<Long> nodeIds) {
+        return fetchNodes(nodeIds, true);
+    }
+
+    @Override
+    public @NonNull List<OsmFetchResult> refreshNodes(@NonNull Collection<Long> nodeIds) {
+        return fetchNodes(nodeIds, false);
+    }
+
+    /**
+     * Fetches a node, from the cache if allowed and the cached response is within the TTL.
+     *
+     * @param nodeId   the OSM node ID
+     * @param useCache false to fetch the node from the API even if the cached response is within the TTL
+     * @return the node
+     */
+    private OsmNode fetchNode(Long nodeId, boolean useCache) {
         try {
+            Optional<OsmNodeEntity> cached = osmNodeRepository.findById(nodeId);
+            LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+            if (useCache && cached.isPresent() && isFresh(cached.get(), now)) {
+                log.debug("Serving OSM node with ID '{}' from the cache.", nodeId);
+                hits.increment();
+                return OsmTagMapper.toOsmNode(nodeId, readResponse(cached.get().getXml()).getTags());
+            }
+
             log.debug("Fetching OSM node with ID '{}'...", nodeId);
-            String xmlResponse = osmFeignClient.fetchNode(nodeId);
+            String xmlResponse = osmClient.fetchNode(nodeId);
 
             if (xmlResponse == null || xmlResponse.isEmpty()) {
                 log.error("Empty response from OSM API for node with ID '{}'.", nodeId);
                 throw new NotFoundException(OsmNode.class, nodeId);
             }
 
-            OsmNode node = parseOsmXml(xmlResponse, nodeId);
+            OsmResponse osmResponse = readResponse(xmlResponse);
+            cache(nodeId, cached, osmResponse, xmlResponse, now);
+            OsmNode node = OsmTagMapper.toOsmNode(nodeId, osmResponse.getTags());
 
             log.debug("Successfully fetched and parsed OSM node with ID '{}'.", nodeId);
             return node;
 
         } catch (FeignException.NotFound e) {
             log.warn("OSM node with ID '{}' not found.", nodeId);
+            osmNodeRepository.evict(nodeId); // the node may have been deleted since it was cached
             throw new NotFoundException(OsmNode.class, nodeId);
         } catch (FeignException e) {
             log.error("HTTP error fetching OSM node with ID '{}': {} - {}",
                     nodeId, e.status(), e.getMessage());
             throw new NotFoundException(OsmNode.class, nodeId);
-        } catch (MissingFieldException e) {
-            // re-throw missing fields exception as-is
+        } catch (MissingFieldException | ServiceUnavailableException e) {
+            // re-throw missing fields and unavailability as-is
             throw e;
         } catch (Exception e) {
             log.error("Error fetching OSM node with ID '{}'", nodeId, e);
@@ -60,66 +164,236 @@ class OsmDataServiceImpl implements OsmDataService {
     }
 
     /**
-     * Parses the OSM XML response and extracts node data.
+     * Fetches multiple nodes, serving the nodes from the cache whose cached response is within the TTL if allowed.
      *
-     * @param xmlResponse the XML response from OSM API
-     * @param nodeId the node ID for error reporting
-     * @return parsed OsmNode object
-     * @throws IOException if XML parsing fails
-     * @throws MissingFieldException if required fields are missing
+     * @param nodeIds  the OSM node IDs
+     * @param useCache false to fetch all nodes from the API
+     * @return one result per given node ID, in the given order
      */
-    private OsmNode parseOsmXml(String xmlResponse, Long nodeId) throws IOException {
-        // parse XML using Jackson (deserializer ensures node element and id are present)
-        XmlMapper xmlMapper = new XmlMapper();
-        OsmResponse osmResponse = xmlMapper.readValue(xmlResponse, OsmResponse.class);
-        Map<String, String> tags = osmResponse.getTags();
-
-        // extract required fields
-        String name = getRequiredTag(tags, "name", nodeId);
-        String city = getRequiredTag(tags, "addr:city", nodeId);
-        String street = getRequiredTag(tags, "addr:street", nodeId);
-        String houseNumber = getRequiredTag(tags, "addr:housenumber", nodeId);
-        String postcode = getRequiredTag(tags, "addr:postcode", nodeId);
-        String amenityStr = getRequiredTag(tags, "amenity", nodeId);
-        OsmAmenity amenity = OsmAmenity.fromOsmValue(amenityStr)
-                .orElseThrow(() -> {
-                    log.warn("OSM node {} has unsupported amenity type: {}", nodeId, amenityStr);
-                    return new MissingFieldException(OsmNode.class, nodeId, "amenity");
-                });
+    private List<OsmFetchResult> fetchNodes(Collection<Long> nodeIds, boolean useCache) {
+        Set<Long> distinctIds = new LinkedHashSet<>(nodeIds);
+        Map<Long, OsmFetchResult> results = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+
+        // serve the nodes that have been cached within the TTL
+        Map<Long, OsmNodeEntity> cached = new HashMap<>();
+        osmNodeRepository.findAllById(distinctIds).forEach(entity -> cached.put(entity.getNodeId(), entity));
+        List<Long> idsToFetch = new ArrayList<>();
+        for (Long nodeId : distinctIds) {
+            OsmNodeEntity entity = cached.get(nodeId);
+            if (useCache && entity != null && isFresh(entity, now)) {
+                hits.increment();
+                results.put(nodeId, fromCache(entity));
+            } else {
+                idsToFetch.add(nodeId);
+            }
+        }
 
-        // extract optional fields
-        Optional<String> nameDe = Optional.ofNullable(tags.get("name:de"));
-        Optional<String> nameEn = Optional.ofNullable(tags.get("name:en"));
-        Optional<String> description = Optional.ofNullable(tags.get("description"));
+        log.debug("Fetching {} of {} OSM nodes, {} served from the cache...",
+                idsToFetch.size(), distinctIds.size(), distinctIds.size() - idsToFetch.size());
+        for (int start = 0; start < idsToFetch.size(); start += FETCH_CHUNK_SIZE) {
+            List<Long> chunk = idsToFetch.subList(start, Math.min(start + FETCH_CHUNK_SIZE, idsToFetch.size()));
+            fetchChunk(chunk, cached, now, useCache, results);
+        }
 
-        // build and return the OsmNode
-        return OsmNode.builder()
-                .nodeId(nodeId)
-                .name(nameEn.or(() -> nameDe).orElse(name)) // prioritize nameEn, then nameDe, then fall back to name
-                .amenity(amenity)
-                .city(city)
-                .street(street)
-                .houseNumber(houseNumber)
-                .postcode(postcode)
-                .description(description.orElse("n/a"))
-                .build();
+        return nodeIds.stream()
+                .map(results::get)
+                .toList();
+    }
+
+    @Override
+    public long readExtract(@NonNull InputStream extract,
+                            @NonNull OsmExtractFormat format,
+                            @NonNull Consumer<OsmNode> nodeConsumer,
+                            @NonNull BiConsumer<Long, RuntimeException> invalidNodeConsumer) {
+        BiConsumer<Long, Map<String, String>> taggedNodeConsumer = (nodeId, tags) -> {
+            if (!OsmTagMapper.isSupportedAmenity(tags)) {
+                return;
+            }
+            OsmNode node;
+            try {
+                node = OsmTagMapper.toOsmNode(nodeId, tags);
+            } catch (MissingFieldException e) {
+                invalidNodeConsumer.accept(nodeId, e);
+                return;
+            }
+            nodeConsumer.accept(node);
+        };
+        try {
+            return switch (format) {
+                case XML -> OsmXmlExtractReader.read(extract, taggedNodeConsumer);
+                case PBF -> OsmPbfExtractReader.read(extract, taggedNodeConsumer);
+            };
+        } catch (XMLStreamException | IOException | NumberFormatException e) {
+            log.warn("Could not parse OSM extract: {}", e.getMessage());
+            throw new IllegalArgumentException("Invalid OpenStreetMap extract: " + e.getMessage(), e);
+        }
     }
 
     /**
-     * Retrieves a required tag from the tag map.
+     * Fetches one chunk of nodes with a single request and parses the response as a stream.
+     * If one of the nodes has never existed, the API rejects the whole request, so that the nodes of the chunk
+     * are fetched one by one instead. Only nodes that are missing from a successful response are reported as not
+     * found; if the request fails otherwise or its response cannot be parsed, all nodes of the chunk that have
+     * not been parsed yet fail with a {@link ServiceUnavailableException}, so that they can be fetched again later.
      *
-     * @param tags   the map of OSM tags
-     * @param key    the tag key to retrieve
-     * @param nodeId the node ID for error reporting
-     * @return the tag value
-     * @throws MissingFieldException if the tag is missing
+     * @param chunk    the IDs of the nodes to fetch
+     * @param cached   the previously cached responses by node ID
+     * @param now      the time of the fetch
+     * @param useCache whether nodes that are fetched one by one may be served from the cache
+     * @param results  the results by node ID, to which the results of the chunk are added
      */
-    private String getRequiredTag(Map<String, String> tags, String key, Long nodeId) {
-        return Optional.ofNullable(tags.get(key))
-                .orElseThrow(() -> {
-                    log.warn("OSM node {} is missing required field: '{}'. Available tags: {}",
-                            nodeId, key, tags.keySet());
-                    return new MissingFieldException(OsmNode.class, nodeId, key);
+    private void fetchChunk(List<Long> chunk, Map<Long, OsmNodeEntity> cached, LocalDateTime now,
+                            boolean useCache, Map<Long, OsmFetchResult> results) {
+        Set<Long> requestedIds = new HashSet<>(chunk);
+        String nodeIds = chunk.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try (Response response = osmClient.fetchNodes(nodeIds)) {
+            if (response.status() == HttpStatus.NOT_FOUND.value()) {
+                log.debug("At least one of the OSM nodes {} does not exist, fetching them one by one...", chunk);
+                chunk.forEach(nodeId -> results.put(nodeId, fetchSingleNode(nodeId, useCache)));
+                return;
+            }
+            if (response.status() != HttpStatus.OK.value() || response.body() == null) {
+                log.error("HTTP error fetching OSM nodes {}: {}", chunk, response.status());
+                failChunk(chunk, new ServiceUnavailableException(SERVICE_NAME,
+                        "unexpected HTTP status " + response.status() + " fetching nodes", null), results);
+                return;
+            }
+            try (InputStream body = response.body().asInputStream()) {
+                OsmXmlExtractReader.readNodes(body, osmResponse -> {
+                    if (requestedIds.contains(osmResponse.getId())) {
+                        results.put(osmResponse.getId(),
+                                fromResponse(osmResponse, Optional.ofNullable(cached.get(osmResponse.getId())), now));
+                    }
                 });
+            }
+        } catch (ServiceUnavailableException e) {
+            log.error("Error fetching OSM nodes {}: {}", chunk, e.getMessage());
+            failChunk(chunk, e, results);
+            return;
+        } catch (FeignException | IOException | XMLStreamException | NumberFormatException e) {
+            log.error("Error fetching OSM nodes {}", chunk, e);
+            failChunk(chunk, new ServiceUnavailableException(SERVICE_NAME,
+                    "invalid response fetching nodes (" + e.getMessage() + ")", e), results);
+            return;
+        }
+        // nodes that are missing from a complete, successful response
+        chunk.forEach(nodeId -> results.putIfAbsent(nodeId,
+                OsmFetchResult.failure(nodeId, new NotFoundException(OsmNode.class, nodeId))));
+    }
+
+    /**
+     * Reports the nodes of a chunk that have not been parsed yet as failed with the given exception.
+     */
+    private static void failChunk(List<Long> chunk, ServiceUnavailableException e, Map<Long, OsmFetchResult> results) {
+        chunk.forEach(nodeId -> results.putIfAbsent(nodeId, OsmFetchResult.failure(nodeId, e)));
+    }
+
+    private OsmFetchResult fetchSingleNode(Long nodeId, boolean useCache) {
+        try {
+            return OsmFetchResult.success(fetchNode(nodeId, useCache));
+        } catch (RuntimeException e) {
+            return OsmFetchResult.failure(nodeId, e);
+        }
+    }
+
+    /**
+     * Converts a node of a response with multiple nodes and caches it like a response for the single node.
+     * Deleted nodes are returned without tags and removed from the cache.
+     */
+    private OsmFetchResult fromResponse(OsmResponse osmResponse, Optional<OsmNodeEntity> cached, LocalDateTime now) {
+        Long nodeId = osmResponse.getId();
+        if (osmResponse.getTags().isEmpty()) {
+            log.warn("OSM node with ID '{}' not found.", nodeId);
+            cached.ifPresent(entity -> osmNodeRepository.evict(nodeId));
+            return OsmFetchResult.failure(nodeId, new NotFoundException(OsmNode.class, nodeId));
+        }
+        cache(nodeId, cached, osmResponse, osmResponse.toXml(), now);
+        try {
+            return OsmFetchResult.success(OsmTagMapper.toOsmNode(nodeId, osmResponse.getTags()));
+        } catch (MissingFieldException e) {
+            return OsmFetchResult.failure(nodeId, e);
+        }
+    }
+
+    private OsmFetchResult fromCache(OsmNodeEntity cached) {
+        Long nodeId = cached.getNodeId();
+        try {
+            return OsmFetchResult.success(OsmTagMapper.toOsmNode(nodeId, readResponse(cached.getXml()).getTags()));
+        } catch (MissingFieldException e) {
+            return OsmFetchResult.failure(nodeId, e);
+        } catch (IOException e) {
+            log.error("Error reading cached OSM node with ID '{}'", nodeId, e);
+            return OsmFetchResult.failure(nodeId, new NotFoundException(OsmNode.class, nodeId));
+        }
+    }
+
+    private boolean isFresh(OsmNodeEntity cached, LocalDateTime now) {
+        return cached.getFetchedAt().plus(osmCacheConfiguration.ttl()).isAfter(now);
+    }
+
+    /**
+     * Returns the share of lookups that were served from the cache within the TTL.
+     *
+     * @return the hit ratio between 0 and 1, or 0 if no node has been looked up yet
+     */
+    double hitRatio() {
+        double lookups = hits.count() + misses.count() + revalidations.count() + updates.count();
+        return lookups == 0 ? 0 : hits.count() / lookups;
+    }
+
+    /**
+     * Stores a fetched response in the cache. If the version of the node has not changed since it was cached,
+     * only the fetch time is renewed. Responses without a version are not cached, because they cannot be compared.
+     *
+     * @param nodeId      the node ID
+     * @param cached      the previously cached response, if any
+     * @param osmResponse the parsed response
+     * @param xmlResponse the raw response
+     * @param now         the time the response was fetched
+     */
+    private void cache(Long nodeId, Optional<OsmNodeEntity> cached, OsmResponse osmResponse,
+                       String xmlResponse, LocalDateTime now) {
+        Long version = osmResponse.getVersion();
+        if (cached.isEmpty()) {
+            misses.increment();
+        } else if (version != null && version <= cached.get().getVersion()) {
+            revalidations.increment();
+            osmNodeRepository.touch(nodeId, now);
+            return;
+        } else {
+            updates.increment();
+        }
+        if (version == null) {
+            log.warn("OSM node with ID '{}' has no version and is not cached.", nodeId);
+            return;
+        }
+        osmNodeRepository.upsert(nodeId, version, xmlResponse, now);
+    }
+
+    /**
+     * Parses the XML response of the OSM API.
+     *
+     * @param xmlResponse the XML response from OSM API
+     * @return the node ID, version, and tags
+     * @throws IOException if XML parsing fails
+     */
+    private static OsmResponse readResponse(String xmlResponse) throws IOException {
+        // parse XML using Jackson (deserializer ensures node element and id are present)
+        return XML_MAPPER.readValue(xmlResponse, OsmResponse.class);
+    }
+
+    /**
+     * Registers the counter of the lookups with the given cache result.
+     *
+     * @param meterRegistry the registry for the cache metrics
+     * @param result        hit, miss, revalidated (expired but unchanged), or updated (expired and changed)
+     * @return the registered counter
+     */
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(LOOKUPS_METRIC)
+                .tag("result", result)
+                .description("Lookups of OSM nodes in the cache by result")
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,82 @@
+package de.seuhd.campuscoffee.data.implementations;
+
+import de.seuhd.campuscoffee.data.persistence.entities.OsmSyncProgressEntity;
+import de.seuhd.campuscoffee.data.persistence.repositories.OsmSyncRepository;
+import de.seuhd.campuscoffee.domain.model.enums.CampusType;
+import de.seuhd.campuscoffee.domain.model.objects.OsmLinkedPos;
+import de.seuhd.campuscoffee.domain.model.objects.OsmSyncProgress;
+import de.seuhd.campuscoffee.domain.ports.data.OsmSyncDataService;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of the OSM sync data service that the domain layer provides as a port.
+ * The progress is kept in the single row of the osm_sync_progress table,
+ * the tag hashes in the osm_tags_hash column of the pos table.
+ */
+@Service
+class OsmSyncDataServiceImpl implements OsmSyncDataService {
+    private final OsmSyncRepository repository;
+
+    OsmSyncDataServiceImpl(@NonNull OsmSyncRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public @NonNull List<OsmLinkedPos> findLinkedPos(@Nullable Long afterOsmNodeId, int limit) {
+        return repository.findLinkedPos(afterOsmNodeId == null ? Long.MIN_VALUE : afterOsmNodeId, limit).stream()
+                .map(linkedPos -> new OsmLinkedPos(linkedPos.getPosId(), linkedPos.getOsmNodeId(),
+                        CampusType.valueOf(linkedPos.getCampus()), linkedPos.getTagsHash()))
+                .toList();
+    }
+
+    @Override
+    public @NonNull OsmSyncProgress getProgress() {
+        return repository.findById(OsmSyncProgressEntity.ID)
+                .map(progress -> new OsmSyncProgress(progress.getLastOsmNodeId(), progress.getStartedAt(),
+                        progress.getFinishedAt()))
+                .orElseGet(() -> new OsmSyncProgress(null, null, null));
+    }
+
+    @Override
+    public void startRun() {
+        repository.save(new OsmSyncProgressEntity(OsmSyncProgressEntity.ID, null, now(), null));
+    }
+
+    @Override
+    @Transactional
+    public void completeBatch(@NonNull Map<Long, String> tagsHashes, @NonNull Long lastOsmNodeId) {
+        if (!tagsHashes.isEmpty()) {
+            repository.updateTagsHashes(tagsHashes.keySet().toArray(Long[]::new),
+                    tagsHashes.values().toArray(String[]::new));
+        }
+        OsmSyncProgressEntity progress = progress();
+        progress.setLastOsmNodeId(lastOsmNodeId);
+        repository.save(progress);
+    }
+
+    @Override
+    @Transactional
+    public void finishRun() {
+        OsmSyncProgressEntity progress = progress();
+        progress.setLastOsmNodeId(null);
+        progress.setFinishedAt(now());
+        repository.save(progress);
+    }
+
+    private OsmSyncProgressEntity progress() {
+        return repository.findById(OsmSyncProgressEntity.ID)
+                .orElseGet(() -> new OsmSyncProgressEntity(OsmSyncProgressEntity.ID, null, now(), null));
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of("UTC"));
+    }
+}
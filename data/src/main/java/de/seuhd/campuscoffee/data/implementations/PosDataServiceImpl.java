@@ -2,13 +2,26 @@ package de.seuhd.campuscoffee.data.implementations;
 
 import de.seuhd.campuscoffee.data.mapper.PosEntityMapper;
 import de.seuhd.campuscoffee.data.persistence.entities.PosEntity;
+import de.seuhd.campuscoffee.data.persistence.repositories.PosImportRepository;
 import de.seuhd.campuscoffee.data.persistence.repositories.PosRepository;
 import de.seuhd.campuscoffee.data.constraints.ConstraintRetriever;
 import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
+import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
 import de.seuhd.campuscoffee.domain.ports.data.PosDataService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.jspecify.annotations.NonNull;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Implementation of the POS data service that the domain layer provides as a port.
@@ -27,9 +40,13 @@ class PosDataServiceImpl
      * @param repository     the POS repository for data access
      * @param entityMapper   the mapper for converting between POS domain objects and entities
      * @param constraintRetriever the constraint retriever for automatic constraint discovery
+     * @param transactionManager the transaction manager for the chunks of batch upserts
+     * @param meterRegistry the registry for the metrics of the data service
      */
-    PosDataServiceImpl(PosRepository repository, PosEntityMapper entityMapper, ConstraintRetriever<Pos, PosEntity> constraintRetriever) {
-        super(repository, entityMapper, Pos.class, PosEntity.class, constraintRetriever);
+    PosDataServiceImpl(PosRepository repository, PosEntityMapper entityMapper, ConstraintRetriever<Pos, PosEntity> constraintRetriever,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        super(repository, entityMapper, Pos.class, PosEntity.class, constraintRetriever, transactionManager, meterRegistry);
     }
 
     /**
@@ -47,4 +64,125 @@ class PosDataServiceImpl
                 name
         );
     }
+
+    /**
+     * Imports a POS with one INSERT ... ON CONFLICT statement (see {@link PosImportRepository}).
+     * A change notification is only published if the POS has been inserted or updated.
+     *
+     * @param pos the POS to import; its OSM node ID must not be null
+     * @return the imported POS; never null
+     * @throws DuplicationException if another POS with the same name exists, or if the POS has been imported
+     *                              concurrently and could not be read
+     */
+    @Override
+    public @NonNull Pos upsertByOsmNodeId(@NonNull Pos pos) {
+        return Objects.requireNonNull(importPos(pos).value());
+    }
+
+    /**
+     * Imports a POS (see {@link #upsertByOsmNodeId(Pos)}).
+     *
+     * @param pos the POS to import; its OSM node ID must not be null
+     * @return the result with the imported POS, unchanged if the POS has neither been inserted nor updated
+     */
+    private UpsertResult<Pos, Long> importPos(Pos pos) {
+        Objects.requireNonNull(pos.osmNodeId());
+        try {
+            PosImportRepository.ImportResult result = repository.upsertByOsmNodeId(mapper.toEntity(pos))
+                    .orElseThrow(() -> concurrentImport(pos));
+            Pos importedPos = mapper.fromEntity(result.pos());
+            if (!result.changed()) {
+                return UpsertResult.unchanged(importedPos);
+            }
+            publishChange(importedPos.id(), result.pos().getUpdatedAt());
+            return UpsertResult.success(importedPos);
+        } catch (DataIntegrityViolationException e) {
+            throw translateConstraintViolation(e, pos);
+        }
+    }
+
+    /**
+     * Imports the POS in chunks of {@value #UPSERT_CHUNK_SIZE}, each with one INSERT ... ON CONFLICT statement
+     * in a new transaction. If a chunk fails (e.g., because of a duplicate name), it is rolled back and its POS
+     * are imported one by one, each in its own transaction, to determine the result of each POS.
+     * Instead of one change notification per POS or chunk, a single notification for all POS is sent after
+     * the batch, unless no chunk has inserted or updated a POS. POS that are retried one by one are announced
+     * with their ID.
+     *
+     * @param posList the POS to import; their OSM node IDs must not be null
+     * @return one result per POS, in the given order; POS that did not differ from the stored ones are unchanged
+     */
+    @Override
+    public @NonNull List<UpsertResult<Pos, Long>> upsertAllByOsmNodeId(@NonNull List<Pos> posList) {
+        TransactionTemplate transaction = newTransaction();
+
+        List<UpsertResult<Pos, Long>> results = new ArrayList<>(posList.size());
+        boolean changed = false;
+        try {
+            for (int start = 0; start < posList.size(); start += UPSERT_CHUNK_SIZE) {
+                List<Pos> chunk = posList.subList(start, Math.min(start + UPSERT_CHUNK_SIZE, posList.size()));
+                try {
+                    List<UpsertResult<Pos, Long>> chunkResults =
+                            Objects.requireNonNull(transaction.execute(status -> importChunk(chunk)));
+                    changed |= chunkResults.stream().anyMatch(result -> !result.unchanged());
+                    results.addAll(chunkResults);
+                } catch (RuntimeException chunkException) {
+                    // retry the POS individually, so that only the invalid ones fail
+                    for (Pos pos : chunk) {
+                        try {
+                            results.add(Objects.requireNonNull(transaction.execute(status -> {
+                                UpsertResult<Pos, Long> result = importPos(pos);
+                                repository.detachAll();
+                                return result;
+                            })));
+                        } catch (RuntimeException e) {
+                            results.add(UpsertResult.failure(e));
+                        }
+                    }
+                }
+            }
+        } finally {
+            // the chunks imported so far have been committed, even if a later one has thrown an error
+            if (changed) {
+                publishChange(null, null);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Imports one chunk of POS within the current transaction.
+     * The change notification is left to {@link #upsertAllByOsmNodeId(List)}, and the persistence context is
+     * cleared afterwards, so that the imported entities of earlier chunks are not kept in memory.
+     *
+     * @param chunk the POS to import; their OSM node IDs must be distinct
+     * @return the results of the POS, in the given order; unchanged if the POS has neither been inserted nor updated
+     */
+    private List<UpsertResult<Pos, Long>> importChunk(List<Pos> chunk) {
+        chunk.forEach(pos -> Objects.requireNonNull(pos.osmNodeId()));
+        List<PosImportRepository.ImportResult> importResults = repository.upsertAllByOsmNodeId(
+                chunk.stream().map(mapper::toEntity).toList());
+
+        // the statement returns the rows in no particular order
+        Map<Long, PosImportRepository.ImportResult> importedByOsmNodeId = new HashMap<>();
+        for (PosImportRepository.ImportResult importResult : importResults) {
+            importedByOsmNodeId.put(importResult.pos().getOsmNodeId(), importResult);
+        }
+        List<UpsertResult<Pos, Long>> results = chunk.stream()
+                .map(pos -> {
+                    PosImportRepository.ImportResult imported = importedByOsmNodeId.get(pos.osmNodeId());
+                    if (imported == null) {
+                        throw concurrentImport(pos);
+                    }
+                    Pos importedPos = mapper.fromEntity(imported.pos());
+                    return imported.changed() ? UpsertResult.success(importedPos) : UpsertResult.unchanged(importedPos);
+                })
+                .toList();
+        repository.detachAll();
+        return results;
+    }
+
+    private static DuplicationException concurrentImport(Pos pos) {
+        return new DuplicationException(Pos.class, "OSM node ID", String.valueOf(pos.osmNodeId()));
+    }
 }
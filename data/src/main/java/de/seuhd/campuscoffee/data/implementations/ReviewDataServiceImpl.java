@@ -3,17 +3,21 @@ package de.seuhd.campuscoffee.data.implementations;
 import de.seuhd.campuscoffee.data.constraints.ConstraintRetriever;
 import de.seuhd.campuscoffee.data.mapper.PosEntityMapper;
 import de.seuhd.campuscoffee.data.mapper.ReviewEntityMapper;
-import de.seuhd.campuscoffee.data.mapper.UserEntityMapper;
 import de.seuhd.campuscoffee.data.persistence.entities.ReviewEntity;
 import de.seuhd.campuscoffee.data.persistence.repositories.ReviewRepository;
+import de.seuhd.campuscoffee.domain.exceptions.ValidationException;
 import de.seuhd.campuscoffee.domain.model.objects.Pos;
 import de.seuhd.campuscoffee.domain.model.objects.Review;
-import de.seuhd.campuscoffee.domain.model.objects.User;
 import de.seuhd.campuscoffee.domain.ports.data.ReviewDataService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.jspecify.annotations.NonNull;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class ReviewDataServiceImpl
@@ -21,14 +25,14 @@ public class ReviewDataServiceImpl
         implements ReviewDataService {
 
     private final PosEntityMapper posEntityMapper;
-    private final UserEntityMapper userEntityMapper;
 
     ReviewDataServiceImpl(ReviewRepository repository, ReviewEntityMapper entityMapper,
                           ConstraintRetriever<Review, ReviewEntity> constraintRetriever,
-                          PosEntityMapper posEntityMapper, UserEntityMapper userEntityMapper) {
-        super(repository, entityMapper, Review.class, ReviewEntity.class, constraintRetriever);
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          PosEntityMapper posEntityMapper) {
+        super(repository, entityMapper, Review.class, ReviewEntity.class, constraintRetriever, transactionManager, meterRegistry);
         this.posEntityMapper = posEntityMapper;
-        this.userEntityMapper = userEntityMapper;
     }
 
     @Override
@@ -40,10 +44,45 @@ public class ReviewDataServiceImpl
     }
 
     @Override
-    public @NonNull List<Review> filter(@NonNull Pos pos, @NonNull User author) {
-        return repository.findAllByPosAndAuthor(posEntityMapper.toEntity(pos), userEntityMapper.toEntity(author))
-                .stream()
-                .map(mapper::fromEntity)
-                .toList();
+    public int deleteAllByPos(@NonNull Long posId) {
+        int deleted = repository.deleteAllByPosId(posId);
+        if (deleted > 0) {
+            publishChange(null, null);
+        }
+        return deleted;
+    }
+
+    /**
+     * Translates the violation of the one-review-per-author-and-POS constraint into a {@link ValidationException},
+     * so that reviews are created with a single insert that is also correct for concurrent submissions.
+     */
+    @Override
+    protected RuntimeException translateConstraintViolation(DataIntegrityViolationException exception, Review review) {
+        if (databaseConstraintExtractor.isViolated(entityClass, ReviewEntity.POS_AUTHOR_CONSTRAINT, exception)) {
+            return new ValidationException("Author with ID '" + review.author().getId()
+                    + "' has already reviewed POS with ID '" + review.pos().getId() + "'.");
+        }
+        return super.translateConstraintViolation(exception, review);
+    }
+
+    @Override
+    public @NonNull Optional<Review> approve(@NonNull Long reviewId, @NonNull Long userId, int minCount) {
+        return repository.approve(reviewId, userId, minCount)
+                .map(mapper::fromEntity);
+    }
+
+    @Override
+    public boolean addVote(@NonNull Long reviewId, @NonNull Long userId) {
+        return repository.addVote(reviewId, userId);
+    }
+
+    @Override
+    public void addApprovals(@NonNull Map<Long, Long> increments, int minCount) {
+        repository.addApprovals(increments, minCount);
+    }
+
+    @Override
+    public boolean hasApproved(@NonNull Long reviewId, @NonNull Long userId) {
+        return repository.hasApproved(reviewId, userId);
     }
 }
@@ -0,0 +1,103 @@
+package de.seuhd.campuscoffee.data.implementations;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.NonNull;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical lookups onto one execution ("single flight").
+ * The first caller of a key runs the lookup; callers that arrive while it is in flight wait for the same future
+ * instead of repeating the work, and all of them receive its result or exception.
+ * Results are not retained: once the lookup has completed, the next caller of the key runs it again.
+ * <p>
+ * The calls are counted as {@value #CALLS_METRIC}, tagged with the name of the lookup and whether the caller ran
+ * the lookup ({@code leader}) or waited for another caller ({@code coalesced}). The number of keys in flight is
+ * exposed as {@value #IN_FLIGHT_METRIC}.
+ *
+ * @param <K> the type of the lookup keys
+ * @param <V> the type of the looked up values
+ */
+final class SingleFlight<K, V> {
+    static final String CALLS_METRIC = "campuscoffee.singleflight.calls";
+    static final String IN_FLIGHT_METRIC = "campuscoffee.singleflight.inflight";
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaderCalls;
+    private final Counter coalescedCalls;
+
+    /**
+     * Creates a single-flight group and registers its metrics.
+     *
+     * @param name          the name of the lookup, used as tag of the metrics
+     * @param meterRegistry the registry for the metrics
+     */
+    SingleFlight(@NonNull String name, @NonNull MeterRegistry meterRegistry) {
+        this.leaderCalls = callCounter(name, "leader", meterRegistry);
+        this.coalescedCalls = callCounter(name, "coalesced", meterRegistry);
+        Gauge.builder(IN_FLIGHT_METRIC, inFlight, Map::size)
+                .tag("name", name)
+                .description("Lookups that are in flight and can be joined by concurrent callers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the lookup of a key or, if a lookup of the same key is already in flight, waits for its outcome.
+     *
+     * @param key    the key of the lookup
+     * @param lookup the lookup, run by the calling thread if no lookup of the key is in flight
+     * @return the result of the lookup
+     * @throws RuntimeException the exception of the lookup, rethrown to every caller that waited for it
+     */
+    V execute(@NonNull K key, @NonNull Supplier<V> lookup) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            coalescedCalls.increment();
+            return await(running);
+        }
+
+        leaderCalls.increment();
+        V result;
+        try {
+            result = lookup.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        // later callers start a new lookup, so that they see writes that happen after this one has completed
+        inFlight.remove(key, future);
+        future.complete(result);
+        return result;
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // unwrap the exception of the lookup, so that waiting callers see the same exception as the leader
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter callCounter(String name, String result, MeterRegistry meterRegistry) {
+        return Counter.builder(CALLS_METRIC)
+                .tag("name", name)
+                .tag("result", result)
+                .description("Lookups by whether the caller ran them or joined an identical lookup in flight")
+                .register(meterRegistry);
+    }
+}
@@ -7,8 +7,10 @@ import de.seuhd.campuscoffee.data.constraints.ConstraintRetriever;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
 import de.seuhd.campuscoffee.domain.model.objects.User;
 import de.seuhd.campuscoffee.domain.ports.data.UserDataService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.jspecify.annotations.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 
 /**
  * Implementation of the user data service that the domain layer provides as a port.
@@ -27,9 +29,13 @@ class UserDataServiceImpl
      * @param repository    the User repository for data access
      * @param entityMapper  the mapper for converting between User domain objects and entities
      * @param constraintExtractor the constraint retriever for automatic constraint discovery
+     * @param transactionManager the transaction manager for the chunks of batch upserts
+     * @param meterRegistry the registry for the metrics of the data service
      */
-    UserDataServiceImpl(UserRepository repository, UserEntityMapper entityMapper, ConstraintRetriever<User, UserEntity> constraintExtractor) {
-        super(repository, entityMapper, User.class, UserEntity.class, constraintExtractor);
+    UserDataServiceImpl(UserRepository repository, UserEntityMapper entityMapper, ConstraintRetriever<User, UserEntity> constraintExtractor,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry) {
+        super(repository, entityMapper, User.class, UserEntity.class, constraintExtractor, transactionManager, meterRegistry);
     }
 
     /**
@@ -38,7 +38,7 @@ public interface EntityMapper<
     /**
      * Updates an existing JPA entity with data from the domain model.
      * This method is intended for update operations where the entity already exists.
-     * JPA-managed fields (id, createdAt, updatedAt) should be preserved and not overwritten.
+     * JPA-managed fields (id, createdAt, updatedAt, version) should be preserved and not overwritten.
      *
      * @param source the domain model containing the new data; must not be null
      * @param target the existing JPA entity to update; must not be null
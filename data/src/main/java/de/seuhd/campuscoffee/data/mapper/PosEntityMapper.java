@@ -15,7 +15,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
  * <ul>
  *   <li>Maps flat address fields from domain to embedded AddressEntity in JPA entity</li>
  *   <li>Handles house number parsing: splits "21a" into numeric (21) and suffix ('a') parts</li>
- *   <li>Provides update functionality that preserves JPA-managed fields (id, timestamps)</li>
+ *   <li>Provides update functionality that preserves JPA-managed fields (id, timestamps, version)</li>
  * </ul>
  * <p>
  * This is part of the data layer adapter in the hexagonal architecture, enabling the
@@ -56,7 +56,8 @@ public interface PosEntityMapper extends EntityMapper<Pos, PosEntity> {
     /**
      * Updates an existing JPA entity with data from the domain model.
      * This method is intended for update operations where the entity already exists.
-     * JPA-managed fields (id, createdAt, updatedAt) are preserved and not overwritten.
+     * JPA-managed fields (id, createdAt, updatedAt, version) are preserved and not overwritten.
+     * The OSM node ID is preserved as well, so that updates do not unlink a POS from the node it has been imported from.
      * The address is updated in place rather than being replaced, preserving the entity relationship.
      *
      * @param source the domain model containing the new data; must not be null
@@ -66,6 +67,8 @@ public interface PosEntityMapper extends EntityMapper<Pos, PosEntity> {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "osmNodeId", ignore = true)
     @Mapping(target = "address", expression = "java(splitHouseNumber(source, target.getAddress()))")
     void updateEntity(Pos source, @MappingTarget PosEntity target);
 
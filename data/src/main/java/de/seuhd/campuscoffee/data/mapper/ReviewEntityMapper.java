@@ -16,6 +16,7 @@ public interface ReviewEntityMapper extends EntityMapper<Review, ReviewEntity> {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "approvalCount", defaultValue = "0")
     void updateEntity(Review source, @MappingTarget ReviewEntity target);
 }
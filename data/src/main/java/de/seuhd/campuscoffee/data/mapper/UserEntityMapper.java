@@ -23,5 +23,6 @@ public interface UserEntityMapper extends EntityMapper<User, UserEntity> {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateEntity(User source, @MappingTarget UserEntity target);
 }
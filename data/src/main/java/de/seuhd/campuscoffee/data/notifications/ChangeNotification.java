@@ -0,0 +1,63 @@
+package de.seuhd.campuscoffee.data.notifications;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import lombok.Builder;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification about a change of an entity, published with PostgreSQL's NOTIFY to all application instances.
+ * PostgreSQL delivers notifications only when the publishing transaction commits.
+ *
+ * @param type      the simple name of the domain class of the changed entity (e.g., "Pos")
+ * @param id        the ID of the changed entity, null if any number of entities of the type may have changed
+ *                  (e.g., after a batch upsert or after all entities have been deleted)
+ * @param updatedAt the update timestamp of the changed entity, null if the entity has been deleted
+ */
+@Builder
+public record ChangeNotification(
+        @NonNull String type,
+        @Nullable String id,
+        @Nullable LocalDateTime updatedAt
+) {
+    /**
+     * The PostgreSQL channel on which change notifications are published.
+     */
+    public static final String CHANNEL = "campus_coffee_changes";
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+            .findAndAddModules()
+            .build();
+
+    /**
+     * Serializes the notification as JSON payload (at most 8000 bytes in PostgreSQL).
+     *
+     * @return the JSON payload
+     */
+    public @NonNull String toPayload() {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Change notification could not be serialized.", e);
+        }
+    }
+
+    /**
+     * Deserializes a notification from its JSON payload.
+     *
+     * @param payload the JSON payload
+     * @return the notification
+     * @throws IllegalArgumentException if the payload is not a valid change notification
+     */
+    public static @NonNull ChangeNotification fromPayload(@NonNull String payload) {
+        try {
+            return OBJECT_MAPPER.readValue(payload, ChangeNotification.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid change notification: " + payload, e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package de.seuhd.campuscoffee.data.notifications;
+
+import org.jspecify.annotations.NonNull;
+
+/**
+ * Component that reacts to change notifications of one entity type, e.g., by evicting cache entries.
+ * All handlers in the application context are called by the {@link ChangeNotificationListener}.
+ */
+public interface ChangeNotificationHandler {
+    /**
+     * Returns the entity type this handler is interested in.
+     *
+     * @return the simple name of the domain class (see {@link ChangeNotification#type()})
+     */
+    @NonNull String changeType();
+
+    /**
+     * Handles a change of an entity of this handler's type.
+     *
+     * @param notification the change notification
+     */
+    void onChange(@NonNull ChangeNotification notification);
+
+    /**
+     * Handles a possible loss of notifications, e.g., after the listener connection was interrupted.
+     * Handlers must assume that any entity of their type may have changed.
+     */
+    void onNotificationsLost();
+}
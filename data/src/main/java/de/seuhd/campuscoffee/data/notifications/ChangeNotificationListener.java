@@ -0,0 +1,116 @@
+package de.seuhd.campuscoffee.data.notifications;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Listens for change notifications published by any application instance (see {@link ChangeNotification})
+ * and passes them to the {@link ChangeNotificationHandler}s of the changed entity type.
+ * <p>
+ * A dedicated database connection is kept open for LISTEN and polled by a background thread.
+ * If the connection fails, notifications may have been missed, so all handlers are informed
+ * before the listener reconnects.
+ */
+@Slf4j
+@Component
+public class ChangeNotificationListener implements SmartLifecycle {
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5);
+
+    private final DataSource dataSource;
+    private final List<ChangeNotificationHandler> handlers;
+    private volatile boolean running;
+    private Thread thread;
+
+    public ChangeNotificationListener(@NonNull DataSource dataSource, @NonNull List<ChangeNotificationHandler> handlers) {
+        this.dataSource = dataSource;
+        this.handlers = handlers;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform()
+                .name("change-notification-listener")
+                .daemon(true)
+                .start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(RECONNECT_DELAY.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + ChangeNotification.CHANNEL);
+                }
+                if (connectedBefore) {
+                    // changes made while the listener was disconnected have not been received
+                    handlers.forEach(ChangeNotificationHandler::onNotificationsLost);
+                }
+                connectedBefore = true;
+                log.info("Listening for change notifications on channel '{}'.", ChangeNotification.CHANNEL);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Change notification listener failed, reconnecting in {}.", RECONNECT_DELAY, e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(@NonNull String payload) {
+        try {
+            ChangeNotification notification = ChangeNotification.fromPayload(payload);
+            log.debug("Received change notification {}.", notification);
+            handlers.stream()
+                    .filter(handler -> handler.changeType().equals(notification.type()))
+                    .forEach(handler -> handler.onChange(notification));
+        } catch (RuntimeException e) {
+            log.error("Change notification '{}' could not be handled.", payload, e);
+        }
+    }
+}
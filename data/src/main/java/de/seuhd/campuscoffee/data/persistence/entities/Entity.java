@@ -11,7 +11,7 @@ import java.time.ZoneId;
 /**
  * Base entity class to provide common fields for all database entities.
  * This class includes createdAt and updatedAt timestamps, which are automatically
- * managed via JPA lifecycle callbacks.
+ * managed via JPA lifecycle callbacks, and a version for optimistic locking.
  */
 @Getter
 @Setter
@@ -28,6 +28,16 @@ public abstract class Entity {
     @Column(name = "updated_at")
     protected LocalDateTime updatedAt;
 
+    /**
+     * Incremented by Hibernate on every update, which is issued as UPDATE ... WHERE id = ? AND version = ?
+     * with the version the entity has been loaded with. New entities start with version 0.
+     * The version is primitive, so that Hibernate and Spring Data tell new from existing entities by the ID
+     * (and not by a null version), also for detached entities that are referenced by other entities.
+     */
+    @Version
+    @Column(name = "version")
+    private long version;
+
     /**
      * JPA lifecycle callback: set timestamps before persisting a new entity.
      * This ensures timestamps reflect actual database operation time.
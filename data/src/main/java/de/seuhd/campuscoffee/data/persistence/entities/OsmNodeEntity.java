@@ -0,0 +1,42 @@
+package de.seuhd.campuscoffee.data.persistence.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Database entity for a cached response of the OpenStreetMap API.
+ * In contrast to the other entities, the ID is not generated but the ID of the OSM node.
+ */
+@jakarta.persistence.Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "osm_nodes")
+public class OsmNodeEntity {
+    @Id
+    @Column(name = "node_id")
+    private Long nodeId;
+
+    /**
+     * The version of the node in OpenStreetMap, incremented by every edit of the node.
+     */
+    @Column(name = "version")
+    private Long version;
+
+    /**
+     * The raw XML response of the OpenStreetMap API.
+     */
+    @Column(name = "xml")
+    private String xml;
+
+    @Column(name = "fetched_at")
+    private LocalDateTime fetchedAt;
+}
@@ -0,0 +1,41 @@
+package de.seuhd.campuscoffee.data.persistence.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Database entity for the progress of the OpenStreetMap synchronization.
+ * The table has a single row, whose ID is always {@value #ID}.
+ */
+@jakarta.persistence.Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "osm_sync_progress")
+public class OsmSyncProgressEntity {
+    public static final int ID = 1;
+
+    @Id
+    @Column(name = "id")
+    private Integer id;
+
+    /**
+     * The OSM node ID of the last POS synchronized by the current run.
+     */
+    @Column(name = "last_osm_node_id")
+    private Long lastOsmNodeId;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -1,6 +1,7 @@
 package de.seuhd.campuscoffee.data.persistence.entities;
 
 import de.seuhd.campuscoffee.data.constraints.DomainField;
+import de.seuhd.campuscoffee.data.persistence.generators.AllocationSize;
 import de.seuhd.campuscoffee.domain.model.enums.CampusType;
 import de.seuhd.campuscoffee.domain.model.enums.PosType;
 import jakarta.persistence.*;
@@ -17,6 +18,7 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@AllocationSize(50)
 @Table(name = "pos")
 public class PosEntity extends Entity {
     @Column(unique = true)
@@ -33,4 +35,8 @@ public class PosEntity extends Entity {
 
     @Embedded
     private AddressEntity address;
+
+    @Column(name = "osm_node_id", unique = true)
+    @DomainField("osmNodeId")
+    private Long osmNodeId;
 }
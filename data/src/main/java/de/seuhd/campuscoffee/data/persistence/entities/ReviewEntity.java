@@ -1,5 +1,6 @@
 package de.seuhd.campuscoffee.data.persistence.entities;
 
+import de.seuhd.campuscoffee.data.persistence.generators.AllocationSize;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -11,13 +12,32 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "reviews")
+@AllocationSize(50)
+@Table(name = "reviews", uniqueConstraints = @UniqueConstraint(
+        name = ReviewEntity.POS_AUTHOR_CONSTRAINT,
+        columnNames = {"pos_id", "author_id"}
+))
+@NamedEntityGraph(name = ReviewEntity.WITH_POS_AND_AUTHOR, attributeNodes = {
+        @NamedAttributeNode("pos"),
+        @NamedAttributeNode("author")
+})
 public class ReviewEntity extends Entity {
-    @ManyToOne
+    /**
+     * Name of the entity graph that fetches the POS and the author together with the review (in one join query).
+     * Queries that map reviews to domain objects must use it, since both associations are loaded lazily.
+     */
+    public static final String WITH_POS_AND_AUTHOR = "ReviewEntity.withPosAndAuthor";
+
+    /**
+     * Name of the unique constraint that allows only one review per author and POS.
+     */
+    public static final String POS_AUTHOR_CONSTRAINT = "reviews_pos_id_author_id_key";
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pos_id")
     private PosEntity pos;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id")
     private UserEntity author;
 
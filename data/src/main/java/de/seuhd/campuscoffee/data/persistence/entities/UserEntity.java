@@ -1,6 +1,7 @@
 package de.seuhd.campuscoffee.data.persistence.entities;
 
 import de.seuhd.campuscoffee.data.constraints.DomainField;
+import de.seuhd.campuscoffee.data.persistence.generators.AllocationSize;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -15,6 +16,7 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
+@AllocationSize(50)
 @Table(name = "users")
 public class UserEntity extends Entity {
     public static final String LOGIN_NAME_COLUMN = "login_name";
@@ -0,0 +1,22 @@
+package de.seuhd.campuscoffee.data.persistence.generators;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Sets the number of IDs that {@link CustomSequenceGenerator} allocates for an entity with one call
+ * to the database sequence. The INCREMENT BY of the sequence must be changed to the same value
+ * with a Flyway migration; Hibernate refuses to start if they differ.
+ * Entities without this annotation allocate one ID per call.
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface AllocationSize {
+    /**
+     * @return the number of IDs allocated per sequence call (and the INCREMENT BY of the sequence)
+     */
+    int value();
+}
@@ -1,5 +1,11 @@
 package de.seuhd.campuscoffee.data.persistence.generators;
 
+import org.hibernate.boot.registry.classloading.spi.ClassLoaderService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
 import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.hibernate.service.ServiceRegistry;
 import org.hibernate.type.Type;
@@ -10,8 +16,19 @@ import java.util.Properties;
  * Custom Hibernate ID generator that automatically creates sequence names
  * based on the entity's table name. For a table named "users", this will
  * generate a sequence named "users_seq".
+ * <p>
+ * IDs are allocated in blocks with the pooled-lo optimizer: each call to the sequence returns the
+ * lowest ID of a block of {@link AllocationSize} IDs, which are then assigned without further round trips.
+ * This also enables Hibernate to batch inserts, because IDs are known before the insert statements are executed.
  */
 public class CustomSequenceGenerator extends SequenceStyleGenerator {
+    private static final int DEFAULT_ALLOCATION_SIZE = 1;
+
+    /*
+     * The optimizer is replaced when the sequence is reset, so that no IDs of a previously allocated block
+     * are used after the sequence has been restarted.
+     */
+    private volatile Optimizer optimizer;
 
     @Override
     public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) {
@@ -22,9 +39,52 @@ public class CustomSequenceGenerator extends SequenceStyleGenerator {
         if (tableName != null) {
             // Set sequence name based on table name (e.g., "users" -> "users_seq")
             params.setProperty(SEQUENCE_PARAM, tableName + "_seq");
-            params.setProperty(INCREMENT_PARAM, "1");
+            params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize(params, serviceRegistry)));
+            params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
         }
 
         super.configure(type, params, serviceRegistry);
+        optimizer = super.getOptimizer();
+    }
+
+    @Override
+    public Optimizer getOptimizer() {
+        return optimizer;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return optimizer.generate(getDatabaseStructure().buildCallback(session));
+    }
+
+    /**
+     * Discards the IDs that have been allocated but not yet assigned. Must be called after the
+     * sequence has been restarted; the next ID is then taken from the sequence again.
+     */
+    public void reset() {
+        Optimizer current = optimizer;
+        optimizer = OptimizerFactory.buildOptimizer(
+                StandardOptimizerDescriptor.POOLED_LO,
+                getIdentifierType().getReturnedClass(),
+                current.getIncrementSize(),
+                1
+        );
+    }
+
+    /**
+     * Determines the allocation size from the {@link AllocationSize} annotation of the entity class.
+     *
+     * @param params          the generator parameters, which include the entity name
+     * @param serviceRegistry the service registry used to load the entity class
+     * @return the allocation size of the entity
+     */
+    private static int allocationSize(Properties params, ServiceRegistry serviceRegistry) {
+        String entityName = params.getProperty(IdentifierGenerator.ENTITY_NAME);
+        if (entityName == null) {
+            return DEFAULT_ALLOCATION_SIZE;
+        }
+        Class<?> entityClass = serviceRegistry.requireService(ClassLoaderService.class).classForName(entityName);
+        AllocationSize allocationSize = entityClass.getAnnotation(AllocationSize.class);
+        return allocationSize == null ? DEFAULT_ALLOCATION_SIZE : allocationSize.value();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package de.seuhd.campuscoffee.data.persistence.repositories;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Common base interface for all repositories used in CampusCoffee.
+ * Combines the Spring Data JPA operations with the sequence reset and declares generic
+ * query methods that Spring Data derives for each concrete entity type.
+ *
+ * @param <ENTITY> the JPA entity type
+ * @param <ID>     the type of the unique identifier
+ */
+@NoRepositoryBean
+public interface EntityRepository<ENTITY, ID> extends JpaRepository<ENTITY, ID>, ResettableSequenceRepository {
+    /**
+     * Number of rows the JDBC driver fetches per round trip when streaming entities.
+     */
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * Retrieves the first entities in ascending ID order (first page of a keyset pagination).
+     *
+     * @param limit the maximum number of entities to return
+     * @return the entities with the smallest IDs
+     */
+    List<ENTITY> findAllByOrderByIdAsc(Limit limit);
+
+    /**
+     * Retrieves the entities following the given ID in ascending ID order (next page of a keyset pagination).
+     * In contrast to offset pagination, the database can seek directly to the start of the page using the primary key.
+     *
+     * @param id    the ID after which the page starts (exclusive)
+     * @param limit the maximum number of entities to return
+     * @return the entities with the smallest IDs greater than the given ID
+     */
+    List<ENTITY> findAllByIdGreaterThanOrderByIdAsc(ID id, Limit limit);
+
+    /**
+     * Streams all entities in ascending ID order.
+     * The rows are fetched lazily from a database cursor in chunks of {@value #STREAM_FETCH_SIZE} and loaded read-only,
+     * so Hibernate does not keep snapshots for dirty checking.
+     * Must be called within a transaction, and the stream must be closed after use.
+     *
+     * @return a stream of all entities
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ENTITY> streamAllByOrderByIdAsc();
+
+    /**
+     * Deletes the entity with the given ID with a single DELETE statement, without loading it first
+     * (in contrast to {@link #deleteById(Object)}, which finds the entity and then removes it).
+     * Must not be used for entities with JPA cascades, which a bulk delete bypasses.
+     *
+     * @param id the ID of the entity to delete
+     * @return the number of deleted rows, i.e., 0 if no entity with the ID exists and 1 otherwise
+     */
+    int deleteInBulk(ID id);
+
+    /**
+     * Removes the given entity from the persistence context.
+     * Used to release entities that have been processed while streaming.
+     *
+     * @param entity the entity to detach
+     */
+    void detach(ENTITY entity);
+
+    /**
+     * Removes all entities from the persistence context, discarding changes that have not been flushed.
+     * Used to release the entities of a chunk that has been written, so that the persistence context does not grow
+     * with the number of chunks if it outlives the transactions of the chunks (e.g., with open-in-view).
+     */
+    void detachAll();
+
+    /**
+     * Sends a notification on the given PostgreSQL channel with pg_notify.
+     * Within a transaction, the notification is only delivered to listeners when the transaction commits.
+     *
+     * @param channel the name of the channel
+     * @param payload the payload of the notification
+     */
+    void notifyChange(String channel, String payload);
+}
@@ -0,0 +1,61 @@
+package de.seuhd.campuscoffee.data.persistence.repositories;
+
+import de.seuhd.campuscoffee.data.persistence.entities.OsmNodeEntity;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for the cached responses of the OpenStreetMap API.
+ * The cache is written in separate transactions, because a fetched response remains valid
+ * even if the import that fetched it is rolled back.
+ */
+public interface OsmNodeRepository extends JpaRepository<OsmNodeEntity, Long> {
+    /**
+     * Inserts or replaces the cached response of a node.
+     * A single statement is used, so that concurrent imports of the same node do not fail on the primary key.
+     *
+     * @param nodeId    the OSM node ID
+     * @param version   the version of the node
+     * @param xml       the raw XML response
+     * @param fetchedAt the time the response was fetched
+     */
+    @Modifying
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @Query(value = """
+            INSERT INTO osm_nodes (node_id, version, xml, fetched_at)
+            VALUES (:nodeId, :version, :xml, :fetchedAt)
+            ON CONFLICT (node_id) DO UPDATE
+            SET version = EXCLUDED.version, xml = EXCLUDED.xml, fetched_at = EXCLUDED.fetched_at""",
+            nativeQuery = true)
+    void upsert(@Param("nodeId") Long nodeId,
+                @Param("version") Long version,
+                @Param("xml") String xml,
+                @Param("fetchedAt") LocalDateTime fetchedAt);
+
+    /**
+     * Marks the cached response of a node as fetched again without rewriting it,
+     * used if the node has not changed since it was cached.
+     *
+     * @param nodeId    the OSM node ID
+     * @param fetchedAt the time the node was fetched again
+     */
+    @Modifying
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @Query("UPDATE OsmNodeEntity n SET n.fetchedAt = :fetchedAt WHERE n.nodeId = :nodeId")
+    void touch(@Param("nodeId") Long nodeId, @Param("fetchedAt") LocalDateTime fetchedAt);
+
+    /**
+     * Removes the cached response of a node, used if the node no longer exists.
+     *
+     * @param nodeId the OSM node ID
+     */
+    @Modifying
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @Query("DELETE FROM OsmNodeEntity n WHERE n.nodeId = :nodeId")
+    void evict(@Param("nodeId") Long nodeId);
+}
@@ -0,0 +1,61 @@
+package de.seuhd.campuscoffee.data.persistence.repositories;
+
+import de.seuhd.campuscoffee.data.persistence.entities.OsmSyncProgressEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Repository for the state of the OpenStreetMap synchronization: its progress and the tag hashes of the POS
+ * linked to OSM nodes. The tag hashes are not part of {@link de.seuhd.campuscoffee.data.persistence.entities.PosEntity},
+ * so that updates of a POS through the API keep the hash of the node it has last been synchronized with.
+ */
+public interface OsmSyncRepository extends JpaRepository<OsmSyncProgressEntity, Integer> {
+    /**
+     * Retrieves the next POS linked to an OSM node, seeking in the unique index of the node IDs.
+     *
+     * @param afterOsmNodeId the node ID after which the batch starts (exclusive)
+     * @param limit          the maximum number of POS to return
+     * @return the linked POS in ascending order of their node IDs
+     */
+    @Query(value = """
+            SELECT id AS posId, osm_node_id AS osmNodeId, campus, osm_tags_hash AS tagsHash
+            FROM pos
+            WHERE osm_node_id > :afterOsmNodeId
+            ORDER BY osm_node_id
+            LIMIT :limit""",
+            nativeQuery = true)
+    List<LinkedPos> findLinkedPos(@Param("afterOsmNodeId") long afterOsmNodeId, @Param("limit") int limit);
+
+    /**
+     * Stores the tag hashes of multiple POS with one statement, without changing their update timestamps.
+     *
+     * @param osmNodeIds the node IDs of the POS
+     * @param tagsHashes the new tag hashes, in the order of the node IDs
+     * @return the number of updated POS
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE pos
+            SET osm_tags_hash = hashes.tags_hash
+            FROM unnest(CAST(:osmNodeIds AS bigint[]), CAST(:tagsHashes AS text[])) AS hashes (osm_node_id, tags_hash)
+            WHERE pos.osm_node_id = hashes.osm_node_id""",
+            nativeQuery = true)
+    int updateTagsHashes(@Param("osmNodeIds") Long[] osmNodeIds, @Param("tagsHashes") String[] tagsHashes);
+
+    /**
+     * Projection of a POS linked to an OSM node.
+     */
+    interface LinkedPos {
+        Long getPosId();
+
+        Long getOsmNodeId();
+
+        String getCampus();
+
+        String getTagsHash();
+    }
+}
@@ -0,0 +1,42 @@
+package de.seuhd.campuscoffee.data.persistence.repositories;
+
+import de.seuhd.campuscoffee.data.persistence.entities.PosEntity;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository fragment for importing POS from OpenStreetMap with single idempotent statements.
+ * The implementation is provided by {@link PosImportRepositoryImpl}.
+ */
+public interface PosImportRepository {
+    /**
+     * Inserts the POS of an OSM node or, if a POS has already been imported from the node, updates it.
+     * The existing POS is only written if at least one of its fields differs, so that re-importing
+     * an unchanged node does not modify the row (and keeps its update timestamp).
+     *
+     * @param entity the POS to import; its OSM node ID must be set, its ID and timestamps are ignored
+     * @return the imported POS and whether it has been inserted or updated; empty if the POS has been imported
+     *         concurrently and could still not be read after the statement has been repeated
+     */
+    Optional<ImportResult> upsertByOsmNodeId(PosEntity entity);
+
+    /**
+     * Imports multiple POS like {@link #upsertByOsmNodeId(PosEntity)} with a single statement.
+     * The statement fails as a whole if one of the POS violates a constraint or if two POS have the same OSM node ID.
+     *
+     * @param entities the POS to import; their OSM node IDs must be set, their IDs and timestamps are ignored
+     * @return the imported POS and whether they have been inserted or updated, in no particular order;
+     *         without the POS that could not be read (see {@link #upsertByOsmNodeId(PosEntity)})
+     */
+    List<ImportResult> upsertAllByOsmNodeId(List<PosEntity> entities);
+
+    /**
+     * Result of an import.
+     *
+     * @param pos     the POS as stored in the database after the import
+     * @param changed true if the POS has been inserted or updated, false if it was already up to date
+     */
+    record ImportResult(PosEntity pos, boolean changed) {
+    }
+}
@@ -0,0 +1,232 @@
+package de.seuhd.campuscoffee.data.persistence.repositories;
+
+import de.seuhd.campuscoffee.data.persistence.entities.PosEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the {@link PosImportRepository} fragment using native PostgreSQL statements.
+ * The POS is inserted with ON CONFLICT (osm_node_id) DO UPDATE, whose WHERE clause skips the update
+ * if no field has changed. In that case, RETURNING yields no row, so the existing row is selected
+ * in the same statement instead.
+ * If a concurrent import inserts the same node first, the statement waits for it and then skips the update of the
+ * identical row, but the row is not visible to the SELECT, which runs on the snapshot taken before the insert was
+ * committed. The statement is therefore repeated once for nodes without result, with a snapshot that includes the row.
+ * Batches of POS are passed as one array per column and expanded into rows with unnest, so that a single
+ * statement with a fixed number of parameters imports the whole batch.
+ */
+@SuppressWarnings("unused") // detected and instantiated by Spring Data (fragment implementation)
+class PosImportRepositoryImpl implements PosImportRepository {
+    private static final String UPSERT_BY_OSM_NODE_ID_SQL = """
+            WITH upserted AS (
+                INSERT INTO pos AS existing (id, created_at, updated_at, name, description, type, campus,
+                                             street, house_number, house_number_suffix, postal_code, city, osm_node_id)
+                VALUES (:id, :now, :now, :name, :description, :type, :campus,
+                        :street, :houseNumber, :houseNumberSuffix, :postalCode, :city, :osmNodeId)
+                ON CONFLICT (osm_node_id) DO UPDATE
+                SET updated_at = EXCLUDED.updated_at,
+                    version = existing.version + 1,
+                    name = EXCLUDED.name,
+                    description = EXCLUDED.description,
+                    type = EXCLUDED.type,
+                    campus = EXCLUDED.campus,
+                    street = EXCLUDED.street,
+                    house_number = EXCLUDED.house_number,
+                    house_number_suffix = EXCLUDED.house_number_suffix,
+                    postal_code = EXCLUDED.postal_code,
+                    city = EXCLUDED.city
+                WHERE (existing.name, existing.description, existing.type, existing.campus, existing.street,
+                       existing.house_number, existing.house_number_suffix, existing.postal_code, existing.city)
+                    IS DISTINCT FROM
+                      (EXCLUDED.name, EXCLUDED.description, EXCLUDED.type, EXCLUDED.campus, EXCLUDED.street,
+                       EXCLUDED.house_number, EXCLUDED.house_number_suffix, EXCLUDED.postal_code, EXCLUDED.city)
+                RETURNING existing.*
+            ), p AS (
+                SELECT upserted.*, true AS changed FROM upserted
+                UNION ALL
+                SELECT pos.*, false AS changed FROM pos
+                WHERE pos.osm_node_id = :osmNodeId
+                  AND NOT EXISTS (SELECT 1 FROM upserted)
+            )
+            SELECT {p.*}, p.changed
+            FROM p
+            """;
+
+    private static final String UPSERT_ALL_BY_OSM_NODE_ID_SQL = """
+            WITH input AS (
+                SELECT *
+                FROM unnest(CAST(:ids AS bigint[]), CAST(:names AS text[]), CAST(:descriptions AS text[]),
+                            CAST(:types AS text[]), CAST(:campuses AS text[]), CAST(:streets AS text[]),
+                            CAST(:houseNumbers AS int[]), CAST(:houseNumberSuffixes AS text[]),
+                            CAST(:postalCodes AS int[]), CAST(:cities AS text[]), CAST(:osmNodeIds AS bigint[]))
+                    AS input (id, name, description, type, campus, street, house_number, house_number_suffix,
+                              postal_code, city, osm_node_id)
+            ), upserted AS (
+                INSERT INTO pos AS existing (id, created_at, updated_at, name, description, type, campus,
+                                             street, house_number, house_number_suffix, postal_code, city, osm_node_id)
+                SELECT id, :now, :now, name, description, type, campus,
+                       street, house_number, house_number_suffix, postal_code, city, osm_node_id
+                FROM input
+                ON CONFLICT (osm_node_id) DO UPDATE
+                SET updated_at = EXCLUDED.updated_at,
+                    version = existing.version + 1,
+                    name = EXCLUDED.name,
+                    description = EXCLUDED.description,
+                    type = EXCLUDED.type,
+                    campus = EXCLUDED.campus,
+                    street = EXCLUDED.street,
+                    house_number = EXCLUDED.house_number,
+                    house_number_suffix = EXCLUDED.house_number_suffix,
+                    postal_code = EXCLUDED.postal_code,
+                    city = EXCLUDED.city
+                WHERE (existing.name, existing.description, existing.type, existing.campus, existing.street,
+                       existing.house_number, existing.house_number_suffix, existing.postal_code, existing.city)
+                    IS DISTINCT FROM
+                      (EXCLUDED.name, EXCLUDED.description, EXCLUDED.type, EXCLUDED.campus, EXCLUDED.street,
+                       EXCLUDED.house_number, EXCLUDED.house_number_suffix, EXCLUDED.postal_code, EXCLUDED.city)
+                RETURNING existing.*
+            ), p AS (
+                SELECT upserted.*, true AS changed FROM upserted
+                UNION ALL
+                SELECT pos.*, false AS changed FROM pos
+                JOIN input ON pos.osm_node_id = input.osm_node_id
+                WHERE NOT EXISTS (SELECT 1 FROM upserted WHERE upserted.osm_node_id = pos.osm_node_id)
+            )
+            SELECT {p.*}, p.changed
+            FROM p
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public Optional<ImportResult> upsertByOsmNodeId(PosEntity entity) {
+        Objects.requireNonNull(entity.getOsmNodeId());
+        Optional<ImportResult> result = upsert(entity);
+        return result.isPresent() ? result : upsert(entity);
+    }
+
+    private Optional<ImportResult> upsert(PosEntity entity) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(UPSERT_BY_OSM_NODE_ID_SQL)
+                .unwrap(NativeQuery.class)
+                .addEntity("p", PosEntity.class)
+                .addScalar("changed", StandardBasicTypes.BOOLEAN)
+                .setParameter("id", generateId())
+                .setParameter("now", LocalDateTime.now(ZoneId.of("UTC")))
+                .setParameter("name", entity.getName())
+                .setParameter("description", entity.getDescription())
+                .setParameter("type", entity.getType().name())
+                .setParameter("campus", entity.getCampus().name())
+                .setParameter("street", entity.getAddress().getStreet())
+                .setParameter("houseNumber", entity.getAddress().getHouseNumber())
+                .setParameter("houseNumberSuffix", entity.getAddress().getHouseNumberSuffix() == null
+                        ? null
+                        : String.valueOf(entity.getAddress().getHouseNumberSuffix()), StandardBasicTypes.STRING)
+                .setParameter("postalCode", entity.getAddress().getPostalCode())
+                .setParameter("city", entity.getAddress().getCity())
+                .setParameter("osmNodeId", entity.getOsmNodeId())
+                .getResultList();
+        return rows.stream()
+                .map(row -> new ImportResult((PosEntity) row[0], (Boolean) row[1]))
+                .findFirst();
+    }
+
+    @Override
+    @Transactional
+    public List<ImportResult> upsertAllByOsmNodeId(List<PosEntity> entities) {
+        List<ImportResult> results = new ArrayList<>(upsertAll(entities));
+        if (results.size() < entities.size()) {
+            Set<Long> imported = results.stream()
+                    .map(result -> result.pos().getOsmNodeId())
+                    .collect(Collectors.toSet());
+            List<PosEntity> missing = entities.stream()
+                    .filter(entity -> !imported.contains(entity.getOsmNodeId()))
+                    .toList();
+            results.addAll(upsertAll(missing));
+        }
+        return results;
+    }
+
+    private List<ImportResult> upsertAll(List<PosEntity> entities) {
+        int size = entities.size();
+        Long[] ids = new Long[size];
+        String[] names = new String[size];
+        String[] descriptions = new String[size];
+        String[] types = new String[size];
+        String[] campuses = new String[size];
+        String[] streets = new String[size];
+        Integer[] houseNumbers = new Integer[size];
+        String[] houseNumberSuffixes = new String[size];
+        Integer[] postalCodes = new Integer[size];
+        String[] cities = new String[size];
+        Long[] osmNodeIds = new Long[size];
+        for (int i = 0; i < size; i++) {
+            PosEntity entity = entities.get(i);
+            ids[i] = (Long) generateId();
+            names[i] = entity.getName();
+            descriptions[i] = entity.getDescription();
+            types[i] = entity.getType().name();
+            campuses[i] = entity.getCampus().name();
+            streets[i] = entity.getAddress().getStreet();
+            houseNumbers[i] = entity.getAddress().getHouseNumber();
+            houseNumberSuffixes[i] = entity.getAddress().getHouseNumberSuffix() == null
+                    ? null
+                    : String.valueOf(entity.getAddress().getHouseNumberSuffix());
+            postalCodes[i] = entity.getAddress().getPostalCode();
+            cities[i] = entity.getAddress().getCity();
+            osmNodeIds[i] = Objects.requireNonNull(entity.getOsmNodeId());
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(UPSERT_ALL_BY_OSM_NODE_ID_SQL)
+                .unwrap(NativeQuery.class)
+                .addEntity("p", PosEntity.class)
+                .addScalar("changed", StandardBasicTypes.BOOLEAN)
+                .setParameter("now", LocalDateTime.now(ZoneId.of("UTC")))
+                .setParameter("ids", ids)
+                .setParameter("names", names)
+                .setParameter("descriptions", descriptions)
+                .setParameter("types", types)
+                .setParameter("campuses", campuses)
+                .setParameter("streets", streets)
+                .setParameter("houseNumbers", houseNumbers)
+                .setParameter("houseNumberSuffixes", houseNumberSuffixes)
+                .setParameter("postalCodes", postalCodes)
+                .setParameter("cities", cities)
+                .setParameter("osmNodeIds", osmNodeIds)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new ImportResult((PosEntity) row[0], (Boolean) row[1]))
+                .toList();
+    }
+
+    /**
+     * Draws the ID for a new POS from the ID generator of the entity, which allocates IDs in blocks.
+     * If the POS already exists, the ID is not used.
+     */
+    private Object generateId() {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getFactory()
+                .getMappingMetamodel()
+                .getEntityDescriptor(PosEntity.class)
+                .getGenerator();
+        return generator.generate(session, null, null, EventType.INSERT);
+    }
+}
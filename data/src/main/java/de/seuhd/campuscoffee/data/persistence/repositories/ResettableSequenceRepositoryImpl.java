@@ -1,33 +1,44 @@
 package de.seuhd.campuscoffee.data.persistence.repositories;
 
+import de.seuhd.campuscoffee.data.persistence.generators.CustomSequenceGenerator;
 import de.seuhd.campuscoffee.data.util.JpaUtils;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.generator.Generator;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
 import org.springframework.data.repository.NoRepositoryBean;
 
+import java.util.Objects;
+
 /**
  * Generic implementation for sequence resetting that automatically determines
  * the sequence name based on the entity's table name.
- * This is configured as the base repository class for all repositories used in CampusCoffee.
+ * This is configured as the base repository class for all repositories used in CampusCoffee
+ * and also implements the non-derivable methods of {@link EntityRepository}.
  */
 @NoRepositoryBean
 public class ResettableSequenceRepositoryImpl<T, ID> extends SimpleJpaRepository<T, ID> implements ResettableSequenceRepository {
 
     private final EntityManager entityManager;
     private final Class<T> domainClass;
+    private final String deleteByIdQuery;
 
     public ResettableSequenceRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
         super(entityInformation, entityManager);
         this.entityManager = entityManager;
         this.domainClass = entityInformation.getJavaType();
+        this.deleteByIdQuery = "DELETE FROM " + entityInformation.getEntityName() + " e WHERE e."
+                + Objects.requireNonNull(entityInformation.getIdAttribute()).getName() + " = :id";
     }
 
     /**
      * Resets the database sequence for this entity's ID generation to start from 1.
      * The sequence name is automatically determined from the entity's table name
      * using the pattern: {table_name}_seq
+     * The IDs that the ID generator has already allocated from the sequence are discarded as well,
+     * so that the next entity gets ID 1 again.
      */
     @Override
     @Transactional
@@ -36,5 +47,58 @@ public class ResettableSequenceRepositoryImpl<T, ID> extends SimpleJpaRepository
         String sequenceName = tableName + "_seq";
         String sql = "ALTER SEQUENCE " + sequenceName + " RESTART WITH 1";
         entityManager.createNativeQuery(sql).executeUpdate();
+
+        Generator generator = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(domainClass)
+                .getGenerator();
+        if (generator instanceof CustomSequenceGenerator sequenceGenerator) {
+            sequenceGenerator.reset();
+        }
+    }
+
+    /**
+     * Deletes an entity with a bulk JPQL statement (see {@link EntityRepository#deleteInBulk(Object)}).
+     *
+     * @param id the ID of the entity to delete
+     * @return the number of deleted rows
+     */
+    @Transactional
+    public int deleteInBulk(ID id) {
+        return entityManager.createQuery(deleteByIdQuery)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    /**
+     * Removes the given entity from the persistence context (see {@link EntityRepository#detach(Object)}).
+     *
+     * @param entity the entity to detach
+     */
+    public void detach(T entity) {
+        entityManager.detach(entity);
+    }
+
+    /**
+     * Removes all entities from the persistence context (see {@link EntityRepository#detachAll()}).
+     */
+    public void detachAll() {
+        entityManager.clear();
+    }
+
+    /**
+     * Sends a notification with pg_notify (see {@link EntityRepository#notifyChange(String, String)}).
+     * Requires a read-write transaction, because PostgreSQL does not allow NOTIFY in read-only transactions.
+     *
+     * @param channel the name of the channel
+     * @param payload the payload of the notification
+     */
+    @Transactional
+    public void notifyChange(String channel, String payload) {
+        entityManager.createNativeQuery("SELECT 1 FROM (SELECT pg_notify(:channel, :payload)) AS notification")
+                .setParameter("channel", channel)
+                .setParameter("payload", payload)
+                .getSingleResult();
     }
 }
@@ -0,0 +1,55 @@
+package de.seuhd.campuscoffee.data.persistence.repositories;
+
+import de.seuhd.campuscoffee.data.persistence.entities.ReviewEntity;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repository fragment for approving reviews with a single atomic statement.
+ * The implementation is provided by {@link ReviewApprovalRepositoryImpl}.
+ */
+public interface ReviewApprovalRepository {
+    /**
+     * Records the vote of a user for a review and, in the same statement, increments the approval count
+     * of the review and recomputes its approval status, so that concurrent approvals cannot overwrite
+     * each other's increments. The vote is only recorded if the approving user exists, is not the author
+     * of the review, and has not approved the review before.
+     *
+     * @param reviewId the ID of the review to approve
+     * @param userId   the ID of the approving user
+     * @param minCount the minimum number of approvals for a review to be approved
+     * @return the updated review with its POS and author, or empty if no review was updated
+     */
+    Optional<ReviewEntity> approve(Long reviewId, Long userId, int minCount);
+
+    /**
+     * Records the vote of a user for a review without updating the review itself.
+     * The vote is only recorded if the approving user exists, is not the author of the review,
+     * and has not approved the review before.
+     *
+     * @param reviewId the ID of the review to approve
+     * @param userId   the ID of the approving user
+     * @return true if the vote was recorded
+     */
+    boolean addVote(Long reviewId, Long userId);
+
+    /**
+     * Adds accumulated approvals to several reviews in one batched UPDATE ... FROM (VALUES ...) statement
+     * and recomputes their approval status.
+     *
+     * @param increments the number of approvals to add per review ID
+     * @param minCount   the minimum number of approvals for a review to be approved
+     * @return the number of updated reviews
+     */
+    int addApprovals(Map<Long, Long> increments, int minCount);
+
+    /**
+     * Checks whether a user has already approved a review.
+     *
+     * @param reviewId the ID of the review
+     * @param userId   the ID of the user
+     * @return true if a vote of the user for the review exists
+     */
+    boolean hasApproved(Long reviewId, Long userId);
+}
@@ -0,0 +1,134 @@
+package de.seuhd.campuscoffee.data.persistence.repositories;
+
+import de.seuhd.campuscoffee.data.persistence.entities.ReviewEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Implementation of the {@link ReviewApprovalRepository} fragment using native PostgreSQL statements.
+ * The vote is inserted with ON CONFLICT DO NOTHING, so that the primary key of the review_approvals table
+ * rejects duplicate votes; the UPDATE ... RETURNING of the review only runs if a vote was inserted.
+ * Both are wrapped in common table expressions and joined with the POS and the author,
+ * which returns the updated review together with its associations in the same round trip.
+ */
+@SuppressWarnings("unused") // detected and instantiated by Spring Data (fragment implementation)
+class ReviewApprovalRepositoryImpl implements ReviewApprovalRepository {
+    private static final String INSERT_VOTE_SQL = """
+            INSERT INTO review_approvals (review_id, user_id, created_at)
+            SELECT reviews.id, users.id, :now
+            FROM reviews
+            JOIN users ON users.id = :userId
+            WHERE reviews.id = :reviewId
+              AND reviews.author_id <> users.id
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String APPROVE_SQL = """
+            WITH vote AS (
+            """ + INSERT_VOTE_SQL + """
+                RETURNING review_id
+            ), r AS (
+                UPDATE reviews
+                SET approval_count = approval_count + 1,
+                    approved = approval_count + 1 >= :minCount,
+                    updated_at = :now,
+                    version = version + 1
+                FROM vote
+                WHERE reviews.id = vote.review_id
+                RETURNING reviews.*
+            )
+            SELECT {r.*}, {p.*}, {u.*}
+            FROM r
+            JOIN pos p ON p.id = r.pos_id
+            JOIN users u ON u.id = r.author_id
+            """;
+
+    private static final String ADD_APPROVALS_SQL = """
+            UPDATE reviews
+            SET approval_count = approval_count + v.increment,
+                approved = approval_count + v.increment >= :minCount,
+                updated_at = :now,
+                version = version + 1
+            FROM (VALUES %s) AS v(id, increment)
+            WHERE reviews.id = v.id
+            """;
+
+    private static final String HAS_APPROVED_SQL = """
+            SELECT EXISTS (SELECT 1 FROM review_approvals WHERE review_id = :reviewId AND user_id = :userId)
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public Optional<ReviewEntity> approve(Long reviewId, Long userId, int minCount) {
+        List<?> rows = entityManager.createNativeQuery(APPROVE_SQL)
+                .unwrap(NativeQuery.class)
+                .addEntity("r", ReviewEntity.class)
+                .addJoin("p", "r.pos")
+                .addJoin("u", "r.author")
+                .setParameter("reviewId", reviewId)
+                .setParameter("userId", userId)
+                .setParameter("minCount", minCount)
+                .setParameter("now", LocalDateTime.now(ZoneId.of("UTC")))
+                .getResultList();
+
+        // the joined POS and author are fetched as associations of the review, which is the only returned object
+        return rows.stream()
+                .map(ReviewEntity.class::cast)
+                .findFirst();
+    }
+
+    @Override
+    @Transactional
+    public boolean addVote(Long reviewId, Long userId) {
+        return entityManager.createNativeQuery(INSERT_VOTE_SQL)
+                .setParameter("reviewId", reviewId)
+                .setParameter("userId", userId)
+                .setParameter("now", LocalDateTime.now(ZoneId.of("UTC")))
+                .executeUpdate() > 0;
+    }
+
+    @Override
+    @Transactional
+    public int addApprovals(Map<Long, Long> increments, int minCount) {
+        if (increments.isEmpty()) {
+            return 0;
+        }
+
+        // one row of the VALUES list per review, each with a pair of numbered named parameters
+        List<Map.Entry<Long, Long>> entries = List.copyOf(increments.entrySet());
+        String rows = IntStream.range(0, entries.size())
+                .mapToObj(i -> "(CAST(:id%d AS bigint), CAST(:increment%d AS int))".formatted(i, i))
+                .collect(Collectors.joining(", "));
+        Query query = entityManager.createNativeQuery(ADD_APPROVALS_SQL.formatted(rows))
+                .setParameter("minCount", minCount)
+                .setParameter("now", LocalDateTime.now(ZoneId.of("UTC")));
+        for (int i = 0; i < entries.size(); i++) {
+            query.setParameter("id" + i, entries.get(i).getKey());
+            query.setParameter("increment" + i, entries.get(i).getValue());
+        }
+        return query.executeUpdate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasApproved(Long reviewId, Long userId) {
+        return (Boolean) entityManager.createNativeQuery(HAS_APPROVED_SQL, Boolean.class)
+                .setParameter("reviewId", reviewId)
+                .setParameter("userId", userId)
+                .getSingleResult();
+    }
+}
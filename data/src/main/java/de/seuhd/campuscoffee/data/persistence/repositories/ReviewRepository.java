@@ -2,15 +2,64 @@ package de.seuhd.campuscoffee.data.persistence.repositories;
 
 import de.seuhd.campuscoffee.data.persistence.entities.PosEntity;
 import de.seuhd.campuscoffee.data.persistence.entities.ReviewEntity;
-import de.seuhd.campuscoffee.data.persistence.entities.UserEntity;
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for persisting review entities.
+ * The associations to POS and author are lazy, so all queries whose results are mapped to domain objects
+ * are redeclared with the {@link ReviewEntity#WITH_POS_AND_AUTHOR} entity graph. This way, each query
+ * loads the reviews with their POS and authors in a single statement instead of one additional
+ * statement per distinct POS and author (N+1 problem).
  */
-public interface ReviewRepository extends JpaRepository<ReviewEntity, Long>, ResettableSequenceRepository {
+public interface ReviewRepository extends EntityRepository<ReviewEntity, Long>, ReviewApprovalRepository {
+    @EntityGraph(ReviewEntity.WITH_POS_AND_AUTHOR)
     List<ReviewEntity> findAllByPosAndApproved(PosEntity pos, Boolean approved);
-    List<ReviewEntity> findAllByPosAndAuthor(PosEntity pos, UserEntity author);
+
+    /**
+     * Deletes all reviews of a POS with a single statement. Their approvals are deleted by the database
+     * (ON DELETE CASCADE of review_approvals).
+     *
+     * @param posId the ID of the POS
+     * @return the number of deleted reviews
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ReviewEntity r WHERE r.pos.id = :posId")
+    int deleteAllByPosId(@Param("posId") Long posId);
+
+    @Override
+    @EntityGraph(ReviewEntity.WITH_POS_AND_AUTHOR)
+    Optional<ReviewEntity> findById(Long id);
+
+    @Override
+    @EntityGraph(ReviewEntity.WITH_POS_AND_AUTHOR)
+    List<ReviewEntity> findAll();
+
+    @Override
+    @EntityGraph(ReviewEntity.WITH_POS_AND_AUTHOR)
+    List<ReviewEntity> findAllByOrderByIdAsc(Limit limit);
+
+    @Override
+    @EntityGraph(ReviewEntity.WITH_POS_AND_AUTHOR)
+    List<ReviewEntity> findAllByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Override
+    @EntityGraph(ReviewEntity.WITH_POS_AND_AUTHOR)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ReviewEntity> streamAllByOrderByIdAsc();
 }
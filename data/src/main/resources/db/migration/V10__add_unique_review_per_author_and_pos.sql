@@ -0,0 +1,10 @@
+-- Each user can review a POS only once. The rule used to be checked by the application before inserting a review,
+-- which concurrent submissions could both pass. Such duplicates are removed, keeping the first review of each pair
+-- (approvals of the removed reviews are deleted by their foreign key).
+DELETE FROM reviews r
+USING reviews first
+WHERE r.pos_id = first.pos_id AND r.author_id = first.author_id AND r.id > first.id;
+
+-- The index of the constraint replaces the plain index on the same columns.
+ALTER TABLE reviews ADD CONSTRAINT reviews_pos_id_author_id_key UNIQUE (pos_id, author_id);
+DROP INDEX reviews_pos_id_author_id_idx;
@@ -0,0 +1,5 @@
+-- Version of each row for optimistic locking: every update checks the version that the row had when it was read
+-- and increments it, so that concurrent updates of the same row do not overwrite each other unnoticed.
+ALTER TABLE pos ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE reviews ADD COLUMN version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+SET TIME ZONE 'UTC';
+
+CREATE TABLE review_approvals (
+    review_id bigint NOT NULL REFERENCES reviews(id) ON DELETE CASCADE,
+    user_id bigint NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    created_at timestamp NOT NULL,
+    PRIMARY KEY (review_id, user_id)
+);
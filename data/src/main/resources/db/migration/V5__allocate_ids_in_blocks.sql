@@ -0,0 +1,5 @@
+-- IDs are allocated in blocks of 50 with the pooled-lo optimizer (see @AllocationSize of the entities).
+-- Each nextval returns the lowest ID of a new block, so the sequences must advance by the block size.
+ALTER SEQUENCE pos_seq INCREMENT BY 50;
+ALTER SEQUENCE users_seq INCREMENT BY 50;
+ALTER SEQUENCE reviews_seq INCREMENT BY 50;
@@ -0,0 +1,2 @@
+-- POS imported from OpenStreetMap are linked to their source node, so that re-imports update them.
+ALTER TABLE pos ADD COLUMN osm_node_id bigint UNIQUE;
@@ -0,0 +1,9 @@
+SET TIME ZONE 'UTC';
+
+-- Responses of the OpenStreetMap API, cached so that imports do not have to fetch the same node again.
+CREATE TABLE osm_nodes (
+    node_id bigint NOT NULL PRIMARY KEY,
+    version bigint NOT NULL,
+    xml text NOT NULL,
+    fetched_at timestamp NOT NULL
+);
@@ -0,0 +1,13 @@
+-- Hash of the OSM tags that an imported POS has last been synchronized with, so that the sync job only
+-- updates POS whose node has changed. Null until the POS is synchronized for the first time.
+ALTER TABLE pos ADD COLUMN osm_tags_hash text;
+
+-- Progress of the OSM sync job in a single row, so that an interrupted run continues after a restart.
+-- The row starts as if a run had just finished, so that the first run starts one sync interval after installation.
+CREATE TABLE osm_sync_progress (
+    id int NOT NULL PRIMARY KEY CHECK (id = 1),
+    last_osm_node_id bigint,
+    started_at timestamp,
+    finished_at timestamp
+);
+INSERT INTO osm_sync_progress (id, finished_at) VALUES (1, now() AT TIME ZONE 'UTC');
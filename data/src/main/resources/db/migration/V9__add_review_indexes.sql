@@ -0,0 +1,18 @@
+-- Reviews are looked up by POS and approval status (ReviewRepository.findAllByPosAndApproved).
+-- The index also serves the foreign key checks on reviews.pos_id when a POS is deleted.
+CREATE INDEX reviews_pos_id_approved_idx ON reviews (pos_id, approved);
+
+-- Every new review is checked against the reviews of its author for the same POS (findAllByPosAndAuthor).
+CREATE INDEX reviews_pos_id_author_id_idx ON reviews (pos_id, author_id);
+
+-- Foreign key checks on reviews.author_id when a user is deleted.
+CREATE INDEX reviews_author_id_idx ON reviews (author_id);
+
+-- Most reviews are approved eventually, so an index of the pending reviews stays small.
+-- Queries for the pending reviews of a POS whose plan is made for approved = false use it
+-- instead of the composite index above.
+CREATE INDEX reviews_unapproved_pos_id_idx ON reviews (pos_id) WHERE NOT approved;
+
+-- The primary key of review_approvals starts with review_id, so deleting a user needs its own index
+-- to cascade to the votes of the user.
+CREATE INDEX review_approvals_user_id_idx ON review_approvals (user_id);
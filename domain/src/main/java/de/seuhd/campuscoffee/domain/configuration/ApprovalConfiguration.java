@@ -1,9 +1,47 @@
 package de.seuhd.campuscoffee.domain.configuration;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+
+import java.time.Duration;
+import java.util.Objects;
 
 /**
  * Configuration for the approval process, in particular the minimum number of approvals required.
+ *
+ * @param minCount      the minimum number of approvals for a review to be approved
+ * @param mode          how approvals are applied to the approval count of a review (default: immediate)
+ * @param flushInterval how often pending approvals are written in coalesced mode (default: one second)
  */
 @ConfigurationProperties("campus-coffee.approval")
-public record ApprovalConfiguration(Integer minCount) { }
+public record ApprovalConfiguration(Integer minCount, Mode mode, Duration flushInterval) {
+    private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    @ConstructorBinding
+    public ApprovalConfiguration {
+        mode = Objects.requireNonNullElse(mode, Mode.IMMEDIATE);
+        flushInterval = Objects.requireNonNullElse(flushInterval, DEFAULT_FLUSH_INTERVAL);
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("The approval flush interval must be positive.");
+        }
+    }
+
+    public ApprovalConfiguration(Integer minCount) {
+        this(minCount, null, null);
+    }
+
+    /**
+     * Modes in which approvals are applied to the approval count of a review.
+     */
+    public enum Mode {
+        /**
+         * Each approval updates the review row in the same statement that records the vote.
+         */
+        IMMEDIATE,
+        /**
+         * Votes are recorded immediately, but the approval counts are accumulated in memory
+         * and written in batches, which avoids contention on the rows of frequently approved reviews.
+         */
+        COALESCED
+    }
+}
@@ -0,0 +1,31 @@
+package de.seuhd.campuscoffee.domain.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration for imports from OpenStreetMap that run in the background.
+ *
+ * @param workers   the maximum number of import jobs that run at the same time (default: 4)
+ * @param retention how long the status of finished jobs can be retrieved (default: one hour)
+ */
+@ConfigurationProperties("campus-coffee.osm-import")
+public record OsmImportConfiguration(Integer workers, Duration retention) {
+    private static final int DEFAULT_WORKERS = 4;
+    private static final Duration DEFAULT_RETENTION = Duration.ofHours(1);
+
+    @ConstructorBinding
+    public OsmImportConfiguration {
+        workers = Objects.requireNonNullElse(workers, DEFAULT_WORKERS);
+        retention = Objects.requireNonNullElse(retention, DEFAULT_RETENTION);
+        if (workers < 1) {
+            throw new IllegalArgumentException("The number of OSM import workers must be positive.");
+        }
+        if (retention.isNegative()) {
+            throw new IllegalArgumentException("The retention of OSM import jobs must not be negative.");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package de.seuhd.campuscoffee.domain.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration for the synchronization of imported POS with OpenStreetMap.
+ *
+ * @param enabled       whether the synchronization runs periodically (default: true)
+ * @param interval      the time between the end of a run and the start of the next one (default: one day)
+ * @param batchSize     the number of POS whose nodes are fetched at once (default: 100, one request to the OSM API)
+ * @param batchInterval the minimum time between the starts of two batches, which limits the rate of requests
+ *                      to the OSM API (default: one second)
+ */
+@ConfigurationProperties("campus-coffee.osm-sync")
+public record OsmSyncConfiguration(Boolean enabled, Duration interval, Integer batchSize, Duration batchInterval) {
+    private static final Duration DEFAULT_INTERVAL = Duration.ofDays(1);
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final Duration DEFAULT_BATCH_INTERVAL = Duration.ofSeconds(1);
+
+    @ConstructorBinding
+    public OsmSyncConfiguration {
+        enabled = Objects.requireNonNullElse(enabled, true);
+        interval = Objects.requireNonNullElse(interval, DEFAULT_INTERVAL);
+        batchSize = Objects.requireNonNullElse(batchSize, DEFAULT_BATCH_SIZE);
+        batchInterval = Objects.requireNonNullElse(batchInterval, DEFAULT_BATCH_INTERVAL);
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("The OSM sync interval must be positive.");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("The OSM sync batch size must be positive.");
+        }
+        if (batchInterval.isNegative()) {
+            throw new IllegalArgumentException("The OSM sync batch interval must not be negative.");
+        }
+    }
+}
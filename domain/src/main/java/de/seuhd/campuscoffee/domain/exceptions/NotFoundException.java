@@ -20,6 +20,16 @@ public class NotFoundException extends RuntimeException {
         super(domainClass.getSimpleName() + " with ID " + id + " does not exist.");
     }
 
+    /**
+     * Creates an exception for a resource that is not a domain object, such as a background job, not found by ID.
+     *
+     * @param resourceName the name of the resource (e.g., "OsmImportJob")
+     * @param id           the ID that was not found
+     */
+    public NotFoundException(String resourceName, Object id) {
+        super(resourceName + " with ID " + id + " does not exist.");
+    }
+
     /**
      * Creates an exception for an entity not found by a specific field.
      *
@@ -0,0 +1,19 @@
+package de.seuhd.campuscoffee.domain.exceptions;
+
+/**
+ * Exception thrown when an external service that an operation depends on (e.g., the OpenStreetMap API)
+ * is temporarily unavailable, so that the operation can be retried later.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    /**
+     * Creates an exception for an unavailable service.
+     *
+     * @param serviceName the name of the service (e.g., "OpenStreetMap API")
+     * @param reason      why the service is considered unavailable
+     * @param cause       the error of the last call, null if the service has not been called
+     */
+    public ServiceUnavailableException(String serviceName, String reason, Throwable cause) {
+        super(serviceName + " is unavailable: " + reason, cause);
+    }
+}
@@ -13,7 +13,6 @@ import java.util.stream.Collectors;
 public class ValidationException extends RuntimeException {
     private final Set<? extends ConstraintViolation<?>> violations;
 
-    @SuppressWarnings("unused") // will later be used when manually validating objects
     public ValidationException(Set<? extends ConstraintViolation<?>> violations) {
         super(formatViolations(violations));
         this.violations = violations;
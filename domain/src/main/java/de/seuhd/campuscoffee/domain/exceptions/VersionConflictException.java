@@ -0,0 +1,29 @@
+package de.seuhd.campuscoffee.domain.exceptions;
+
+import de.seuhd.campuscoffee.domain.model.objects.DomainModel;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Exception thrown when an entity is updated based on an outdated version,
+ * i.e., when it has been modified since the client has read it (optimistic locking).
+ */
+public class VersionConflictException extends RuntimeException {
+
+    /**
+     * Creates an exception for an update with an outdated version.
+     *
+     * @param <DOMAIN>        domain type
+     * @param <ID>            ID type
+     * @param domainClass     class of domain object (e.g., "Pos", "User")
+     * @param id              the ID of the entity
+     * @param expectedVersion the version the update is based on
+     * @param actualVersion   the current version of the entity; null if it has been modified concurrently
+     */
+    public <DOMAIN extends DomainModel<ID>, ID> VersionConflictException(
+            Class<DOMAIN> domainClass, ID id, @Nullable Long expectedVersion, @Nullable Long actualVersion) {
+        super(actualVersion == null
+                ? domainClass.getSimpleName() + " with ID " + id + " has been modified concurrently."
+                : domainClass.getSimpleName() + " with ID " + id + " has version " + actualVersion
+                        + ", but the update is based on version " + expectedVersion + ".");
+    }
+}
@@ -1,16 +1,23 @@
 package de.seuhd.campuscoffee.domain.implementation;
 
 import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
+import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
 import de.seuhd.campuscoffee.domain.model.objects.DomainModel;
+import de.seuhd.campuscoffee.domain.model.objects.Page;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
 import de.seuhd.campuscoffee.domain.ports.data.CrudDataService;
 import de.seuhd.campuscoffee.domain.ports.api.CrudService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * Abstract base implementation of CRUD service operations.
@@ -52,6 +59,28 @@ public abstract class CrudServiceImpl<DOMAIN extends DomainModel<ID>, ID>
         return dataService().getAll();
     }
 
+    @Override
+    public @NonNull Page<DOMAIN, ID> getPage(@Nullable ID after, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be positive, but was " + limit + ".");
+        }
+        log.debug("Retrieving up to {} {} after ID '{}'...", limit, domainClass.getSimpleName(), after);
+        return dataService().getPage(after, limit);
+    }
+
+    /**
+     * Streams all objects from the data service within a single read-only transaction,
+     * which keeps the underlying database cursor open while the action is performed.
+     *
+     * @param action the action to perform for each object
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEach(@NonNull Consumer<? super DOMAIN> action) {
+        log.info("Exporting all {}...", domainClass.getSimpleName());
+        dataService().forEach(action);
+    }
+
     @Override
     public @NonNull DOMAIN getById(@NonNull ID id) {
         log.debug("Retrieving {} with ID '{}'...", domainClass.getSimpleName(), id);
@@ -62,10 +91,13 @@ public abstract class CrudServiceImpl<DOMAIN extends DomainModel<ID>, ID>
      * Performs the upsert operation with consistent error handling and logging.
      * Database constraint enforces uniqueness - data layer will throw DuplicationException if violated.
      * JPA lifecycle callbacks (@PrePersist/@PreUpdate) set timestamps automatically.
+     * That the entity to update exists is checked by the data layer, which reads it only once for the update.
      *
      * @param object the domain object to upsert
      * @return the persisted entity with updated ID and timestamps as a domain object
      * @throws DuplicationException if an entity with duplicate unique fields already exists
+     * @throws NotFoundException if the entity to update does not exist
+     * @throws VersionConflictException if the entity to update has been modified since the version of the object
      */
     @Override
     @Transactional
@@ -77,23 +109,99 @@ public abstract class CrudServiceImpl<DOMAIN extends DomainModel<ID>, ID>
             log.info("Creating new {}...", domainClass.getSimpleName());
         } else {
             // Update an existing entity
-            log.info("Updating {} with ID '{}'...", domainClass.getSimpleName(), id);
-            // Entity ID must be set
-            Objects.requireNonNull(id);
-            // Entity must exist in the database before the update
-            dataService().getById(id);
+            log.info("Updating {} with ID '{}' (version {})...", domainClass.getSimpleName(), id, object.getVersion());
         }
 
         try {
             DOMAIN upsertedEntity = dataService().upsert(object);
             log.info("Successfully upserted {} with ID: '{}'.", domainClass.getSimpleName(), upsertedEntity.getId());
             return upsertedEntity;
-        } catch (DuplicationException e) {
+        } catch (DuplicationException | VersionConflictException e) {
             log.error("Error upserting {}: {}", domainClass.getSimpleName(), e.getMessage());
             throw e;
         }
     }
 
+    /**
+     * Updates an existing object like {@link #upsert(DomainModel)}, but reports whether it has changed.
+     * The object is validated like the objects of a batch (see {@link #validateUpsert(DomainModel)}).
+     *
+     * @param object the object to update
+     * @return the result with the updated object, marked as unchanged if nothing has been written
+     * @throws IllegalArgumentException if the object has no ID
+     * @throws NotFoundException if the object does not exist
+     * @throws DuplicationException if an object with duplicate unique fields already exists
+     * @throws VersionConflictException if the object has been modified since its version
+     */
+    @Override
+    @Transactional
+    public @NonNull UpsertResult<DOMAIN, ID> update(@NonNull DOMAIN object) {
+        ID id = object.getId();
+        if (id == null) {
+            throw new IllegalArgumentException(domainClass.getSimpleName() + " to update has no ID.");
+        }
+        log.info("Updating {} with ID '{}' (version {})...", domainClass.getSimpleName(), id, object.getVersion());
+        validateUpsert(object);
+
+        try {
+            UpsertResult<DOMAIN, ID> result = dataService().update(object);
+            if (result.unchanged()) {
+                log.info("{} with ID '{}' is unchanged, skipped the update.", domainClass.getSimpleName(), id);
+            } else {
+                log.info("Successfully updated {} with ID: '{}'.", domainClass.getSimpleName(), id);
+            }
+            return result;
+        } catch (DuplicationException | VersionConflictException e) {
+            log.error("Error updating {}: {}", domainClass.getSimpleName(), e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Validates all objects first and passes only the valid ones to the data service, which writes them in chunks.
+     * The results of the data service and the validation errors are merged in the order of the given objects.
+     * No transaction is opened here, because the data service commits each chunk separately.
+     *
+     * @param objects the objects to create or update
+     * @return one result per object, in the order of the given objects
+     */
+    @Override
+    public @NonNull List<UpsertResult<DOMAIN, ID>> upsertAll(@NonNull List<DOMAIN> objects) {
+        log.info("Upserting {} {} objects...", objects.size(), domainClass.getSimpleName());
+
+        List<UpsertResult<DOMAIN, ID>> results = new ArrayList<>(Collections.nCopies(objects.size(), null));
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < objects.size(); i++) {
+            try {
+                validateUpsert(objects.get(i));
+                validIndexes.add(i);
+            } catch (RuntimeException e) {
+                results.set(i, UpsertResult.failure(e));
+            }
+        }
+
+        List<UpsertResult<DOMAIN, ID>> upserted = dataService().upsertAll(
+                validIndexes.stream().map(objects::get).toList());
+        for (int i = 0; i < validIndexes.size(); i++) {
+            results.set(validIndexes.get(i), upserted.get(i));
+        }
+
+        long failures = results.stream().filter(result -> !result.isSuccess()).count();
+        log.info("Upserted {} {} objects, {} failed.", objects.size() - failures, domainClass.getSimpleName(), failures);
+        return results;
+    }
+
+    /**
+     * Validates an object before it is upserted as part of a batch (see {@link #upsertAll(List)}).
+     * Subclasses override this method to check business rules that the database does not enforce.
+     *
+     * @param object the object to validate
+     * @throws RuntimeException if the object must not be upserted (e.g., a ValidationException)
+     */
+    protected void validateUpsert(@NonNull DOMAIN object) {
+        // no business rules by default
+    }
+
     @Override
     public void delete(@NonNull ID id) {
         log.info("Trying to delete {} with ID '{}'...", domainClass.getSimpleName(), id);
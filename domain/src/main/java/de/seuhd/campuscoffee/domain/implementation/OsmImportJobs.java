@@ -0,0 +1,219 @@
+package de.seuhd.campuscoffee.domain.implementation;
+
+import de.seuhd.campuscoffee.domain.configuration.OsmImportConfiguration;
+import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.model.enums.CampusType;
+import de.seuhd.campuscoffee.domain.model.objects.OsmImportJob;
+import de.seuhd.campuscoffee.domain.model.objects.OsmImportReport;
+import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs imports from OpenStreetMap nodes in the background and keeps their progress in memory.
+ * The jobs are executed by a fixed number of virtual threads ({@code campus-coffee.osm-import.workers});
+ * further jobs are queued. Each job imports its nodes in chunks of {@value #CHUNK_SIZE}, so that the
+ * nodes are fetched without holding a database connection and each chunk is written in a short transaction.
+ * Finished jobs cannot be retrieved after {@code campus-coffee.osm-import.retention} and are removed every retention
+ * period, but at most every {@value #MIN_PURGE_INTERVAL_SECONDS} seconds, even if no further jobs are submitted.
+ */
+@Slf4j
+@Component
+public class OsmImportJobs {
+    static final String ACTIVE_METRIC = "campuscoffee.osm.import.jobs.active";
+    static final int CHUNK_SIZE = 100;
+    static final long MIN_PURGE_INTERVAL_SECONDS = 60;
+
+    private final OsmImportConfiguration osmImportConfiguration;
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+    private ScheduledExecutorService purger;
+
+    public OsmImportJobs(@NonNull OsmImportConfiguration osmImportConfiguration,
+                         @NonNull MeterRegistry meterRegistry) {
+        this.osmImportConfiguration = osmImportConfiguration;
+        this.workers = Executors.newFixedThreadPool(osmImportConfiguration.workers(), Thread.ofVirtual()
+                .name("osm-import-", 0)
+                .factory());
+        Gauge.builder(ACTIVE_METRIC, jobs, activeJobs -> activeJobs.values().stream()
+                        .filter(job -> !job.isFinished())
+                        .count())
+                .description("OpenStreetMap import jobs that are queued or running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedules the periodic removal of expired jobs.
+     */
+    @PostConstruct
+    void start() {
+        long intervalMillis = Math.max(osmImportConfiguration.retention().toMillis(),
+                Duration.ofSeconds(MIN_PURGE_INTERVAL_SECONDS).toMillis());
+        purger = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("osm-import-purger")
+                .daemon(true)
+                .factory());
+        purger.scheduleWithFixedDelay(this::removeExpiredJobs, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the workers. Jobs are only kept in memory, so queued and running jobs are abandoned.
+     */
+    @PreDestroy
+    void stop() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+        workers.shutdownNow();
+    }
+
+    /**
+     * Submits a job that imports the given nodes in the background.
+     *
+     * @param nodeIds    the OpenStreetMap node IDs to import
+     * @param campusType the campus type to assign to the imported POS
+     * @param importer   imports one chunk of nodes and returns one result per node ID, in the given order
+     * @return the queued job
+     */
+    public @NonNull OsmImportJob submit(@NonNull List<Long> nodeIds, @NonNull CampusType campusType,
+                                        @NonNull Function<List<Long>, List<UpsertResult<Pos, Long>>> importer) {
+        Job job = new Job(UUID.randomUUID(), campusType, List.copyOf(nodeIds));
+        jobs.put(job.id, job);
+        workers.execute(() -> run(job, importer));
+        log.info("Queued OpenStreetMap import job {} with {} nodes.", job.id, nodeIds.size());
+        return job.snapshot();
+    }
+
+    /**
+     * Returns the current progress of a job.
+     *
+     * @param id the ID of the job
+     * @return the job
+     * @throws NotFoundException if no job with the given ID exists or it has been removed after the retention
+     */
+    public @NonNull OsmImportJob get(@NonNull UUID id) {
+        Job job = jobs.get(id);
+        if (job == null || job.isFinishedBefore(expiry())) {
+            throw new NotFoundException(OsmImportJob.class.getSimpleName(), id);
+        }
+        return job.snapshot();
+    }
+
+    private void run(Job job, Function<List<Long>, List<UpsertResult<Pos, Long>>> importer) {
+        job.start();
+        try {
+            for (int start = 0; start < job.nodeIds.size(); start += CHUNK_SIZE) {
+                List<Long> chunk = job.nodeIds.subList(start, Math.min(start + CHUNK_SIZE, job.nodeIds.size()));
+                job.record(chunk, importer.apply(chunk));
+            }
+            job.finish(null);
+            log.info("OpenStreetMap import job {} completed.", job.id);
+        } catch (RuntimeException e) {
+            log.error("OpenStreetMap import job {} failed.", job.id, e);
+            job.finish(e);
+        }
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime expiry = expiry();
+        jobs.values().removeIf(job -> job.isFinishedBefore(expiry));
+    }
+
+    private LocalDateTime expiry() {
+        return now().minus(osmImportConfiguration.retention());
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneId.of("UTC"));
+    }
+
+    /**
+     * Mutable state of a job, updated by its worker and read by status requests.
+     */
+    private static final class Job {
+        private final UUID id;
+        private final CampusType campusType;
+        private final List<Long> nodeIds;
+        private final LocalDateTime createdAt = now();
+        private final List<OsmImportReport.SkippedNode> skipped = new ArrayList<>();
+        private OsmImportJob.Status status = OsmImportJob.Status.QUEUED;
+        private int processed;
+        private int imported;
+        private @Nullable LocalDateTime finishedAt;
+        private @Nullable String error;
+
+        private Job(UUID id, CampusType campusType, List<Long> nodeIds) {
+            this.id = id;
+            this.campusType = campusType;
+            this.nodeIds = nodeIds;
+        }
+
+        private synchronized void start() {
+            status = OsmImportJob.Status.RUNNING;
+        }
+
+        private synchronized void record(List<Long> chunk, List<UpsertResult<Pos, Long>> results) {
+            for (int i = 0; i < results.size(); i++) {
+                UpsertResult<Pos, Long> result = results.get(i);
+                if (result.isSuccess()) {
+                    imported++;
+                } else {
+                    skipped.add(new OsmImportReport.SkippedNode(chunk.get(i),
+                            String.valueOf(Objects.requireNonNull(result.error()).getMessage())));
+                }
+            }
+            processed += chunk.size();
+        }
+
+        private synchronized void finish(@Nullable RuntimeException exception) {
+            status = exception == null ? OsmImportJob.Status.COMPLETED : OsmImportJob.Status.FAILED;
+            error = exception == null ? null : String.valueOf(exception.getMessage());
+            finishedAt = now();
+        }
+
+        private synchronized boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        private synchronized boolean isFinishedBefore(LocalDateTime time) {
+            return finishedAt != null && finishedAt.isBefore(time);
+        }
+
+        private synchronized OsmImportJob snapshot() {
+            return OsmImportJob.builder()
+                    .id(id)
+                    .status(status)
+                    .campusType(campusType)
+                    .nodeCount(nodeIds.size())
+                    .processed(processed)
+                    .imported(imported)
+                    .skipped(List.copyOf(skipped))
+                    .createdAt(createdAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
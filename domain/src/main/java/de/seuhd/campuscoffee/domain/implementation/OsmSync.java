@@ -0,0 +1,262 @@
+package de.seuhd.campuscoffee.domain.implementation;
+
+import de.seuhd.campuscoffee.domain.configuration.OsmSyncConfiguration;
+import de.seuhd.campuscoffee.domain.exceptions.ServiceUnavailableException;
+import de.seuhd.campuscoffee.domain.model.objects.OsmFetchResult;
+import de.seuhd.campuscoffee.domain.model.objects.OsmLinkedPos;
+import de.seuhd.campuscoffee.domain.model.objects.OsmNode;
+import de.seuhd.campuscoffee.domain.model.objects.OsmSyncProgress;
+import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
+import de.seuhd.campuscoffee.domain.ports.data.OsmDataService;
+import de.seuhd.campuscoffee.domain.ports.data.OsmSyncDataService;
+import de.seuhd.campuscoffee.domain.ports.data.PosDataService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Synchronizes the POS imported from OpenStreetMap with their nodes, so that the POS follow changes in OpenStreetMap.
+ * <p>
+ * A run walks through all POS linked to a node in ascending order of the node IDs, in batches of
+ * {@code campus-coffee.osm-sync.batch-size}. The nodes of a batch are fetched at once, bypassing the cache of OSM
+ * responses, and the hash of their tags is compared with the hash stored when the POS was last synchronized.
+ * Only the POS whose node has changed are written; they keep their campus. Batches start at most every
+ * {@code campus-coffee.osm-sync.batch-interval}, which limits the rate of requests to the OSM API.
+ * <p>
+ * The progress is stored after each batch. If a run is interrupted, because the application is stopped or the
+ * OSM API is unavailable, the next run continues after the last completed batch. Runs start
+ * {@code campus-coffee.osm-sync.interval} after the previous run has finished; an interrupted run is resumed
+ * right after the application has started.
+ * <p>
+ * The checked nodes, the nodes that have changed since the last synchronization, and the nodes that could not
+ * be synchronized (e.g., because they have been deleted) are counted as {@value #CHECKED_METRIC},
+ * {@value #CHANGED_METRIC}, and {@value #FAILED_METRIC}; the duration of the batches is recorded as
+ * {@value #BATCH_METRIC}.
+ */
+@Slf4j
+@Component
+public class OsmSync {
+    static final String CHECKED_METRIC = "campuscoffee.osm.sync.nodes.checked";
+    static final String CHANGED_METRIC = "campuscoffee.osm.sync.nodes.changed";
+    static final String FAILED_METRIC = "campuscoffee.osm.sync.nodes.failed";
+    static final String BATCH_METRIC = "campuscoffee.osm.sync.batches";
+
+    private final OsmSyncDataService osmSyncDataService;
+    private final OsmDataService osmDataService;
+    private final PosDataService posDataService;
+    private final OsmSyncConfiguration osmSyncConfiguration;
+    private final Counter checkedCounter;
+    private final Counter changedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Lock running = new ReentrantLock();
+    private ScheduledExecutorService scheduler;
+
+    public OsmSync(@NonNull OsmSyncDataService osmSyncDataService,
+                   @NonNull OsmDataService osmDataService,
+                   @NonNull PosDataService posDataService,
+                   @NonNull OsmSyncConfiguration osmSyncConfiguration,
+                   @NonNull MeterRegistry meterRegistry) {
+        this.osmSyncDataService = osmSyncDataService;
+        this.osmDataService = osmDataService;
+        this.posDataService = posDataService;
+        this.osmSyncConfiguration = osmSyncConfiguration;
+        this.checkedCounter = Counter.builder(CHECKED_METRIC)
+                .description("OpenStreetMap nodes of imported POS checked for changes")
+                .register(meterRegistry);
+        this.changedCounter = Counter.builder(CHANGED_METRIC)
+                .description("OpenStreetMap nodes whose tags have changed since the last synchronization of their POS")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder(FAILED_METRIC)
+                .description("OpenStreetMap nodes whose POS could not be synchronized")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder(BATCH_METRIC)
+                .description("Duration of the batches of the OpenStreetMap synchronization")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedules the periodic runs if the synchronization is enabled.
+     */
+    @PostConstruct
+    void start() {
+        if (!osmSyncConfiguration.enabled()) {
+            return;
+        }
+        long intervalMillis = osmSyncConfiguration.interval().toMillis();
+        long delayMillis = initialDelay().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("osm-sync")
+                .daemon(true)
+                .factory());
+        scheduler.scheduleWithFixedDelay(this::runSafely, delayMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Synchronizing imported POS with OpenStreetMap every {} ms, next run in {} ms.",
+                intervalMillis, delayMillis);
+    }
+
+    /**
+     * Stops the periodic runs. A run in progress is interrupted and resumed after the next start.
+     */
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Synchronizes all imported POS with their OpenStreetMap nodes, continuing an interrupted run if there is one.
+     *
+     * @return false if the synchronization is already running in this application instance, true otherwise
+     * @throws InterruptedException        if the thread is interrupted while waiting for the next batch
+     * @throws ServiceUnavailableException if the OSM API is unavailable; the next run continues after the last batch
+     */
+    public boolean run() throws InterruptedException {
+        if (!running.tryLock()) {
+            log.info("OpenStreetMap synchronization is already running.");
+            return false;
+        }
+        try {
+            Long lastOsmNodeId = null;
+            OsmSyncProgress progress = osmSyncDataService.getProgress();
+            if (progress.isRunning()) {
+                lastOsmNodeId = progress.lastOsmNodeId();
+                log.info("Resuming OpenStreetMap synchronization after node {}...", lastOsmNodeId);
+            } else {
+                osmSyncDataService.startRun();
+                log.info("Starting OpenStreetMap synchronization...");
+            }
+
+            long nextBatchNanos = System.nanoTime();
+            while (true) {
+                List<OsmLinkedPos> batch = osmSyncDataService.findLinkedPos(lastOsmNodeId,
+                        osmSyncConfiguration.batchSize());
+                if (batch.isEmpty()) {
+                    break;
+                }
+                long waitNanos = nextBatchNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    Thread.sleep(Duration.ofNanos(waitNanos));
+                }
+                nextBatchNanos = System.nanoTime() + osmSyncConfiguration.batchInterval().toNanos();
+                batchTimer.record(() -> syncBatch(batch));
+                lastOsmNodeId = batch.getLast().osmNodeId();
+            }
+
+            osmSyncDataService.finishRun();
+            log.info("Finished OpenStreetMap synchronization.");
+            return true;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    /**
+     * Fetches the nodes of a batch of POS, updates the POS whose node has changed, and stores the progress.
+     *
+     * @param batch the POS to synchronize, in ascending order of their node IDs
+     * @throws ServiceUnavailableException if the OSM API is unavailable; the progress of the batch is not stored
+     */
+    private void syncBatch(List<OsmLinkedPos> batch) {
+        List<OsmFetchResult> fetchResults = osmDataService.refreshNodes(batch.stream()
+                .map(OsmLinkedPos::osmNodeId)
+                .toList());
+
+        // convert the nodes whose tags have changed, keeping the campus of their POS
+        List<Pos> changedPos = new ArrayList<>();
+        List<String> changedHashes = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OsmLinkedPos linkedPos = batch.get(i);
+            OsmFetchResult fetchResult = fetchResults.get(i);
+            if (!fetchResult.isSuccess()) {
+                if (fetchResult.error() instanceof ServiceUnavailableException e) {
+                    throw e;
+                }
+                fail(linkedPos, Objects.requireNonNull(fetchResult.error()));
+                continue;
+            }
+            OsmNode node = Objects.requireNonNull(fetchResult.node());
+            String tagsHash = node.tagsHash();
+            if (tagsHash.equals(linkedPos.tagsHash())) {
+                continue;
+            }
+            try {
+                changedPos.add(PosServiceImpl.convertOsmNodeToPos(node, linkedPos.campus()));
+                changedHashes.add(tagsHash);
+            } catch (RuntimeException e) {
+                fail(linkedPos, e);
+            }
+        }
+
+        // write the changed POS and remember the hashes of the nodes they have been updated from
+        Map<Long, String> tagsHashes = new HashMap<>();
+        List<UpsertResult<Pos, Long>> results = posDataService.upsertAllByOsmNodeId(changedPos);
+        for (int i = 0; i < results.size(); i++) {
+            Long osmNodeId = Objects.requireNonNull(changedPos.get(i).osmNodeId());
+            if (results.get(i).isSuccess()) {
+                tagsHashes.put(osmNodeId, changedHashes.get(i));
+            } else {
+                log.warn("Could not update POS from OpenStreetMap node {}: {}",
+                        osmNodeId, Objects.requireNonNull(results.get(i).error()).getMessage());
+                failedCounter.increment();
+            }
+        }
+        osmSyncDataService.completeBatch(tagsHashes, batch.getLast().osmNodeId());
+
+        checkedCounter.increment(batch.size());
+        changedCounter.increment(tagsHashes.size());
+        log.debug("Synchronized {} POS with OpenStreetMap, {} changed.", batch.size(), tagsHashes.size());
+    }
+
+    private void fail(OsmLinkedPos linkedPos, RuntimeException reason) {
+        log.warn("Could not synchronize POS {} with OpenStreetMap node {}: {}",
+                linkedPos.posId(), linkedPos.osmNodeId(), reason.getMessage());
+        failedCounter.increment();
+    }
+
+    /**
+     * Returns the time until the next run: none if a run has been interrupted, otherwise the rest of the interval
+     * since the last run has finished (or since now, if no run has ever finished).
+     */
+    private Duration initialDelay() {
+        OsmSyncProgress progress = osmSyncDataService.getProgress();
+        if (progress.isRunning()) {
+            return Duration.ZERO;
+        }
+        LocalDateTime now = LocalDateTime.now(ZoneId.of("UTC"));
+        LocalDateTime lastRun = Objects.requireNonNullElse(progress.finishedAt(), now);
+        Duration delay = Duration.between(now, lastRun.plus(osmSyncConfiguration.interval()));
+        return delay.isNegative() ? Duration.ZERO : delay;
+    }
+
+    private void runSafely() {
+        try {
+            run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("OpenStreetMap synchronization interrupted, resuming with the next run.");
+        } catch (RuntimeException e) {
+            log.error("OpenStreetMap synchronization failed, resuming with the next run.", e);
+        }
+    }
+}
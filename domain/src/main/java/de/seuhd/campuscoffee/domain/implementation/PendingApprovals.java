@@ -0,0 +1,174 @@
+package de.seuhd.campuscoffee.domain.implementation;
+
+import de.seuhd.campuscoffee.domain.configuration.ApprovalConfiguration;
+import de.seuhd.campuscoffee.domain.ports.data.ReviewDataService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for the approval counts of reviews, used in the coalesced approval mode.
+ * Approvals are accumulated in memory with one slot per review ID. A concurrent hash map is used,
+ * which locks per hash bin, so that approvals of different reviews do not contend with each other.
+ * A background thread periodically writes all pending approvals with one batched update per
+ * flush interval; the remaining approvals are written when the application shuts down.
+ */
+@Slf4j
+@Component
+public class PendingApprovals {
+    static final String PENDING_METRIC = "campuscoffee.approvals.pending";
+    static final String PENDING_REVIEWS_METRIC = "campuscoffee.approvals.pending.reviews";
+    static final String FLUSHED_METRIC = "campuscoffee.approvals.flushed";
+    private static final int MAX_BATCH_SIZE = 1000; // reviews per update statement
+
+    private final ReviewDataService reviewDataService;
+    private final ApprovalConfiguration approvalConfiguration;
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final Counter flushedCounter;
+    private ScheduledExecutorService flusher;
+
+    public PendingApprovals(@NonNull ReviewDataService reviewDataService,
+                            @NonNull ApprovalConfiguration approvalConfiguration,
+                            @NonNull MeterRegistry meterRegistry) {
+        this.reviewDataService = reviewDataService;
+        this.approvalConfiguration = approvalConfiguration;
+        Gauge.builder(PENDING_METRIC, this, PendingApprovals::count)
+                .description("Approvals that have been accepted but not yet written to the reviews")
+                .register(meterRegistry);
+        Gauge.builder(PENDING_REVIEWS_METRIC, pending, Map::size)
+                .description("Reviews with approvals that have not yet been written")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder(FLUSHED_METRIC)
+                .description("Approvals written to the reviews in batches")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the background flusher if approvals are coalesced.
+     */
+    @PostConstruct
+    void start() {
+        if (approvalConfiguration.mode() != ApprovalConfiguration.Mode.COALESCED) {
+            return;
+        }
+        long intervalMillis = approvalConfiguration.flushInterval().toMillis();
+        flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("approval-flusher")
+                .daemon(true)
+                .factory());
+        flusher.scheduleWithFixedDelay(this::flushSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Coalescing approvals, flushing every {} ms.", intervalMillis);
+    }
+
+    /**
+     * Stops the background flusher and writes the remaining approvals.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            if (!flusher.awaitTermination(approvalConfiguration.flushInterval().toMillis() + 10_000, TimeUnit.MILLISECONDS)) {
+                log.warn("Approval flusher did not terminate in time.");
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Adds an approval for a review. If a transaction is active, the approval is only added after it
+     * has been committed, so that approvals of rolled back votes are never written.
+     *
+     * @param reviewId the ID of the approved review
+     */
+    public void add(@NonNull Long reviewId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.merge(reviewId, 1L, Long::sum);
+                }
+            });
+        } else {
+            pending.merge(reviewId, 1L, Long::sum);
+        }
+    }
+
+    /**
+     * Returns the number of approvals of a review that have not been written yet.
+     *
+     * @param reviewId the ID of the review
+     * @return the number of pending approvals
+     */
+    public long count(@NonNull Long reviewId) {
+        return pending.getOrDefault(reviewId, 0L);
+    }
+
+    /**
+     * Returns the number of approvals of all reviews that have not been written yet.
+     *
+     * @return the total number of pending approvals
+     */
+    public long count() {
+        return pending.values().stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    /**
+     * Writes all pending approvals in batches and recomputes the approval status of the affected reviews.
+     * Each slot is removed atomically before it is written, so approvals added concurrently are written
+     * with the next flush. If writing a batch fails, its approvals are added back.
+     */
+    public void flush() {
+        Map<Long, Long> batch = new HashMap<>();
+        Iterator<Long> reviewIds = pending.keySet().iterator();
+        while (reviewIds.hasNext()) {
+            Long reviewId = reviewIds.next();
+            Long increment = pending.remove(reviewId);
+            if (increment != null) {
+                batch.put(reviewId, increment);
+            }
+            if (batch.size() == MAX_BATCH_SIZE || (!reviewIds.hasNext() && !batch.isEmpty())) {
+                write(batch);
+                batch = new HashMap<>();
+            }
+        }
+    }
+
+    private void write(@NonNull Map<Long, Long> batch) {
+        try {
+            reviewDataService.addApprovals(batch, approvalConfiguration.minCount());
+        } catch (RuntimeException e) {
+            batch.forEach((reviewId, increment) -> pending.merge(reviewId, increment, Long::sum));
+            throw e;
+        }
+        long approvals = batch.values().stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        flushedCounter.increment(approvals);
+        log.debug("Flushed {} approvals of {} reviews.", approvals, batch.size());
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Flushing pending approvals failed, retrying with the next flush.", e);
+        }
+    }
+}
@@ -3,31 +3,57 @@ package de.seuhd.campuscoffee.domain.implementation;
 import de.seuhd.campuscoffee.domain.exceptions.MissingFieldException;
 import de.seuhd.campuscoffee.domain.model.enums.CampusType;
 import de.seuhd.campuscoffee.domain.model.enums.OsmAmenity;
+import de.seuhd.campuscoffee.domain.model.enums.OsmExtractFormat;
+import de.seuhd.campuscoffee.domain.model.objects.OsmFetchResult;
+import de.seuhd.campuscoffee.domain.model.objects.OsmImportJob;
+import de.seuhd.campuscoffee.domain.model.objects.OsmImportReport;
 import de.seuhd.campuscoffee.domain.model.objects.OsmNode;
 import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
 import de.seuhd.campuscoffee.domain.model.enums.PosType;
 import de.seuhd.campuscoffee.domain.ports.data.CrudDataService;
 import de.seuhd.campuscoffee.domain.ports.data.OsmDataService;
 import de.seuhd.campuscoffee.domain.ports.data.PosDataService;
+import de.seuhd.campuscoffee.domain.ports.data.ReviewDataService;
 import de.seuhd.campuscoffee.domain.ports.api.PosService;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
 /**
  * Implementation of the POS service that handles business logic related to POS entities.
  */
 @Slf4j
 @Service
 public class PosServiceImpl extends CrudServiceImpl<Pos, Long> implements PosService {
+    /**
+     * Number of POS written per batch when importing an OpenStreetMap extract.
+     */
+    static final int IMPORT_BATCH_SIZE = 500;
+
     private final PosDataService posDataService;
+    private final ReviewDataService reviewDataService;
     private final OsmDataService osmDataService;
+    private final OsmImportJobs osmImportJobs;
 
-    PosServiceImpl(@NonNull PosDataService posDataService, @NonNull OsmDataService osmDataService) {
+    PosServiceImpl(@NonNull PosDataService posDataService, @NonNull ReviewDataService reviewDataService,
+                   @NonNull OsmDataService osmDataService, @NonNull OsmImportJobs osmImportJobs) {
         super(Pos.class);
         this.posDataService = posDataService;
+        this.reviewDataService = reviewDataService;
         this.osmDataService = osmDataService;
+        this.osmImportJobs = osmImportJobs;
     }
 
     @Override
@@ -41,21 +67,152 @@ public class PosServiceImpl extends CrudServiceImpl<Pos, Long> implements PosSer
         return posDataService.getByName(name);
     }
 
+    /**
+     * Runs in one transaction, so that the reviews are only deleted if the POS is deleted as well.
+     */
     @Override
     @Transactional
+    public void delete(@NonNull Long id, boolean cascade) {
+        if (cascade) {
+            int deletedReviews = reviewDataService.deleteAllByPos(id);
+            log.info("Deleted {} reviews of POS with ID '{}'.", deletedReviews, id);
+        }
+        delete(id);
+    }
+
+    /**
+     * Not transactional: the node is fetched without holding a database connection, and the POS is written
+     * with a single statement in its own transaction.
+     */
+    @Override
     public @NonNull Pos importFromOsmNode(@NonNull Long nodeId, @NonNull CampusType campusType) {
         log.info("Importing POS from OpenStreetMap node {}...", nodeId);
 
         // Fetch the OSM node data using the port
         OsmNode osmNode = osmDataService.fetchNode(nodeId);
 
-        // Convert OSM node to POS domain object and upsert it
-        Pos savedPos = upsert(convertOsmNodeToPos(osmNode, campusType));
+        // Convert OSM node to POS domain object and insert or update the POS linked to the node
+        Pos savedPos = posDataService.upsertByOsmNodeId(convertOsmNodeToPos(osmNode, campusType));
         log.info("Successfully imported POS '{}' from OSM node {}", savedPos.name(), nodeId);
 
         return savedPos;
     }
 
+    @Override
+    public @NonNull List<UpsertResult<Pos, Long>> importFromOsmNodes(@NonNull List<Long> nodeIds,
+                                                                     @NonNull CampusType campusType) {
+        log.info("Importing POS from {} OpenStreetMap nodes...", nodeIds.size());
+
+        // fetch each node once and convert the fetched nodes, remembering the nodes that cannot be imported
+        Map<Long, UpsertResult<Pos, Long>> results = new HashMap<>();
+        List<Pos> converted = new ArrayList<>();
+        for (OsmFetchResult fetchResult : osmDataService.fetchNodes(new LinkedHashSet<>(nodeIds))) {
+            if (!fetchResult.isSuccess()) {
+                results.put(fetchResult.nodeId(), UpsertResult.failure(Objects.requireNonNull(fetchResult.error())));
+                continue;
+            }
+            try {
+                converted.add(convertOsmNodeToPos(Objects.requireNonNull(fetchResult.node()), campusType));
+            } catch (RuntimeException e) {
+                results.put(fetchResult.nodeId(), UpsertResult.failure(e));
+            }
+        }
+
+        // insert or update the POS linked to the nodes in one batch
+        List<UpsertResult<Pos, Long>> upsertResults = posDataService.upsertAllByOsmNodeId(converted);
+        for (int i = 0; i < upsertResults.size(); i++) {
+            results.put(converted.get(i).osmNodeId(), upsertResults.get(i));
+        }
+
+        log.info("Imported {} of {} OpenStreetMap nodes.",
+                results.values().stream().filter(UpsertResult::isSuccess).count(), results.size());
+        return nodeIds.stream()
+                .map(results::get)
+                .toList();
+    }
+
+    @Override
+    public @NonNull OsmImportJob startImportFromOsmNodes(@NonNull List<Long> nodeIds, @NonNull CampusType campusType) {
+        return osmImportJobs.submit(nodeIds, campusType, chunk -> importFromOsmNodes(chunk, campusType));
+    }
+
+    @Override
+    public @NonNull OsmImportJob getImportJob(@NonNull UUID jobId) {
+        return osmImportJobs.get(jobId);
+    }
+
+    @Override
+    public @NonNull OsmImportReport importFromOsmExtract(@NonNull InputStream extract,
+                                                         @NonNull OsmExtractFormat format,
+                                                         @NonNull CampusType campusType) {
+        log.info("Importing POS from OpenStreetMap {} extract...", format);
+        long start = System.nanoTime();
+
+        ExtractImport extractImport = new ExtractImport(campusType);
+        long nodesRead = osmDataService.readExtract(extract, format, extractImport::add, extractImport::skip);
+        extractImport.flush();
+
+        OsmImportReport report = OsmImportReport.builder()
+                .nodesRead(nodesRead)
+                .imported(extractImport.imported)
+                .skipped(List.copyOf(extractImport.skipped))
+                .duration(Duration.ofNanos(System.nanoTime() - start))
+                .build();
+        log.info("Imported {} POS from OpenStreetMap extract, skipped {} nodes ({} nodes read in {} ms, {} nodes/s).",
+                report.imported(), report.skipped().size(), report.nodesRead(), report.duration().toMillis(),
+                Math.round(report.nodesPerSecond()));
+        return report;
+    }
+
+    /**
+     * State of an import from an OpenStreetMap extract. The POS converted from the nodes of the extract
+     * are collected and written in batches of {@value #IMPORT_BATCH_SIZE}.
+     */
+    private class ExtractImport {
+        private final CampusType campusType;
+        private final List<Pos> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        private final List<OsmImportReport.SkippedNode> skipped = new ArrayList<>();
+        private int imported;
+
+        private ExtractImport(CampusType campusType) {
+            this.campusType = campusType;
+        }
+
+        private void add(OsmNode osmNode) {
+            try {
+                batch.add(convertOsmNodeToPos(osmNode, campusType));
+            } catch (RuntimeException e) {
+                skip(osmNode.nodeId(), e);
+                return;
+            }
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void skip(Long nodeId, RuntimeException reason) {
+            skipped.add(new OsmImportReport.SkippedNode(nodeId, String.valueOf(reason.getMessage())));
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            // the batch is reused for the next nodes, so the data service gets a copy that does not change afterwards
+            List<Pos> written = List.copyOf(batch);
+            batch.clear();
+            List<UpsertResult<Pos, Long>> results = posDataService.upsertAllByOsmNodeId(written);
+            for (int i = 0; i < results.size(); i++) {
+                UpsertResult<Pos, Long> result = results.get(i);
+                if (result.isSuccess()) {
+                    imported++;
+                } else {
+                    skip(written.get(i).osmNodeId(), Objects.requireNonNull(result.error()));
+                }
+            }
+        }
+    }
+
     /**
      * Converts an OSM node to a POS domain object.
      * Maps OSM amenity types to POS types and validates required fields.
@@ -65,7 +222,7 @@ public class PosServiceImpl extends CrudServiceImpl<Pos, Long> implements PosSer
      * @return a new Pos object with data from the OSM node
      * @throws MissingFieldException if required fields are missing or invalid
      */
-    private @NonNull Pos convertOsmNodeToPos(@NonNull OsmNode osmNode, @NonNull CampusType campusType) {
+    static @NonNull Pos convertOsmNodeToPos(@NonNull OsmNode osmNode, @NonNull CampusType campusType) {
         // map OSM amenity to POS type
         PosType posType = mapAmenityToPosType(osmNode.amenity());
 
@@ -88,6 +245,7 @@ public class PosServiceImpl extends CrudServiceImpl<Pos, Long> implements PosSer
                 .houseNumber(osmNode.houseNumber())
                 .postalCode(postalCode)
                 .city(osmNode.city())
+                .osmNodeId(osmNode.nodeId())
                 .build();
     }
 
@@ -97,7 +255,7 @@ public class PosServiceImpl extends CrudServiceImpl<Pos, Long> implements PosSer
      * @param amenity the OSM amenity type
      * @return the corresponding POS type
      */
-    private PosType mapAmenityToPosType(OsmAmenity amenity) {
+    private static PosType mapAmenityToPosType(OsmAmenity amenity) {
         return switch (amenity) {
             case CAFE, ICE_CREAM -> PosType.CAFE;
             case VENDING_MACHINE -> PosType.VENDING_MACHINE;
@@ -2,7 +2,6 @@ package de.seuhd.campuscoffee.domain.implementation;
 
 import de.seuhd.campuscoffee.domain.configuration.ApprovalConfiguration;
 import de.seuhd.campuscoffee.domain.exceptions.ValidationException;
-import de.seuhd.campuscoffee.domain.model.objects.Pos;
 import de.seuhd.campuscoffee.domain.model.objects.Review;
 import de.seuhd.campuscoffee.domain.model.objects.User;
 import de.seuhd.campuscoffee.domain.ports.api.ReviewService;
@@ -28,16 +27,19 @@ public class ReviewServiceImpl extends CrudServiceImpl<Review, Long> implements
     private final UserDataService userDataService;
     private final PosDataService posDataService;
     private final ApprovalConfiguration approvalConfiguration;
+    private final PendingApprovals pendingApprovals;
 
     public ReviewServiceImpl(@NonNull ReviewDataService reviewDataService,
                              @NonNull UserDataService userDataService,
                              @NonNull PosDataService posDataService,
-                             @NonNull ApprovalConfiguration approvalConfiguration) {
+                             @NonNull ApprovalConfiguration approvalConfiguration,
+                             @NonNull PendingApprovals pendingApprovals) {
         super(Review.class);
         this.reviewDataService = reviewDataService;
         this.userDataService = userDataService;
         this.posDataService = posDataService;
         this.approvalConfiguration = approvalConfiguration;
+        this.pendingApprovals = pendingApprovals;
     }
 
     @Override
@@ -48,17 +50,20 @@ public class ReviewServiceImpl extends CrudServiceImpl<Review, Long> implements
     @Override
     @Transactional
     public @NonNull Review upsert(@NonNull Review review) {
+        validateUpsert(review);
+        return super.upsert(review);
+    }
+
+    /**
+     * Validates that the POS of the review exists.
+     * That an author reviews a POS only once is enforced by a unique constraint of the data layer,
+     * which rejects a second review with a {@link ValidationException}, also if both are submitted concurrently.
+     */
+    @Override
+    protected void validateUpsert(@NonNull Review review) {
         // validate that the POS exists before creating/updating the review
         Objects.requireNonNull(review.pos().getId());
-        Pos pos = posDataService.getById(review.pos().getId());
-
-        // validate that this is the first review of the author for this POS
-        if (!reviewDataService.filter(pos, review.author()).isEmpty()) {
-            throw new ValidationException("Author with ID '" + review.author().getId()
-                    + " has already reviewed POS with ID '" + pos.getId() + "'.");
-        }
-
-        return super.upsert(review);
+        posDataService.getById(review.pos().getId());
     }
 
     @Override
@@ -67,52 +72,98 @@ public class ReviewServiceImpl extends CrudServiceImpl<Review, Long> implements
         return reviewDataService.filter(posDataService.getById(posId), approved);
     }
 
+    /**
+     * Approves the review with a single atomic update in the data layer.
+     * Only if that update does not match (which is the exceptional case), the review and the user
+     * are loaded to report the reason.
+     * In coalesced mode, only the vote is recorded immediately; the approval count is incremented in memory
+     * and written later by {@link PendingApprovals}. The returned review then includes the pending approvals.
+     */
     @Override
     @Transactional
-    public @NonNull Review approve(@NonNull Review review, @NonNull Long userId) {
+    public @NonNull Review approve(@NonNull Long reviewId, @NonNull Long userId) {
         log.info("Processing approval request for review with ID '{}' by user with ID '{}'...",
-                review.getId(), userId);
-
-        // validate that the user exists
-        User user = userDataService.getById(userId);
-        Objects.requireNonNull(user.getId());
-
-        // validate that the review exists
-        Objects.requireNonNull(review.getId());
-        Review reviewToApprove = reviewDataService.getById(review.getId());
-        Objects.requireNonNull(reviewToApprove.author().getId());
+                reviewId, userId);
 
-        // a user cannot approve their own review
-        if (reviewToApprove.author().getId().equals(user.getId())) {
-            log.warn("User with ID '{}' attempted to approve their own review with ID '{}'.",
-                    user.getId(), review.getId());
-            throw new ValidationException("User with ID '" + user.getId()
-                    + "' cannot approve their own review with ID '" + review.getId() + "'.");
-        }
+        Review approvedReview = switch (approvalConfiguration.mode()) {
+            case IMMEDIATE -> reviewDataService.approve(reviewId, userId, approvalConfiguration.minCount())
+                    .orElseThrow(() -> rejectedApproval(reviewId, userId));
+            case COALESCED -> approveCoalesced(reviewId, userId);
+        };
 
-        // increment approval count
-        Review approvedReview = review.toBuilder().approvalCount(reviewToApprove.approvalCount() + 1).build();
-
-        // update approval status to determine if the review now reaches the approval quorum
-        Review finalReview = updateApprovalStatus(approvedReview);
-        if (finalReview.approved()) {
+        if (approvedReview.approved()) {
             log.info("Review with ID '{}' has now reached the approval quorum ({}/{})",
-                    finalReview.getId(),
-                    finalReview.approvalCount(),
+                    approvedReview.getId(),
+                    approvedReview.approvalCount(),
                     approvalConfiguration.minCount());
         } else {
             log.info("Review with ID '{}' has not reached the approval quorum ({}/{})",
-                    finalReview.getId(),
-                    finalReview.approvalCount(),
+                    approvedReview.getId(),
+                    approvedReview.approvalCount(),
                     approvalConfiguration.minCount());
         }
 
-        return reviewDataService.upsert(finalReview);
+        return approvedReview;
+    }
+
+    /**
+     * Records the vote and defers the increment of the approval count to the next flush.
+     *
+     * @param reviewId the ID of the review to approve
+     * @param userId   the ID of the approving user
+     * @return the review with the persisted and the pending approvals
+     */
+    private @NonNull Review approveCoalesced(@NonNull Long reviewId, @NonNull Long userId) {
+        if (!reviewDataService.addVote(reviewId, userId)) {
+            throw rejectedApproval(reviewId, userId);
+        }
+
+        // project the approval count from the persisted approvals, the pending ones, and this one
+        Review review = reviewDataService.getById(reviewId);
+        long approvalCount = review.approvalCount() + pendingApprovals.count(reviewId) + 1;
+        pendingApprovals.add(reviewId);
+        return updateApprovalStatus(review.toBuilder()
+                .approvalCount((int) approvalCount)
+                .build());
+    }
+
+    /**
+     * Determines why an approval was not applied by the data layer.
+     *
+     * @param reviewId the ID of the review that should have been approved
+     * @param userId   the ID of the approving user
+     * @return the exception to throw
+     * @throws NotFoundException if the user or the review does not exist
+     */
+    private RuntimeException rejectedApproval(@NonNull Long reviewId, @NonNull Long userId) {
+        // validate that the user and the review exist
+        User user = userDataService.getById(userId);
+        Review review = reviewDataService.getById(reviewId);
+
+        // a user cannot approve their own review
+        if (Objects.equals(review.author().getId(), user.getId())) {
+            log.warn("User with ID '{}' attempted to approve their own review with ID '{}'.",
+                    userId, reviewId);
+            return new ValidationException("User with ID '" + userId
+                    + "' cannot approve their own review with ID '" + reviewId + "'.");
+        }
+
+        // a user can approve a review only once
+        if (reviewDataService.hasApproved(reviewId, userId)) {
+            log.warn("User with ID '{}' attempted to approve review with ID '{}' more than once.",
+                    userId, reviewId);
+            return new ValidationException("User with ID '" + userId
+                    + "' has already approved review with ID '" + reviewId + "'.");
+        }
+
+        return new IllegalStateException("Review with ID '" + reviewId
+                + "' could not be approved by user with ID '" + userId + "'.");
     }
 
     /**
      * Calculates and updates the approval status of a review based on the approval count.
      * Business rule: A review is approved when it reaches the configured minimum approval count threshold.
+     * The data layer applies the same rule atomically when approving a review (see {@link ReviewDataService#approve}).
      *
      * @param review The review to calculate approval status for
      * @return The review with updated approval status
@@ -0,0 +1,16 @@
+package de.seuhd.campuscoffee.domain.model.enums;
+
+/**
+ * Enum for the file formats of OpenStreetMap extracts.
+ * Based on <a href="https://wiki.openstreetmap.org/wiki/OSM_file_formats">wiki.openstreetmap.org/wiki/OSM_file_formats</a>
+ */
+public enum OsmExtractFormat {
+    /**
+     * OSM XML (.osm files).
+     */
+    XML,
+    /**
+     * Protocolbuffer Binary Format (.osm.pbf files), which is smaller and faster to parse than XML.
+     */
+    PBF
+}
@@ -1,5 +1,7 @@
 package de.seuhd.campuscoffee.domain.model.objects;
 
+import org.jspecify.annotations.Nullable;
+
 import java.io.Serializable;
 
 /**
@@ -10,4 +12,14 @@ import java.io.Serializable;
 public interface DomainModel<ID>
         extends Serializable, // serializable to allow cloning (see TestFixtures class)
                 Identifiable<ID> {
+    /**
+     * Returns the version of this object for optimistic locking.
+     * When an object is updated, its version must match the current version in the data store,
+     * which ensures that the update is based on the latest state.
+     *
+     * @return the version, or null if the object is not versioned or the update is not based on a specific version
+     */
+    default @Nullable Long getVersion() {
+        return null;
+    }
 }
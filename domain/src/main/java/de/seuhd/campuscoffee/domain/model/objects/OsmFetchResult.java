@@ -0,0 +1,48 @@
+package de.seuhd.campuscoffee.domain.model.objects;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Domain record that holds the outcome of fetching one node of a batch from OpenStreetMap:
+ * either the node or the exception that prevented it from being fetched.
+ *
+ * @param nodeId the requested OpenStreetMap node ID
+ * @param node   the fetched node, null if the fetch failed
+ * @param error  the reason why the fetch failed (e.g., a NotFoundException), null if it succeeded
+ */
+public record OsmFetchResult(
+        @NonNull Long nodeId,
+        @Nullable OsmNode node,
+        @Nullable RuntimeException error
+) {
+    /**
+     * Creates the result of a successful fetch.
+     *
+     * @param node the fetched node
+     * @return the successful result
+     */
+    public static @NonNull OsmFetchResult success(@NonNull OsmNode node) {
+        return new OsmFetchResult(node.nodeId(), node, null);
+    }
+
+    /**
+     * Creates the result of a failed fetch.
+     *
+     * @param nodeId the requested node ID
+     * @param error  the reason why the fetch failed
+     * @return the failed result
+     */
+    public static @NonNull OsmFetchResult failure(@NonNull Long nodeId, @NonNull RuntimeException error) {
+        return new OsmFetchResult(nodeId, null, error);
+    }
+
+    /**
+     * Returns whether the node has been fetched.
+     *
+     * @return true if the fetch succeeded
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
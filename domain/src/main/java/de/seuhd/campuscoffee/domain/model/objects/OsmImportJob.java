@@ -0,0 +1,60 @@
+package de.seuhd.campuscoffee.domain.model.objects;
+
+import de.seuhd.campuscoffee.domain.model.enums.CampusType;
+import lombok.Builder;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Domain record that holds the progress of an import of POS from OpenStreetMap nodes that runs in the background.
+ *
+ * @param id         the unique identifier of the job
+ * @param status     the status of the job
+ * @param campusType the campus type assigned to the imported POS
+ * @param nodeCount  the number of node IDs to import
+ * @param processed  the number of node IDs processed so far
+ * @param imported   the number of POS created or updated so far
+ * @param skipped    the nodes that could not be imported so far, with the reason
+ * @param createdAt  when the job was submitted
+ * @param finishedAt when the job completed or failed, null while it is queued or running
+ * @param error      why the job failed as a whole, null unless the status is FAILED
+ */
+@Builder
+public record OsmImportJob(
+        @NonNull UUID id,
+        @NonNull Status status,
+        @NonNull CampusType campusType,
+        int nodeCount,
+        int processed,
+        int imported,
+        @NonNull List<OsmImportReport.SkippedNode> skipped,
+        @NonNull LocalDateTime createdAt,
+        @Nullable LocalDateTime finishedAt,
+        @Nullable String error
+) {
+    /**
+     * Status of an import job.
+     */
+    public enum Status {
+        /**
+         * The job waits for a free worker.
+         */
+        QUEUED,
+        /**
+         * The nodes are being fetched and imported.
+         */
+        RUNNING,
+        /**
+         * All nodes have been processed; nodes that could not be imported are listed as skipped.
+         */
+        COMPLETED,
+        /**
+         * The job was aborted by an unexpected error.
+         */
+        FAILED
+    }
+}
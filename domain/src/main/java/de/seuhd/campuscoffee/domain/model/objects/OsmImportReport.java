@@ -0,0 +1,41 @@
+package de.seuhd.campuscoffee.domain.model.objects;
+
+import lombok.Builder;
+import org.jspecify.annotations.NonNull;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Domain record that summarizes a bulk import of POS from an OpenStreetMap extract.
+ *
+ * @param nodesRead the number of nodes read from the extract, including nodes that are no supported amenity
+ * @param imported  the number of POS created or updated
+ * @param skipped   the amenity nodes that could not be imported, with the reason
+ * @param duration  the duration of the import
+ */
+@Builder
+public record OsmImportReport(
+        long nodesRead,
+        int imported,
+        @NonNull List<SkippedNode> skipped,
+        @NonNull Duration duration
+) {
+    /**
+     * An amenity node that could not be imported.
+     *
+     * @param nodeId the OpenStreetMap node ID
+     * @param reason why the node was skipped (e.g., a missing tag or a duplicate POS name)
+     */
+    public record SkippedNode(@NonNull Long nodeId, @NonNull String reason) { }
+
+    /**
+     * Returns the throughput of the import.
+     *
+     * @return the number of nodes read per second
+     */
+    public double nodesPerSecond() {
+        long millis = Math.max(duration.toMillis(), 1);
+        return nodesRead * 1000.0 / millis;
+    }
+}
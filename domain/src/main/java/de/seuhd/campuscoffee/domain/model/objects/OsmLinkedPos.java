@@ -0,0 +1,23 @@
+package de.seuhd.campuscoffee.domain.model.objects;
+
+import de.seuhd.campuscoffee.domain.model.enums.CampusType;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Domain record that links a POS to the OpenStreetMap node it has been imported from,
+ * as needed to synchronize the POS with the node.
+ *
+ * @param posId     the ID of the POS
+ * @param osmNodeId the ID of the OpenStreetMap node
+ * @param campus    the campus of the POS, which is kept when the POS is updated from the node
+ * @param tagsHash  the hash of the node's tags (see {@link OsmNode#tagsHash()}) when the POS was last synchronized;
+ *                  null if it has not been synchronized yet
+ */
+public record OsmLinkedPos(
+        @NonNull Long posId,
+        @NonNull Long osmNodeId,
+        @NonNull CampusType campus,
+        @Nullable String tagsHash
+) {
+}
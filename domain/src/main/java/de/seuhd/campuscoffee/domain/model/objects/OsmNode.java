@@ -4,6 +4,11 @@ import de.seuhd.campuscoffee.domain.model.enums.OsmAmenity;
 import lombok.Builder;
 import org.jspecify.annotations.NonNull;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
 /**
  * Represents an OpenStreetMap node with relevant Point of Sale information.
  * This is the domain model for OSM data before it is converted to a POS object.
@@ -32,4 +37,21 @@ public record OsmNode(
     public Long getId() {
         return nodeId;
     }
+
+    /**
+     * Returns a hash of the tags a POS is imported from, so that changes of the node can be detected
+     * by comparing a single value that is stored with the POS.
+     *
+     * @return the hex-encoded SHA-256 hash of the tags
+     */
+    public @NonNull String tagsHash() {
+        // the tags are separated by a character that cannot occur in them, so that shifted values differ
+        String tags = String.join("\u0000", amenity.name(), name, description, street, houseNumber, postcode, city);
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(tags.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported.", e); // required by every Java platform
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package de.seuhd.campuscoffee.domain.model.objects;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain record that holds the progress of the synchronization of imported POS with OpenStreetMap.
+ * The progress is stored after each batch, so that an interrupted run continues where it stopped.
+ *
+ * @param lastOsmNodeId the OSM node ID of the last POS synchronized by the current run; null if the current run
+ *                      has not completed a batch yet or no run is in progress
+ * @param startedAt     the start time of the current or last run; null if the synchronization has never run
+ * @param finishedAt    the end time of the last run; null if a run is in progress or has never finished
+ */
+public record OsmSyncProgress(
+        @Nullable Long lastOsmNodeId,
+        @Nullable LocalDateTime startedAt,
+        @Nullable LocalDateTime finishedAt
+) {
+    /**
+     * Returns whether a run has been started but not finished, e.g., because the application has been stopped.
+     *
+     * @return true if a run is in progress
+     */
+    public boolean isRunning() {
+        return startedAt != null && finishedAt == null;
+    }
+}
@@ -0,0 +1,31 @@
+package de.seuhd.campuscoffee.domain.model.objects;
+
+import lombok.Builder;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Domain record that holds one page of a keyset-paginated result, ordered by ID.
+ * Callers request the next page by passing the next cursor as the "after" argument.
+ *
+ * @param content    the objects on this page in ascending ID order; may be empty
+ * @param nextCursor the ID after which the next page starts, null if this is the last page
+ * @param <DOMAIN>   the domain model type
+ * @param <ID>       the type of the unique identifier (e.g., Long, UUID, String)
+ */
+@Builder
+public record Page<DOMAIN extends DomainModel<ID>, ID>(
+        @NonNull List<DOMAIN> content,
+        @Nullable ID nextCursor // null on the last page
+) {
+    /**
+     * Returns whether there is a page after this one.
+     *
+     * @return true if a next cursor is set
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
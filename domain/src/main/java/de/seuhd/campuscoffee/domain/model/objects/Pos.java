@@ -21,6 +21,7 @@ import java.util.regex.Pattern;
  * @param id          the unique identifier; null when the POS has not been created yet
  * @param createdAt   timestamp set on POS creation
  * @param updatedAt   timestamp set on POS creation and update
+ * @param version     the version for optimistic locking; on update, the expected current version (null to skip the check)
  * @param name        the name of the POS
  * @param description a description of the POS
  * @param type        the type of POS (café, bakery, etc.)
@@ -29,12 +30,14 @@ import java.util.regex.Pattern;
  * @param houseNumber house number (may include suffix such as "21a")
  * @param postalCode  postal code
  * @param city        city name
+ * @param osmNodeId   the ID of the OpenStreetMap node the POS has been imported from; null if not imported
  */
 @Builder(toBuilder = true)
 public record Pos (
         @Nullable Long id, // null when the POS has not been created yet
         @Nullable LocalDateTime createdAt, // set on POS creation
         @Nullable LocalDateTime updatedAt, // set on POS creation and update
+        @Nullable Long version, // incremented on every update, null when the POS has not been created yet
         @NonNull String name,
         @NonNull String description,
         @NonNull PosType type,
@@ -42,7 +45,8 @@ public record Pos (
         @NonNull String street,
         @NonNull String houseNumber,
         @NonNull Integer postalCode,
-        @NonNull String city
+        @NonNull String city,
+        @Nullable Long osmNodeId // set if the POS has been imported from OpenStreetMap
 ) implements DomainModel<Long> {
     // see https://github.com/zauberware/postal-codes-json-xml-csv/blob/master/data/DE.zip
     private static final int MIN_POSTAL_CODE = 1067;
@@ -62,6 +66,11 @@ public record Pos (
         return id;
     }
 
+    @Override
+    public @Nullable Long getVersion() {
+        return version;
+    }
+
     //TODO: The validatePostalCode and validateHouseNumber methods could be replaced by bean validation
     // annotations. This code is to demonstrate testing package-private methods and also to show an alternative
     // to bean validation.
@@ -13,6 +13,7 @@ import java.time.LocalDateTime;
  * @param id            the unique identifier of the review, null when not yet persisted
  * @param createdAt     the timestamp when the review was created, set on creation
  * @param updatedAt     the timestamp when the review was last updated, set on creation and update
+ * @param version       the version for optimistic locking; on update, the expected current version (null to skip the check)
  * @param pos           the point of sale being reviewed
  * @param author        the user who authored the review
  * @param review        the text content of the review
@@ -24,6 +25,7 @@ public record Review(
         @Nullable Long id, // null when the review has not been created yet
         @Nullable LocalDateTime createdAt, // set on review creation
         @Nullable LocalDateTime updatedAt, // set on review creation and update
+        @Nullable Long version, // incremented on every update, null when the review has not been created yet
         @NonNull Pos pos,
         @NonNull User author,
         @NonNull String review,
@@ -34,4 +36,9 @@ public record Review(
     public Long getId() {
         return id;
     }
+
+    @Override
+    public @Nullable Long getVersion() {
+        return version;
+    }
 }
@@ -0,0 +1,59 @@
+package de.seuhd.campuscoffee.domain.model.objects;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Domain record that holds the outcome of upserting one object (e.g., of a batch):
+ * either the persisted object or the exception that prevented it from being persisted.
+ *
+ * @param value     the persisted object with populated ID and timestamps, null if the upsert failed
+ * @param error     the reason why the upsert failed (e.g., a DuplicationException), null if it succeeded
+ * @param unchanged true if the object to update did not differ from the stored one, so that nothing was written
+ * @param <DOMAIN> the domain model type
+ * @param <ID>     the type of the unique identifier (e.g., Long, UUID, String)
+ */
+public record UpsertResult<DOMAIN extends DomainModel<ID>, ID>(
+        @Nullable DOMAIN value,
+        @Nullable RuntimeException error,
+        boolean unchanged
+) {
+    /**
+     * Creates the result of a successful upsert.
+     *
+     * @param value the persisted object
+     * @return the successful result
+     */
+    public static <DOMAIN extends DomainModel<ID>, ID> @NonNull UpsertResult<DOMAIN, ID> success(@NonNull DOMAIN value) {
+        return new UpsertResult<>(value, null, false);
+    }
+
+    /**
+     * Creates the result of an update that has been skipped, because the object did not change.
+     *
+     * @param value the stored object, with its previous update timestamp and version
+     * @return the successful result
+     */
+    public static <DOMAIN extends DomainModel<ID>, ID> @NonNull UpsertResult<DOMAIN, ID> unchanged(@NonNull DOMAIN value) {
+        return new UpsertResult<>(value, null, true);
+    }
+
+    /**
+     * Creates the result of a failed upsert.
+     *
+     * @param error the reason why the upsert failed
+     * @return the failed result
+     */
+    public static <DOMAIN extends DomainModel<ID>, ID> @NonNull UpsertResult<DOMAIN, ID> failure(@NonNull RuntimeException error) {
+        return new UpsertResult<>(null, error, false);
+    }
+
+    /**
+     * Returns whether the object has been persisted.
+     *
+     * @return true if the upsert succeeded
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -17,6 +17,7 @@ import java.time.LocalDateTime;
  * @param id            the unique identifier; null when the user has not been created yet
  * @param createdAt     timestamp set on user creation
  * @param updatedAt     timestamp set on user creation and update
+ * @param version       the version for optimistic locking; on update, the expected current version (null to skip the check)
  * @param loginName     the login name of the user
  * @param emailAddress  the email address of the user
  * @param firstName     the first name of the user
@@ -27,6 +28,7 @@ public record User (
         @Nullable Long id, // null when the user has not been created yet
         @Nullable LocalDateTime createdAt, // set on user creation
         @Nullable LocalDateTime updatedAt, // set on user creation and update
+        @Nullable Long version, // incremented on every update, null when the user has not been created yet
         @NonNull String loginName,
         @NonNull String emailAddress,
         @NonNull String firstName,
@@ -39,4 +41,9 @@ public record User (
     public Long getId() {
         return id;
     }
+
+    @Override
+    public @Nullable Long getVersion() {
+        return version;
+    }
 }
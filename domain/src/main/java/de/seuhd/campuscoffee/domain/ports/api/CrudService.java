@@ -2,10 +2,15 @@ package de.seuhd.campuscoffee.domain.ports.api;
 
 import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
 import de.seuhd.campuscoffee.domain.model.objects.DomainModel;
+import de.seuhd.campuscoffee.domain.model.objects.Page;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Generic service interface providing common CRUD operations.
@@ -28,6 +33,26 @@ public interface CrudService<DOMAIN extends DomainModel<ID>, ID> {
      */
     @NonNull List<DOMAIN> getAll();
 
+    /**
+     * Retrieves one page of objects in ascending ID order (keyset pagination).
+     * Unlike {@link #getAll()}, the cost of this method is bounded by the page size, not by the number of objects.
+     *
+     * @param after the ID after which the page starts (exclusive); null for the first page
+     * @param limit the maximum number of objects on the page; must be positive
+     * @return the requested page with the cursor of the next page, if any; never null
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    @NonNull Page<DOMAIN, ID> getPage(@Nullable ID after, int limit);
+
+    /**
+     * Passes all objects to the given action in ascending ID order, one at a time.
+     * In contrast to {@link #getAll()}, the objects are read incrementally and not collected in memory,
+     * which makes this method suitable for exporting large data sets.
+     *
+     * @param action the action to perform for each object; must not be null
+     */
+    void forEach(@NonNull Consumer<? super DOMAIN> action);
+
     /**
      * Retrieves a specific object by its unique identifier.
      *
@@ -44,14 +69,41 @@ public interface CrudService<DOMAIN extends DomainModel<ID>, ID> {
      *   <li>If the object has no ID (null), a new object is created</li>
      *   <li>If the object has an ID, and it exists, the existing object is updated</li>
      * </ul>
+     * If an object to update has a version, the update is only applied if the version is still current.
      *
      * @param object the object to create or update; must not be null
-     * @return the persisted object with populated ID and timestamps; never null
+     * @return the persisted object with populated ID, timestamps, and version; never null
      * @throws NotFoundException if attempting to update an object that does not exist
      * @throws DuplicationException if an object with duplicate unique fields already exists
+     * @throws VersionConflictException if the object to update has been modified since its version
      */
     @NonNull DOMAIN upsert(@NonNull DOMAIN object);
 
+    /**
+     * Updates an existing object (see {@link #upsert(Object)}) and reports whether it has changed.
+     * If the object does not differ from the stored one, nothing is written: its update timestamp and version
+     * are kept, and the result is marked as unchanged.
+     *
+     * @param object the object to update; must have an ID
+     * @return the result with the updated (or unchanged) object; never null
+     * @throws IllegalArgumentException if the object has no ID
+     * @throws NotFoundException if the object does not exist
+     * @throws DuplicationException if an object with duplicate unique fields already exists
+     * @throws VersionConflictException if the object has been modified since its version
+     */
+    @NonNull UpsertResult<DOMAIN, ID> update(@NonNull DOMAIN object);
+
+    /**
+     * Creates or updates a batch of objects (see {@link #upsert(Object)}).
+     * The objects are written in chunks with batched statements. An object that cannot be persisted
+     * (e.g., because of a duplicate unique field or a failed validation) does not abort the batch;
+     * its error is reported in its result instead.
+     *
+     * @param objects the objects to create or update; must not be null
+     * @return one result per object, in the order of the given objects; never null
+     */
+    @NonNull List<UpsertResult<DOMAIN, ID>> upsertAll(@NonNull List<DOMAIN> objects);
+
     /**
      * Deletes an object by its unique identifier.
      *
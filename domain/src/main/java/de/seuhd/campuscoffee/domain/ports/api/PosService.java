@@ -3,12 +3,21 @@ package de.seuhd.campuscoffee.domain.ports.api;
 import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
 import de.seuhd.campuscoffee.domain.exceptions.MissingFieldException;
+import de.seuhd.campuscoffee.domain.exceptions.ValidationException;
 import de.seuhd.campuscoffee.domain.model.enums.CampusType;
+import de.seuhd.campuscoffee.domain.model.enums.OsmExtractFormat;
+import de.seuhd.campuscoffee.domain.model.objects.OsmImportJob;
+import de.seuhd.campuscoffee.domain.model.objects.OsmImportReport;
 import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
 import de.seuhd.campuscoffee.domain.ports.data.OsmDataService;
 import de.seuhd.campuscoffee.domain.ports.data.PosDataService;
 import org.jspecify.annotations.NonNull;
 
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
 /**
  * Service interface for POS (Point of Sale) operations.
  * <p>
@@ -29,17 +38,29 @@ public interface PosService extends CrudService<Pos, Long> {
      */
     @NonNull Pos getByName(@NonNull String name);
 
+    /**
+     * Deletes a Point of Sale and, if requested, all of its reviews in the same transaction.
+     * Without cascading, a POS that still has reviews is not deleted.
+     *
+     * @param id      the unique identifier of the POS to delete; must not be null
+     * @param cascade whether to delete the reviews of the POS as well
+     * @throws NotFoundException   if no POS exists with the given ID
+     * @throws ValidationException if the POS has reviews and cascade is false
+     */
+    void delete(@NonNull Long id, boolean cascade);
+
     /**
      * Imports a Point of Sale from an OpenStreetMap node.
      * Fetches POS data from OpenStreetMap using the {@link OsmDataService}, converts it to a POS entity,
-     * and saves it to the system. If a POS with the same name already exists, it will be updated.
+     * and saves it to the system. If a POS has already been imported from the same node, it is updated
+     * (only if the node data has changed), so that imports can be repeated to refresh the POS.
      * <p>
      * The import process:
      * <ol>
      *   <li>Fetches the OSM node data using the provided node ID</li>
      *   <li>Extracts relevant tags (name, address, etc.)</li>
      *   <li>Maps OSM data to the POS domain model </li>
-     *   <li>Persists the POS entity using the upsert method</li>
+     *   <li>Inserts the POS or updates the POS previously imported from the node</li>
      * </ol>
      *
      * @param nodeId the OpenStreetMap node ID to import; must not be null
@@ -47,7 +68,57 @@ public interface PosService extends CrudService<Pos, Long> {
      * @return the created or updated POS entity; never null
      * @throws NotFoundException if the OSM node with the given ID doesn't exist or cannot be fetched
      * @throws MissingFieldException if the OSM node lacks required fields for creating a valid POS
-     * @throws DuplicationException if a POS with the same name already exists
+     * @throws DuplicationException if a POS with the same name, but not imported from this node, already exists
      */
     @NonNull Pos importFromOsmNode(@NonNull Long nodeId, @NonNull CampusType campusType);
+
+    /**
+     * Imports Points of Sale from multiple OpenStreetMap nodes at once. The nodes are fetched in batches
+     * (see {@link OsmDataService#fetchNodes}) instead of one request per node, converted like in
+     * {@link #importFromOsmNode(Long, CampusType)}, and written in one batch.
+     * A node that cannot be imported does not affect the import of the other nodes.
+     *
+     * @param nodeIds    the OpenStreetMap node IDs to import; must not be null
+     * @param campusType the campus type to assign to the imported POS; must not be null
+     * @return one result per given node ID, in the given order: the created or updated POS, or the reason why
+     *         the node could not be imported (e.g., a NotFoundException or MissingFieldException); never null
+     */
+    @NonNull List<UpsertResult<Pos, Long>> importFromOsmNodes(@NonNull List<Long> nodeIds,
+                                                              @NonNull CampusType campusType);
+
+    /**
+     * Starts an import of Points of Sale from OpenStreetMap nodes that runs in the background, so that the caller
+     * does not wait for the OpenStreetMap API. The nodes are imported in chunks like in
+     * {@link #importFromOsmNodes(List, CampusType)}; the progress can be retrieved with {@link #getImportJob(UUID)}.
+     *
+     * @param nodeIds    the OpenStreetMap node IDs to import; must not be null
+     * @param campusType the campus type to assign to the imported POS; must not be null
+     * @return the queued import job; never null
+     */
+    @NonNull OsmImportJob startImportFromOsmNodes(@NonNull List<Long> nodeIds, @NonNull CampusType campusType);
+
+    /**
+     * Retrieves the progress of an import started with {@link #startImportFromOsmNodes(List, CampusType)}.
+     *
+     * @param jobId the ID of the import job; must not be null
+     * @return the import job with the number of processed and imported nodes and the skipped nodes; never null
+     * @throws NotFoundException if no import job with the given ID exists (anymore)
+     */
+    @NonNull OsmImportJob getImportJob(@NonNull UUID jobId);
+
+    /**
+     * Imports all supported amenities of an OpenStreetMap extract (.osm or .osm.pbf file) as POS, e.g., to seed all cafés
+     * of a city at once. The extract is streamed, and the POS are written in batches. Each node is converted like
+     * in {@link #importFromOsmNode(Long, CampusType)}, and POS imported before from the same node are updated.
+     * Nodes that cannot be imported (e.g., because of missing tags or a duplicate name) are skipped.
+     *
+     * @param extract    the extract to import; not closed by this method
+     * @param format     the file format of the extract; must not be null
+     * @param campusType the campus type to assign to the imported POS; must not be null
+     * @return the number of imported POS, the skipped nodes with the reasons, and the throughput of the import
+     * @throws IllegalArgumentException if the extract cannot be parsed
+     */
+    @NonNull OsmImportReport importFromOsmExtract(@NonNull InputStream extract,
+                                                  @NonNull OsmExtractFormat format,
+                                                  @NonNull CampusType campusType);
 }
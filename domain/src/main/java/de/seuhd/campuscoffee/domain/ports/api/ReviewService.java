@@ -1,5 +1,7 @@
 package de.seuhd.campuscoffee.domain.ports.api;
 
+import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.ValidationException;
 import de.seuhd.campuscoffee.domain.model.objects.Review;
 import de.seuhd.campuscoffee.domain.ports.data.ReviewDataService;
 import org.jspecify.annotations.NonNull;
@@ -29,11 +31,14 @@ public interface ReviewService extends CrudService<Review, Long> {
     /**
      * Approves a review on behalf of a user.
      * The approval count is incremented, and the review may be marked as approved
-     * if the approval threshold is reached.
+     * if the approval threshold is reached. Each user can approve a review only once,
+     * and concurrent approvals are not lost.
      *
-     * @param review    the review to approve
+     * @param reviewId  unique identifier of the review to approve
      * @param userId    unique identifier of the user approving the review
      * @return the updated review with incremented approval count
+     * @throws NotFoundException if the review or the user does not exist
+     * @throws ValidationException if the user is the author of the review or has already approved it
      */
-    @NonNull Review approve(@NonNull Review review, @NonNull Long userId);
+    @NonNull Review approve(@NonNull Long reviewId, @NonNull Long userId);
 }
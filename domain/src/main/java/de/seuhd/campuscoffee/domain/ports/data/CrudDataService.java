@@ -1,10 +1,15 @@
 package de.seuhd.campuscoffee.domain.ports.data;
 
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
 import de.seuhd.campuscoffee.domain.model.objects.DomainModel;
+import de.seuhd.campuscoffee.domain.model.objects.Page;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
 import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Generic port interface for CRUD (Create, Read, Update, Delete) data operations.
@@ -32,6 +37,26 @@ public interface CrudDataService<DOMAIN extends DomainModel<ID>, ID> {
      */
     @NonNull List<DOMAIN> getAll();
 
+    /**
+     * Retrieves at most {@code limit} entities with an ID greater than {@code after} in ascending ID order
+     * and returns them as domain objects.
+     *
+     * @param after the ID after which the page starts (exclusive); null for the first page
+     * @param limit the maximum number of entities to return; must be positive
+     * @return the page of entities with the cursor of the next page, if any; never null
+     */
+    @NonNull Page<DOMAIN, ID> getPage(@Nullable ID after, int limit);
+
+    /**
+     * Reads all entities in ascending ID order and passes them to the given action as domain objects.
+     * Entities are fetched from the data store in chunks and released after the action has been performed,
+     * so memory usage does not depend on the number of entities.
+     * Must be called within a (read-only) transaction.
+     *
+     * @param action the action to perform for each domain object; must not be null
+     */
+    void forEach(@NonNull Consumer<? super DOMAIN> action);
+
     /**
      * Retrieves a single entity by its unique identifier and returns it as a domain object.
      *
@@ -45,13 +70,40 @@ public interface CrudDataService<DOMAIN extends DomainModel<ID>, ID> {
      * Creates a new entity or updates an existing one.
      * If the entity has an ID and exists in the data store, it will be updated.
      * If the entity has no ID (null), a new entity will be created.
+     * The update is versioned: it fails if the entity has been modified since the version of the domain object
+     * (if it has one) or concurrently to the update.
      *
      * @param entity the entity to create or update; must not be null
-     * @return the persisted entity with updated timestamps and ID as a domain object; never null
+     * @return the persisted entity with updated timestamps, ID, and version as a domain object; never null
      * @throws NotFoundException if attempting to update an entity that does not exist
+     * @throws VersionConflictException if the entity has been modified since the version of the domain object
      */
     @NonNull DOMAIN upsert(@NonNull DOMAIN entity);
 
+    /**
+     * Updates an existing entity (see {@link #upsert(DomainModel)}), unless it would not change.
+     * The entity is compared with the stored one after the domain object has been applied to it; if no field
+     * differs, it is neither written nor announced as changed, so that its update timestamp and version are kept.
+     *
+     * @param entity the entity to update; must have an ID
+     * @return the result with the updated (or unchanged) entity as a domain object; never null
+     * @throws IllegalArgumentException if the entity has no ID
+     * @throws NotFoundException if the entity does not exist
+     * @throws VersionConflictException if the entity has been modified since the version of the domain object
+     */
+    @NonNull UpsertResult<DOMAIN, ID> update(@NonNull DOMAIN entity);
+
+    /**
+     * Creates or updates a batch of entities (see {@link #upsert(DomainModel)}).
+     * The entities are written in chunks, each in its own transaction and with batched statements.
+     * If a chunk fails, its entities are written one by one to determine which of them cannot be persisted;
+     * the remaining entities of the batch are not affected.
+     *
+     * @param entities the entities to create or update; must not be null
+     * @return one result per entity, in the order of the given entities; never null
+     */
+    @NonNull List<UpsertResult<DOMAIN, ID>> upsertAll(@NonNull List<DOMAIN> entities);
+
     /**
      * Deletes an entity by its unique identifier.
      *
@@ -1,9 +1,17 @@
 package de.seuhd.campuscoffee.domain.ports.data;
 
+import de.seuhd.campuscoffee.domain.model.enums.OsmExtractFormat;
+import de.seuhd.campuscoffee.domain.model.objects.OsmFetchResult;
 import de.seuhd.campuscoffee.domain.model.objects.OsmNode;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
 import org.jspecify.annotations.NonNull;
 
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
 /**
  * Port for importing Point of Sale data from OpenStreetMap.
  * <p>
@@ -19,4 +27,39 @@ public interface OsmDataService {
      * @throws NotFoundException if the node doesn't exist or can't be fetched
      */
     @NonNull OsmNode fetchNode(@NonNull Long nodeId);
+
+    /**
+     * Fetches multiple nodes from OpenStreetMap, requesting them in chunks instead of one by one.
+     * Nodes that do not exist or lack required fields fail individually without affecting the other nodes.
+     *
+     * @param nodeIds the IDs of the nodes to fetch
+     * @return one result per given node ID, in the given order
+     */
+    @NonNull List<OsmFetchResult> fetchNodes(@NonNull Collection<Long> nodeIds);
+
+    /**
+     * Fetches multiple nodes like {@link #fetchNodes(Collection)}, but always from OpenStreetMap,
+     * even if they have been fetched recently. The fetched nodes replace previously fetched data.
+     *
+     * @param nodeIds the IDs of the nodes to fetch
+     * @return one result per given node ID, in the given order
+     */
+    @NonNull List<OsmFetchResult> refreshNodes(@NonNull Collection<Long> nodeIds);
+
+    /**
+     * Reads the nodes of an OpenStreetMap extract as a stream, without loading the file into memory.
+     * Only nodes whose amenity is one of the {@link de.seuhd.campuscoffee.domain.model.enums.OsmAmenity} values
+     * are considered. Nodes that lack required fields are passed to the second consumer instead of the first.
+     *
+     * @param extract             the extract to read; not closed by this method
+     * @param format              the file format of the extract
+     * @param nodeConsumer        the consumer of the amenity nodes, called in the order of the extract
+     * @param invalidNodeConsumer the consumer of the IDs of invalid amenity nodes and the reason why they are invalid
+     * @return the number of nodes in the extract, including the nodes that are no supported amenity
+     * @throws IllegalArgumentException if the extract cannot be parsed
+     */
+    long readExtract(@NonNull InputStream extract,
+                     @NonNull OsmExtractFormat format,
+                     @NonNull Consumer<OsmNode> nodeConsumer,
+                     @NonNull BiConsumer<Long, RuntimeException> invalidNodeConsumer);
 }
@@ -0,0 +1,50 @@
+package de.seuhd.campuscoffee.domain.ports.data;
+
+import de.seuhd.campuscoffee.domain.model.objects.OsmLinkedPos;
+import de.seuhd.campuscoffee.domain.model.objects.OsmSyncProgress;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Port for the state of the synchronization of imported POS with OpenStreetMap:
+ * the POS linked to OSM nodes with the hashes of the tags they were last synchronized from,
+ * and the progress of the current run.
+ */
+public interface OsmSyncDataService {
+    /**
+     * Retrieves the next POS linked to an OSM node in ascending order of the node IDs (keyset pagination).
+     *
+     * @param afterOsmNodeId the node ID after which the batch starts (exclusive); null to start with the first POS
+     * @param limit          the maximum number of POS to return
+     * @return the linked POS with the smallest node IDs greater than the given one
+     */
+    @NonNull List<OsmLinkedPos> findLinkedPos(@Nullable Long afterOsmNodeId, int limit);
+
+    /**
+     * Retrieves the progress of the synchronization.
+     *
+     * @return the progress; all fields are null if the synchronization has never run
+     */
+    @NonNull OsmSyncProgress getProgress();
+
+    /**
+     * Records the start of a new run, discarding the progress of a previous run.
+     */
+    void startRun();
+
+    /**
+     * Stores the tag hashes of the synchronized POS and the progress of the current run in one transaction.
+     *
+     * @param tagsHashes    the new tag hashes by OSM node ID
+     * @param lastOsmNodeId the node ID of the last POS of the batch
+     */
+    void completeBatch(@NonNull Map<Long, String> tagsHashes, @NonNull Long lastOsmNodeId);
+
+    /**
+     * Records the end of the current run.
+     */
+    void finishRun();
+}
@@ -1,9 +1,13 @@
 package de.seuhd.campuscoffee.domain.ports.data;
 
 import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
+import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
 import org.jspecify.annotations.NonNull;
 
+import java.util.List;
+
 /**
  * Port interface for POS data operations.
  * <p>
@@ -23,4 +27,25 @@ public interface PosDataService extends CrudDataService<Pos, Long> {
      * @throws NotFoundException if no POS exists with the given name
      */
     @NonNull Pos getByName(@NonNull String name);
+
+    /**
+     * Inserts a POS imported from an OpenStreetMap node or, if a POS has already been imported from the
+     * same node, updates it. The POS is only written if its data has changed; re-importing an unchanged
+     * node leaves the stored POS untouched.
+     *
+     * @param pos the POS to import; its OSM node ID must not be null, its ID is ignored
+     * @return the imported POS as stored; never null
+     * @throws DuplicationException if another POS with the same name exists
+     */
+    @NonNull Pos upsertByOsmNodeId(@NonNull Pos pos);
+
+    /**
+     * Imports a batch of POS like {@link #upsertByOsmNodeId(Pos)}, with a single statement per chunk of POS.
+     * If a chunk fails (e.g., because of a duplicate name), the POS of the chunk are imported one by one
+     * to determine the result of each POS.
+     *
+     * @param posList the POS to import; their OSM node IDs must not be null, their IDs are ignored
+     * @return one result per POS, in the given order, with the imported POS as stored or the reason why it failed
+     */
+    @NonNull List<UpsertResult<Pos, Long>> upsertAllByOsmNodeId(@NonNull List<Pos> posList);
 }
@@ -2,10 +2,11 @@ package de.seuhd.campuscoffee.domain.ports.data;
 
 import de.seuhd.campuscoffee.domain.model.objects.Pos;
 import de.seuhd.campuscoffee.domain.model.objects.Review;
-import de.seuhd.campuscoffee.domain.model.objects.User;
 import org.jspecify.annotations.NonNull;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Data service interface for review persistence operations.
@@ -27,11 +28,52 @@ public interface ReviewDataService extends CrudDataService<Review, Long> {
     @NonNull List<Review> filter(@NonNull Pos pos, @NonNull Boolean approved);
 
     /**
-     * Retrieves all reviews for a specific point of sale authored by a specific user.
+     * Deletes all reviews of a point of sale, including their approvals.
      *
-     * @param pos       the point of sale to retrieve reviews for
-     * @param author    the author whose reviews to retrieve
-     * @return          a list of reviews for the specified point of sale and author
+     * @param posId the unique identifier of the point of sale
+     * @return the number of deleted reviews
      */
-    @NonNull List<Review> filter(@NonNull Pos pos, @NonNull User author);
+    int deleteAllByPos(@NonNull Long posId);
+
+    /**
+     * Atomically records the vote of a user for a review, increments its approval count, and updates its
+     * approval status. The review is only updated if the approving user exists, is not the author of the review,
+     * and has not approved the review before, which allows concurrent approvals without losing increments.
+     *
+     * @param reviewId the unique identifier of the review to approve
+     * @param userId   the unique identifier of the approving user
+     * @param minCount the minimum number of approvals for a review to be approved
+     * @return the updated review, or empty if the review or the user does not exist, the user is the author,
+     *         or the user has already approved the review
+     */
+    @NonNull Optional<Review> approve(@NonNull Long reviewId, @NonNull Long userId, int minCount);
+
+    /**
+     * Records the vote of a user for a review without updating the approval count of the review.
+     * The vote is only recorded if the approving user exists, is not the author of the review,
+     * and has not approved the review before.
+     *
+     * @param reviewId the unique identifier of the review to approve
+     * @param userId   the unique identifier of the approving user
+     * @return true if the vote was recorded, false if it was rejected
+     */
+    boolean addVote(@NonNull Long reviewId, @NonNull Long userId);
+
+    /**
+     * Adds accumulated approvals to several reviews in one batched update and recomputes their approval status.
+     * Reviews that do not exist (anymore) are skipped.
+     *
+     * @param increments the number of approvals to add, keyed by the unique identifier of the review
+     * @param minCount   the minimum number of approvals for a review to be approved
+     */
+    void addApprovals(@NonNull Map<Long, Long> increments, int minCount);
+
+    /**
+     * Checks whether a user has already approved a review.
+     *
+     * @param reviewId the unique identifier of the review
+     * @param userId   the unique identifier of the user
+     * @return true if the user has approved the review before
+     */
+    boolean hasApproved(@NonNull Long reviewId, @NonNull Long userId);
 }
@@ -3,6 +3,8 @@ package de.seuhd.campuscoffee.domain.implementation;
 import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
 import de.seuhd.campuscoffee.domain.model.objects.DomainModel;
+import de.seuhd.campuscoffee.domain.model.objects.Page;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
 import de.seuhd.campuscoffee.domain.ports.data.CrudDataService;
 import org.jspecify.annotations.Nullable;
 import org.junit.jupiter.api.Test;
@@ -11,6 +13,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -54,6 +59,34 @@ public class CrudServiceTest {
     @InjectMocks
     private TestCrudServiceImpl crudService;
 
+    /**
+     * Tests that getPage() passes the cursor and limit to the data service and returns its page unchanged.
+     */
+    @Test
+    void getPageDelegatesToDataService() {
+        // given
+        Page<TestDomain, Long> page = new Page<>(List.of(new TestDomain(3L, "c"), new TestDomain(4L, "d")), 4L);
+        when(dataService.getPage(2L, 2)).thenReturn(page);
+
+        // when
+        Page<TestDomain, Long> retrievedPage = crudService.getPage(2L, 2);
+
+        // then
+        assertThat(retrievedPage).isEqualTo(page);
+        assertThat(retrievedPage.hasNext()).isTrue();
+        verify(dataService).getPage(2L, 2);
+    }
+
+    /**
+     * Tests that getPage() rejects non-positive limits without querying the data service.
+     */
+    @Test
+    void getPageRejectsNonPositiveLimit() {
+        // when, then
+        assertThrows(IllegalArgumentException.class, () -> crudService.getPage(null, 0));
+        verifyNoInteractions(dataService);
+    }
+
     /**
      * Tests that upsert() rethrows DuplicationException from the data service.
      */
@@ -70,6 +103,34 @@ public class CrudServiceTest {
         verify(dataService).upsert(object);
     }
 
+    /**
+     * Tests that update() returns the result of the data service, including whether the object has changed.
+     */
+    @Test
+    void updateReportsUnchangedObject() {
+        // given
+        TestDomain object = new TestDomain(1L, "unchanged");
+        when(dataService.update(object)).thenReturn(UpsertResult.unchanged(object));
+
+        // when
+        UpsertResult<TestDomain, Long> result = crudService.update(object);
+
+        // then
+        assertThat(result.unchanged()).isTrue();
+        assertThat(result.value()).isEqualTo(object);
+        verify(dataService).update(object);
+    }
+
+    /**
+     * Tests that update() rejects objects without ID without calling the data service.
+     */
+    @Test
+    void updateRejectsObjectWithoutId() {
+        // when, then
+        assertThrows(IllegalArgumentException.class, () -> crudService.update(new TestDomain(null, "new")));
+        verifyNoInteractions(dataService);
+    }
+
     /**
      * Tests that delete() delegates to the data service.
      */
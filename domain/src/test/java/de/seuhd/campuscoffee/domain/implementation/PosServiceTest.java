@@ -1,22 +1,47 @@
 package de.seuhd.campuscoffee.domain.implementation;
 
+import de.seuhd.campuscoffee.domain.exceptions.DuplicationException;
+import de.seuhd.campuscoffee.domain.exceptions.MissingFieldException;
 import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
+import de.seuhd.campuscoffee.domain.exceptions.VersionConflictException;
+import de.seuhd.campuscoffee.domain.model.enums.CampusType;
+import de.seuhd.campuscoffee.domain.model.enums.OsmAmenity;
+import de.seuhd.campuscoffee.domain.model.enums.OsmExtractFormat;
+import de.seuhd.campuscoffee.domain.model.enums.PosType;
+import de.seuhd.campuscoffee.domain.model.objects.OsmFetchResult;
+import de.seuhd.campuscoffee.domain.model.objects.OsmImportJob;
+import de.seuhd.campuscoffee.domain.model.objects.OsmImportReport;
+import de.seuhd.campuscoffee.domain.model.objects.OsmNode;
 import de.seuhd.campuscoffee.domain.model.objects.Pos;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
+import de.seuhd.campuscoffee.domain.ports.data.OsmDataService;
 import de.seuhd.campuscoffee.domain.ports.data.PosDataService;
+import de.seuhd.campuscoffee.domain.ports.data.ReviewDataService;
 import de.seuhd.campuscoffee.domain.tests.TestFixtures;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 /**
@@ -27,6 +52,15 @@ public class PosServiceTest {
     @Mock
     private PosDataService posDataService;
 
+    @Mock
+    private ReviewDataService reviewDataService;
+
+    @Mock
+    private OsmDataService osmDataService;
+
+    @Mock
+    private OsmImportJobs osmImportJobs;
+
     @InjectMocks
     private PosServiceImpl posService;
 
@@ -80,11 +114,24 @@ public class PosServiceTest {
         // given
         Pos pos = TestFixtures.getPosFixtures().getFirst();
         Objects.requireNonNull(pos.id());
-        when(posDataService.getById(pos.id())).thenThrow(new NotFoundException(Pos.class, pos.id()));
+        when(posDataService.upsert(pos)).thenThrow(new NotFoundException(Pos.class, pos.id()));
 
         // when, then
         assertThrows(NotFoundException.class, () -> posService.upsert(pos));
-        verify(posDataService).getById(pos.id());
+        verify(posDataService).upsert(pos);
+        verify(posDataService, never()).getById(anyLong()); // the data layer reads the POS only once for the update
+    }
+
+    @Test
+    void upsertPosWithOutdatedVersion() {
+        // given
+        Pos pos = TestFixtures.getPosFixtures().getFirst().toBuilder().version(1L).build();
+        Objects.requireNonNull(pos.id());
+        when(posDataService.upsert(pos)).thenThrow(new VersionConflictException(Pos.class, pos.id(), 1L, 2L));
+
+        // when, then
+        assertThrows(VersionConflictException.class, () -> posService.upsert(pos));
+        verify(posDataService).upsert(pos);
     }
 
 
@@ -116,5 +163,164 @@ public class PosServiceTest {
                 .isEqualTo(pos);
         verify(posDataService).getByName(pos.name());
     }
-}
 
+    @Test
+    void importFromOsmNodeUpsertsPosLinkedToNode() {
+        // given
+        OsmNode osmNode = OsmNode.builder()
+                .nodeId(5589879349L)
+                .name("Rada Coffee & Rösterei")
+                .description("Cafe")
+                .amenity(OsmAmenity.CAFE)
+                .street("Untere Straße")
+                .houseNumber("21")
+                .postcode("69117")
+                .city("Heidelberg")
+                .build();
+        when(osmDataService.fetchNode(osmNode.nodeId())).thenReturn(osmNode);
+        when(posDataService.upsertByOsmNodeId(any(Pos.class)))
+                .thenAnswer(invocation -> invocation.<Pos>getArgument(0).toBuilder().id(1L).build());
+
+        // when
+        Pos importedPos = posService.importFromOsmNode(osmNode.nodeId(), CampusType.ALTSTADT);
+
+        // then
+        verify(posDataService).upsertByOsmNodeId(argThat(pos -> osmNode.nodeId().equals(pos.osmNodeId())));
+        verify(posDataService, never()).upsert(any());
+        assertThat(importedPos.name()).isEqualTo(osmNode.name());
+        assertThat(importedPos.type()).isEqualTo(PosType.CAFE);
+        assertThat(importedPos.postalCode()).isEqualTo(69117);
+    }
+
+    @Test
+    void importFromOsmExtractImportsValidNodesAndRecordsSkippedNodes() {
+        // given
+        OsmNode cafe = osmNode(1L, "Café One", "69117");
+        OsmNode duplicate = osmNode(2L, "Café Two", "69117");
+        OsmNode invalidPostcode = osmNode(3L, "Café Three", "D-69117");
+        InputStream extract = new ByteArrayInputStream(new byte[0]);
+        when(osmDataService.readExtract(eq(extract), eq(OsmExtractFormat.XML), any(), any())).thenAnswer(invocation -> {
+            Consumer<OsmNode> nodeConsumer = invocation.getArgument(2);
+            BiConsumer<Long, RuntimeException> invalidNodeConsumer = invocation.getArgument(3);
+            nodeConsumer.accept(cafe);
+            invalidNodeConsumer.accept(4L, new MissingFieldException(OsmNode.class, 4L, "name"));
+            nodeConsumer.accept(duplicate);
+            nodeConsumer.accept(invalidPostcode);
+            return 10L;
+        });
+        when(posDataService.upsertAllByOsmNodeId(anyList())).thenAnswer(invocation -> {
+            List<Pos> batch = invocation.getArgument(0);
+            return List.of(
+                    UpsertResult.success(batch.get(0).toBuilder().id(1L).build()),
+                    UpsertResult.failure(new DuplicationException(Pos.class, "name", batch.get(1).name()))
+            );
+        });
+
+        // when
+        OsmImportReport report = posService.importFromOsmExtract(extract, OsmExtractFormat.XML, CampusType.ALTSTADT);
+
+        // then
+        verify(posDataService).upsertAllByOsmNodeId(argThat(batch -> batch.size() == 2));
+        assertThat(report.nodesRead()).isEqualTo(10L);
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.skipped())
+                .extracting(OsmImportReport.SkippedNode::nodeId)
+                .containsExactlyInAnyOrder(2L, 3L, 4L);
+    }
+
+    @Test
+    void importFromOsmNodesReturnsOneResultPerRequestedNode() {
+        // given
+        OsmNode cafe = osmNode(1L, "Café One", "69117");
+        OsmNode invalidPostcode = osmNode(3L, "Café Three", "D-69117");
+        NotFoundException notFound = new NotFoundException(OsmNode.class, 2L);
+        when(osmDataService.fetchNodes(anyCollection())).thenReturn(List.of(
+                OsmFetchResult.success(cafe),
+                OsmFetchResult.failure(2L, notFound),
+                OsmFetchResult.success(invalidPostcode)
+        ));
+        when(posDataService.upsertAllByOsmNodeId(anyList())).thenAnswer(invocation -> {
+            List<Pos> batch = invocation.getArgument(0);
+            return List.of(UpsertResult.success(batch.getFirst().toBuilder().id(1L).build()));
+        });
+
+        // when
+        List<UpsertResult<Pos, Long>> results =
+                posService.importFromOsmNodes(List.of(1L, 2L, 3L, 1L), CampusType.ALTSTADT);
+
+        // then
+        verify(osmDataService).fetchNodes(argThat(nodeIds -> List.copyOf(nodeIds).equals(List.of(1L, 2L, 3L))));
+        verify(posDataService).upsertAllByOsmNodeId(argThat(batch -> batch.size() == 1));
+        assertThat(results).hasSize(4);
+        assertThat(Objects.requireNonNull(results.get(0).value()).osmNodeId()).isEqualTo(1L);
+        assertThat(results.get(1).error()).isSameAs(notFound);
+        assertThat(results.get(2).error()).isInstanceOf(MissingFieldException.class);
+        assertThat(results.get(3)).isSameAs(results.get(0));
+    }
+
+    @Test
+    void startImportFromOsmNodesSubmitsJobThatImportsChunks() {
+        // given
+        OsmImportJob queuedJob = OsmImportJob.builder()
+                .id(UUID.randomUUID())
+                .status(OsmImportJob.Status.QUEUED)
+                .campusType(CampusType.ALTSTADT)
+                .nodeCount(1)
+                .skipped(List.of())
+                .createdAt(LocalDateTime.now())
+                .build();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Function<List<Long>, List<UpsertResult<Pos, Long>>>> importer =
+                ArgumentCaptor.forClass(Function.class);
+        when(osmImportJobs.submit(eq(List.of(1L)), eq(CampusType.ALTSTADT), importer.capture())).thenReturn(queuedJob);
+        when(osmDataService.fetchNodes(anyCollection()))
+                .thenReturn(List.of(OsmFetchResult.success(osmNode(1L, "Café One", "69117"))));
+        when(posDataService.upsertAllByOsmNodeId(anyList())).thenAnswer(invocation -> {
+            List<Pos> batch = invocation.getArgument(0);
+            return List.of(UpsertResult.success(batch.getFirst().toBuilder().id(1L).build()));
+        });
+
+        // when
+        OsmImportJob job = posService.startImportFromOsmNodes(List.of(1L), CampusType.ALTSTADT);
+        List<UpsertResult<Pos, Long>> results = importer.getValue().apply(List.of(1L));
+
+        // then
+        assertThat(job).isSameAs(queuedJob);
+        assertThat(results).singleElement().satisfies(result -> assertThat(result.isSuccess()).isTrue());
+        verify(posDataService).upsertAllByOsmNodeId(argThat(batch -> batch.getFirst().campus() == CampusType.ALTSTADT));
+    }
+
+    /**
+     * Verifies that a cascading delete removes the reviews of the POS before the POS itself,
+     * and that a delete without cascading leaves the reviews to the data layer's foreign key check.
+     */
+    @Test
+    void cascadingDeleteRemovesReviewsBeforePos() {
+        // given
+        when(reviewDataService.deleteAllByPos(1L)).thenReturn(3);
+
+        // when
+        posService.delete(1L, true);
+        posService.delete(2L, false);
+
+        // then
+        InOrder inOrder = inOrder(reviewDataService, posDataService);
+        inOrder.verify(reviewDataService).deleteAllByPos(1L);
+        inOrder.verify(posDataService).delete(1L);
+        verify(posDataService).delete(2L);
+        verifyNoMoreInteractions(reviewDataService);
+    }
+
+    private static OsmNode osmNode(Long nodeId, String name, String postcode) {
+        return OsmNode.builder()
+                .nodeId(nodeId)
+                .name(name)
+                .description("Cafe")
+                .amenity(OsmAmenity.CAFE)
+                .street("Hauptstraße")
+                .houseNumber("1")
+                .postcode(postcode)
+                .city("Heidelberg")
+                .build();
+    }
+}
@@ -5,11 +5,13 @@ import de.seuhd.campuscoffee.domain.exceptions.NotFoundException;
 import de.seuhd.campuscoffee.domain.exceptions.ValidationException;
 import de.seuhd.campuscoffee.domain.model.objects.Pos;
 import de.seuhd.campuscoffee.domain.model.objects.Review;
+import de.seuhd.campuscoffee.domain.model.objects.UpsertResult;
 import de.seuhd.campuscoffee.domain.model.objects.User;
 import de.seuhd.campuscoffee.domain.ports.data.PosDataService;
 import de.seuhd.campuscoffee.domain.ports.data.ReviewDataService;
 import de.seuhd.campuscoffee.domain.ports.data.UserDataService;
 import de.seuhd.campuscoffee.domain.tests.TestFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,7 +19,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 import static de.seuhd.campuscoffee.domain.tests.TestFixtures.getApprovalConfiguration;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -49,59 +53,165 @@ public class ReviewServiceTest {
     @BeforeEach
     void beforeEach() {
         reviewService = new ReviewServiceImpl(
-                reviewDataService, userDataService, posDataService, approvalConfiguration
+                reviewDataService, userDataService, posDataService, approvalConfiguration,
+                new PendingApprovals(reviewDataService, approvalConfiguration, new SimpleMeterRegistry())
         );
     }
 
     /**
-     * Verifies a user cannot approve their own review. The test verifies that when the author
-     * attempts to approve their own review, an exception is thrown.
+     * Verifies a user cannot approve their own review. The test verifies that when the atomic approval
+     * in the data layer is rejected because the approver is the author, a validation exception is thrown.
      */
     @Test
     void approvalFailsIfUserIsAuthor() {
         // given
         Review review = TestFixtures.getReviewFixtures().getFirst();
         assertNotNull(review.author().id());
-        when(userDataService.getById(review.author().id())).thenReturn(review.author());
         assertNotNull(review.id());
+        when(reviewDataService.approve(review.id(), review.author().id(), approvalConfiguration.minCount()))
+                .thenReturn(Optional.empty());
+        when(userDataService.getById(review.author().id())).thenReturn(review.author());
         when(reviewDataService.getById(review.id())).thenReturn(review);
 
         // when, then
-        assertThrows(ValidationException.class, () -> reviewService.approve(review, review.author().getId()));
+        assertThrows(ValidationException.class, () -> reviewService.approve(review.id(), review.author().getId()));
         verify(userDataService).getById(review.author().id());
         verify(reviewDataService).getById(review.getId());
     }
 
+    /**
+     * Verifies a user cannot approve the same review twice. The test verifies that when the atomic approval
+     * in the data layer is rejected because the user has already voted, a validation exception is thrown.
+     */
+    @Test
+    void approvalFailsIfUserHasAlreadyApproved() {
+        // given
+        Review review = TestFixtures.getReviewFixtures().getFirst();
+        assertNotNull(review.id());
+        User user = TestFixtures.getUserFixtures().getLast();
+        assertNotNull(user.getId());
+        when(reviewDataService.approve(review.id(), user.getId(), approvalConfiguration.minCount()))
+                .thenReturn(Optional.empty());
+        when(userDataService.getById(user.getId())).thenReturn(user);
+        when(reviewDataService.getById(review.id())).thenReturn(review);
+        when(reviewDataService.hasApproved(review.id(), user.getId())).thenReturn(true);
+
+        // when, then
+        assertThrows(ValidationException.class, () -> reviewService.approve(review.id(), user.getId()));
+        verify(reviewDataService).hasApproved(review.id(), user.getId());
+    }
+
+    /**
+     * Verifies that approving a review that does not exist results in a NotFoundException.
+     */
+    @Test
+    void approvalFailsIfReviewDoesNotExist() {
+        // given
+        User user = TestFixtures.getUserFixtures().getLast();
+        assertNotNull(user.getId());
+        when(reviewDataService.approve(42L, user.getId(), approvalConfiguration.minCount()))
+                .thenReturn(Optional.empty());
+        when(userDataService.getById(user.getId())).thenReturn(user);
+        when(reviewDataService.getById(42L)).thenThrow(new NotFoundException(Review.class, 42L));
+
+        // when, then
+        assertThrows(NotFoundException.class, () -> reviewService.approve(42L, user.getId()));
+    }
+
     /**
      * Verifies that the approval succeeds if the approver is not the author.
-     * The test verifies that a valid approval increments the approval count
-     * and sets the status of the review to "approved" if the required threshold is met.
+     * The test verifies that a valid approval is performed by a single call to the data layer,
+     * using the configured approval threshold, without loading the review or the user first.
      */
     @Test
     void approvalSuccessfulIfUserIsNotAuthor() {
         // given
+        Review review = TestFixtures.getReviewFixtures().getFirst();
+        assertNotNull(review.getId());
+        User user = TestFixtures.getUserFixtures().getLast();
+        assertNotNull(user.getId());
+        Review approvedReview = review.toBuilder()
+                .approvalCount(review.approvalCount() + 1)
+                .approved(true)
+                .build();
+        when(reviewDataService.approve(review.getId(), user.getId(), approvalConfiguration.minCount()))
+                .thenReturn(Optional.of(approvedReview));
+
+        // when
+        Review result = reviewService.approve(review.getId(), user.getId());
+
+        // then
+        verify(reviewDataService).approve(review.getId(), user.getId(), approvalConfiguration.minCount());
+        verify(reviewDataService, never()).getById(anyLong());
+        verify(reviewDataService, never()).upsert(any(Review.class));
+        verifyNoInteractions(userDataService);
+        assertThat(result).isEqualTo(approvedReview);
+    }
+
+    /**
+     * Verifies that in coalesced mode, an approval only records the vote and defers the update of the
+     * approval count to the next flush, which writes the pending approvals in one batch.
+     */
+    @Test
+    void coalescedApprovalDefersApprovalCountUntilFlush() {
+        // given
+        ApprovalConfiguration coalescedConfiguration = new ApprovalConfiguration(
+                approvalConfiguration.minCount(), ApprovalConfiguration.Mode.COALESCED, null);
+        PendingApprovals pendingApprovals = new PendingApprovals(
+                reviewDataService, coalescedConfiguration, new SimpleMeterRegistry());
+        ReviewServiceImpl coalescingReviewService = new ReviewServiceImpl(
+                reviewDataService, userDataService, posDataService, coalescedConfiguration, pendingApprovals);
         Review review = TestFixtures.getReviewFixtures().getFirst().toBuilder()
-                .approvalCount(2)
+                .approvalCount(approvalConfiguration.minCount() - 1)
                 .approved(false)
                 .build();
+        assertNotNull(review.getId());
         User user = TestFixtures.getUserFixtures().getLast();
         assertNotNull(user.getId());
-        when(userDataService.getById(user.getId())).thenReturn(user);
-        assertNotNull(review.getId());
+        when(reviewDataService.addVote(review.getId(), user.getId())).thenReturn(true);
         when(reviewDataService.getById(review.getId())).thenReturn(review);
-        when(reviewDataService.upsert(any(Review.class))).thenAnswer(
-                invocation -> invocation.getArgument(0)
-        );
 
         // when
-        Review approvedReview = reviewService.approve(review, user.getId());
+        Review result = coalescingReviewService.approve(review.getId(), user.getId());
 
         // then
-        verify(userDataService).getById(user.getId());
-        verify(reviewDataService).getById(review.getId());
-        verify(reviewDataService).upsert(any(Review.class));
-        assertThat(approvedReview.approvalCount()).isEqualTo(review.approvalCount() + 1);
-        assertThat(approvedReview.approved()).isTrue();
+        assertThat(result.approvalCount()).isEqualTo(approvalConfiguration.minCount());
+        assertTrue(result.approved());
+        assertThat(pendingApprovals.count(review.getId())).isEqualTo(1);
+        verify(reviewDataService, never()).approve(anyLong(), anyLong(), anyInt());
+        verify(reviewDataService, never()).addApprovals(anyMap(), anyInt());
+
+        // when
+        pendingApprovals.flush();
+
+        // then
+        verify(reviewDataService).addApprovals(Map.of(review.getId(), 1L), approvalConfiguration.minCount());
+        assertThat(pendingApprovals.count()).isZero();
+    }
+
+    /**
+     * Verifies that in coalesced mode, a rejected vote is reported and not added to the pending approvals.
+     */
+    @Test
+    void coalescedApprovalFailsIfUserIsAuthor() {
+        // given
+        ApprovalConfiguration coalescedConfiguration = new ApprovalConfiguration(
+                approvalConfiguration.minCount(), ApprovalConfiguration.Mode.COALESCED, null);
+        PendingApprovals pendingApprovals = new PendingApprovals(
+                reviewDataService, coalescedConfiguration, new SimpleMeterRegistry());
+        ReviewServiceImpl coalescingReviewService = new ReviewServiceImpl(
+                reviewDataService, userDataService, posDataService, coalescedConfiguration, pendingApprovals);
+        Review review = TestFixtures.getReviewFixtures().getFirst();
+        assertNotNull(review.id());
+        assertNotNull(review.author().id());
+        when(reviewDataService.addVote(review.id(), review.author().id())).thenReturn(false);
+        when(userDataService.getById(review.author().id())).thenReturn(review.author());
+        when(reviewDataService.getById(review.id())).thenReturn(review);
+
+        // when, then
+        assertThrows(ValidationException.class,
+                () -> coalescingReviewService.approve(review.id(), review.author().id()));
+        assertThat(pendingApprovals.count()).isZero();
     }
 
     /**
@@ -151,24 +261,23 @@ public class ReviewServiceTest {
 
     /**
      * Verifies that a user cannot create more than one review for the same POS.
-     * If an existing review for the same POS by the same author is found, the upsert should fail
-     * with a validation error.
+     * The data layer rejects the second review of an author for a POS with a validation error (unique constraint),
+     * which the upsert passes on.
      */
     @Test
     void userCannotCreateMoreThanOneReviewPerPos() {
         // given
-        Review review = TestFixtures.getReviewFixtures().getFirst();
+        Review review = TestFixtures.getReviewFeaturesForInsertion().getFirst();
         Pos pos = review.pos();
-        User author = review.author();
         assertNotNull(pos.getId());
 
         when(posDataService.getById(pos.getId())).thenReturn(pos);
-        when(reviewDataService.filter(pos, author)).thenReturn(List.of(review));
+        when(reviewDataService.upsert(review)).thenThrow(new ValidationException("Author has already reviewed POS."));
 
         // when, then
         assertThrows(ValidationException.class, () -> reviewService.upsert(review));
         verify(posDataService).getById(pos.getId());
-        verify(reviewDataService).filter(pos, author);
+        verify(reviewDataService).upsert(review);
     }
 
     /**
@@ -199,38 +308,6 @@ public class ReviewServiceTest {
         assertTrue(updatedReview.approved());
     }
 
-    /**
-     * Verifies that the approval increments the count but does not mark the review as approved
-     * when the approval quorum has not yet been reached.
-     */
-    @Test
-    void approvalDoesNotApproveReviewWhenThresholdIsNotReached() {
-        // given
-        Review review = TestFixtures.getReviewFixtures().getFirst().toBuilder()
-                .approvalCount(0)
-                .approved(false)
-                .build();
-        assertNotNull(review.getId());
-        User user = TestFixtures.getUserFixtures().getLast();
-        assertNotNull(user.getId());
-
-        when(userDataService.getById(user.getId())).thenReturn(user); // user exists
-        when(reviewDataService.getById(review.getId())).thenReturn(review); // review exists
-        when(reviewDataService.upsert(any(Review.class))).thenAnswer(
-                invocation -> invocation.getArgument(0) // return the updated review
-        );
-
-        // when
-        Review approvedReview = reviewService.approve(review, user.getId());
-
-        // then
-        verify(userDataService).getById(user.getId());
-        verify(reviewDataService).getById(review.getId());
-        verify(reviewDataService).upsert(any(Review.class));
-        assertThat(approvedReview.approvalCount()).isEqualTo(1);
-        assertThat(approvedReview.approved()).isFalse();
-    }
-
     /**
      * Verifies that a review can be created successfully for a POS that exists
      * and for which the author has not already provided a review.
@@ -244,7 +321,6 @@ public class ReviewServiceTest {
         assertNotNull(pos.getId());
 
         when(posDataService.getById(pos.getId())).thenReturn(pos); // POS exists
-        when(reviewDataService.filter(pos, review.author())).thenReturn(List.of()); // no review exists for this POS by this author
         when(reviewDataService.upsert(review)).thenReturn(review); // the data service returns the test fixture
 
         // when
@@ -252,8 +328,41 @@ public class ReviewServiceTest {
 
         // then
         verify(posDataService).getById(pos.getId());
-        verify(reviewDataService).filter(pos, review.author());
         verify(reviewDataService).upsert(review);
         assertThat(result.getId()).isEqualTo(review.getId());
     }
+
+    /**
+     * Verifies that a batch upsert only passes the reviews of existing POS to the data layer and reports
+     * the errors of the other reviews, including the duplicates rejected by the data layer, in the order of the batch.
+     */
+    @Test
+    void batchUpsertReportsValidationErrorsPerReview() {
+        // given
+        Review duplicateReview = TestFixtures.getReviewFixtures().getFirst();
+        Review newReview = TestFixtures.getReviewFeaturesForInsertion().get(1); // same POS, other author
+        Pos pos = duplicateReview.pos();
+        assertNotNull(pos.getId());
+        Long missingPosId = 999L;
+        Review reviewOfMissingPos = newReview.toBuilder()
+                .pos(pos.toBuilder().id(missingPosId).build())
+                .build();
+
+        when(posDataService.getById(pos.getId())).thenReturn(pos);
+        when(posDataService.getById(missingPosId)).thenThrow(new NotFoundException(Pos.class, missingPosId));
+        when(reviewDataService.upsertAll(List.of(duplicateReview, newReview))).thenReturn(List.of(
+                UpsertResult.failure(new ValidationException("Author has already reviewed POS.")),
+                UpsertResult.success(newReview)));
+
+        // when
+        List<UpsertResult<Review, Long>> results =
+                reviewService.upsertAll(List.of(duplicateReview, reviewOfMissingPos, newReview));
+
+        // then
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).error()).isInstanceOf(ValidationException.class);
+        assertThat(results.get(1).error()).isInstanceOf(NotFoundException.class);
+        assertThat(results.get(2).value()).isEqualTo(newReview);
+        verify(reviewDataService).upsertAll(List.of(duplicateReview, newReview));
+    }
 }